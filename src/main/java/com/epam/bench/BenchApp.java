@@ -1,5 +1,6 @@
 package com.epam.bench;
 
+import com.epam.bench.config.ApplicationProperties;
 import com.epam.bench.config.Constants;
 import com.epam.bench.config.DefaultProfileUtil;
 import com.epam.bench.config.JHipsterProperties;
@@ -23,7 +24,7 @@ import java.util.Collection;
 
 @ComponentScan
 @EnableAutoConfiguration(exclude = { MetricFilterAutoConfiguration.class, MetricRepositoryAutoConfiguration.class })
-@EnableConfigurationProperties({ JHipsterProperties.class, LiquibaseProperties.class })
+@EnableConfigurationProperties({ JHipsterProperties.class, ApplicationProperties.class, LiquibaseProperties.class })
 public class BenchApp {
 
     private static final Logger log = LoggerFactory.getLogger(BenchApp.class);
@@ -0,0 +1,830 @@
+package com.epam.bench.config;
+
+import com.epam.bench.domain.integration.upsa.UpsaRestApiUrls;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Properties specific to the bench application.
+ *
+ * <p>
+ *     Properties are configured in the application.yml file.
+ * </p>
+ */
+@ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
+public class ApplicationProperties {
+
+    private final Upsa upsa = new Upsa();
+
+    private final Sync sync = new Sync();
+
+    private final Search search = new Search();
+
+    private final Prediction prediction = new Prediction();
+
+    private final Export export = new Export();
+
+    private final CountCache countCache = new CountCache();
+
+    private final HibernateCache hibernateCache = new HibernateCache();
+
+    private final Cluster cluster = new Cluster();
+
+    public Upsa getUpsa() {
+        return upsa;
+    }
+
+    public Sync getSync() {
+        return sync;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Prediction getPrediction() {
+        return prediction;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public CountCache getCountCache() {
+        return countCache;
+    }
+
+    public HibernateCache getHibernateCache() {
+        return hibernateCache;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public static class Upsa {
+
+        private String baseUrl = UpsaRestApiUrls.BASE_URL_PRODUCTION_LATEST;
+
+        /**
+         * Token used when there is no user token to forward, e.g. in scheduled jobs.
+         */
+        private String token;
+
+        private int connectTimeoutMillis = 2000;
+
+        private int readTimeoutMillis = 5000;
+
+        private int connectionRequestTimeoutMillis = 1000;
+
+        private int maxConnections = 50;
+
+        private int maxConnectionsPerRoute = 20;
+
+        private int idleConnectionTimeoutSeconds = 30;
+
+        private int maxAttempts = 3;
+
+        private long backoffMillis = 200;
+
+        private int bulkParallelism = 16;
+
+        /**
+         * UPSA calls waiting for one of the bulk parallelism threads.
+         */
+        private int bulkQueueCapacity = 1000;
+
+        /**
+         * What happens to an UPSA call when the bulk threads and their queue are full.
+         */
+        private RejectionPolicy bulkRejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+        /**
+         * Time a request waits for its UPSA calls before giving up on them.
+         */
+        private long requestDeadlineMillis = 10000;
+
+        /**
+         * Most employees a bulk bench request may name.
+         */
+        private int bulkMaxItems = 200;
+
+        /**
+         * Employees written per transaction by a bulk bench request.
+         */
+        private int bulkChunkSize = 20;
+
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        private final Cache cache = new Cache();
+
+        private final Requests requests = new Requests();
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public void setToken(String token) {
+            this.token = token;
+        }
+
+        public int getConnectTimeoutMillis() {
+            return connectTimeoutMillis;
+        }
+
+        public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        public int getReadTimeoutMillis() {
+            return readTimeoutMillis;
+        }
+
+        public void setReadTimeoutMillis(int readTimeoutMillis) {
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+
+        public int getConnectionRequestTimeoutMillis() {
+            return connectionRequestTimeoutMillis;
+        }
+
+        public void setConnectionRequestTimeoutMillis(int connectionRequestTimeoutMillis) {
+            this.connectionRequestTimeoutMillis = connectionRequestTimeoutMillis;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        public int getIdleConnectionTimeoutSeconds() {
+            return idleConnectionTimeoutSeconds;
+        }
+
+        public void setIdleConnectionTimeoutSeconds(int idleConnectionTimeoutSeconds) {
+            this.idleConnectionTimeoutSeconds = idleConnectionTimeoutSeconds;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getBackoffMillis() {
+            return backoffMillis;
+        }
+
+        public void setBackoffMillis(long backoffMillis) {
+            this.backoffMillis = backoffMillis;
+        }
+
+        public int getBulkParallelism() {
+            return bulkParallelism;
+        }
+
+        public void setBulkParallelism(int bulkParallelism) {
+            this.bulkParallelism = bulkParallelism;
+        }
+
+        public int getBulkQueueCapacity() {
+            return bulkQueueCapacity;
+        }
+
+        public void setBulkQueueCapacity(int bulkQueueCapacity) {
+            this.bulkQueueCapacity = bulkQueueCapacity;
+        }
+
+        public RejectionPolicy getBulkRejectionPolicy() {
+            return bulkRejectionPolicy;
+        }
+
+        public void setBulkRejectionPolicy(RejectionPolicy bulkRejectionPolicy) {
+            this.bulkRejectionPolicy = bulkRejectionPolicy;
+        }
+
+        public long getRequestDeadlineMillis() {
+            return requestDeadlineMillis;
+        }
+
+        public void setRequestDeadlineMillis(long requestDeadlineMillis) {
+            this.requestDeadlineMillis = requestDeadlineMillis;
+        }
+
+        public int getBulkMaxItems() {
+            return bulkMaxItems;
+        }
+
+        public void setBulkMaxItems(int bulkMaxItems) {
+            this.bulkMaxItems = bulkMaxItems;
+        }
+
+        public int getBulkChunkSize() {
+            return bulkChunkSize;
+        }
+
+        public void setBulkChunkSize(int bulkChunkSize) {
+            this.bulkChunkSize = bulkChunkSize;
+        }
+
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        public Cache getCache() {
+            return cache;
+        }
+
+        public Requests getRequests() {
+            return requests;
+        }
+
+        /**
+         * What happens to a task submitted to a full UPSA executor.
+         */
+        public enum RejectionPolicy {
+            /**
+             * The task is refused: a REST request is answered with 503 (Service Unavailable), an UPSA call fails
+             * for its employee.
+             */
+            ABORT,
+            /**
+             * The task runs on the thread submitting it, as if it were not asynchronous.
+             */
+            CALLER_RUNS
+        }
+
+        public static class CircuitBreaker {
+
+            private int failureThreshold = 5;
+
+            private long openMillis = 30000;
+
+            public int getFailureThreshold() {
+                return failureThreshold;
+            }
+
+            public void setFailureThreshold(int failureThreshold) {
+                this.failureThreshold = failureThreshold;
+            }
+
+            public long getOpenMillis() {
+                return openMillis;
+            }
+
+            public void setOpenMillis(long openMillis) {
+                this.openMillis = openMillis;
+            }
+        }
+
+        /**
+         * The executor the REST requests waiting on UPSA complete on, off the server worker threads.
+         */
+        public static class Requests {
+
+            private int poolSize = 16;
+
+            private int queueCapacity = 100;
+
+            /**
+             * What happens to a request when the pool and its queue are full.
+             */
+            private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+            private long timeoutMillis = 30000;
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public RejectionPolicy getRejectionPolicy() {
+                return rejectionPolicy;
+            }
+
+            public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+                this.rejectionPolicy = rejectionPolicy;
+            }
+
+            public long getTimeoutMillis() {
+                return timeoutMillis;
+            }
+
+            public void setTimeoutMillis(long timeoutMillis) {
+                this.timeoutMillis = timeoutMillis;
+            }
+        }
+
+        public static class Cache {
+
+            private int employeeTimeToLiveSeconds = 300;
+
+            private int englishLevelTimeToLiveSeconds = 3600;
+
+            private int workloadsTimeToLiveSeconds = 300;
+
+            private int suggestionsTimeToLiveSeconds = 60;
+
+            /**
+             * Time to live of "not found" answers.
+             */
+            private int notFoundTimeToLiveSeconds = 60;
+
+            private int maxEntries = 10000;
+
+            public int getEmployeeTimeToLiveSeconds() {
+                return employeeTimeToLiveSeconds;
+            }
+
+            public void setEmployeeTimeToLiveSeconds(int employeeTimeToLiveSeconds) {
+                this.employeeTimeToLiveSeconds = employeeTimeToLiveSeconds;
+            }
+
+            public int getEnglishLevelTimeToLiveSeconds() {
+                return englishLevelTimeToLiveSeconds;
+            }
+
+            public void setEnglishLevelTimeToLiveSeconds(int englishLevelTimeToLiveSeconds) {
+                this.englishLevelTimeToLiveSeconds = englishLevelTimeToLiveSeconds;
+            }
+
+            public int getWorkloadsTimeToLiveSeconds() {
+                return workloadsTimeToLiveSeconds;
+            }
+
+            public void setWorkloadsTimeToLiveSeconds(int workloadsTimeToLiveSeconds) {
+                this.workloadsTimeToLiveSeconds = workloadsTimeToLiveSeconds;
+            }
+
+            public int getSuggestionsTimeToLiveSeconds() {
+                return suggestionsTimeToLiveSeconds;
+            }
+
+            public void setSuggestionsTimeToLiveSeconds(int suggestionsTimeToLiveSeconds) {
+                this.suggestionsTimeToLiveSeconds = suggestionsTimeToLiveSeconds;
+            }
+
+            public int getNotFoundTimeToLiveSeconds() {
+                return notFoundTimeToLiveSeconds;
+            }
+
+            public void setNotFoundTimeToLiveSeconds(int notFoundTimeToLiveSeconds) {
+                this.notFoundTimeToLiveSeconds = notFoundTimeToLiveSeconds;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class Sync {
+
+        private boolean enabled = true;
+
+        private String cron = "0 0 */2 * * ?";
+
+        private int pageSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Index after commit on a background thread. When false, changes are indexed right away
+         * in the calling thread, as the tests expect.
+         */
+        private boolean async = true;
+
+        private int batchSize = 500;
+
+        private long flushIntervalMillis = 200;
+
+        private int maxAttempts = 5;
+
+        private long backoffMillis = 1000;
+
+        /**
+         * Number of indices rebuilt at the same time by a full reindex.
+         */
+        private int reindexParallelism = 4;
+
+        private int reindexFetchSize = 1000;
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMillis() {
+            return flushIntervalMillis;
+        }
+
+        public void setFlushIntervalMillis(long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getBackoffMillis() {
+            return backoffMillis;
+        }
+
+        public void setBackoffMillis(long backoffMillis) {
+            this.backoffMillis = backoffMillis;
+        }
+
+        public int getReindexParallelism() {
+            return reindexParallelism;
+        }
+
+        public void setReindexParallelism(int reindexParallelism) {
+            this.reindexParallelism = reindexParallelism;
+        }
+
+        public int getReindexFetchSize() {
+            return reindexFetchSize;
+        }
+
+        public void setReindexFetchSize(int reindexFetchSize) {
+            this.reindexFetchSize = reindexFetchSize;
+        }
+    }
+
+    public static class Prediction {
+
+        private boolean enabled = true;
+
+        private String cron = "0 0 2 * * ?";
+
+        private int chunkSize = 500;
+
+        private int parallelism = 4;
+
+        /**
+         * Number of days ahead the bench movements are predicted for.
+         */
+        private int horizonDays = 30;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getHorizonDays() {
+            return horizonDays;
+        }
+
+        public void setHorizonDays(int horizonDays) {
+            this.horizonDays = horizonDays;
+        }
+    }
+
+    public static class Export {
+
+        /**
+         * Number of rows the database cursor of an export reads at a time.
+         */
+        private int fetchSize = 1000;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class CountCache {
+
+        private boolean enabled = true;
+
+        private int timeToLiveSeconds = 300;
+
+        private int maxEntries = 1000;
+
+        /**
+         * Number of rows from which the table statistics may stand in for the exact count, when the request
+         * asks for an estimate.
+         */
+        private long estimateThreshold = 1000000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getEstimateThreshold() {
+            return estimateThreshold;
+        }
+
+        public void setEstimateThreshold(long estimateThreshold) {
+            this.estimateThreshold = estimateThreshold;
+        }
+    }
+
+    /**
+     * Sizes and expiries of the Hibernate second level cache regions. Reference data and histories are sized
+     * apart from the other entities; a collection region follows the entity it holds.
+     */
+    public static class HibernateCache {
+
+        private final Region reference = new Region(86400, 10000);
+
+        private final Region history = new Region(300, 2000);
+
+        private final Region defaults = new Region(3600, 5000);
+
+        /**
+         * Simple names of the entities cached as reference data.
+         */
+        private List<String> referenceEntities = new ArrayList<>();
+
+        /**
+         * Simple names of the entities cached as histories.
+         */
+        private List<String> historyEntities = new ArrayList<>();
+
+        public Region getReference() {
+            return reference;
+        }
+
+        public Region getHistory() {
+            return history;
+        }
+
+        public Region getDefaults() {
+            return defaults;
+        }
+
+        public List<String> getReferenceEntities() {
+            return referenceEntities;
+        }
+
+        public void setReferenceEntities(List<String> referenceEntities) {
+            this.referenceEntities = referenceEntities;
+        }
+
+        public List<String> getHistoryEntities() {
+            return historyEntities;
+        }
+
+        public void setHistoryEntities(List<String> historyEntities) {
+            this.historyEntities = historyEntities;
+        }
+
+        /**
+         * The policy of the region caching the given entity.
+         */
+        public Region regionOf(String entityName) {
+            if (referenceEntities.contains(entityName)) {
+                return reference;
+            }
+            return historyEntities.contains(entityName) ? history : defaults;
+        }
+
+        public static class Region {
+
+            private int timeToLiveSeconds;
+
+            private long maxEntriesLocalHeap;
+
+            public Region(int timeToLiveSeconds, long maxEntriesLocalHeap) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+                this.maxEntriesLocalHeap = maxEntriesLocalHeap;
+            }
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getMaxEntriesLocalHeap() {
+                return maxEntriesLocalHeap;
+            }
+
+            public void setMaxEntriesLocalHeap(long maxEntriesLocalHeap) {
+                this.maxEntriesLocalHeap = maxEntriesLocalHeap;
+            }
+        }
+    }
+
+    /**
+     * Running several nodes: invalidation of the caches of the other nodes, through the cache_invalidation table,
+     * and the background jobs, each run by one node at a time.
+     */
+    public static class Cluster {
+
+        private boolean enabled = false;
+
+        /**
+         * Name of this node, a random one when blank.
+         */
+        private String nodeId = "";
+
+        private long pollIntervalMillis = 1000;
+
+        /**
+         * How long a committed change may show up after the changes following it, so polls look back that far.
+         */
+        private long commitLagMillis = 10000;
+
+        private int retentionMinutes = 60;
+
+        /**
+         * Number of changed entities of a transaction above which whole regions are invalidated instead.
+         */
+        private int maxRowsPerTransaction = 1000;
+
+        /**
+         * How long a node keeps a background job to itself without making progress, before another node may take
+         * the job over.
+         */
+        private long jobLeaseMillis = 600000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public long getPollIntervalMillis() {
+            return pollIntervalMillis;
+        }
+
+        public void setPollIntervalMillis(long pollIntervalMillis) {
+            this.pollIntervalMillis = pollIntervalMillis;
+        }
+
+        public long getCommitLagMillis() {
+            return commitLagMillis;
+        }
+
+        public void setCommitLagMillis(long commitLagMillis) {
+            this.commitLagMillis = commitLagMillis;
+        }
+
+        public int getRetentionMinutes() {
+            return retentionMinutes;
+        }
+
+        public void setRetentionMinutes(int retentionMinutes) {
+            this.retentionMinutes = retentionMinutes;
+        }
+
+        public int getMaxRowsPerTransaction() {
+            return maxRowsPerTransaction;
+        }
+
+        public void setMaxRowsPerTransaction(int maxRowsPerTransaction) {
+            this.maxRowsPerTransaction = maxRowsPerTransaction;
+        }
+
+        public long getJobLeaseMillis() {
+            return jobLeaseMillis;
+        }
+
+        public void setJobLeaseMillis(long jobLeaseMillis) {
+            this.jobLeaseMillis = jobLeaseMillis;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.epam.bench.config;
 
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
 import com.codahale.metrics.ehcache.InstrumentedEhcache;
+import net.sf.ehcache.statistics.StatisticsGateway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -45,11 +47,16 @@ public class CacheConfiguration {
         cacheManager.shutdown();
     }
 
+    /**
+     * Every region gets its own size and expiry, instead of sharing a single heap pool: reference data is kept
+     * for long, histories shortly, and a burst of history reads only evicts histories. A collection region
+     * follows the entity it holds.
+     */
     @Bean
-    public CacheManager cacheManager(JHipsterProperties jHipsterProperties) {
+    public CacheManager cacheManager(ApplicationProperties applicationProperties) {
         log.debug("Starting Ehcache");
         cacheManager = net.sf.ehcache.CacheManager.create();
-        cacheManager.getConfiguration().setMaxBytesLocalHeap(jHipsterProperties.getCache().getEhcache().getMaxBytesLocalHeap());
+        ApplicationProperties.HibernateCache regions = applicationProperties.getHibernateCache();
         log.debug("Registering Ehcache Metrics gauges");
         Set<EntityType<?>> entities = entityManager.getMetamodel().getEntities();
         for (EntityType<?> entity : entities) {
@@ -58,9 +65,10 @@ public class CacheConfiguration {
                 name = entity.getJavaType().getName();
             }
             Assert.notNull(name, "entity cannot exist without an identifier");
-            reconfigureCache(name, jHipsterProperties);
+            reconfigureCache(name, regions.regionOf(entity.getJavaType().getSimpleName()));
             for (PluralAttribute pluralAttribute : entity.getPluralAttributes()) {
-                reconfigureCache(name + "." + pluralAttribute.getName(), jHipsterProperties);
+                reconfigureCache(name + "." + pluralAttribute.getName(),
+                    regions.regionOf(pluralAttribute.getElementType().getJavaType().getSimpleName()));
             }
         }
         EhCacheCacheManager ehCacheManager = new EhCacheCacheManager();
@@ -68,13 +76,26 @@ public class CacheConfiguration {
         return ehCacheManager;
     }
 
-    private void reconfigureCache(String name, JHipsterProperties jHipsterProperties) {
+    private void reconfigureCache(String name, ApplicationProperties.HibernateCache.Region region) {
         net.sf.ehcache.Cache cache = cacheManager.getCache(name);
         if (cache != null) {
-            cache.getCacheConfiguration().setTimeToLiveSeconds(jHipsterProperties.getCache().getTimeToLiveSeconds());
+            cache.getCacheConfiguration().setTimeToLiveSeconds(region.getTimeToLiveSeconds());
+            cache.getCacheConfiguration().setMaxEntriesLocalHeap(region.getMaxEntriesLocalHeap());
+            // the gauges read the statistics of the cache, which count the reads of Hibernate as well
+            metricRegistry.register(MetricRegistry.name(cache.getClass(), name, "hit-ratio"), hitRatio(cache));
             net.sf.ehcache.Ehcache decoratedCache = InstrumentedEhcache.instrument(metricRegistry, cache);
             cacheManager.replaceCacheWithDecoratedCache(cache, decoratedCache);
         }
     }
 
+    private static RatioGauge hitRatio(net.sf.ehcache.Cache cache) {
+        return new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                StatisticsGateway statistics = cache.getStatistics();
+                long hits = statistics.cacheHitCount();
+                return Ratio.of(hits, hits + statistics.cacheMissCount());
+            }
+        };
+    }
 }
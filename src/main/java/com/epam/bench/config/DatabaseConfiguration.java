@@ -1,6 +1,7 @@
 package com.epam.bench.config;
 
 import com.epam.bench.config.liquibase.AsyncSpringLiquibase;
+import com.epam.bench.repository.support.CountCachingRepositoryFactoryBean;
 
 import com.fasterxml.jackson.datatype.hibernate4.Hibernate4Module;
 import liquibase.integration.spring.SpringLiquibase;
@@ -20,7 +21,8 @@ import javax.inject.Inject;
 import javax.sql.DataSource;
 
 @Configuration
-@EnableJpaRepositories("com.epam.bench.repository")
+@EnableJpaRepositories(value = "com.epam.bench.repository",
+    repositoryFactoryBeanClass = CountCachingRepositoryFactoryBean.class)
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
 @EnableElasticsearchRepositories("com.epam.bench.repository.search")
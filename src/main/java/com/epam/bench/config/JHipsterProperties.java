@@ -17,8 +17,6 @@ public class JHipsterProperties {
 
     private final Http http = new Http();
 
-    private final Cache cache = new Cache();
-
     private final Mail mail = new Mail();
 
     private final Security security = new Security();
@@ -39,10 +37,6 @@ public class JHipsterProperties {
         return http;
     }
 
-    public Cache getCache() {
-        return cache;
-    }
-
     public Mail getMail() {
         return mail;
     }
@@ -122,38 +116,6 @@ public class JHipsterProperties {
         }
     }
 
-    public static class Cache {
-
-        private int timeToLiveSeconds = 3600;
-
-        private final Ehcache ehcache = new Ehcache();
-
-        public int getTimeToLiveSeconds() {
-            return timeToLiveSeconds;
-        }
-
-        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
-            this.timeToLiveSeconds = timeToLiveSeconds;
-        }
-
-        public Ehcache getEhcache() {
-            return ehcache;
-        }
-
-        public static class Ehcache {
-
-            private String maxBytesLocalHeap = "16M";
-
-            public String getMaxBytesLocalHeap() {
-                return maxBytesLocalHeap;
-            }
-
-            public void setMaxBytesLocalHeap(String maxBytesLocalHeap) {
-                this.maxBytesLocalHeap = maxBytesLocalHeap;
-            }
-        }
-    }
-
     public static class Mail {
 
         private String from = "bench@localhost";
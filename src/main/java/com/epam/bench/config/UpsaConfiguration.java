@@ -0,0 +1,104 @@
+package com.epam.bench.config;
+
+import java.util.Collections;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * HTTP client used to talk to UPSA.
+ * <p>
+ * All calls share one pool of keep-alive connections, so a sync of many employees does not pay
+ * a TCP/TLS handshake per employee.
+ */
+@Configuration
+public class UpsaConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(UpsaConfiguration.class);
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager upsaConnectionManager() {
+        ApplicationProperties.Upsa upsa = applicationProperties.getUpsa();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(upsa.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(upsa.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity(upsa.getIdleConnectionTimeoutSeconds() * 1000 / 2);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient upsaHttpClient(PoolingHttpClientConnectionManager upsaConnectionManager) {
+        ApplicationProperties.Upsa upsa = applicationProperties.getUpsa();
+        log.debug("Creating UPSA HTTP client with {} pooled connections", upsa.getMaxConnections());
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(upsa.getConnectTimeoutMillis())
+            .setSocketTimeout(upsa.getReadTimeoutMillis())
+            .setConnectionRequestTimeout(upsa.getConnectionRequestTimeoutMillis())
+            .build();
+        return HttpClients.custom()
+            .setConnectionManager(upsaConnectionManager)
+            .setConnectionManagerShared(true)
+            .setDefaultRequestConfig(requestConfig)
+            .disableAutomaticRetries()
+            .evictExpiredConnections()
+            .evictIdleConnections(upsa.getIdleConnectionTimeoutSeconds(), TimeUnit.SECONDS)
+            .build();
+    }
+
+    @Bean
+    public RestTemplate upsaRestTemplate(CloseableHttpClient upsaHttpClient, Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(upsaHttpClient));
+        restTemplate.setMessageConverters(Collections.singletonList(
+            new MappingJackson2HttpMessageConverter(jackson2ObjectMapperBuilder.build())));
+        return restTemplate;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor upsaTaskExecutor() {
+        ApplicationProperties.Upsa upsa = applicationProperties.getUpsa();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(upsa.getBulkParallelism());
+        executor.setMaxPoolSize(upsa.getBulkParallelism());
+        executor.setQueueCapacity(upsa.getBulkQueueCapacity());
+        executor.setRejectedExecutionHandler(rejectedExecutionHandler(upsa.getBulkRejectionPolicy()));
+        executor.setThreadNamePrefix("bench-Upsa-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor upsaRequestExecutor() {
+        ApplicationProperties.Upsa.Requests requests = applicationProperties.getUpsa().getRequests();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(requests.getPoolSize());
+        executor.setMaxPoolSize(requests.getPoolSize());
+        executor.setQueueCapacity(requests.getQueueCapacity());
+        executor.setRejectedExecutionHandler(rejectedExecutionHandler(requests.getRejectionPolicy()));
+        executor.setThreadNamePrefix("bench-UpsaRequest-");
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejectedExecutionHandler(ApplicationProperties.Upsa.RejectionPolicy policy) {
+        return policy == ApplicationProperties.Upsa.RejectionPolicy.CALLER_RUNS
+            ? new ThreadPoolExecutor.CallerRunsPolicy()
+            : new ThreadPoolExecutor.AbortPolicy();
+    }
+}
@@ -4,6 +4,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.servlet.InstrumentedFilter;
 import com.codahale.metrics.servlets.MetricsServlet;
 import com.epam.bench.web.filter.CachingHttpHeadersFilter;
+import com.epam.bench.web.filter.CountEstimateFilter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,7 @@ public class WebConfigurer implements ServletContextInitializer, EmbeddedServlet
         }
         EnumSet<DispatcherType> disps = EnumSet.of(DispatcherType.REQUEST, DispatcherType.FORWARD, DispatcherType.ASYNC);
         initMetrics(servletContext, disps);
+        initCountEstimateFilter(servletContext, disps);
         if (env.acceptsProfiles(Constants.SPRING_PROFILE_PRODUCTION)) {
             initCachingHttpHeadersFilter(servletContext, disps);
         }
@@ -96,6 +98,18 @@ public class WebConfigurer implements ServletContextInitializer, EmbeddedServlet
         return extractedPath.substring(0, extractionEndIndex);
     }
 
+    /**
+     * Initializes the filter letting the paged API requests ask for estimated counts.
+     */
+    private void initCountEstimateFilter(ServletContext servletContext, EnumSet<DispatcherType> disps) {
+        log.debug("Registering Count Estimate Filter");
+        FilterRegistration.Dynamic countEstimateFilter =
+            servletContext.addFilter("countEstimateFilter", new CountEstimateFilter());
+
+        countEstimateFilter.addMappingForUrlPatterns(disps, true, "/api/*");
+        countEstimateFilter.setAsyncSupported(true);
+    }
+
     /**
      * Initializes the caching HTTP Headers Filter.
      */
@@ -0,0 +1,98 @@
+package com.epam.bench.config.liquibase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.epam.bench.service.util.BenchDaysCalculator;
+import com.epam.bench.service.util.BenchDaysCalculator.BenchDays;
+import com.epam.bench.service.util.BenchDaysCalculator.Entry;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Fills the bench time columns of bench_state from the bench history, one employee at a time,
+ * with the same computation the application uses when the history changes.
+ */
+public class BenchTimeBackfill implements CustomTaskChange {
+
+    private static final String SELECT_ENTRIES = "select employee_id, id, created_time, valid_to, bench"
+        + " from bench_history where employee_id is not null and created_time is not null order by employee_id";
+
+    private static final String UPDATE_STATE = "update bench_state set closed_bench_seconds = ?, open_bench_since = ?"
+        + " where employee_id = ?";
+
+    private static final int BATCH_SIZE = 500;
+
+    private int updated;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (PreparedStatement select = connection.prepareStatement(SELECT_ENTRIES);
+             PreparedStatement update = connection.prepareStatement(UPDATE_STATE)) {
+            try (ResultSet rows = select.executeQuery()) {
+                Long employeeId = null;
+                List<Entry> entries = new ArrayList<>();
+                while (rows.next()) {
+                    long id = rows.getLong(1);
+                    if (Objects.nonNull(employeeId) && employeeId != id) {
+                        addUpdate(update, employeeId, entries);
+                        entries.clear();
+                    }
+                    employeeId = id;
+                    Timestamp validTo = rows.getTimestamp(4);
+                    entries.add(new Entry(rows.getLong(2), rows.getTimestamp(3).toInstant(),
+                        Objects.isNull(validTo) ? null : validTo.toInstant(), rows.getBoolean(5)));
+                }
+                if (Objects.nonNull(employeeId)) {
+                    addUpdate(update, employeeId, entries);
+                }
+            }
+            if (updated % BATCH_SIZE != 0) {
+                update.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not fill the bench time of the bench states", e);
+        }
+    }
+
+    private void addUpdate(PreparedStatement update, long employeeId, List<Entry> entries) throws SQLException {
+        BenchDays benchDays = BenchDaysCalculator.aggregateEntries(entries);
+        update.setLong(1, benchDays.getClosedSeconds());
+        update.setTimestamp(2, Objects.isNull(benchDays.getOpenSince()) ? null : Timestamp.from(benchDays.getOpenSince()));
+        update.setLong(3, employeeId);
+        update.addBatch();
+        if (++updated % BATCH_SIZE == 0) {
+            update.executeBatch();
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Filled the bench time of " + updated + " bench states";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,48 @@
+package com.epam.bench.config.liquibase;
+
+import java.sql.SQLException;
+
+import com.epam.bench.service.util.UnitBenchCountBuilder;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Fills the unit_bench_count table from the current bench states, with the same statements the application
+ * uses to rebuild it.
+ */
+public class UnitBenchCountBackfill implements CustomTaskChange {
+
+    private int counted;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        try {
+            counted = UnitBenchCountBuilder.rebuild(((JdbcConnection) database.getConnection()).getUnderlyingConnection());
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not count the employees on bench of the units", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Counted the employees on bench of " + counted + " units";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,48 @@
+package com.epam.bench.config.liquibase;
+
+import java.sql.SQLException;
+
+import com.epam.bench.service.util.UnitClosureBuilder;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Fills the unit_closure table from the parents of the units, with the same statements the application
+ * uses to rebuild it.
+ */
+public class UnitClosureBackfill implements CustomTaskChange {
+
+    private int written;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        try {
+            written = UnitClosureBuilder.rebuild(((JdbcConnection) database.getConnection()).getUnderlyingConnection());
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not fill the unit closure", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Filled the unit closure with " + written + " paths";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,148 @@
+package com.epam.bench.config.liquibase;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.epam.bench.service.util.WorkloadTimelineCalculator;
+import com.epam.bench.service.util.WorkloadTimelineCalculator.Entry;
+import com.epam.bench.service.util.WorkloadTimelineCalculator.Interval;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Fills the workload_interval table from the project history, one employee at a time,
+ * with the same computation the application uses when the history changes.
+ */
+public class WorkloadIntervalBackfill implements CustomTaskChange {
+
+    private static final String DELETE_ALL = "delete from workload_interval";
+
+    private static final String SELECT_HISTORIES = "select ph.id, ph.employee_id, ph.date, ph.workload,"
+        + " ph.project_id, p.upsa_id, ph.role_id, pr.upsa_id"
+        + " from project_history ph"
+        + " left join project p on p.id = ph.project_id"
+        + " left join project_role pr on pr.id = ph.role_id"
+        + " where ph.employee_id is not null and ph.date is not null"
+        + " order by ph.employee_id";
+
+    private static final String INSERT_INTERVAL = "insert into workload_interval"
+        + " (valid_from, valid_to, workload, employee_id, project_id, role_id) values (?, ?, ?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    private int inserted;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_ALL);
+             PreparedStatement select = connection.prepareStatement(SELECT_HISTORIES);
+             PreparedStatement insert = connection.prepareStatement(INSERT_INTERVAL)) {
+            delete.executeUpdate();
+            try (ResultSet rows = select.executeQuery()) {
+                Long employeeId = null;
+                List<Entry<Assignment>> entries = new ArrayList<>();
+                while (rows.next()) {
+                    long id = rows.getLong(2);
+                    if (Objects.nonNull(employeeId) && employeeId != id) {
+                        addInserts(insert, employeeId, entries);
+                        entries.clear();
+                    }
+                    employeeId = id;
+                    Long projectId = getLong(rows, 5);
+                    Long roleId = getLong(rows, 7);
+                    entries.add(new Entry<>(new Assignment(projectId, roleId), rows.getLong(1),
+                        WorkloadTimelineCalculator.workloadKey(rows.getString(6), projectId, rows.getString(8), roleId),
+                        rows.getDate(3).toLocalDate(), getInteger(rows, 4)));
+                }
+                if (Objects.nonNull(employeeId)) {
+                    addInserts(insert, employeeId, entries);
+                }
+            }
+            if (inserted % BATCH_SIZE != 0) {
+                insert.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not fill the workload intervals", e);
+        }
+    }
+
+    private void addInserts(PreparedStatement insert, long employeeId, List<Entry<Assignment>> entries)
+        throws SQLException {
+        for (Interval<Assignment> interval : WorkloadTimelineCalculator.intervals(entries)) {
+            insert.setDate(1, Date.valueOf(interval.getValidFrom()));
+            insert.setDate(2, Objects.isNull(interval.getValidTo()) ? null : Date.valueOf(interval.getValidTo()));
+            insert.setInt(3, interval.getWorkload());
+            insert.setLong(4, employeeId);
+            setLong(insert, 5, interval.getSource().projectId);
+            setLong(insert, 6, interval.getSource().roleId);
+            insert.addBatch();
+            if (++inserted % BATCH_SIZE == 0) {
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private static Long getLong(ResultSet rows, int column) throws SQLException {
+        long value = rows.getLong(column);
+        return rows.wasNull() ? null : value;
+    }
+
+    private static Integer getInteger(ResultSet rows, int column) throws SQLException {
+        int value = rows.getInt(column);
+        return rows.wasNull() ? null : value;
+    }
+
+    private static void setLong(PreparedStatement statement, int index, Long value) throws SQLException {
+        if (Objects.isNull(value)) {
+            statement.setNull(index, Types.BIGINT);
+        } else {
+            statement.setLong(index, value);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Filled " + inserted + " workload intervals";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+
+    /**
+     * The project and role a project history row allocates the employee to.
+     */
+    private static final class Assignment {
+
+        private final Long projectId;
+
+        private final Long roleId;
+
+        private Assignment(Long projectId, Long roleId) {
+            this.projectId = projectId;
+            this.roleId = roleId;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.epam.bench.domain;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * The current bench state of an Employee: one row per employee, pointing to its latest BenchHistory.
+ */
+@Entity
+@Table(name = "bench_state")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+public class BenchState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @NotNull
+    @Column(name = "on_bench", nullable = false)
+    private Boolean onBench;
+
+    @Column(name = "bench_since")
+    private ZonedDateTime benchSince;
+
+    @NotNull
+    @Column(name = "updated_time", nullable = false)
+    private ZonedDateTime updatedTime;
+
+    /**
+     * Seconds on bench of the bench intervals that are over, overlaps counted once.
+     */
+    @NotNull
+    @Column(name = "closed_bench_seconds", nullable = false)
+    private Long closedBenchSeconds = 0L;
+
+    /**
+     * Start of the bench interval that is still open, the days on bench grow from there.
+     */
+    @Column(name = "open_bench_since")
+    private ZonedDateTime openBenchSince;
+
+    @NotNull
+    @OneToOne
+    @JoinColumn(unique = true, nullable = false)
+    private Employee employee;
+
+    @OneToOne
+    @JoinColumn(unique = true)
+    private BenchHistory lastHistory;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Boolean isOnBench() {
+        return onBench;
+    }
+
+    public BenchState onBench(Boolean onBench) {
+        this.onBench = onBench;
+        return this;
+    }
+
+    public void setOnBench(Boolean onBench) {
+        this.onBench = onBench;
+    }
+
+    public ZonedDateTime getBenchSince() {
+        return benchSince;
+    }
+
+    public BenchState benchSince(ZonedDateTime benchSince) {
+        this.benchSince = benchSince;
+        return this;
+    }
+
+    public void setBenchSince(ZonedDateTime benchSince) {
+        this.benchSince = benchSince;
+    }
+
+    public ZonedDateTime getUpdatedTime() {
+        return updatedTime;
+    }
+
+    public BenchState updatedTime(ZonedDateTime updatedTime) {
+        this.updatedTime = updatedTime;
+        return this;
+    }
+
+    public void setUpdatedTime(ZonedDateTime updatedTime) {
+        this.updatedTime = updatedTime;
+    }
+
+    public Long getClosedBenchSeconds() {
+        return closedBenchSeconds;
+    }
+
+    public BenchState closedBenchSeconds(Long closedBenchSeconds) {
+        this.closedBenchSeconds = closedBenchSeconds;
+        return this;
+    }
+
+    public void setClosedBenchSeconds(Long closedBenchSeconds) {
+        this.closedBenchSeconds = closedBenchSeconds;
+    }
+
+    public ZonedDateTime getOpenBenchSince() {
+        return openBenchSince;
+    }
+
+    public BenchState openBenchSince(ZonedDateTime openBenchSince) {
+        this.openBenchSince = openBenchSince;
+        return this;
+    }
+
+    public void setOpenBenchSince(ZonedDateTime openBenchSince) {
+        this.openBenchSince = openBenchSince;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public BenchState employee(Employee employee) {
+        this.employee = employee;
+        return this;
+    }
+
+    public void setEmployee(Employee employee) {
+        this.employee = employee;
+    }
+
+    public BenchHistory getLastHistory() {
+        return lastHistory;
+    }
+
+    public BenchState lastHistory(BenchHistory benchHistory) {
+        this.lastHistory = benchHistory;
+        return this;
+    }
+
+    public void setLastHistory(BenchHistory benchHistory) {
+        this.lastHistory = benchHistory;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BenchState benchState = (BenchState) o;
+        if(benchState.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, benchState.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "BenchState{" +
+            "id=" + id +
+            ", onBench='" + onBench + "'" +
+            ", benchSince='" + benchSince + "'" +
+            ", updatedTime='" + updatedTime + "'" +
+            ", closedBenchSeconds='" + closedBenchSeconds + "'" +
+            ", openBenchSince='" + openBenchSince + "'" +
+            '}';
+    }
+}
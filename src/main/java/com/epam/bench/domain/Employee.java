@@ -3,7 +3,10 @@ package com.epam.bench.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Formula;
 import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -24,6 +27,8 @@ import com.epam.bench.domain.enumeration.Probability;
 @Table(name = "employee")
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Document(indexName = "employee")
+@Setting(settingPath = "/config/elasticsearch/employee-settings.json")
+@Mapping(mappingPath = "/config/elasticsearch/employee-mapping.json")
 public class Employee implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -103,6 +108,12 @@ public class Employee implements Serializable {
     @JoinColumn(unique = true)
     private Unit unit;
 
+    /**
+     * Read from the bench_state table, indexed so the search can rank employees on bench.
+     */
+    @Formula("(select bs.on_bench from bench_state bs where bs.employee_id = id)")
+    private Boolean onBench;
+
     @OneToMany(mappedBy = "employee")
     @JsonIgnore
     @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
@@ -222,6 +233,14 @@ public class Employee implements Serializable {
         this.active = active;
     }
 
+    public Boolean isOnBench() {
+        return onBench;
+    }
+
+    public void setOnBench(Boolean onBench) {
+        this.onBench = onBench;
+    }
+
     public ZonedDateTime getHireDate() {
         return hireDate;
     }
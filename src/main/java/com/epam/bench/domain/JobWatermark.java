@@ -0,0 +1,188 @@
+package com.epam.bench.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * The progress of a background job: the position it has processed up to in the current run,
+ * so that an interrupted run resumes where it stopped instead of starting over.
+ */
+@Entity
+@Table(name = "job_watermark")
+public class JobWatermark implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "name", length = 100, nullable = false, unique = true)
+    private String name;
+
+    @NotNull
+    @Column(name = "last_position", nullable = false)
+    private Long position;
+
+    @NotNull
+    @Column(name = "processed", nullable = false)
+    private Long processed;
+
+    @Column(name = "started_time")
+    private ZonedDateTime startedTime;
+
+    @Column(name = "completed_time")
+    private ZonedDateTime completedTime;
+
+    @Size(max = 100)
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private ZonedDateTime leaseUntil;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public JobWatermark name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    public JobWatermark position(Long position) {
+        this.position = position;
+        return this;
+    }
+
+    public void setPosition(Long position) {
+        this.position = position;
+    }
+
+    public Long getProcessed() {
+        return processed;
+    }
+
+    public JobWatermark processed(Long processed) {
+        this.processed = processed;
+        return this;
+    }
+
+    public void setProcessed(Long processed) {
+        this.processed = processed;
+    }
+
+    public ZonedDateTime getStartedTime() {
+        return startedTime;
+    }
+
+    public JobWatermark startedTime(ZonedDateTime startedTime) {
+        this.startedTime = startedTime;
+        return this;
+    }
+
+    public void setStartedTime(ZonedDateTime startedTime) {
+        this.startedTime = startedTime;
+    }
+
+    public ZonedDateTime getCompletedTime() {
+        return completedTime;
+    }
+
+    public JobWatermark completedTime(ZonedDateTime completedTime) {
+        this.completedTime = completedTime;
+        return this;
+    }
+
+    public void setCompletedTime(ZonedDateTime completedTime) {
+        this.completedTime = completedTime;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public JobWatermark leaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+        return this;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public ZonedDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public JobWatermark leaseUntil(ZonedDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+        return this;
+    }
+
+    public void setLeaseUntil(ZonedDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    /**
+     * Returns true while a run has started and not completed yet.
+     */
+    public boolean isRunning() {
+        return startedTime != null && (completedTime == null || completedTime.isBefore(startedTime));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JobWatermark jobWatermark = (JobWatermark) o;
+        if(jobWatermark.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, jobWatermark.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "JobWatermark{" +
+            "id=" + id +
+            ", name='" + name + "'" +
+            ", position='" + position + "'" +
+            ", processed='" + processed + "'" +
+            ", startedTime='" + startedTime + "'" +
+            ", completedTime='" + completedTime + "'" +
+            ", leaseOwner='" + leaseOwner + "'" +
+            ", leaseUntil='" + leaseUntil + "'" +
+            '}';
+    }
+}
@@ -0,0 +1,98 @@
+package com.epam.bench.domain;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A path of the Unit tree: one row for every unit and each of its ancestors, itself included at depth 0.
+ * A subtree is then a single indexed lookup by ancestor instead of a walk down the children.
+ * <p>
+ * The rows are written by the UnitHierarchyService only.
+ */
+@Entity
+@Table(name = "unit_closure")
+@IdClass(UnitClosure.Key.class)
+@Immutable
+public class UnitClosure implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(name = "depth", nullable = false)
+    private Integer depth;
+
+    public Long getAncestorId() {
+        return ancestorId;
+    }
+
+    public Long getDescendantId() {
+        return descendantId;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UnitClosure unitClosure = (UnitClosure) o;
+        return Objects.equals(ancestorId, unitClosure.ancestorId)
+            && Objects.equals(descendantId, unitClosure.descendantId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ancestorId, descendantId);
+    }
+
+    @Override
+    public String toString() {
+        return "UnitClosure{" +
+            "ancestorId=" + ancestorId +
+            ", descendantId=" + descendantId +
+            ", depth='" + depth + "'" +
+            '}';
+    }
+
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long ancestorId;
+
+        private Long descendantId;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(ancestorId, key.ancestorId) && Objects.equals(descendantId, key.descendantId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.epam.bench.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * An allocation of an Employee to a project and role, valid from a date until, and excluding, another one.
+ * The intervals are derived from the ProjectHistory of the employee, where a workload lasts until the next
+ * workload of the same project and role.
+ */
+@Entity
+@Table(name = "workload_interval")
+public class WorkloadInterval implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @NotNull
+    @Column(name = "valid_from", nullable = false)
+    private LocalDate validFrom;
+
+    /**
+     * The first day the allocation is over, null while it lasts.
+     */
+    @Column(name = "valid_to")
+    private LocalDate validTo;
+
+    @NotNull
+    @Column(name = "workload", nullable = false)
+    private Integer workload;
+
+    @NotNull
+    @ManyToOne(optional = false)
+    private Employee employee;
+
+    @ManyToOne
+    private Project project;
+
+    @ManyToOne
+    private ProjectRole role;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getValidFrom() {
+        return validFrom;
+    }
+
+    public WorkloadInterval validFrom(LocalDate validFrom) {
+        this.validFrom = validFrom;
+        return this;
+    }
+
+    public void setValidFrom(LocalDate validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    public LocalDate getValidTo() {
+        return validTo;
+    }
+
+    public WorkloadInterval validTo(LocalDate validTo) {
+        this.validTo = validTo;
+        return this;
+    }
+
+    public void setValidTo(LocalDate validTo) {
+        this.validTo = validTo;
+    }
+
+    public Integer getWorkload() {
+        return workload;
+    }
+
+    public WorkloadInterval workload(Integer workload) {
+        this.workload = workload;
+        return this;
+    }
+
+    public void setWorkload(Integer workload) {
+        this.workload = workload;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public WorkloadInterval employee(Employee employee) {
+        this.employee = employee;
+        return this;
+    }
+
+    public void setEmployee(Employee employee) {
+        this.employee = employee;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    public WorkloadInterval project(Project project) {
+        this.project = project;
+        return this;
+    }
+
+    public void setProject(Project project) {
+        this.project = project;
+    }
+
+    public ProjectRole getRole() {
+        return role;
+    }
+
+    public WorkloadInterval role(ProjectRole projectRole) {
+        this.role = projectRole;
+        return this;
+    }
+
+    public void setRole(ProjectRole projectRole) {
+        this.role = projectRole;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        WorkloadInterval workloadInterval = (WorkloadInterval) o;
+        if(workloadInterval.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, workloadInterval.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "WorkloadInterval{" +
+            "id=" + id +
+            ", validFrom='" + validFrom + "'" +
+            ", validTo='" + validTo + "'" +
+            ", workload='" + workload + "'" +
+            '}';
+    }
+}
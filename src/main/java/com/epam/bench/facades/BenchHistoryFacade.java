@@ -1,5 +1,7 @@
 package com.epam.bench.facades;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 import com.epam.bench.domain.BenchHistory;
@@ -13,6 +15,8 @@ public interface BenchHistoryFacade {
 
     Optional<BenchHistory> getLastHistoryEntry(Employee employee);
 
+    Map<Long, BenchHistory> getLastHistoryEntries(Collection<Employee> employees);
+
     void releaseEmployeeFromBench(BenchHistory benchHistory);
 
     BenchHistory createNewEntry(Employee employee, User user);
@@ -0,0 +1,14 @@
+package com.epam.bench.facades;
+
+/**
+ * Predicts the bench movements of the employees.
+ */
+public interface BenchPredictionFacade {
+
+    /**
+     * Runs a prediction for all employees, resuming an interrupted run.
+     *
+     * @return the number of predictions written
+     */
+    long predictBench();
+}
@@ -1,14 +1,18 @@
 package com.epam.bench.facades;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.epam.bench.domain.Employee;
+import com.epam.bench.service.dto.bench.BulkBenchResultDto;
 import com.epam.bench.service.dto.bench.CommentHistoryDto;
+import com.epam.bench.service.dto.bench.EmployeeFacet;
 import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.dto.bench.FacetedEmployeesDto;
 import com.epam.bench.service.dto.bench.form.UpdateEmployeeFormDto;
 import com.epam.bench.service.dto.bench.EmployeeDto;
 
@@ -29,7 +33,16 @@ public interface EmployeeFacade {
 
     EmployeeDto saveEmployeeToBench(String upsaId);
 
+    List<BulkBenchResultDto> saveEmployeesToBench(List<String> upsaIds);
+
+    List<BulkBenchResultDto> removeEmployeesFromBench(List<String> upsaIds);
+
     Optional<List<CommentHistoryDto>> getBenchEmployeeCommentHistory(String upsaId);
 
     List<EmployeeSimpleViewDto> suggestEmployees(String query);
+
+    FacetedEmployeesDto searchBenchEmployees(String query, Map<EmployeeFacet, List<String>> filters, Pageable pageable);
+
+    FacetedEmployeesDto searchBenchEmployees(String query, Map<EmployeeFacet, List<String>> filters, Long unitSubtree,
+                                             Pageable pageable);
 }
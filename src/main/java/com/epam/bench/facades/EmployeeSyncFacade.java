@@ -0,0 +1,14 @@
+package com.epam.bench.facades;
+
+/**
+ * Keeps the local employees in sync with UPSA.
+ */
+public interface EmployeeSyncFacade {
+
+    /**
+     * Runs a synchronization of all local employees, resuming an interrupted run.
+     *
+     * @return the number of employees that changed
+     */
+    long synchronizeEmployees();
+}
@@ -17,4 +17,6 @@ public interface ProjectHistoryFacade {
     Set<ProjectHistory> getAndUpdateEmployeeWorkload(String upsaId);
 
     Set<ProjectHistory> getAndUpdateEmployeeWorkload(Employee employee);
+
+    Set<ProjectHistory> updateEmployeeWorkload(Employee employee, Set<ProjectHistory> currentWorkloads);
 }
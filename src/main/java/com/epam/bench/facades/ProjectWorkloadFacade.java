@@ -1,6 +1,11 @@
 package com.epam.bench.facades;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import com.epam.bench.domain.Employee;
+import com.epam.bench.service.dto.bench.ProjectWorkloadDto;
 
 /**
  * Created by Tetiana_Antonenko1
@@ -8,4 +13,10 @@ import com.epam.bench.domain.Employee;
 public interface ProjectWorkloadFacade {
 
     int getDaysOnBench(Employee employee);
+
+    Map<Long, Integer> getDaysOnBench(Collection<Employee> employees);
+
+    List<ProjectWorkloadDto> getCurrentWorkloads(Employee employee);
+
+    Map<Long, List<ProjectWorkloadDto>> getCurrentWorkloads(Collection<Employee> employees);
 }
@@ -1,20 +1,28 @@
 package com.epam.bench.facades.impl;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.epam.bench.domain.BenchHistory;
+import com.epam.bench.domain.BenchState;
 import com.epam.bench.domain.Employee;
 import com.epam.bench.domain.User;
 import com.epam.bench.facades.BenchHistoryFacade;
 import com.epam.bench.service.BenchHistoryService;
+import com.epam.bench.service.BenchStateService;
 import com.epam.bench.service.UserService;
 
 /**
@@ -26,23 +34,39 @@ public class DefaultBenchHistoryFacade implements BenchHistoryFacade {
     @Inject
     private BenchHistoryService benchHistoryService;
     @Inject
+    private BenchStateService benchStateService;
+    @Inject
     private UserService userService;
 
     @Override
     public Optional<BenchHistory> getLastHistoryEntry(Employee employee) {
-        Optional<List<BenchHistory>> oHistories = Optional.ofNullable(benchHistoryService.find(employee));
-        Comparator<BenchHistory> byDate = Comparator.comparing(BenchHistory::getCreatedTime);
-        Optional<BenchHistory> history = Optional.empty();
+        Optional<BenchState> state = benchStateService.find(employee);
+        if (state.isPresent()) {
+            return Optional.ofNullable(state.get().getLastHistory());
+        }
+        return findLastHistoryEntry(employee);
+    }
 
-        if (oHistories.isPresent() && CollectionUtils.isNotEmpty(oHistories.get())) {
-            List<BenchHistory> histories = oHistories.get();
-            histories.sort(byDate);
-            history = Optional.of(histories.get(histories.size() - 1));
+    @Override
+    public Map<Long, BenchHistory> getLastHistoryEntries(Collection<Employee> employees) {
+        Map<Long, BenchHistory> histories = new HashMap<>();
+        for (BenchState state : benchStateService.find(employees)) {
+            if (Objects.nonNull(state.getLastHistory())) {
+                histories.put(state.getEmployee().getId(), state.getLastHistory());
+            }
         }
-        return history;
+        List<Employee> withoutState = employees.stream()
+            .filter(employee -> !histories.containsKey(employee.getId()))
+            .collect(Collectors.toList());
+        for (BenchHistory history : benchHistoryService.findLast(withoutState)) {
+            histories.merge(history.getEmployee().getId(), history,
+                (current, candidate) -> current.getId() > candidate.getId() ? current : candidate);
+        }
+        return histories;
     }
 
     @Override
+    @Transactional
     public void releaseEmployeeFromBench(BenchHistory benchHistory) {
         benchHistory.setValidTo(ZonedDateTime.now());
         benchHistory.setBench(Boolean.FALSE);
@@ -50,6 +74,7 @@ public class DefaultBenchHistoryFacade implements BenchHistoryFacade {
     }
 
     @Override
+    @Transactional
     public BenchHistory createNewEntry(Employee employee, User user) {
         BenchHistory history = new BenchHistory();
         history.setBench(Boolean.TRUE);
@@ -60,7 +85,21 @@ public class DefaultBenchHistoryFacade implements BenchHistoryFacade {
     }
 
     @Override
+    @Transactional
     public BenchHistory createNewEntry(Employee employee) {
         return createNewEntry(employee, userService.getUserWithAuthorities());
     }
+
+    private Optional<BenchHistory> findLastHistoryEntry(Employee employee) {
+        Optional<List<BenchHistory>> oHistories = Optional.ofNullable(benchHistoryService.find(employee));
+        Comparator<BenchHistory> byDate = Comparator.comparing(BenchHistory::getCreatedTime);
+        Optional<BenchHistory> history = Optional.empty();
+
+        if (oHistories.isPresent() && CollectionUtils.isNotEmpty(oHistories.get())) {
+            List<BenchHistory> histories = oHistories.get();
+            histories.sort(byDate);
+            history = Optional.of(histories.get(histories.size() - 1));
+        }
+        return history;
+    }
 }
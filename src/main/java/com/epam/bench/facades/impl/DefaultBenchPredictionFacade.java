@@ -0,0 +1,201 @@
+package com.epam.bench.facades.impl;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.domain.JobWatermark;
+import com.epam.bench.facades.BenchPredictionFacade;
+import com.epam.bench.service.BenchPredictionsService;
+import com.epam.bench.service.EmployeeService;
+import com.epam.bench.service.JobWatermarkService;
+
+/**
+ * Predicts the bench movements of all employees in the background.
+ * <p>
+ * Employees are walked in id order, in chunks. Up to the configured parallelism, chunks are predicted
+ * at the same time, each in its own transaction; once all chunks of such a wave are written the
+ * watermark moves past them. A run that stops half way resumes after the last completed wave, and
+ * predicts for the same day as it started, so a chunk predicted again just replaces its predictions.
+ * <p>
+ * The job runs on one node at a time, under the lease of its watermark, which every wave renews: a wave must
+ * take less than the lease, or another node takes the run over.
+ */
+@Service
+public class DefaultBenchPredictionFacade implements BenchPredictionFacade {
+
+    static final String JOB_NAME = "bench-prediction";
+
+    private final Logger LOG = LoggerFactory.getLogger(DefaultBenchPredictionFacade.class);
+
+    @Inject
+    private EmployeeService employeeService;
+    @Inject
+    private BenchPredictionsService benchPredictionsService;
+    @Inject
+    private JobWatermarkService jobWatermarkService;
+    @Inject
+    private ApplicationProperties applicationProperties;
+    @Inject
+    private PlatformTransactionManager transactionManager;
+    @Inject
+    @Qualifier("taskExecutor")
+    private TaskExecutor taskExecutor;
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private Timer chunks;
+
+    private Meter predicted;
+
+    @PostConstruct
+    public void init() {
+        chunks = metricRegistry.timer(MetricRegistry.name(BenchPredictionFacade.class, "chunks"));
+        predicted = metricRegistry.meter(MetricRegistry.name(BenchPredictionFacade.class, "predicted"));
+    }
+
+    /**
+     * Starts a prediction on the task executor, so it does not hold up the other scheduled jobs.
+     */
+    @Scheduled(cron = "${application.prediction.cron}")
+    public void schedulePrediction() {
+        if (applicationProperties.getPrediction().isEnabled()) {
+            taskExecutor.execute(this::predictBench);
+        }
+    }
+
+    @Override
+    public long predictBench() {
+        if (!running.compareAndSet(false, true)) {
+            LOG.info("Bench prediction is already running");
+            return 0;
+        }
+        ApplicationProperties.Prediction settings = applicationProperties.getPrediction();
+        int parallelism = Math.max(1, settings.getParallelism());
+        // a single chunk at a time is predicted in the calling thread, within its transaction if any
+        ExecutorService executor = parallelism > 1
+            ? Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("bench-Prediction-"))
+            : null;
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            JobWatermark watermark = claim(transactionTemplate);
+            if (Objects.isNull(watermark)) {
+                LOG.info("Bench prediction is running on another node");
+                return 0;
+            }
+
+            ZonedDateTime createdTime = watermark.getStartedTime();
+            LocalDate today = createdTime.toLocalDate();
+            LocalDate horizon = today.plusDays(settings.getHorizonDays());
+            long start = System.nanoTime();
+
+            long position = watermark.getPosition();
+            long total = 0;
+            List<List<Long>> wave = nextWave(position, settings.getChunkSize(), parallelism);
+            while (!wave.isEmpty()) {
+                int written = predict(wave, today, horizon, createdTime, executor);
+                List<Long> lastChunk = wave.get(wave.size() - 1);
+                long lastId = lastChunk.get(lastChunk.size() - 1);
+                if (!transactionTemplate.execute(status -> jobWatermarkService.advance(JOB_NAME, lastId, written))) {
+                    // the other node predicts the wave again, replacing these predictions
+                    LOG.warn("Bench prediction was taken over by another node after {} predictions", total);
+                    return total;
+                }
+                position = lastId;
+                total += written;
+                wave = nextWave(position, settings.getChunkSize(), parallelism);
+            }
+
+            transactionTemplate.execute(status -> {
+                jobWatermarkService.complete(JOB_NAME);
+                return null;
+            });
+            double seconds = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1) / 1000d;
+            LOG.info("Bench prediction wrote {} predictions in {} s, {} per second",
+                total, seconds, Math.round(total / seconds));
+            return total;
+        } finally {
+            if (Objects.nonNull(executor)) {
+                executor.shutdownNow();
+            }
+            running.set(false);
+        }
+    }
+
+    /**
+     * Claims the job for this node, null if another node is running it or claimed it at the same time.
+     */
+    private JobWatermark claim(TransactionTemplate transactionTemplate) {
+        try {
+            return transactionTemplate.execute(status -> jobWatermarkService.start(JOB_NAME));
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            LOG.debug("Could not claim the bench prediction: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads the ids of the next chunks to predict at the same time.
+     */
+    private List<List<Long>> nextWave(long position, int chunkSize, int parallelism) {
+        List<Long> ids = employeeService.findNextIds(position, chunkSize * parallelism);
+        List<List<Long>> wave = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            wave.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return wave;
+    }
+
+    private int predict(List<List<Long>> wave, LocalDate today, LocalDate horizon, ZonedDateTime createdTime,
+                        ExecutorService executor) {
+        if (Objects.isNull(executor)) {
+            return wave.stream().mapToInt(chunk -> predict(chunk, today, horizon, createdTime)).sum();
+        }
+        List<CompletableFuture<Integer>> futures = wave.stream()
+            .map(chunk -> CompletableFuture.supplyAsync(() -> predict(chunk, today, horizon, createdTime), executor))
+            .collect(Collectors.toList());
+        // a failed chunk fails the wave, which is then predicted again by the next run
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+        return futures.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    private int predict(List<Long> chunk, LocalDate today, LocalDate horizon, ZonedDateTime createdTime) {
+        Timer.Context context = chunks.time();
+        try {
+            int written = benchPredictionsService.predict(chunk, today, horizon, createdTime);
+            predicted.mark(written);
+            return written;
+        } finally {
+            context.stop();
+        }
+    }
+}
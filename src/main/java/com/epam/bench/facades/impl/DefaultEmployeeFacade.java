@@ -1,21 +1,47 @@
 package com.epam.bench.facades.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
+import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.epam.bench.config.ApplicationProperties;
 import com.epam.bench.domain.BenchHistory;
 import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.OpportunityPosition;
+import com.epam.bench.domain.ProjectHistory;
 import com.epam.bench.facades.BenchHistoryFacade;
 import com.epam.bench.facades.CommentHistoryFacade;
 import com.epam.bench.facades.EmployeeFacade;
@@ -24,10 +50,16 @@ import com.epam.bench.facades.integration.UpsaFacade;
 import com.epam.bench.facades.integration.OpportunityFacade;
 import com.epam.bench.facades.populators.Populator;
 import com.epam.bench.service.EmployeeService;
+import com.epam.bench.service.UnitHierarchyService;
+import com.epam.bench.service.dto.bench.BulkBenchResultDto;
+import com.epam.bench.service.dto.bench.BulkBenchStatus;
 import com.epam.bench.service.dto.bench.CommentHistoryDto;
 import com.epam.bench.service.dto.bench.EmployeeDto;
+import com.epam.bench.service.dto.bench.EmployeeFacet;
 import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.dto.bench.FacetedEmployeesDto;
 import com.epam.bench.service.dto.bench.form.UpdateEmployeeFormDto;
+import com.epam.bench.service.integration.UpsaUnavailableException;
 import com.epam.bench.service.util.ServiceUtils;
 
 /**
@@ -38,6 +70,8 @@ public class DefaultEmployeeFacade implements EmployeeFacade {
 
     private final Logger LOG = LoggerFactory.getLogger(DefaultEmployeeFacade.class);
 
+    private static final int SUGGESTIONS_LIMIT = 10;
+
     @Inject
     private EmployeeService employeeService;
     @Inject
@@ -52,13 +86,40 @@ public class DefaultEmployeeFacade implements EmployeeFacade {
     private OpportunityFacade opportunityFacade;
     @Inject
     private CommentHistoryFacade commentHistoryFacade;
+    @Inject
+    private UnitHierarchyService unitHierarchyService;
+    @Inject
+    private ThreadPoolTaskExecutor upsaTaskExecutor;
+    @Inject
+    private PlatformTransactionManager transactionManager;
+    @Inject
+    private ApplicationProperties applicationProperties;
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private Timer employeeCalls;
+
+    private Timer workloadsCalls;
+
+    private Timer opportunitiesCalls;
+
+    private Timer writes;
+
+    @PostConstruct
+    public void init() {
+        employeeCalls = metricRegistry.timer(MetricRegistry.name(EmployeeFacade.class, "upsa", "employee"));
+        workloadsCalls = metricRegistry.timer(MetricRegistry.name(EmployeeFacade.class, "upsa", "workloads"));
+        opportunitiesCalls = metricRegistry.timer(MetricRegistry.name(EmployeeFacade.class, "upsa", "opportunities"));
+        writes = metricRegistry.timer(MetricRegistry.name(EmployeeFacade.class, "bench", "writes"));
+    }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<EmployeeDto> findAll(Pageable pageable) {
-        Page<Employee> all = employeeService.findAll(pageable);
+        Page<Employee> all = employeeService.findAllWithReferences(pageable);
         List<Employee> content = all.getContent();
 
-        List<EmployeeDto> employeeDtos = convertEmployeesToEmployeeDtos(content);
+        List<EmployeeDto> employeeDtos = employeeDtoPopulator.populateAll(content, EmployeeDto::new);
 
         return new PageImpl<>(employeeDtos, pageable, all.getTotalElements());
     }
@@ -89,7 +150,7 @@ public class DefaultEmployeeFacade implements EmployeeFacade {
     public boolean isEmployeeOnBench(Employee employee) {
         Optional<BenchHistory> history = benchHistoryFacade.getLastHistoryEntry(employee);
 
-        return history.map(benchHistory -> benchHistory.isBench() && Objects.isNull(benchHistory.getValidTo())).orElse(false);
+        return history.map(DefaultEmployeeFacade::isOnBench).orElse(false);
     }
 
     @Override
@@ -101,24 +162,58 @@ public class DefaultEmployeeFacade implements EmployeeFacade {
     public EmployeeDto saveEmployeeToBench(String upsaId) {
         ServiceUtils.validateParameterNotBlank(upsaId);
 
-        Optional<Employee> oUpsaEmployee = upsaFacade.getEmployee(upsaId);
-        Employee dbEmployee = employeeService.findByUpsaId(upsaId);
-        Employee employee = null;
-        if (oUpsaEmployee.isPresent()) {
-            Employee upsaEmployee = oUpsaEmployee.get();
-            if (Objects.isNull(dbEmployee)) {
-                employee = employeeService.save(upsaEmployee);
-                benchHistoryFacade.createNewEntry(employee);
+        // known employees are kept up to date by the employee synchronization, only new ones come from UPSA
+        boolean known = Objects.nonNull(employeeService.findByUpsaId(upsaId));
+        // the UPSA calls run at the same time, the employee is written once all of them answered
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        UpsaEmployee upsaEmployee;
+        try {
+            upsaEmployee = await(fetchFromUpsa(upsaId, known, upsaExecutor(), calls), deadline());
+        } finally {
+            calls.forEach(call -> call.cancel(false));
+        }
+        if (!known && Objects.isNull(upsaEmployee.employee)) {
+            return new EmployeeDto();
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        BulkBenchResultDto result = timed(writes, () -> transactionTemplate.execute(status ->
+            addToBench(Collections.singletonList(upsaId), Collections.singletonMap(upsaId, upsaEmployee)))).get().get(0);
+        return Objects.isNull(result.getEmployee()) ? new EmployeeDto() : result.getEmployee();
+    }
+
+    /**
+     * Puts the employees on the bench. The UPSA data of all of them is fetched at the same time, then they are
+     * written a chunk per transaction; a chunk that fails is written again an employee per transaction, so one
+     * failing employee does not fail the others.
+     */
+    @Override
+    public List<BulkBenchResultDto> saveEmployeesToBench(List<String> upsaIds) {
+        Map<String, BulkBenchResultDto> results = new LinkedHashMap<>();
+        List<String> requested = distinctUpsaIds(upsaIds, results);
+
+        Map<String, Employee> known = findByUpsaIds(requested);
+        Map<Long, BenchHistory> histories = benchHistoryFacade.getLastHistoryEntries(known.values());
+        List<String> adding = new ArrayList<>();
+        for (String upsaId : requested) {
+            Employee employee = known.get(upsaId);
+            if (Objects.nonNull(employee) && isOnBench(histories.get(employee.getId()))) {
+                results.put(upsaId, new BulkBenchResultDto(upsaId, BulkBenchStatus.ALREADY_ON_BENCH));
             } else {
-                updateSignificantEmployeeFields(dbEmployee, upsaEmployee);
-                employee = employeeService.save(dbEmployee);
-                benchHistoryFacade.createNewEntry(employee);
+                adding.add(upsaId);
             }
-            employee.setProjectsWorkloads(projectHistoryFacade.getAndUpdateEmployeeWorkload(upsaId));
-            employee.setOpportunityPositions(opportunityFacade.getOpportunities(upsaId));
         }
 
-        return convertEmployeeDto(employee);
+        Map<String, UpsaEmployee> fetched = fetchFromUpsa(adding, known.keySet(), results);
+        writeInChunks(new ArrayList<>(fetched.keySet()), chunk -> addToBench(chunk, fetched), results);
+        return new ArrayList<>(results.values());
+    }
+
+    @Override
+    public List<BulkBenchResultDto> removeEmployeesFromBench(List<String> upsaIds) {
+        Map<String, BulkBenchResultDto> results = new LinkedHashMap<>();
+        writeInChunks(distinctUpsaIds(upsaIds, results), this::releaseFromBench, results);
+        return new ArrayList<>(results.values());
     }
 
     @Override
@@ -130,15 +225,237 @@ public class DefaultEmployeeFacade implements EmployeeFacade {
 
     @Override
     public List<EmployeeSimpleViewDto> suggestEmployees(String query) {
-        return upsaFacade.getSuggestedEmployees(query);
+        List<EmployeeSimpleViewDto> suggestions = employeeService.suggest(query, SUGGESTIONS_LIMIT);
+        // employees that are not known locally yet can only be found in UPSA
+        return suggestions.isEmpty() ? upsaFacade.getSuggestedEmployees(query) : suggestions;
+    }
+
+    @Override
+    public FacetedEmployeesDto searchBenchEmployees(String query, Map<EmployeeFacet, List<String>> filters,
+                                                    Pageable pageable) {
+        return searchBenchEmployees(query, filters, null, pageable);
+    }
+
+    @Override
+    public FacetedEmployeesDto searchBenchEmployees(String query, Map<EmployeeFacet, List<String>> filters,
+                                                    Long unitSubtree, Pageable pageable) {
+        List<Long> unitIds = Objects.isNull(unitSubtree) ? null : unitHierarchyService.findSubtreeIds(unitSubtree);
+        return employeeService.searchBench(query, filters, unitIds, pageable);
+    }
+
+    private static boolean isOnBench(BenchHistory history) {
+        return Objects.nonNull(history) && history.isBench() && Objects.isNull(history.getValidTo());
     }
 
-    private List<EmployeeDto> convertEmployeesToEmployeeDtos(Iterable<Employee> employees) {
-        final List<EmployeeDto> resultEmployees = new ArrayList<>();
-        for (Employee employee : employees) {
-            resultEmployees.add(convertEmployeeDto(employee));
+    /**
+     * The upsa ids without duplicates, in the order of the request. The blank ones fail right away.
+     */
+    private static List<String> distinctUpsaIds(List<String> upsaIds, Map<String, BulkBenchResultDto> results) {
+        List<String> distinct = new ArrayList<>();
+        for (String upsaId : upsaIds) {
+            if (results.containsKey(upsaId)) {
+                continue;
+            }
+            if (StringUtils.isBlank(upsaId)) {
+                results.put(upsaId, new BulkBenchResultDto(upsaId, BulkBenchStatus.FAILED, "Blank upsa id"));
+            } else {
+                // keeps the place of the employee in the results
+                results.put(upsaId, null);
+                distinct.add(upsaId);
+            }
+        }
+        return distinct;
+    }
+
+    private Map<String, Employee> findByUpsaIds(List<String> upsaIds) {
+        Map<String, Employee> employees = new HashMap<>();
+        employeeService.findByUpsaIds(upsaIds).forEach(employee -> employees.put(employee.getUpsaId(), employee));
+        return employees;
+    }
+
+    /**
+     * Fetches the UPSA data of all the employees at the same time. The employees UPSA does not know or does not
+     * answer for before the deadline get their outcome right away.
+     */
+    private Map<String, UpsaEmployee> fetchFromUpsa(List<String> upsaIds, Set<String> known,
+                                                    Map<String, BulkBenchResultDto> results) {
+        Executor executor = upsaExecutor();
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        Map<String, CompletableFuture<UpsaEmployee>> futures = new LinkedHashMap<>();
+        for (String upsaId : upsaIds) {
+            futures.put(upsaId, fetchFromUpsa(upsaId, known.contains(upsaId), executor, calls));
+        }
+
+        long deadline = deadline();
+        Map<String, UpsaEmployee> fetched = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, CompletableFuture<UpsaEmployee>> future : futures.entrySet()) {
+                String upsaId = future.getKey();
+                try {
+                    UpsaEmployee upsaEmployee = await(future.getValue(), deadline);
+                    if (known.contains(upsaId) || Objects.nonNull(upsaEmployee.employee)) {
+                        fetched.put(upsaId, upsaEmployee);
+                    } else {
+                        results.put(upsaId, new BulkBenchResultDto(upsaId, BulkBenchStatus.NOT_FOUND, "Employee not found in UPSA"));
+                    }
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not fetch employee {} from UPSA: {}", upsaId, e.getMessage());
+                    results.put(upsaId, new BulkBenchResultDto(upsaId, BulkBenchStatus.FAILED, e.getMessage()));
+                }
+            }
+        } finally {
+            calls.forEach(call -> call.cancel(false));
+        }
+        return fetched;
+    }
+
+    /**
+     * Starts the UPSA calls for an employee: the employee itself unless it is known locally, its workloads and its
+     * opportunities, all at the same time on the given executor. The calls are added to the given list, to be
+     * cancelled once they are not waited for any more.
+     */
+    private CompletableFuture<UpsaEmployee> fetchFromUpsa(String upsaId, boolean known, Executor executor,
+                                                          List<CompletableFuture<?>> calls) {
+        CompletableFuture<Employee> employee = known
+            ? CompletableFuture.completedFuture(null)
+            : submit(timed(employeeCalls, () -> upsaFacade.getEmployee(upsaId).orElse(null)), executor, calls);
+        CompletableFuture<Set<ProjectHistory>> workloads = submit(
+            timed(workloadsCalls, () -> upsaFacade.getEmployeeWorkloads(upsaId)), executor, calls);
+        CompletableFuture<Set<OpportunityPosition>> opportunities = submit(
+            timed(opportunitiesCalls, () -> opportunityFacade.getOpportunities(upsaId)), executor, calls);
+        return employee.thenCombine(workloads, UpsaEmployee::new).thenCombine(opportunities, UpsaEmployee::opportunities);
+    }
+
+    /**
+     * Starts the call on the executor and adds it to the given list. A call the full executor refuses fails, as if
+     * UPSA were unavailable.
+     */
+    private static <T> CompletableFuture<T> submit(Supplier<T> call, Executor executor, List<CompletableFuture<?>> calls) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(new UpsaUnavailableException("Too many UPSA calls queued", e));
+        }
+        calls.add(future);
+        return future;
+    }
+
+    /**
+     * The UPSA executor, which bounds the number of concurrent calls. The calls use the UPSA token of the current
+     * user.
+     */
+    private Executor upsaExecutor() {
+        return new DelegatingSecurityContextExecutor(upsaTaskExecutor, SecurityContextHolder.getContext());
+    }
+
+    /**
+     * The time, in {@link System#nanoTime()}, the UPSA calls of the current request have to answer by.
+     */
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(applicationProperties.getUpsa().getRequestDeadlineMillis());
+    }
+
+    /**
+     * Waits for the UPSA calls until the deadline, so a slow UPSA does not hold the request thread.
+     */
+    private static <T> T await(CompletableFuture<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new UpsaUnavailableException("UPSA did not answer in time");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause
+                : new UpsaUnavailableException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpsaUnavailableException("Interrupted while waiting for UPSA", e);
+        }
+    }
+
+    private static <T> Supplier<T> timed(Timer timer, Supplier<T> call) {
+        return () -> {
+            Timer.Context context = timer.time();
+            try {
+                return call.get();
+            } finally {
+                context.stop();
+            }
+        };
+    }
+
+    private List<BulkBenchResultDto> addToBench(List<String> upsaIds, Map<String, UpsaEmployee> fetched) {
+        // read again in the transaction, an employee may have been created since
+        Map<String, Employee> employees = findByUpsaIds(upsaIds);
+        List<BulkBenchResultDto> added = new ArrayList<>();
+        for (String upsaId : upsaIds) {
+            UpsaEmployee upsaEmployee = fetched.get(upsaId);
+            Employee employee = employees.get(upsaId);
+            if (Objects.isNull(employee)) {
+                if (Objects.isNull(upsaEmployee.employee)) {
+                    added.add(new BulkBenchResultDto(upsaId, BulkBenchStatus.NOT_FOUND, "Employee not found"));
+                    continue;
+                }
+                employee = employeeService.save(createEmployee(upsaEmployee.employee));
+            }
+            benchHistoryFacade.createNewEntry(employee);
+            employee.setProjectsWorkloads(projectHistoryFacade.updateEmployeeWorkload(employee, upsaEmployee.workloads));
+            employee.setOpportunityPositions(upsaEmployee.opportunities);
+
+            BulkBenchResultDto result = new BulkBenchResultDto(upsaId, BulkBenchStatus.ADDED);
+            result.setEmployee(convertEmployeeDto(employee));
+            added.add(result);
+        }
+        return added;
+    }
+
+    private List<BulkBenchResultDto> releaseFromBench(List<String> upsaIds) {
+        Map<String, Employee> employees = findByUpsaIds(upsaIds);
+        Map<Long, BenchHistory> histories = benchHistoryFacade.getLastHistoryEntries(employees.values());
+        List<BulkBenchResultDto> released = new ArrayList<>();
+        for (String upsaId : upsaIds) {
+            Employee employee = employees.get(upsaId);
+            if (Objects.isNull(employee)) {
+                released.add(new BulkBenchResultDto(upsaId, BulkBenchStatus.NOT_FOUND, "Employee not found"));
+            } else if (!isOnBench(histories.get(employee.getId()))) {
+                released.add(new BulkBenchResultDto(upsaId, BulkBenchStatus.NOT_ON_BENCH));
+            } else {
+                benchHistoryFacade.releaseEmployeeFromBench(histories.get(employee.getId()));
+                released.add(new BulkBenchResultDto(upsaId, BulkBenchStatus.REMOVED));
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Writes the employees a chunk per transaction. The employees of a chunk that fails are written again one per
+     * transaction, to tell the failing ones from the others.
+     */
+    private void writeInChunks(List<String> upsaIds, Function<List<String>, List<BulkBenchResultDto>> write,
+                               Map<String, BulkBenchResultDto> results) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int chunkSize = Math.max(1, applicationProperties.getUpsa().getBulkChunkSize());
+        for (int from = 0; from < upsaIds.size(); from += chunkSize) {
+            List<String> chunk = upsaIds.subList(from, Math.min(from + chunkSize, upsaIds.size()));
+            try {
+                timed(writes, () -> transactionTemplate.execute(status -> write.apply(chunk))).get()
+                    .forEach(result -> results.put(result.getUpsaId(), result));
+            } catch (RuntimeException e) {
+                LOG.warn("Could not write a chunk of {} employees, writing them one by one: {}", chunk.size(),
+                    e.getMessage());
+                for (String upsaId : chunk) {
+                    try {
+                        transactionTemplate.execute(status -> write.apply(Collections.singletonList(upsaId)))
+                            .forEach(result -> results.put(result.getUpsaId(), result));
+                    } catch (RuntimeException failure) {
+                        LOG.warn("Could not write employee {}: {}", upsaId, failure.getMessage());
+                        results.put(upsaId, new BulkBenchResultDto(upsaId, BulkBenchStatus.FAILED, failure.getMessage()));
+                    }
+                }
+            }
         }
-        return resultEmployees;
     }
 
     private EmployeeDto convertEmployeeDto(Employee employee) {
@@ -147,6 +464,19 @@ public class DefaultEmployeeFacade implements EmployeeFacade {
         return employeeDto;
     }
 
+    /**
+     * Creates a new employee from the UPSA one, which may be shared by the UPSA cache.
+     */
+    private Employee createEmployee(Employee upsaEmployee) {
+        Employee employee = new Employee()
+            .upsaId(upsaEmployee.getUpsaId())
+            .email(upsaEmployee.getEmail())
+            .hireDate(upsaEmployee.getHireDate())
+            .gender(upsaEmployee.getGender());
+        updateSignificantEmployeeFields(employee, upsaEmployee);
+        return employee;
+    }
+
     private void updateSignificantEmployeeFields(Employee dbEmployee, Employee upsaEmployee) {
         dbEmployee.setActive(upsaEmployee.isActive());
         dbEmployee.setManagerId(upsaEmployee.getManagerId());
@@ -160,4 +490,24 @@ public class DefaultEmployeeFacade implements EmployeeFacade {
         dbEmployee.setProductionStatus(upsaEmployee.getProductionStatus());
         dbEmployee.setLocation(upsaEmployee.getLocation());
     }
+
+    /**
+     * What UPSA knows of an employee to put on the bench; no employee if it is known locally.
+     */
+    private static final class UpsaEmployee {
+
+        private final Employee employee;
+        private final Set<ProjectHistory> workloads;
+        private Set<OpportunityPosition> opportunities;
+
+        private UpsaEmployee(Employee employee, Set<ProjectHistory> workloads) {
+            this.employee = employee;
+            this.workloads = workloads;
+        }
+
+        private UpsaEmployee opportunities(Set<OpportunityPosition> opportunities) {
+            this.opportunities = opportunities;
+            return this;
+        }
+    }
 }
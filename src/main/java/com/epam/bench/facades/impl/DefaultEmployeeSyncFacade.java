@@ -0,0 +1,208 @@
+package com.epam.bench.facades.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.JobWatermark;
+import com.epam.bench.facades.EmployeeSyncFacade;
+import com.epam.bench.facades.integration.UpsaFacade;
+import com.epam.bench.service.EmployeeService;
+import com.epam.bench.service.JobWatermarkService;
+
+/**
+ * Synchronizes the local employees with UPSA in the background.
+ * <p>
+ * Employees are walked in id order, one page at a time. Each page is fetched from UPSA in bulk
+ * outside of any transaction, then only the employees whose data changed are written, in one
+ * transaction together with the new watermark. A run that stops half way resumes after the last
+ * written page.
+ * <p>
+ * The job runs on one node at a time: a node claims it with the lease of its watermark, see
+ * {@link JobWatermarkService}, and stops once another node has taken it over.
+ */
+@Service
+public class DefaultEmployeeSyncFacade implements EmployeeSyncFacade {
+
+    static final String JOB_NAME = "employee-sync";
+
+    private final Logger LOG = LoggerFactory.getLogger(DefaultEmployeeSyncFacade.class);
+
+    @Inject
+    private EmployeeService employeeService;
+    @Inject
+    private JobWatermarkService jobWatermarkService;
+    @Inject
+    private UpsaFacade upsaFacade;
+    @Inject
+    private ApplicationProperties applicationProperties;
+    @Inject
+    private PlatformTransactionManager transactionManager;
+    @Inject
+    @Qualifier("taskExecutor")
+    private TaskExecutor taskExecutor;
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private Timer pages;
+
+    private Meter scanned;
+
+    private Meter updated;
+
+    @PostConstruct
+    public void init() {
+        pages = metricRegistry.timer(MetricRegistry.name(EmployeeSyncFacade.class, "pages"));
+        scanned = metricRegistry.meter(MetricRegistry.name(EmployeeSyncFacade.class, "scanned"));
+        updated = metricRegistry.meter(MetricRegistry.name(EmployeeSyncFacade.class, "updated"));
+    }
+
+    /**
+     * Starts a synchronization on the task executor, so it does not hold up the other scheduled jobs.
+     */
+    @Scheduled(cron = "${application.sync.cron}")
+    public void scheduleSynchronization() {
+        if (applicationProperties.getSync().isEnabled()) {
+            taskExecutor.execute(this::synchronizeEmployees);
+        }
+    }
+
+    @Override
+    public long synchronizeEmployees() {
+        if (!running.compareAndSet(false, true)) {
+            LOG.info("Employee synchronization is already running");
+            return 0;
+        }
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            int pageSize = applicationProperties.getSync().getPageSize();
+            JobWatermark watermark = claim(transactionTemplate);
+            if (Objects.isNull(watermark)) {
+                LOG.info("Employee synchronization is running on another node");
+                return 0;
+            }
+
+            long position = watermark.getPosition();
+            long changed = 0;
+            List<Employee> page = employeeService.findNextPage(position, pageSize);
+            while (!page.isEmpty()) {
+                Timer.Context context = pages.time();
+                try {
+                    List<Employee> changedEmployees = findChangedEmployees(page);
+                    long lastId = page.get(page.size() - 1).getId();
+                    int pageLength = page.size();
+                    boolean leased = transactionTemplate.execute(status -> {
+                        // locks the watermark first, so a node taking the job over waits for the page
+                        if (!jobWatermarkService.advance(JOB_NAME, lastId, pageLength)) {
+                            return false;
+                        }
+                        employeeService.save(changedEmployees);
+                        return true;
+                    });
+                    if (!leased) {
+                        LOG.warn("Employee synchronization was taken over by another node after {} updates", changed);
+                        return changed;
+                    }
+                    position = lastId;
+                    changed += changedEmployees.size();
+                    scanned.mark(pageLength);
+                    updated.mark(changedEmployees.size());
+                } finally {
+                    context.stop();
+                }
+                page = employeeService.findNextPage(position, pageSize);
+            }
+
+            transactionTemplate.execute(status -> {
+                jobWatermarkService.complete(JOB_NAME);
+                return null;
+            });
+            LOG.info("Employee synchronization updated {} employees", changed);
+            return changed;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Claims the job for this node, null if another node is running it or claimed it at the same time.
+     */
+    private JobWatermark claim(TransactionTemplate transactionTemplate) {
+        try {
+            return transactionTemplate.execute(status -> jobWatermarkService.start(JOB_NAME));
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            LOG.debug("Could not claim the employee synchronization: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private List<Employee> findChangedEmployees(List<Employee> employees) {
+        List<String> upsaIds = employees.stream().map(Employee::getUpsaId).collect(Collectors.toList());
+        Map<String, Employee> upsaEmployees = upsaFacade.getEmployees(upsaIds);
+
+        List<Employee> changedEmployees = new ArrayList<>();
+        for (Employee employee : employees) {
+            Employee upsaEmployee = upsaEmployees.get(employee.getUpsaId());
+            if (Objects.nonNull(upsaEmployee) && updateChangedFields(employee, upsaEmployee)) {
+                changedEmployees.add(employee);
+            }
+        }
+        return changedEmployees;
+    }
+
+    /**
+     * Copies the fields UPSA provides onto the local employee.
+     *
+     * @return true if any field changed
+     */
+    private boolean updateChangedFields(Employee employee, Employee upsaEmployee) {
+        boolean changed = update(employee.getEmail(), upsaEmployee.getEmail(), employee::setEmail);
+        changed |= update(employee.getFullName(), upsaEmployee.getFullName(), employee::setFullName);
+        changed |= update(employee.getManagerId(), upsaEmployee.getManagerId(), employee::setManagerId);
+        changed |= update(employee.getManagerFullName(), upsaEmployee.getManagerFullName(), employee::setManagerFullName);
+        changed |= update(employee.isActive(), upsaEmployee.isActive(), employee::setActive);
+        changed |= update(employee.getGender(), upsaEmployee.getGender(), employee::setGender);
+        if (Objects.nonNull(upsaEmployee.getHireDate())
+            && (Objects.isNull(employee.getHireDate()) || !employee.getHireDate().isEqual(upsaEmployee.getHireDate()))) {
+            employee.setHireDate(upsaEmployee.getHireDate());
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Sets the value if UPSA provides one and it differs from the local one.
+     */
+    private static <T> boolean update(T current, T updated, Consumer<T> setter) {
+        if (Objects.isNull(updated) || Objects.equals(current, updated)) {
+            return false;
+        }
+        setter.accept(updated);
+        return true;
+    }
+}
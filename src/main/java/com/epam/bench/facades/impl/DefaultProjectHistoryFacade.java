@@ -1,6 +1,11 @@
 package com.epam.bench.facades.impl;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -9,9 +14,12 @@ import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.Project;
 import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.domain.ProjectRole;
 import com.epam.bench.facades.ProjectHistoryFacade;
 import com.epam.bench.facades.integration.UpsaFacade;
 import com.epam.bench.service.EmployeeService;
@@ -35,19 +43,15 @@ public class DefaultProjectHistoryFacade implements ProjectHistoryFacade {
     @Override
     public void removeAll(Set<ProjectHistory> projectsWorkloads) {
         LOG.debug("Removing {} workloads from employee", projectsWorkloads.size());
-        for (ProjectHistory projectsWorkload : projectsWorkloads) {
-            projectHistoryService.delete(projectsWorkload.getId());
-        }
+        projectHistoryService.delete(projectsWorkloads);
     }
 
     @Override
     public Set<ProjectHistory> saveAll(Set<ProjectHistory> projectsWorkloads) {
-        Set<ProjectHistory> result = Collections.emptySet();
+        Set<ProjectHistory> result = new HashSet<>();
         if (CollectionUtils.isNotEmpty(projectsWorkloads)) {
             LOG.debug("Saving expected {} workloads for employee", projectsWorkloads.size());
-            for (ProjectHistory workload : projectsWorkloads) {
-                result.add(projectHistoryService.save(workload));
-            }
+            result.addAll(projectHistoryService.save(new ArrayList<>(projectsWorkloads)));
         }
         LOG.debug("Saving actual {} workloads for employee", result.size());
 
@@ -55,20 +59,78 @@ public class DefaultProjectHistoryFacade implements ProjectHistoryFacade {
     }
 
     @Override
+    @Transactional
     public Set<ProjectHistory> getAndUpdateEmployeeWorkload(String upsaId) {
         Employee byUpsaId = employeeService.findByUpsaId(upsaId);
         return getAndUpdateEmployeeWorkload(byUpsaId);
     }
 
     @Override
+    @Transactional
     public Set<ProjectHistory> getAndUpdateEmployeeWorkload(Employee employee) {
+        return updateEmployeeWorkload(employee, upsaFacade.getEmployeeWorkloads(employee.getUpsaId()));
+    }
+
+    /**
+     * Brings the stored workloads of the employee in line with the UPSA ones. The workloads are matched by
+     * project, role and date, so only the new, changed and dropped ones are written.
+     */
+    @Override
+    @Transactional
+    public Set<ProjectHistory> updateEmployeeWorkload(Employee employee, Set<ProjectHistory> currentWorkloads) {
         LOG.debug("Start update employee {} workloads", employee.getUpsaId());
-        Set<ProjectHistory> projectsWorkloads = employee.getProjectsWorkloads();
-        removeAll(projectsWorkloads);
+        Map<String, ProjectHistory> storedWorkloads = new HashMap<>();
+        List<ProjectHistory> removedWorkloads = new ArrayList<>();
+        for (ProjectHistory workload : projectHistoryService.findByEmployee(employee)) {
+            ProjectHistory duplicate = storedWorkloads.put(workloadKey(workload), workload);
+            if (Objects.nonNull(duplicate)) {
+                removedWorkloads.add(duplicate);
+            }
+        }
 
-        Set<ProjectHistory> currentWorkloads = upsaFacade.getEmployeeWorkloads(employee.getUpsaId());
+        Set<ProjectHistory> result = new HashSet<>();
+        List<ProjectHistory> changedWorkloads = new ArrayList<>();
+        for (ProjectHistory currentWorkload : currentWorkloads) {
+            ProjectHistory storedWorkload = storedWorkloads.remove(workloadKey(currentWorkload));
+            if (Objects.isNull(storedWorkload)) {
+                // the UPSA workloads may be shared through the UPSA cache, so a new entity is stored
+                changedWorkloads.add(new ProjectHistory()
+                    .date(currentWorkload.getDate())
+                    .workload(currentWorkload.getWorkload())
+                    .role(currentWorkload.getRole())
+                    .project(currentWorkload.getProject())
+                    .employee(employee));
+            } else if (!Objects.equals(storedWorkload.getWorkload(), currentWorkload.getWorkload())) {
+                storedWorkload.setWorkload(currentWorkload.getWorkload());
+                changedWorkloads.add(storedWorkload);
+            } else {
+                result.add(storedWorkload);
+            }
+        }
 
-        return saveAll(currentWorkloads);
+        removedWorkloads.addAll(storedWorkloads.values());
+        LOG.debug("Employee {} workloads: {} saved, {} removed, {} unchanged", employee.getUpsaId(),
+            changedWorkloads.size(), removedWorkloads.size(), result.size());
+        projectHistoryService.delete(removedWorkloads);
+        result.addAll(projectHistoryService.save(changedWorkloads));
+        return result;
+    }
+
+    private String workloadKey(ProjectHistory workload) {
+        return projectKey(workload.getProject()) + '|' + roleKey(workload.getRole()) + '|' + workload.getDate();
+    }
+
+    private String projectKey(Project project) {
+        if (Objects.isNull(project)) {
+            return "";
+        }
+        return Objects.nonNull(project.getUpsaId()) ? project.getUpsaId() : "#" + project.getId();
     }
 
+    private String roleKey(ProjectRole role) {
+        if (Objects.isNull(role)) {
+            return "";
+        }
+        return Objects.nonNull(role.getUpsaId()) ? role.getUpsaId() : "#" + role.getId();
+    }
 }
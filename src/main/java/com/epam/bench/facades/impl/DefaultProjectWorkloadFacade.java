@@ -1,9 +1,25 @@
 package com.epam.bench.facades.impl;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
 import org.springframework.stereotype.Service;
 
 import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.Project;
+import com.epam.bench.domain.WorkloadInterval;
 import com.epam.bench.facades.ProjectWorkloadFacade;
+import com.epam.bench.service.BenchStateService;
+import com.epam.bench.service.WorkloadTimelineService;
+import com.epam.bench.service.dto.bench.ProjectWorkloadDto;
 
 /**
  * Created by Tetiana_Antonenko1
@@ -11,8 +27,52 @@ import com.epam.bench.facades.ProjectWorkloadFacade;
 @Service
 public class DefaultProjectWorkloadFacade implements ProjectWorkloadFacade {
 
+    @Inject
+    private BenchStateService benchStateService;
+
+    @Inject
+    private WorkloadTimelineService workloadTimelineService;
+
     @Override
     public int getDaysOnBench(Employee employee) {
-        return 0;
+        return benchStateService.getDaysOnBench(employee);
+    }
+
+    @Override
+    public Map<Long, Integer> getDaysOnBench(Collection<Employee> employees) {
+        Map<Long, Integer> days = new HashMap<>(benchStateService.getDaysOnBench(employees));
+        for (Employee employee : employees) {
+            days.putIfAbsent(employee.getId(), 0);
+        }
+        return days;
+    }
+
+    @Override
+    public List<ProjectWorkloadDto> getCurrentWorkloads(Employee employee) {
+        return getCurrentWorkloads(Collections.singletonList(employee))
+            .getOrDefault(employee.getId(), Collections.emptyList());
+    }
+
+    @Override
+    public Map<Long, List<ProjectWorkloadDto>> getCurrentWorkloads(Collection<Employee> employees) {
+        Map<Long, List<WorkloadInterval>> allocations = workloadTimelineService.findAllocations(employees, LocalDate.now());
+        Map<Long, List<ProjectWorkloadDto>> workloads = new HashMap<>();
+        allocations.forEach((employeeId, intervals) -> workloads.put(employeeId,
+            intervals.stream().map(this::toWorkloadDto).collect(Collectors.toList())));
+        return workloads;
+    }
+
+    private ProjectWorkloadDto toWorkloadDto(WorkloadInterval interval) {
+        ProjectWorkloadDto workloadDto = new ProjectWorkloadDto();
+        Project project = interval.getProject();
+        if (Objects.nonNull(project)) {
+            workloadDto.setId(project.getUpsaId());
+            workloadDto.setName(project.getName());
+            if (Objects.nonNull(project.getCategory())) {
+                workloadDto.setType(project.getCategory().getName());
+            }
+        }
+        workloadDto.setWorkload(interval.getWorkload());
+        return workloadDto;
     }
 }
@@ -1,6 +1,8 @@
 package com.epam.bench.facades.integration;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -19,6 +21,14 @@ public interface UpsaFacade {
 
     Optional<Employee> getEmployee(String upsaId);
 
+    /**
+     * Get several employees from UPSA at once.
+     *
+     * @param upsaIds the UPSA ids of the employees
+     * @return the employees by UPSA id, without the ones UPSA does not know or could not return
+     */
+    Map<String, Employee> getEmployees(Collection<String> upsaIds);
+
     LanguageLevel getEnglishLevelAssessment(String upsaId);
 
     Set<ProjectHistory> getEmployeeWorkloads(String upsaId);
@@ -0,0 +1,108 @@
+package com.epam.bench.facades.integration.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.LanguageLevel;
+import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.facades.integration.UpsaFacade;
+import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.util.SingleFlightCache;
+
+/**
+ * Read-through cache in front of {@link DefaultUpsaFacade}.
+ * <p>
+ * The returned objects are shared between callers and must not be changed or persisted as they
+ * are; copy them first. {@link #getEmployees(Collection)} is used for synchronization and always
+ * goes to UPSA.
+ */
+@Service
+@Primary
+public class CachingUpsaFacade implements UpsaFacade {
+
+    @Inject
+    @Qualifier("defaultUpsaFacade")
+    private UpsaFacade upsaFacade;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private SingleFlightCache<String, Employee> employees;
+
+    private SingleFlightCache<String, LanguageLevel> englishLevels;
+
+    private SingleFlightCache<String, Set<ProjectHistory>> workloads;
+
+    private SingleFlightCache<String, List<EmployeeSimpleViewDto>> suggestions;
+
+    @PostConstruct
+    public void init() {
+        ApplicationProperties.Upsa.Cache cache = applicationProperties.getUpsa().getCache();
+        employees = createCache("employees", cache.getEmployeeTimeToLiveSeconds());
+        englishLevels = createCache("englishLevels", cache.getEnglishLevelTimeToLiveSeconds());
+        workloads = createCache("workloads", cache.getWorkloadsTimeToLiveSeconds());
+        suggestions = createCache("suggestions", cache.getSuggestionsTimeToLiveSeconds());
+    }
+
+    @Override
+    public Optional<Employee> getEmployee(String upsaId) {
+        return Optional.ofNullable(employees.get(upsaId, id -> upsaFacade.getEmployee(id).orElse(null)));
+    }
+
+    @Override
+    public Map<String, Employee> getEmployees(Collection<String> upsaIds) {
+        return upsaFacade.getEmployees(upsaIds);
+    }
+
+    @Override
+    public LanguageLevel getEnglishLevelAssessment(String upsaId) {
+        return englishLevels.get(upsaId, upsaFacade::getEnglishLevelAssessment);
+    }
+
+    @Override
+    public Set<ProjectHistory> getEmployeeWorkloads(String upsaId) {
+        Set<ProjectHistory> employeeWorkloads = workloads.get(upsaId, id -> emptyToNull(upsaFacade.getEmployeeWorkloads(id)));
+        return Objects.isNull(employeeWorkloads) ? Collections.emptySet() : new HashSet<>(employeeWorkloads);
+    }
+
+    @Override
+    public List<EmployeeSimpleViewDto> getSuggestedEmployees(String query) {
+        String key = StringUtils.trimToEmpty(query).toLowerCase(Locale.ENGLISH);
+        List<EmployeeSimpleViewDto> suggested = suggestions.get(key, k -> emptyToNull(upsaFacade.getSuggestedEmployees(query)));
+        return Objects.isNull(suggested) ? Collections.emptyList() : Collections.unmodifiableList(suggested);
+    }
+
+    private <V> SingleFlightCache<String, V> createCache(String name, int timeToLiveSeconds) {
+        ApplicationProperties.Upsa.Cache cache = applicationProperties.getUpsa().getCache();
+        return new SingleFlightCache<>(MetricRegistry.name(UpsaFacade.class, "cache", name),
+            timeToLiveSeconds * 1000L, cache.getNotFoundTimeToLiveSeconds() * 1000L, cache.getMaxEntries(), metricRegistry);
+    }
+
+    /**
+     * Empty answers are cached with the "not found" time to live.
+     */
+    private static <C extends Collection<?>> C emptyToNull(C collection) {
+        return Objects.isNull(collection) || collection.isEmpty() ? null : collection;
+    }
+}
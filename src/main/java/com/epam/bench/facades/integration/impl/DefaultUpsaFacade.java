@@ -1,7 +1,10 @@
 package com.epam.bench.facades.integration.impl;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -12,7 +15,9 @@ import org.springframework.stereotype.Service;
 import com.epam.bench.domain.Employee;
 import com.epam.bench.domain.LanguageLevel;
 import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.domain.integration.upsa.EmployeeSimpleView;
 import com.epam.bench.facades.integration.UpsaFacade;
+import com.epam.bench.facades.populators.Populator;
 import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
 import com.epam.bench.service.integration.UpsaService;
 
@@ -24,11 +29,20 @@ public class DefaultUpsaFacade implements UpsaFacade {
 
     @Inject
     private UpsaService upsaService;
+    @Inject
+    private Populator<EmployeeSimpleView, Employee> upsaEmployeePopulator;
 
     @Override
     public Optional<Employee> getEmployee(String upsaId) {
-        //TODO implement
-        return Optional.empty();
+        return Optional.ofNullable(upsaService.getEmployee(upsaId)).map(this::convertEmployee);
+    }
+
+    @Override
+    public Map<String, Employee> getEmployees(Collection<String> upsaIds) {
+        Map<String, Employee> employees = new LinkedHashMap<>();
+        upsaService.getEmployees(upsaIds).forEach((upsaId, employeeSimpleView) ->
+            employees.put(upsaId, convertEmployee(employeeSimpleView)));
+        return employees;
     }
 
     @Override
@@ -48,4 +62,10 @@ public class DefaultUpsaFacade implements UpsaFacade {
         //TODO implement
         return Collections.emptyList();
     }
+
+    private Employee convertEmployee(EmployeeSimpleView employeeSimpleView) {
+        Employee employee = new Employee();
+        upsaEmployeePopulator.populate(employeeSimpleView, employee);
+        return employee;
+    }
 }
@@ -1,9 +1,27 @@
 package com.epam.bench.facades.populators;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
 /**
  * Created by Tetiana_Antonenko1.
  */
 public interface Populator<SOURCE, TARGET> {
 
     void populate(SOURCE source, TARGET target);
+
+    /**
+     * Populates a whole batch of sources at once. Implementations that need extra data per source
+     * should override it to load that data for the batch instead of row by row.
+     */
+    default List<TARGET> populateAll(List<SOURCE> sources, Supplier<TARGET> targetFactory) {
+        List<TARGET> targets = new ArrayList<>(sources.size());
+        for (SOURCE source : sources) {
+            TARGET target = targetFactory.get();
+            populate(source, target);
+            targets.add(target);
+        }
+        return targets;
+    }
 }
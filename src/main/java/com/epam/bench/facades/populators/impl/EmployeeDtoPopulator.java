@@ -2,8 +2,11 @@ package com.epam.bench.facades.populators.impl;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import javax.inject.Inject;
 
@@ -38,6 +41,26 @@ public class EmployeeDtoPopulator implements Populator<Employee, EmployeeDto> {
         if (Objects.isNull(employee)) {
             return;
         }
+        populate(employee, employeeDto, projectWorkloadFacade.getDaysOnBench(employee),
+            projectWorkloadFacade.getCurrentWorkloads(employee));
+    }
+
+    @Override
+    public List<EmployeeDto> populateAll(List<Employee> employees, Supplier<EmployeeDto> targetFactory) {
+        Map<Long, Integer> daysOnBench = projectWorkloadFacade.getDaysOnBench(employees);
+        Map<Long, List<ProjectWorkloadDto>> workloads = projectWorkloadFacade.getCurrentWorkloads(employees);
+        List<EmployeeDto> employeeDtos = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            EmployeeDto employeeDto = targetFactory.get();
+            populate(employee, employeeDto, daysOnBench.getOrDefault(employee.getId(), 0),
+                workloads.getOrDefault(employee.getId(), Collections.emptyList()));
+            employeeDtos.add(employeeDto);
+        }
+        return employeeDtos;
+    }
+
+    private void populate(Employee employee, EmployeeDto employeeDto, int daysOnBench,
+                          List<ProjectWorkloadDto> workloads) {
         employeeDto.setUpsaId(StringUtils.defaultString(employee.getUpsaId()));
         employeeDto.setManagerId(StringUtils.defaultString(employee.getManagerId()));
         employeeDto.setManager(StringUtils.defaultString(employee.getManagerFullName()));
@@ -56,9 +79,9 @@ public class EmployeeDtoPopulator implements Populator<Employee, EmployeeDto> {
 
         populateProposalPositions(employee, employeeDto);
 
-        populateWorkload(employee, employeeDto);
+        employeeDto.setWorkload(new ArrayList<>(workloads));
 
-        employeeDto.setDaysOnBench(projectWorkloadFacade.getDaysOnBench(employee));
+        employeeDto.setDaysOnBench(daysOnBench);
 
         populateProbability(employee, employeeDto);
 
@@ -91,18 +114,6 @@ public class EmployeeDtoPopulator implements Populator<Employee, EmployeeDto> {
         }
     }
 
-    private void populateWorkload(Employee employee, EmployeeDto employeeDto) {
-        List<ProjectWorkloadDto> workloadDto = new ArrayList<>();
-        ProjectWorkloadDto projectWorkloadDto = new ProjectWorkloadDto();
-        projectWorkloadDto.setType("Internal Project");
-        projectWorkloadDto.setName("EPM-TEST");
-        projectWorkloadDto.setWorkload(80);
-        projectWorkloadDto.setId("456432154651324621");
-
-        workloadDto.add(projectWorkloadDto);
-        employeeDto.setWorkload(workloadDto);
-    }
-
     private void populateProposalPositions(Employee source, EmployeeDto target) {
        /* List<ProposalsPosition> sourcePositions = proposalsPositionDao.findByEmployeeUpsaId(source.getUpsaId());
         List<ProposedPositionsDto> targetPositions = new ArrayList<>();
@@ -0,0 +1,55 @@
+package com.epam.bench.facades.populators.impl;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+import org.apache.commons.lang.StringUtils;
+import org.springframework.stereotype.Component;
+
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.enumeration.Gender;
+import com.epam.bench.domain.integration.upsa.CustomEmployeeSimpleViewDto;
+import com.epam.bench.domain.integration.upsa.EmployeeSimpleView;
+import com.epam.bench.facades.populators.Populator;
+
+/**
+ * Populates an {@link Employee} from the UPSA view of the employee.
+ */
+@Component
+public class UpsaEmployeePopulator implements Populator<EmployeeSimpleView, Employee> {
+
+    @Override
+    public void populate(EmployeeSimpleView employeeSimpleView, Employee employee) {
+        if (Objects.isNull(employeeSimpleView)) {
+            return;
+        }
+        employee.setUpsaId(toId(employeeSimpleView.getEmployeeId()));
+        employee.setEmail(employeeSimpleView.getEmail());
+        employee.setFullName(employeeSimpleView.getFullname());
+        employee.setManagerFullName(employeeSimpleView.getManager());
+        employee.setActive(employeeSimpleView.isActive());
+        employee.setGender(toGender(employeeSimpleView.getGender()));
+        if (Objects.nonNull(employeeSimpleView.getHireDate())) {
+            employee.setHireDate(ZonedDateTime.ofInstant(employeeSimpleView.getHireDate().toInstant(), ZoneId.systemDefault()));
+        }
+        if (employeeSimpleView instanceof CustomEmployeeSimpleViewDto) {
+            employee.setManagerId(toId(((CustomEmployeeSimpleViewDto) employeeSimpleView).getManagerId()));
+        }
+    }
+
+    private String toId(BigDecimal id) {
+        return Objects.isNull(id) ? null : id.toPlainString();
+    }
+
+    private Gender toGender(String gender) {
+        if (StringUtils.startsWithIgnoreCase(gender, "M")) {
+            return Gender.MALE;
+        }
+        if (StringUtils.startsWithIgnoreCase(gender, "F")) {
+            return Gender.FEMALE;
+        }
+        return null;
+    }
+}
@@ -4,7 +4,9 @@ import com.epam.bench.domain.BenchHistory;
 import com.epam.bench.domain.Employee;
 
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,4 +16,8 @@ import java.util.List;
 public interface BenchHistoryRepository extends JpaRepository<BenchHistory,Long> {
 
     List<BenchHistory> findByEmployee(Employee employee);
+
+    @Query("select history from BenchHistory history where history.employee in :employees"
+        + " and history.createdTime = (select max(last.createdTime) from BenchHistory last where last.employee = history.employee)")
+    List<BenchHistory> findLastByEmployees(@Param("employees") Collection<Employee> employees);
 }
@@ -1,9 +1,13 @@
 package com.epam.bench.repository;
 
 import com.epam.bench.domain.BenchPredictions;
+import com.epam.bench.domain.Employee;
 
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,4 +16,16 @@ import java.util.List;
 @SuppressWarnings("unused")
 public interface BenchPredictionsRepository extends JpaRepository<BenchPredictions,Long> {
 
+    @Query("select prediction from BenchPredictions prediction left join fetch prediction.details"
+        + " where prediction.employee in :employees")
+    List<BenchPredictions> findByEmployeeIn(@Param("employees") Collection<Employee> employees);
+
+    /**
+     * The employee id, ready to bench, ready to production and date of every prediction not ignored
+     * that falls in the period.
+     */
+    @Query("select prediction.employee.id, prediction.readyToBench, prediction.readyToProduction, details.date"
+        + " from BenchPredictions prediction join prediction.details details"
+        + " where prediction.ignored = false and details.date between :from and :to")
+    List<Object[]> findMovementsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
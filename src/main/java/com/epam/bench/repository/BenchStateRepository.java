@@ -0,0 +1,42 @@
+package com.epam.bench.repository;
+
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Employee;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the BenchState entity.
+ */
+@SuppressWarnings("unused")
+public interface BenchStateRepository extends JpaRepository<BenchState,Long> {
+
+    BenchState findByEmployee(Employee employee);
+
+    List<BenchState> findByEmployeeIn(Collection<Employee> employees);
+
+    Slice<BenchState> findByOnBenchTrue(Pageable pageable);
+
+    long countByOnBenchTrue();
+
+    /**
+     * The employee id, closed bench seconds and open bench start of every given employee.
+     */
+    @Query("select state.employee.id, state.closedBenchSeconds, state.openBenchSince from BenchState state"
+        + " where state.employee in :employees")
+    List<Object[]> findBenchTimesByEmployeeIn(@Param("employees") Collection<Employee> employees);
+
+    @Query("select state.employee.id from BenchState state where state.onBench = true")
+    List<Long> findEmployeeIdsOnBench();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select state from BenchState state where state.employee = :employee")
+    BenchState findByEmployeeForUpdate(@Param("employee") Employee employee);
+}
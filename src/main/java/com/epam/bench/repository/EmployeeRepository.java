@@ -1,9 +1,18 @@
 package com.epam.bench.repository;
 
 import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.LanguageLevel;
+import com.epam.bench.domain.Location;
+import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.domain.Unit;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,4 +22,52 @@ import java.util.List;
 public interface EmployeeRepository extends JpaRepository<Employee,Long> {
 
     Employee findByUpsaId(final String upsaId);
+
+    List<Employee> findByUpsaIdIn(Collection<String> upsaIds);
+
+    List<Employee> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Employee> findByPrimarySkill(PrimarySkill primarySkill);
+
+    List<Employee> findByLocation(Location location);
+
+    List<Employee> findByUnit(Unit unit);
+
+    List<Employee> findByEnglishLevel(LanguageLevel englishLevel);
+
+    @Query("select employee.id from Employee employee where employee.id > :id order by employee.id")
+    List<Long> findIdsAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query("select employee from Employee employee"
+        + " left join fetch employee.probation"
+        + " left join fetch employee.productionStatus"
+        + " where employee.id in :ids")
+    List<Employee> findWithStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select employee.id from Employee employee where employee.active = true")
+    List<Long> findActiveIds();
+
+    /**
+     * The id, primary skill id and location id of every active employee, read from the employee table alone.
+     */
+    @Query("select employee.id, employee.primarySkill.id, employee.location.id from Employee employee"
+        + " where employee.active = true")
+    List<Object[]> findActiveSkillAndLocationIds();
+
+    /**
+     * The id, primary skill id and location id of every active employee of a unit or of its sub-units.
+     */
+    @Query("select employee.id, employee.primarySkill.id, employee.location.id from Employee employee, UnitClosure closure"
+        + " where employee.active = true and closure.ancestorId = :unitId and closure.descendantId = employee.unit.id")
+    List<Object[]> findActiveSkillAndLocationIdsInUnit(@Param("unitId") Long unitId);
+
+    @Query(value = "select employee from Employee employee"
+        + " left join fetch employee.englishLevel"
+        + " left join fetch employee.primarySkill"
+        + " left join fetch employee.jobFunction")
+    Slice<Employee> findAllWithReferences(Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select employee from Employee employee where employee.id = :id")
+    Employee findOneForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,24 @@
+package com.epam.bench.repository;
+
+import com.epam.bench.domain.JobWatermark;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+
+/**
+ * Spring Data JPA repository for the JobWatermark entity.
+ */
+@SuppressWarnings("unused")
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark,Long> {
+
+    JobWatermark findByName(String name);
+
+    /**
+     * The watermark of the job, locked until the end of the transaction, for a single node at a time to claim it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select watermark from JobWatermark watermark where watermark.name = :name")
+    JobWatermark findByNameForUpdate(@Param("name") String name);
+}
@@ -1,5 +1,6 @@
 package com.epam.bench.repository;
 
+import com.epam.bench.domain.Employee;
 import com.epam.bench.domain.ProjectHistory;
 
 import org.springframework.data.jpa.repository.*;
@@ -12,4 +13,5 @@ import java.util.List;
 @SuppressWarnings("unused")
 public interface ProjectHistoryRepository extends JpaRepository<ProjectHistory,Long> {
 
+    List<ProjectHistory> findByEmployee(Employee employee);
 }
@@ -0,0 +1,58 @@
+package com.epam.bench.repository;
+
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.WorkloadInterval;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the WorkloadInterval entity.
+ */
+@SuppressWarnings("unused")
+public interface WorkloadIntervalRepository extends JpaRepository<WorkloadInterval,Long> {
+
+    @Modifying
+    @Query("delete from WorkloadInterval wi where wi.employee = :employee")
+    int deleteByEmployee(@Param("employee") Employee employee);
+
+    @Query("select coalesce(sum(wi.workload), 0) from WorkloadInterval wi"
+        + " where wi.employee = :employee and wi.validFrom <= :date"
+        + " and (wi.validTo is null or wi.validTo > :date)")
+    Long sumWorkload(@Param("employee") Employee employee, @Param("date") LocalDate date);
+
+    @Query("select wi from WorkloadInterval wi"
+        + " left join fetch wi.project project"
+        + " left join fetch project.category"
+        + " left join fetch wi.role"
+        + " where wi.employee in :employees and wi.validFrom <= :date"
+        + " and (wi.validTo is null or wi.validTo > :date)")
+    List<WorkloadInterval> findValidOn(@Param("employees") Collection<Employee> employees, @Param("date") LocalDate date);
+
+    @Query("select wi from WorkloadInterval wi"
+        + " left join fetch wi.project"
+        + " where wi.employee in :employees and wi.validFrom <= :to"
+        + " and (wi.validTo is null or wi.validTo > :from)")
+    List<WorkloadInterval> findOverlapping(@Param("employees") Collection<Employee> employees,
+                                           @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * The employee id, valid from, valid to and workload of every interval that overlaps the period.
+     */
+    @Query("select wi.employee.id, wi.validFrom, wi.validTo, wi.workload"
+        + " from WorkloadInterval wi"
+        + " where wi.validFrom <= :to and (wi.validTo is null or wi.validTo > :from)")
+    List<Object[]> findOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * The employee id, valid from, valid to and project end date of every interval that overlaps the period.
+     */
+    @Query("select wi.employee.id, wi.validFrom, wi.validTo, project.endDate"
+        + " from WorkloadInterval wi left join wi.project project"
+        + " where wi.validFrom <= :to and (wi.validTo is null or wi.validTo > :from)")
+    List<Object[]> findOverlappingWithProjectEnd(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,45 @@
+package com.epam.bench.repository.support;
+
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Drops the cached total counts of the entities written through Hibernate.
+ */
+public class CountCacheInvalidationListener implements PostInsertEventListener, PostUpdateEventListener,
+    PostDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient TotalCountCache totalCountCache;
+
+    public CountCacheInvalidationListener(TotalCountCache totalCountCache) {
+        this.totalCountCache = totalCountCache;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        totalCountCache.invalidate(event.getPersister().getMappedClass(), true);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // the number of rows is the same, only the filtered counts may change
+        totalCountCache.invalidate(event.getPersister().getMappedClass(), false);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        totalCountCache.invalidate(event.getPersister().getMappedClass(), true);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package com.epam.bench.repository.support;
+
+import com.epam.bench.service.cluster.CacheInvalidationBroadcaster;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Base class of the repositories: {@link #findAll(Pageable)} takes its total from the {@link TotalCountCache}
+ * instead of running a count query with every page.
+ * <p>
+ * Bulk deletes, and the {@code @Modifying} queries of the repositories, bypass the Hibernate listeners, so they
+ * invalidate the counts and broadcast the invalidation of the whole region themselves.
+ */
+public class CountCachingRepository<T, ID extends Serializable> extends SimpleJpaRepository<T, ID> {
+
+    private final EntityManager entityManager;
+
+    private final TotalCountCache totalCountCache;
+
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    public CountCachingRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager,
+                                  TotalCountCache totalCountCache, CacheInvalidationBroadcaster broadcaster) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+        this.totalCountCache = totalCountCache;
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        if (pageable == null) {
+            return super.findAll(pageable);
+        }
+        TypedQuery<T> query = getQuery(null, pageable);
+        query.setFirstResult(pageable.getOffset());
+        // one more row tells whether there is a next page
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<T> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return totalCountCache.toPage(getDomainClass(), TotalCountCache.ALL, content, pageable, hasNext, this::count);
+    }
+
+    @Override
+    @Transactional
+    public void deleteInBatch(Iterable<T> entities) {
+        super.deleteInBatch(entities);
+        bulkDeleted();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch() {
+        super.deleteAllInBatch();
+        bulkDeleted();
+    }
+
+    void bulkDeleted() {
+        totalCountCache.invalidate(getDomainClass(), true);
+        broadcaster.recordBulkDelete(entityManager, getDomainClass());
+    }
+}
@@ -0,0 +1,72 @@
+package com.epam.bench.repository.support;
+
+import com.epam.bench.service.cluster.CacheInvalidationBroadcaster;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+
+/**
+ * Creates the repositories on top of {@link CountCachingRepository}, reporting their {@link Modifying} queries as
+ * bulk deletes.
+ */
+public class CountCachingRepositoryFactoryBean<R extends JpaRepository<T, I>, T, I extends Serializable>
+    extends JpaRepositoryFactoryBean<R, T, I> {
+
+    @Inject
+    private TotalCountCache totalCountCache;
+
+    @Inject
+    private CacheInvalidationBroadcaster broadcaster;
+
+    @Override
+    protected RepositoryFactorySupport createRepositoryFactory(EntityManager entityManager) {
+        return new CountCachingRepositoryFactory(entityManager, totalCountCache, broadcaster);
+    }
+
+    private static class CountCachingRepositoryFactory extends JpaRepositoryFactory {
+
+        private final TotalCountCache totalCountCache;
+
+        private final CacheInvalidationBroadcaster broadcaster;
+
+        CountCachingRepositoryFactory(EntityManager entityManager, TotalCountCache totalCountCache,
+                                      CacheInvalidationBroadcaster broadcaster) {
+            super(entityManager);
+            this.totalCountCache = totalCountCache;
+            this.broadcaster = broadcaster;
+            addRepositoryProxyPostProcessor((proxyFactory, information) ->
+                proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                    Object result = invocation.proceed();
+                    if (AnnotationUtils.findAnnotation(invocation.getMethod(), Modifying.class) != null) {
+                        ((CountCachingRepository<?, ?>) invocation.getThis()).bulkDeleted();
+                    }
+                    return result;
+                }));
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected SimpleJpaRepository<?, ?> getTargetRepository(RepositoryInformation information,
+                                                                EntityManager entityManager) {
+            JpaEntityInformation<?, Serializable> entityInformation = getEntityInformation(information.getDomainType());
+            return new CountCachingRepository(entityInformation, entityManager, totalCountCache, broadcaster);
+        }
+
+        @Override
+        protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
+            return CountCachingRepository.class;
+        }
+    }
+}
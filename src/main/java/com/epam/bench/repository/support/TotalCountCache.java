@@ -0,0 +1,268 @@
+package com.epam.bench.repository.support;
+
+import com.epam.bench.config.ApplicationProperties;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the total counts of the paged queries, so that a page request does not run a {@code count(*)}
+ * every time.
+ * <p>
+ * Counts are keyed by entity and filter. Hibernate listeners drop the counts of an entity when one is
+ * inserted or deleted, and the filtered counts when one is updated; they are dropped again when the
+ * transaction completes, as the counts cached in between may include its uncommitted rows. Bulk queries
+ * bypass the listeners, so counts also expire after a while.
+ * <p>
+ * When a request allows it (see {@link #estimating(boolean)}), the unfiltered count of a table larger than
+ * the estimate threshold is read from the table statistics of the database instead.
+ */
+@Component
+public class TotalCountCache {
+
+    /**
+     * The filter of the unfiltered counts.
+     */
+    public static final String ALL = "all";
+
+    private static final ThreadLocal<Boolean> ESTIMATING = new ThreadLocal<>();
+
+    private final Logger log = LoggerFactory.getLogger(TotalCountCache.class);
+
+    private final Map<Key, CachedCount> counts = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private DataSource dataSource;
+
+    private SessionFactoryImplementor sessionFactory;
+
+    private String statisticsQuery;
+
+    @PostConstruct
+    public void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        CountCacheInvalidationListener listener = new CountCacheInvalidationListener(this);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        statisticsQuery = statisticsQuery();
+    }
+
+    /**
+     * Allows or forbids estimated counts in the current thread.
+     */
+    public static void estimating(boolean estimating) {
+        if (estimating) {
+            ESTIMATING.set(Boolean.TRUE);
+        } else {
+            ESTIMATING.remove();
+        }
+    }
+
+    /**
+     * Get the total count of an entity for a filter, from the cache or else from the exact count.
+     */
+    public long count(Class<?> entityClass, String filter, Supplier<Long> exactCount) {
+        ApplicationProperties.CountCache properties = applicationProperties.getCountCache();
+        if (!properties.isEnabled()) {
+            return exactCount.get();
+        }
+        if (ALL.equals(filter) && Boolean.TRUE.equals(ESTIMATING.get())) {
+            Long estimate = estimate(entityClass);
+            if (estimate != null && estimate >= properties.getEstimateThreshold()) {
+                return estimate;
+            }
+        }
+        Key key = new Key(entityClass, filter);
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.count;
+        }
+        long generation = generation(entityClass).get();
+        long count = exactCount.get();
+        put(key, generation, count);
+        return count;
+    }
+
+    /**
+     * Builds a page out of a slice. The total is known without counting when the slice is the last one.
+     */
+    public <T> Page<T> toPage(Class<?> entityClass, String filter, Slice<T> slice, Pageable pageable,
+                              Supplier<Long> exactCount) {
+        return toPage(entityClass, filter, slice.getContent(), pageable, slice.hasNext(), exactCount);
+    }
+
+    /**
+     * Builds a page out of its content, read without a count query.
+     */
+    public <T> Page<T> toPage(Class<?> entityClass, String filter, List<T> content, Pageable pageable,
+                              boolean hasNext, Supplier<Long> exactCount) {
+        long seen = pageable.getOffset() + content.size();
+        long total;
+        if (!hasNext && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            total = seen;
+            if (applicationProperties.getCountCache().isEnabled()) {
+                put(new Key(entityClass, filter), generation(entityClass).get(), total);
+            }
+        } else {
+            // a count that is behind the writes must still leave a next page
+            total = Math.max(count(entityClass, filter, exactCount), hasNext ? seen + 1 : seen);
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Drops the cached counts of an entity, now and when the current transaction completes.
+     *
+     * @param rowsAddedOrRemoved whether the unfiltered count may have changed as well as the filtered ones
+     */
+    public void invalidate(Class<?> entityClass, boolean rowsAddedOrRemoved) {
+        evict(entityClass, rowsAddedOrRemoved);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a transaction writing many rows registers a single synchronization
+            @SuppressWarnings("unchecked")
+            Map<Class<?>, Boolean> pending = (Map<Class<?>, Boolean>) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                Map<Class<?>, Boolean> evictions = new HashMap<>();
+                TransactionSynchronizationManager.bindResource(this, evictions);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(TotalCountCache.this);
+                        evictions.forEach(TotalCountCache.this::evict);
+                    }
+                });
+                pending = evictions;
+            }
+            pending.merge(entityClass, rowsAddedOrRemoved, Boolean::logicalOr);
+        }
+    }
+
+    private void evict(Class<?> entityClass, boolean rowsAddedOrRemoved) {
+        generation(entityClass).incrementAndGet();
+        counts.keySet().removeIf(key -> key.entityClass == entityClass && (rowsAddedOrRemoved || !ALL.equals(key.filter)));
+    }
+
+    private void put(Key key, long generation, long count) {
+        ApplicationProperties.CountCache properties = applicationProperties.getCountCache();
+        if (counts.size() >= properties.getMaxEntries()) {
+            counts.clear();
+        }
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(properties.getTimeToLiveSeconds());
+        counts.put(key, new CachedCount(count, expiresAt));
+        if (generation(key.entityClass).get() != generation) {
+            // an entity was written while counting
+            counts.remove(key);
+        }
+    }
+
+    private AtomicLong generation(Class<?> entityClass) {
+        return generations.computeIfAbsent(entityClass, entity -> new AtomicLong());
+    }
+
+    private Long estimate(Class<?> entityClass) {
+        if (statisticsQuery == null || !(sessionFactory.getClassMetadata(entityClass) instanceof AbstractEntityPersister)) {
+            return null;
+        }
+        String table = ((AbstractEntityPersister) sessionFactory.getClassMetadata(entityClass)).getTableName()
+            .replace("`", "").replace("\"", "");
+        List<Long> rows = new JdbcTemplate(dataSource).queryForList(statisticsQuery, Long.class,
+            table.substring(table.lastIndexOf('.') + 1));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private String statisticsQuery() {
+        String database;
+        try {
+            database = (String) JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not read the database product, counts will not be estimated: {}", e.getMessage());
+            return null;
+        }
+        if ("MySQL".equals(database)) {
+            return "select table_rows from information_schema.tables"
+                + " where table_schema = database() and table_name = ?";
+        } else if ("H2".equals(database)) {
+            return "select row_count_estimate from information_schema.tables"
+                + " where table_schema = schema() and table_name = upper(?)";
+        }
+        log.info("Counts cannot be estimated on {}", database);
+        return null;
+    }
+
+    private static final class Key {
+
+        private final Class<?> entityClass;
+
+        private final String filter;
+
+        private Key(Class<?> entityClass, String filter) {
+            this.entityClass = entityClass;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return entityClass == key.entityClass && filter.equals(key.filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityClass, filter);
+        }
+    }
+
+    private static final class CachedCount {
+
+        private final long count;
+
+        private final long expiresAt;
+
+        private CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.epam.bench.service;
+
+import com.epam.bench.service.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service Interface for exporting the bench.
+ */
+public interface BenchExportService {
+
+    /**
+     *  Export all employees to a stream, one row per employee after a header row.
+     *
+     *  @param format the format of the export
+     *  @param out the stream to write to, left open
+     *  @return the number of employees exported
+     *  @throws IOException if the stream could not be written
+     */
+    long export(ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,36 @@
+package com.epam.bench.service;
+
+import com.epam.bench.service.dto.bench.BenchForecastDto;
+import com.epam.bench.service.dto.bench.ForecastGranularity;
+
+import java.time.LocalDate;
+
+/**
+ * Service Interface for projecting the size of the bench.
+ */
+public interface BenchForecastService {
+
+    /**
+     *  Project the number of employees on the bench, by primary skill and location.
+     *  The employees on the bench stay until a workload starts or they are predicted to go to production,
+     *  the others join the bench when their workloads end or when they are predicted to.
+     *
+     *  @param from the first day of the forecast
+     *  @param periods the number of periods to forecast
+     *  @param granularity the length of the periods
+     *  @return the forecast
+     */
+    BenchForecastDto forecast(LocalDate from, int periods, ForecastGranularity granularity);
+
+    /**
+     *  Project the number of employees on the bench of a unit and its sub-units, the same way as
+     *  {@link #forecast(LocalDate, int, ForecastGranularity)}.
+     *
+     *  @param from the first day of the forecast
+     *  @param periods the number of periods to forecast
+     *  @param granularity the length of the periods
+     *  @param unitId the id of the unit, or null for all the employees
+     *  @return the forecast
+     */
+    BenchForecastDto forecast(LocalDate from, int periods, ForecastGranularity granularity, Long unitId);
+}
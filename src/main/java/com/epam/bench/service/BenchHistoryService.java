@@ -6,6 +6,7 @@ import com.epam.bench.domain.Employee;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -61,4 +62,12 @@ public interface BenchHistoryService {
      * @return
      */
     List<BenchHistory> find(Employee employee);
+
+    /**
+     * Find the latest BenchHistory of every given employee in a single query
+     *
+     * @param employees the employees to look up
+     * @return the latest entries, at most one per employee
+     */
+    List<BenchHistory> findLast(Collection<Employee> employees);
 }
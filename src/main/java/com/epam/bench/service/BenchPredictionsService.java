@@ -4,6 +4,9 @@ import com.epam.bench.domain.BenchPredictions;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,6 +22,17 @@ public interface BenchPredictionsService {
      */
     BenchPredictions save(BenchPredictions benchPredictions);
 
+    /**
+     * Replace the predictions of several employees with new ones, keeping whether they were ignored.
+     *
+     * @param employeeIds the ids of the employees
+     * @param today the first day of the prediction horizon
+     * @param horizon the last day of the prediction horizon
+     * @param createdTime the created time of the new predictions
+     * @return the number of predictions written
+     */
+    int predict(Collection<Long> employeeIds, LocalDate today, LocalDate horizon, ZonedDateTime createdTime);
+
     /**
      *  Get all the benchPredictions.
      *  
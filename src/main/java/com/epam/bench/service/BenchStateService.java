@@ -0,0 +1,75 @@
+package com.epam.bench.service;
+
+import com.epam.bench.domain.BenchHistory;
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Employee;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service Interface for maintaining the current bench state of employees.
+ */
+public interface BenchStateService {
+
+    /**
+     *  Get the current bench state of the employee.
+     *
+     *  @param employee the employee
+     *  @return the state, or empty if the employee has never been on the bench
+     */
+    Optional<BenchState> find(Employee employee);
+
+    /**
+     *  Get the current bench states of all given employees in a single query.
+     *
+     *  @param employees the employees to look up
+     *  @return the states of the employees that have one
+     */
+    List<BenchState> find(Collection<Employee> employees);
+
+    /**
+     *  Get all the employees that are on the bench right now.
+     *
+     *  @param pageable the pagination information
+     *  @return the list of states
+     */
+    Page<BenchState> findOnBench(Pageable pageable);
+
+    /**
+     *  Get the whole days the employee has spent on the bench, overlapping bench intervals counted once.
+     *
+     *  @param employee the employee
+     *  @return the days on bench, 0 if the employee has never been on the bench
+     */
+    int getDaysOnBench(Employee employee);
+
+    /**
+     *  Get the days on bench of all given employees in a single query.
+     *
+     *  @param employees the employees
+     *  @return the days on bench by employee id, for the employees that have a bench history
+     */
+    Map<Long, Integer> getDaysOnBench(Collection<Employee> employees);
+
+    /**
+     * Moves the state of the history's employee to the saved history, if it is the latest one, and
+     * recomputes the bench time of the employee. Must be called in the transaction that saved the history.
+     *
+     * @param benchHistory the saved history
+     */
+    void update(BenchHistory benchHistory);
+
+    /**
+     * Moves the state of the history's employee to the previous history before the given one is deleted,
+     * and recomputes the bench time of the employee without it. Must be called in the transaction that deletes the history.
+     *
+     * @param benchHistory the history to be deleted
+     */
+    void remove(BenchHistory benchHistory);
+}
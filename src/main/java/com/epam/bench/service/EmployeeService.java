@@ -1,10 +1,15 @@
 package com.epam.bench.service;
 
 import com.epam.bench.domain.Employee;
+import com.epam.bench.service.dto.bench.EmployeeFacet;
+import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.dto.bench.FacetedEmployeesDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service Interface for managing Employee.
@@ -19,6 +24,14 @@ public interface EmployeeService {
      */
     Employee save(Employee employee);
 
+    /**
+     * Save several employees at once.
+     *
+     * @param employees the entities to save
+     * @return the persisted entities
+     */
+    List<Employee> save(List<Employee> employees);
+
     /**
      *  Get all the employees.
      *
@@ -27,6 +40,33 @@ public interface EmployeeService {
      */
     Page<Employee> findAll(Pageable pageable);
 
+    /**
+     *  Get all the employees together with the references needed for the bench listing,
+     *  fetched in the same query.
+     *
+     *  @param pageable the pagination information
+     *  @return the list of entities
+     */
+    Page<Employee> findAllWithReferences(Pageable pageable);
+
+    /**
+     *  Get the employees following the given id, in id order.
+     *
+     *  @param afterId the id to start after
+     *  @param size the maximum number of employees
+     *  @return the list of entities
+     */
+    List<Employee> findNextPage(Long afterId, int size);
+
+    /**
+     *  Get the ids of the employees following the given id, in id order.
+     *
+     *  @param afterId the id to start after
+     *  @param size the maximum number of ids
+     *  @return the list of ids
+     */
+    List<Long> findNextIds(Long afterId, int size);
+
     /**
      *  Get employee by upsa id.
      *
@@ -34,6 +74,15 @@ public interface EmployeeService {
      *  @return employee or null
      */
     Employee findByUpsaId(final String upsaId);
+
+    /**
+     *  Get the employees with the given upsa ids.
+     *
+     *  @param upsaIds the employee ids in upsa
+     *  @return the employees known locally, in no particular order
+     */
+    List<Employee> findByUpsaIds(Collection<String> upsaIds);
+
     /**
      *  Get the "id" employee.
      *
@@ -58,4 +107,40 @@ public interface EmployeeService {
      *  @return the list of entities
      */
     Page<Employee> search(String query, Pageable pageable);
+
+    /**
+     * Suggest employees whose name, email or UPSA id start with the query, as the user types it.
+     * Active employees and employees on bench come first. The suggestions are read from the search
+     * index only.
+     *
+     *  @param query the text typed so far
+     *  @param limit the maximum number of suggestions
+     *  @return the suggestions, best first
+     */
+    List<EmployeeSimpleViewDto> suggest(String query, int limit);
+
+    /**
+     * Search the employees on bench, filtered by facets, and count the employees of every facet value
+     * in the same request. Everything is read from the search index.
+     *
+     *  @param query the text the name, email or UPSA id start with, or blank for all employees on bench
+     *  @param filters the accepted values of the filtered facets
+     *  @param pageable the pagination information
+     *  @return the page of employees with the facet counts
+     */
+    FacetedEmployeesDto searchBench(String query, Map<EmployeeFacet, ? extends Collection<String>> filters,
+                                    Pageable pageable);
+
+    /**
+     * Search the employees on bench of some units, filtered by facets, the same way as
+     * {@link #searchBench(String, Map, Pageable)}.
+     *
+     *  @param query the text the name, email or UPSA id start with, or blank for all employees on bench
+     *  @param filters the accepted values of the filtered facets
+     *  @param unitIds the ids of the units the employees belong to, or null for all the units
+     *  @param pageable the pagination information
+     *  @return the page of employees with the facet counts
+     */
+    FacetedEmployeesDto searchBench(String query, Map<EmployeeFacet, ? extends Collection<String>> filters,
+                                    Collection<Long> unitIds, Pageable pageable);
 }
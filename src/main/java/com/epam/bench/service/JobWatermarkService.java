@@ -0,0 +1,43 @@
+package com.epam.bench.service;
+
+import com.epam.bench.domain.JobWatermark;
+
+/**
+ * Service Interface for tracking the progress of background jobs.
+ */
+public interface JobWatermarkService {
+
+    /**
+     * Get the watermark of a job.
+     *
+     * @param name the name of the job
+     * @return the watermark, or null if the job never ran
+     */
+    JobWatermark findByName(String name);
+
+    /**
+     * Claim the job for this node and start a run of it. A run that was interrupted is resumed from its last
+     * position, otherwise the run starts from position 0. A run still leased to another node is left to it.
+     *
+     * @param name the name of the job
+     * @return the watermark to continue from, or null if another node is running the job
+     */
+    JobWatermark start(String name);
+
+    /**
+     * Record that the job has processed everything up to the position, and extend the lease of this node.
+     *
+     * @param name the name of the job
+     * @param position the position processed up to
+     * @param processed the number of items processed since the last call
+     * @return false if another node has taken the job over, the run must stop then
+     */
+    boolean advance(String name, long position, long processed);
+
+    /**
+     * Mark the current run of the job as completed, and release the lease of this node.
+     *
+     * @param name the name of the job
+     */
+    void complete(String name);
+}
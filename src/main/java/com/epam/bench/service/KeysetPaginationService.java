@@ -0,0 +1,22 @@
+package com.epam.bench.service;
+
+import com.epam.bench.service.dto.KeysetPage;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Service Interface for reading entities page by page with a keyset (seek) cursor instead of an offset.
+ */
+public interface KeysetPaginationService {
+
+    /**
+     * Get the page of entities following the cursor, ordered by the sort key and then by id.
+     *
+     * @param entityClass the entity to read
+     * @param cursor the cursor of the previous page, or blank for the first page
+     * @param pageable the page size and, for the first page, the sort order (a single property; id by default)
+     * @param count whether to count all the entities as well
+     * @return the page, with the cursor of the next one
+     * @throws com.epam.bench.service.util.InvalidCursorException if the cursor or the sort cannot be used
+     */
+    <T> KeysetPage<T> findPage(Class<T> entityClass, String cursor, Pageable pageable, boolean count);
+}
@@ -1,9 +1,11 @@
 package com.epam.bench.service;
 
+import com.epam.bench.domain.Employee;
 import com.epam.bench.domain.ProjectHistory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,6 +21,14 @@ public interface ProjectHistoryService {
      */
     ProjectHistory save(ProjectHistory projectHistory);
 
+    /**
+     * Save several projectHistories in one batch.
+     *
+     * @param projectHistories the entities to save
+     * @return the persisted entities
+     */
+    List<ProjectHistory> save(List<ProjectHistory> projectHistories);
+
     /**
      *  Get all the projectHistories.
      *  
@@ -35,6 +45,14 @@ public interface ProjectHistoryService {
      */
     ProjectHistory findOne(Long id);
 
+    /**
+     *  Get the projectHistories of an employee.
+     *
+     *  @param employee the employee
+     *  @return the list of entities
+     */
+    List<ProjectHistory> findByEmployee(Employee employee);
+
     /**
      *  Delete the "id" projectHistory.
      *
@@ -42,6 +60,13 @@ public interface ProjectHistoryService {
      */
     void delete(Long id);
 
+    /**
+     *  Delete several projectHistories in one batch.
+     *
+     *  @param projectHistories the entities to delete
+     */
+    void delete(Collection<ProjectHistory> projectHistories);
+
     /**
      * Search for the projectHistory corresponding to the query.
      *
@@ -0,0 +1,54 @@
+package com.epam.bench.service;
+
+import com.epam.bench.service.dto.ReferenceDataSnapshot;
+
+import java.util.Collection;
+
+/**
+ * Service Interface for looking up the reference data (locations, titles, skills, statuses, billing and project
+ * categories) from memory instead of the database.
+ */
+public interface ReferenceDataService {
+
+    /**
+     * Get the current snapshot of the reference data. It does not change once read, so the lookups of a
+     * request can all be made on the same version.
+     *
+     * @return the snapshot, loaded on the first call
+     */
+    ReferenceDataSnapshot getSnapshot();
+
+    /**
+     * Get an entity of reference data by id. A transaction that changed entities of the type reads them
+     * from its own persistence context, as the snapshot only has the committed ones.
+     *
+     * @param type the class of the entity
+     * @param id the id of the entity, may be null
+     * @return the entity, or null if there is none
+     * @throws IllegalArgumentException if the type is not reference data
+     */
+    <T> T findOne(Class<T> type, Long id);
+
+    /**
+     * Get an entity of reference data by UPSA id, the same way as {@link #findOne(Class, Long)}.
+     *
+     * @param type the class of the entity
+     * @param upsaId the UPSA id of the entity, may be null
+     * @return the entity, or null if there is none
+     * @throws IllegalArgumentException if the type is not reference data or has no UPSA id
+     */
+    <T> T findOneByUpsaId(Class<T> type, String upsaId);
+
+    /**
+     * @return whether the entities of the type are kept in the snapshot
+     */
+    boolean isReferenceData(Class<?> type);
+
+    /**
+     * Reload the entities of some types into a new snapshot. Changes written through Hibernate are reloaded
+     * once their transaction commits, without calling this.
+     *
+     * @param types the types to reload; the other ones are not
+     */
+    void refresh(Collection<Class<?>> types);
+}
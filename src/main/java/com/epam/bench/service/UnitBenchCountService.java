@@ -0,0 +1,51 @@
+package com.epam.bench.service;
+
+import com.epam.bench.service.dto.bench.UnitBenchCountDto;
+
+import java.util.List;
+
+/**
+ * Service Interface for the number of employees on bench of every unit, rolled up the unit tree.
+ * <p>
+ * The counts follow the bench states and the units of the employees as they are written, in the transaction
+ * writing them.
+ */
+public interface UnitBenchCountService {
+
+    /**
+     *  Get the whole unit tree with the bench counts of every unit.
+     *
+     *  @return the root units, with their sub-units
+     */
+    List<UnitBenchCountDto> findTree();
+
+    /**
+     *  Start counting a unit just placed in the tree, and add its employees on bench to its ancestors.
+     *
+     *  @param unitId the id of the unit
+     */
+    void addUnit(Long unitId);
+
+    /**
+     *  Stop counting a unit, before it is deleted.
+     *
+     *  @param unitId the id of the unit
+     */
+    void removeUnit(Long unitId);
+
+    /**
+     *  Move the employees on bench of a subtree from its current ancestors to the ancestors of its new parent,
+     *  before the subtree is moved.
+     *
+     *  @param unitId the id of the unit at the top of the subtree
+     *  @param parentId the id of the new parent, or null for a root
+     */
+    void moveUnit(Long unitId, Long parentId);
+
+    /**
+     *  Count the employees on bench of every unit again.
+     *
+     *  @return the number of units counted
+     */
+    int rebuild();
+}
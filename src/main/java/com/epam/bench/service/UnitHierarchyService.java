@@ -0,0 +1,42 @@
+package com.epam.bench.service;
+
+import com.epam.bench.domain.Unit;
+
+import java.util.List;
+
+/**
+ * Service Interface for the unit tree, kept as a closure table next to the parents of the units.
+ */
+public interface UnitHierarchyService {
+
+    /**
+     *  Put a saved unit at its place in the tree: a new unit goes under its parent, a unit whose parent
+     *  changed moves there with its whole subtree.
+     *
+     *  @param unit the unit, already written to the database
+     *  @throws com.epam.bench.service.util.InvalidUnitParentException if the parent is in the subtree of the unit
+     */
+    void place(Unit unit);
+
+    /**
+     *  Take a unit out of the tree, before it is deleted.
+     *
+     *  @param unitId the id of the unit
+     */
+    void remove(Long unitId);
+
+    /**
+     *  Get the ids of a unit and of all its sub-units, at any depth.
+     *
+     *  @param unitId the id of the unit
+     *  @return the ids, empty if the unit is unknown
+     */
+    List<Long> findSubtreeIds(Long unitId);
+
+    /**
+     *  Rebuild the whole tree from the parents of the units, and the bench counts of the units along with it.
+     *
+     *  @return the number of paths written
+     */
+    int rebuild();
+}
@@ -4,9 +4,9 @@ import com.epam.bench.domain.Authority;
 import com.epam.bench.domain.User;
 import com.epam.bench.repository.AuthorityRepository;
 import com.epam.bench.repository.UserRepository;
-import com.epam.bench.repository.search.UserSearchRepository;
 import com.epam.bench.security.AuthoritiesConstants;
 import com.epam.bench.security.SecurityUtils;
+import com.epam.bench.service.search.SearchIndexer;
 import com.epam.bench.service.util.RandomUtil;
 import com.epam.bench.web.rest.vm.ManagedUserVM;
 import org.slf4j.Logger;
@@ -40,7 +40,7 @@ public class UserService {
     private UserRepository userRepository;
 
     @Inject
-    private UserSearchRepository userSearchRepository;
+    private SearchIndexer searchIndexer;
 
     @Inject
     private AuthorityRepository authorityRepository;
@@ -53,7 +53,7 @@ public class UserService {
                 user.setActivated(true);
                 user.setActivationKey(null);
                 userRepository.save(user);
-                userSearchRepository.save(user);
+                searchIndexer.index(user);
                 log.debug("Activated user: {}", user);
                 return user;
             });
@@ -108,7 +108,7 @@ public class UserService {
         authorities.add(authority);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
-        userSearchRepository.save(newUser);
+        searchIndexer.index(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -137,7 +137,7 @@ public class UserService {
         user.setResetDate(ZonedDateTime.now());
         user.setActivated(true);
         userRepository.save(user);
-        userSearchRepository.save(user);
+        searchIndexer.index(user);
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -149,7 +149,7 @@ public class UserService {
             u.setEmail(email);
             u.setLangKey(langKey);
             userRepository.save(u);
-            userSearchRepository.save(u);
+            searchIndexer.index(u);
             log.debug("Changed Information for User: {}", u);
         });
     }
@@ -180,7 +180,7 @@ public class UserService {
             tokenStore.removeAccessToken(token));
         userRepository.findOneByLogin(login).ifPresent(u -> {
             userRepository.delete(u);
-            userSearchRepository.delete(u);
+            searchIndexer.delete(User.class, u.getId());
             log.debug("Deleted User: {}", u);
         });
     }
@@ -234,7 +234,7 @@ public class UserService {
         for (User user : users) {
             log.debug("Deleting not activated user {}", user.getLogin());
             userRepository.delete(user);
-            userSearchRepository.delete(user);
+            searchIndexer.delete(User.class, user.getId());
         }
     }
 }
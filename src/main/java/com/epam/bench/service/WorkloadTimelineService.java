@@ -0,0 +1,60 @@
+package com.epam.bench.service;
+
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.WorkloadInterval;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service Interface for the workload timeline of employees, kept as intervals derived from the ProjectHistory.
+ */
+public interface WorkloadTimelineService {
+
+    /**
+     *  Rebuild the workload intervals of the employee from the project history.
+     *
+     *  @param employee the employee
+     */
+    void rebuild(Employee employee);
+
+    /**
+     *  Get the total workload of the employee on a date.
+     *
+     *  @param employee the employee
+     *  @param date the date
+     *  @return the sum of the workloads valid on the date, 0 if there are none
+     */
+    int getAllocation(Employee employee, LocalDate date);
+
+    /**
+     *  Get the workloads valid on a date of all given employees in a single query.
+     *
+     *  @param employees the employees
+     *  @param date the date
+     *  @return the workloads by employee id, employees without workloads are missing
+     */
+    Map<Long, List<WorkloadInterval>> findAllocations(Collection<Employee> employees, LocalDate date);
+
+    /**
+     *  Get the workloads overlapping a period of all given employees in a single query.
+     *
+     *  @param employees the employees
+     *  @param from the first day of the period
+     *  @param to the last day of the period
+     *  @return the workloads by employee id, employees without workloads are missing
+     */
+    Map<Long, List<WorkloadInterval>> findAllocations(Collection<Employee> employees, LocalDate from, LocalDate to);
+
+    /**
+     *  Get the active employees whose total workload stays below the allocation for the whole period.
+     *
+     *  @param allocation the allocation in percent
+     *  @param from the first day of the period
+     *  @param to the last day of the period
+     *  @return the ids of the employees
+     */
+    List<Long> findEmployeesAllocatedBelow(int allocation, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,77 @@
+package com.epam.bench.service.cluster;
+
+import java.util.Objects;
+
+/**
+ * A change to broadcast to the other nodes: an entity or collection of a cache region, or the whole region
+ * when the id is null.
+ */
+final class CacheInvalidation {
+
+    enum Type {
+        /**
+         * Rows were added to the table of an entity; the id is always null.
+         */
+        INSERT,
+        UPDATE,
+        DELETE,
+        /**
+         * A cached collection changed; the region is the collection role and the id the owner id.
+         */
+        COLLECTION
+    }
+
+    private final Type type;
+
+    private final String region;
+
+    private final Long entityId;
+
+    CacheInvalidation(Type type, String region, Long entityId) {
+        this.type = type;
+        this.region = region;
+        this.entityId = entityId;
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    String getRegion() {
+        return region;
+    }
+
+    Long getEntityId() {
+        return entityId;
+    }
+
+    CacheInvalidation wholeRegion() {
+        return entityId == null ? this : new CacheInvalidation(type, region, null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CacheInvalidation that = (CacheInvalidation) o;
+        return type == that.type && region.equals(that.region) && Objects.equals(entityId, that.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, region, entityId);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" +
+            "type='" + type + "'" +
+            ", region='" + region + "'" +
+            ", entityId='" + entityId + "'" +
+            '}';
+    }
+}
@@ -0,0 +1,148 @@
+package com.epam.bench.service.cluster;
+
+import com.epam.bench.config.ApplicationProperties;
+import org.apache.commons.lang.StringUtils;
+import org.hibernate.Session;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the entity changes of this node to the cache_invalidation table, for the
+ * {@link CacheInvalidationPoller} of the other nodes to drop them from their caches.
+ * <p>
+ * The changes of a transaction are coalesced and inserted when it completes, after its last flush and before
+ * its commit, on its own connection, so the other nodes see them if and only if the transaction commits. A
+ * transaction changing too many entities invalidates whole regions instead.
+ * <p>
+ * Bulk statements bypass the Hibernate listeners, so the repositories report them with
+ * {@link #recordBulkDelete(EntityManager, Class)}.
+ */
+@Component
+public class CacheInvalidationBroadcaster {
+
+    private static final String INSERT = "insert into cache_invalidation"
+        + " (node_id, invalidation_type, region, entity_id, created_time) values (?, ?, ?, ?, current_timestamp)";
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationBroadcaster.class);
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    private String nodeId;
+
+    @PostConstruct
+    public void init() {
+        String configured = applicationProperties.getCluster().getNodeId();
+        nodeId = StringUtils.isBlank(configured) ? UUID.randomUUID().toString() : configured;
+        CacheInvalidationListener listener = new CacheInvalidationListener(this);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+        log.info("Cache invalidations of node {} are {}", nodeId,
+            applicationProperties.getCluster().isEnabled() ? "broadcast" : "not broadcast");
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Records a bulk statement on the table of an entity, which invalidates its whole region and the cached
+     * collections holding it; an update is recorded as a delete, as the statement does not tell which rows it left.
+     *
+     * @param entityManager the entity manager which ran the statement
+     * @param entityClass the entity of the table
+     */
+    public void recordBulkDelete(EntityManager entityManager, Class<?> entityClass) {
+        if (!applicationProperties.getCluster().isEnabled()) {
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        String entityName = sessionFactory.getClassMetadata(entityClass).getEntityName();
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        invalidations.add(new CacheInvalidation(CacheInvalidation.Type.DELETE, entityName, null));
+        Set<String> roles = sessionFactory.getCollectionRolesByEntityParticipant(entityName);
+        if (roles != null) {
+            roles.stream()
+                .filter(role -> sessionFactory.getCollectionPersister(role).hasCache())
+                .forEach(role -> invalidations.add(new CacheInvalidation(CacheInvalidation.Type.COLLECTION, role, null)));
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            EventSource session = (EventSource) entityManager.unwrap(Session.class);
+            invalidations.forEach(invalidation -> record(session, invalidation));
+        } else {
+            // the statement ran in a transaction of its own, which has committed already
+            write(invalidations);
+        }
+    }
+
+    void record(EventSource session, CacheInvalidation invalidation) {
+        if (!applicationProperties.getCluster().isEnabled()) {
+            return;
+        }
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        @SuppressWarnings("unchecked")
+        Set<CacheInvalidation> pending = transactional
+            ? (Set<CacheInvalidation>) TransactionSynchronizationManager.getResource(this) : null;
+        if (pending == null) {
+            Set<CacheInvalidation> invalidations = new LinkedHashSet<>();
+            if (transactional) {
+                TransactionSynchronizationManager.bindResource(this, invalidations);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBroadcaster.this);
+                    }
+                });
+            }
+            // runs after the flush of the commit, still on the connection of the transaction
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> write(invalidations));
+            pending = invalidations;
+        }
+        pending.add(invalidation);
+    }
+
+    private void write(Collection<CacheInvalidation> invalidations) {
+        Collection<CacheInvalidation> rows = invalidations;
+        if (rows.size() > applicationProperties.getCluster().getMaxRowsPerTransaction()) {
+            rows = rows.stream().map(CacheInvalidation::wholeRegion).collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+        List<Object[]> args = rows.stream()
+            .map(row -> new Object[]{nodeId, row.getType().name(), row.getRegion(), row.getEntityId()})
+            .collect(Collectors.toList());
+        log.debug("Broadcasting {} cache invalidations", args.size());
+        jdbcTemplate.batchUpdate(INSERT, args);
+    }
+}
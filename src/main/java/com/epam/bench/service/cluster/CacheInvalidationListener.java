@@ -0,0 +1,88 @@
+package com.epam.bench.service.cluster;
+
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.Serializable;
+
+/**
+ * Hands the entity and collection changes written through Hibernate to the {@link CacheInvalidationBroadcaster}.
+ * <p>
+ * Single entities and collections are only named when they are cached; the other changes only tell which
+ * tables changed.
+ */
+class CacheInvalidationListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+    PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient CacheInvalidationBroadcaster broadcaster;
+
+    CacheInvalidationListener(CacheInvalidationBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        broadcaster.record(event.getSession(), new CacheInvalidation(CacheInvalidation.Type.INSERT, event.getPersister().getEntityName(), null));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        broadcaster.record(event.getSession(), new CacheInvalidation(CacheInvalidation.Type.UPDATE, event.getPersister().getEntityName(),
+            cachedId(event.getPersister(), event.getId())));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        broadcaster.record(event.getSession(), new CacheInvalidation(CacheInvalidation.Type.DELETE, event.getPersister().getEntityName(),
+            cachedId(event.getPersister(), event.getId())));
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollection(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollection(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollection(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void onCollection(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        CollectionPersister persister = event.getSession().getFactory().getCollectionPersister(role);
+        if (persister.hasCache()) {
+            Serializable ownerId = event.getAffectedOwnerIdOrNull();
+            broadcaster.record(event.getSession(), new CacheInvalidation(CacheInvalidation.Type.COLLECTION, role,
+                ownerId instanceof Number ? ((Number) ownerId).longValue() : null));
+        }
+    }
+
+    private static Long cachedId(EntityPersister persister, Serializable id) {
+        return persister.hasCache() && id instanceof Number ? ((Number) id).longValue() : null;
+    }
+}
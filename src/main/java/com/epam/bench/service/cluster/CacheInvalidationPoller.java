@@ -0,0 +1,156 @@
+package com.epam.bench.service.cluster;
+
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.repository.support.TotalCountCache;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drops the entities changed by the other nodes from the caches of this node: the Hibernate second level
+ * cache, the cached total counts and the caches listening to {@link BenchDataChangedEvent}.
+ * <p>
+ * A change inserted before another one may commit after it, so every poll reads the changes of the last
+ * commit lag again and skips the ones already applied. Times are read from the database clock, so the clocks
+ * of the nodes do not matter.
+ */
+@Component
+public class CacheInvalidationPoller {
+
+    private static final String SELECT = "select id, invalidation_type, region, entity_id from cache_invalidation"
+        + " where created_time > ? and node_id <> ? order by id";
+
+    private static final String DELETE_OLDER = "delete from cache_invalidation where created_time < ?";
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationPoller.class);
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private CacheInvalidationBroadcaster broadcaster;
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private TotalCountCache totalCountCache;
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
+    private String nodeId;
+
+    private Cache hibernateCache;
+
+    /**
+     * Database time of the previous poll, null before the first one.
+     */
+    private Timestamp lastPoll;
+
+    private long lastCleanupMillis;
+
+    /**
+     * Ids of the changes applied within the commit lag, with the database time of their poll.
+     */
+    private final Map<Long, Timestamp> applied = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        nodeId = broadcaster.getNodeId();
+        hibernateCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @Scheduled(fixedDelayString = "${application.cluster.poll-interval-millis:1000}")
+    public void pollChanges() {
+        if (applicationProperties.getCluster().isEnabled()) {
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                log.warn("Could not poll the cache invalidations: {}", e.getMessage());
+            }
+        }
+    }
+
+    synchronized void poll() {
+        ApplicationProperties.Cluster cluster = applicationProperties.getCluster();
+        Timestamp now = jdbcTemplate.queryForObject("select current_timestamp", Timestamp.class);
+        if (lastPoll == null) {
+            // the caches of a starting node hold nothing older
+            lastPoll = now;
+            return;
+        }
+        Timestamp since = new Timestamp(lastPoll.getTime() - cluster.getCommitLagMillis());
+        applied.values().removeIf(time -> time.before(since));
+
+        Set<Class<?>> changedEntities = new LinkedHashSet<>();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT, since, nodeId);
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            if (applied.putIfAbsent(id, now) == null) {
+                Number entityId = (Number) row.get("entity_id");
+                apply(CacheInvalidation.Type.valueOf((String) row.get("invalidation_type")), (String) row.get("region"),
+                    entityId == null ? null : entityId.longValue(), changedEntities);
+            }
+        }
+        changedEntities.forEach(entityClass -> eventPublisher.publishEvent(new BenchDataChangedEvent(this, entityClass)));
+        if (!changedEntities.isEmpty()) {
+            log.debug("Applied the cache invalidations of {} from the other nodes", changedEntities);
+        }
+        lastPoll = now;
+
+        if (System.currentTimeMillis() - lastCleanupMillis > TimeUnit.MINUTES.toMillis(1)) {
+            lastCleanupMillis = System.currentTimeMillis();
+            jdbcTemplate.update(DELETE_OLDER,
+                new Timestamp(now.getTime() - TimeUnit.MINUTES.toMillis(cluster.getRetentionMinutes())));
+        }
+    }
+
+    private void apply(CacheInvalidation.Type type, String region, Long entityId, Set<Class<?>> changedEntities) {
+        if (type == CacheInvalidation.Type.COLLECTION) {
+            if (entityId == null) {
+                hibernateCache.evictCollectionRegion(region);
+            } else {
+                hibernateCache.evictCollection(region, entityId);
+            }
+            return;
+        }
+        Class<?> entityClass;
+        try {
+            entityClass = ClassUtils.forName(region, getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            log.warn("Unknown entity {} in the cache invalidations", region);
+            return;
+        }
+        if (type != CacheInvalidation.Type.INSERT) {
+            if (entityId == null) {
+                hibernateCache.evictEntityRegion(entityClass);
+            } else {
+                hibernateCache.evictEntity(entityClass, entityId);
+            }
+        }
+        totalCountCache.invalidate(entityClass, type != CacheInvalidation.Type.UPDATE);
+        changedEntities.add(entityClass);
+    }
+}
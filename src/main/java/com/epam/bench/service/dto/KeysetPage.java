@@ -0,0 +1,50 @@
+package com.epam.bench.service.dto;
+
+import java.util.List;
+
+/**
+ * A page read by keyset: the rows, the cursor of the next page and, when asked for, the total count.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> content;
+
+    private final int size;
+
+    private final String nextCursor;
+
+    private final Long totalElements;
+
+    public KeysetPage(List<T> content, int size, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the cursor of the next page, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @return the number of all the rows, or null if the count was skipped
+     */
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
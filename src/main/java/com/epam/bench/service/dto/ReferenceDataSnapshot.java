@@ -0,0 +1,137 @@
+package com.epam.bench.service.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * An immutable, versioned copy of the reference data: the small lookup tables such as locations and skills,
+ * indexed by id and by UPSA id.
+ * <p>
+ * The entities are detached and shared by every reader, so they must not be changed, and only their columns
+ * and eager associations can be read.
+ */
+public final class ReferenceDataSnapshot {
+
+    private static final ReferenceDataSnapshot EMPTY = new ReferenceDataSnapshot(0, Collections.emptyMap(),
+        Collections.emptyMap());
+
+    private final long version;
+
+    private final Map<Class<?>, Map<Long, Object>> byId;
+
+    private final Map<Class<?>, Map<String, Object>> byUpsaId;
+
+    private ReferenceDataSnapshot(long version, Map<Class<?>, Map<Long, Object>> byId,
+                                  Map<Class<?>, Map<String, Object>> byUpsaId) {
+        this.version = version;
+        this.byId = byId;
+        this.byUpsaId = byUpsaId;
+    }
+
+    public static ReferenceDataSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Starts the next version of a snapshot, sharing the entities of the types that are not replaced.
+     */
+    public static Builder builder(ReferenceDataSnapshot previous) {
+        return new Builder(previous);
+    }
+
+    /**
+     * @return the number of times the snapshot was rebuilt
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean contains(Class<?> type) {
+        return byId.containsKey(type);
+    }
+
+    /**
+     * @return the entity, or null if there is none with this id
+     */
+    public <T> T findOne(Class<T> type, Long id) {
+        Map<Long, Object> entities = byId.get(type);
+        return Objects.isNull(entities) || Objects.isNull(id) ? null : type.cast(entities.get(id));
+    }
+
+    /**
+     * @return the entity, or null if there is none with this UPSA id or the type has no UPSA id
+     */
+    public <T> T findOneByUpsaId(Class<T> type, String upsaId) {
+        Map<String, Object> entities = byUpsaId.get(type);
+        return Objects.isNull(entities) || Objects.isNull(upsaId) ? null : type.cast(entities.get(upsaId));
+    }
+
+    /**
+     * @return the entities of a type, in id order
+     */
+    public <T> List<T> findAll(Class<T> type) {
+        Map<Long, Object> entities = byId.getOrDefault(type, Collections.emptyMap());
+        List<T> all = new ArrayList<>(entities.size());
+        entities.values().forEach(entity -> all.add(type.cast(entity)));
+        return all;
+    }
+
+    @Override
+    public String toString() {
+        return "ReferenceDataSnapshot{" +
+            "version=" + version +
+            ", types=" + byId.size() +
+            '}';
+    }
+
+    public static final class Builder {
+
+        private final long version;
+
+        private final Map<Class<?>, Map<Long, Object>> byId;
+
+        private final Map<Class<?>, Map<String, Object>> byUpsaId;
+
+        private Builder(ReferenceDataSnapshot previous) {
+            version = previous.version + 1;
+            byId = new HashMap<>(previous.byId);
+            byUpsaId = new HashMap<>(previous.byUpsaId);
+        }
+
+        /**
+         * Replaces the entities of a type.
+         *
+         * @param upsaId the UPSA id of an entity, or null if the type has none
+         */
+        public <T> Builder put(Class<T> type, Collection<T> entities, Function<T, Long> id, Function<T, String> upsaId) {
+            Map<Long, Object> entitiesById = new LinkedHashMap<>();
+            entities.stream()
+                .sorted((first, second) -> Long.compare(id.apply(first), id.apply(second)))
+                .forEach(entity -> entitiesById.put(id.apply(entity), entity));
+            byId.put(type, Collections.unmodifiableMap(entitiesById));
+            if (Objects.nonNull(upsaId)) {
+                Map<String, Object> entitiesByUpsaId = new HashMap<>();
+                entities.forEach(entity -> {
+                    String key = upsaId.apply(entity);
+                    if (Objects.nonNull(key)) {
+                        entitiesByUpsaId.putIfAbsent(key, entity);
+                    }
+                });
+                byUpsaId.put(type, Collections.unmodifiableMap(entitiesByUpsaId));
+            }
+            return this;
+        }
+
+        public ReferenceDataSnapshot build() {
+            return new ReferenceDataSnapshot(version, Collections.unmodifiableMap(byId),
+                Collections.unmodifiableMap(byUpsaId));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.epam.bench.service.dto;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the progress of a full search reindex.
+ */
+public class ReindexStatusDTO {
+
+    public enum Status {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    private Status status = Status.IDLE;
+
+    private ZonedDateTime startedTime;
+
+    private ZonedDateTime completedTime;
+
+    private long total;
+
+    private long indexed;
+
+    private double documentsPerSecond;
+
+    private Long etaSeconds;
+
+    private List<IndexStatusDTO> indices = new ArrayList<>();
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public ZonedDateTime getStartedTime() {
+        return startedTime;
+    }
+
+    public void setStartedTime(ZonedDateTime startedTime) {
+        this.startedTime = startedTime;
+    }
+
+    public ZonedDateTime getCompletedTime() {
+        return completedTime;
+    }
+
+    public void setCompletedTime(ZonedDateTime completedTime) {
+        this.completedTime = completedTime;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getIndexed() {
+        return indexed;
+    }
+
+    public void setIndexed(long indexed) {
+        this.indexed = indexed;
+    }
+
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    public void setDocumentsPerSecond(double documentsPerSecond) {
+        this.documentsPerSecond = documentsPerSecond;
+    }
+
+    /**
+     * Estimated seconds until all indices are rebuilt, null when it cannot be estimated yet.
+     */
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    public List<IndexStatusDTO> getIndices() {
+        return indices;
+    }
+
+    public void setIndices(List<IndexStatusDTO> indices) {
+        this.indices = indices;
+    }
+
+    @Override
+    public String toString() {
+        return "ReindexStatusDTO{" +
+            "status=" + status +
+            ", startedTime=" + startedTime +
+            ", completedTime=" + completedTime +
+            ", total=" + total +
+            ", indexed=" + indexed +
+            ", documentsPerSecond=" + documentsPerSecond +
+            ", etaSeconds=" + etaSeconds +
+            "}";
+    }
+
+    /**
+     * The progress of a single index.
+     */
+    public static class IndexStatusDTO {
+
+        private String alias;
+
+        private String index;
+
+        private Status status;
+
+        private long total;
+
+        private long indexed;
+
+        private long failed;
+
+        private String error;
+
+        public String getAlias() {
+            return alias;
+        }
+
+        public void setAlias(String alias) {
+            this.alias = alias;
+        }
+
+        /**
+         * The versioned index that is being built, and that the alias points to once it is complete.
+         */
+        public String getIndex() {
+            return index;
+        }
+
+        public void setIndex(String index) {
+            this.index = index;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public long getIndexed() {
+            return indexed;
+        }
+
+        public void setIndexed(long indexed) {
+            this.indexed = indexed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public void setFailed(long failed) {
+            this.failed = failed;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.epam.bench.service.dto.bench;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The projected size of the bench over the coming periods, in total and by primary skill and location.
+ * Every count is the largest number of employees on the bench at the same time within its period.
+ */
+public class BenchForecastDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private ForecastGranularity granularity;
+    private List<LocalDate> periods;
+    private List<Integer> total;
+    private List<ForecastSeriesDto> series;
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public ForecastGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(ForecastGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    /**
+     * The first day of every period.
+     */
+    public List<LocalDate> getPeriods() {
+        return periods;
+    }
+
+    public void setPeriods(List<LocalDate> periods) {
+        this.periods = periods;
+    }
+
+    public List<Integer> getTotal() {
+        return total;
+    }
+
+    public void setTotal(List<Integer> total) {
+        this.total = total;
+    }
+
+    public List<ForecastSeriesDto> getSeries() {
+        return series;
+    }
+
+    public void setSeries(List<ForecastSeriesDto> series) {
+        this.series = series;
+    }
+}
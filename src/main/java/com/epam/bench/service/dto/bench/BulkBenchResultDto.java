@@ -0,0 +1,57 @@
+package com.epam.bench.service.dto.bench;
+
+/**
+ * The outcome of one employee of a bulk bench request, with the employee once it is on the bench.
+ */
+public class BulkBenchResultDto {
+
+    private String upsaId;
+    private BulkBenchStatus status;
+    private String message;
+    private EmployeeDto employee;
+
+    public BulkBenchResultDto() {
+    }
+
+    public BulkBenchResultDto(String upsaId, BulkBenchStatus status) {
+        this.upsaId = upsaId;
+        this.status = status;
+    }
+
+    public BulkBenchResultDto(String upsaId, BulkBenchStatus status, String message) {
+        this(upsaId, status);
+        this.message = message;
+    }
+
+    public String getUpsaId() {
+        return upsaId;
+    }
+
+    public void setUpsaId(String upsaId) {
+        this.upsaId = upsaId;
+    }
+
+    public BulkBenchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BulkBenchStatus status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public EmployeeDto getEmployee() {
+        return employee;
+    }
+
+    public void setEmployee(EmployeeDto employee) {
+        this.employee = employee;
+    }
+}
@@ -0,0 +1,13 @@
+package com.epam.bench.service.dto.bench;
+
+/**
+ * The outcome of one employee of a bulk bench request.
+ */
+public enum BulkBenchStatus {
+    ADDED,
+    REMOVED,
+    ALREADY_ON_BENCH,
+    NOT_ON_BENCH,
+    NOT_FOUND,
+    FAILED
+}
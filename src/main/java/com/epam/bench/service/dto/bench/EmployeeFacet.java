@@ -0,0 +1,33 @@
+package com.epam.bench.service.dto.bench;
+
+/**
+ * The facets the bench can be filtered and counted by, with the employee index field each one is read from.
+ */
+public enum EmployeeFacet {
+
+    SKILL("skill", "primarySkill.name.raw"),
+    LOCATION("location", "location.name.raw"),
+    UNIT("unit", "unit.name.raw"),
+    ENGLISH_LEVEL("englishLevel", "englishLevel.speaking"),
+    PROBABILITY("probability", "probability");
+
+    private final String key;
+
+    private final String field;
+
+    EmployeeFacet(String key, String field) {
+        this.key = key;
+        this.field = field;
+    }
+
+    /**
+     * The name of the facet in requests and responses.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
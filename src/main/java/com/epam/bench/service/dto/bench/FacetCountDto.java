@@ -0,0 +1,34 @@
+package com.epam.bench.service.dto.bench;
+
+/**
+ * The number of employees with a value of a facet.
+ */
+public class FacetCountDto {
+
+    private String value;
+    private long count;
+
+    public FacetCountDto() {
+    }
+
+    public FacetCountDto(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
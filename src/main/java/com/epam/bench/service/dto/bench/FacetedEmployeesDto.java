@@ -0,0 +1,43 @@
+package com.epam.bench.service.dto.bench;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of bench employees with the counts of every facet.
+ * <p>
+ * The counts of a facet take the filters of all other facets into account, but not its own, so the
+ * other values of a facet can still be picked.
+ */
+public class FacetedEmployeesDto {
+
+    private long total;
+    private List<EmployeeSimpleViewDto> employees = new ArrayList<>();
+    private Map<String, List<FacetCountDto>> facets = new LinkedHashMap<>();
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<EmployeeSimpleViewDto> getEmployees() {
+        return employees;
+    }
+
+    public void setEmployees(List<EmployeeSimpleViewDto> employees) {
+        this.employees = employees;
+    }
+
+    public Map<String, List<FacetCountDto>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, List<FacetCountDto>> facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,20 @@
+package com.epam.bench.service.dto.bench;
+
+/**
+ * The length of the periods a bench forecast is broken into.
+ */
+public enum ForecastGranularity {
+
+    DAY(1),
+    WEEK(7);
+
+    private final int days;
+
+    ForecastGranularity(int days) {
+        this.days = days;
+    }
+
+    public int getDays() {
+        return days;
+    }
+}
@@ -0,0 +1,46 @@
+package com.epam.bench.service.dto.bench;
+
+import java.util.List;
+
+/**
+ * The projected number of employees on the bench with a primary skill and a location, one count per period.
+ */
+public class ForecastSeriesDto {
+
+    private String skill;
+    private String location;
+    private List<Integer> counts;
+
+    public ForecastSeriesDto() {
+    }
+
+    public ForecastSeriesDto(String skill, String location, List<Integer> counts) {
+        this.skill = skill;
+        this.location = location;
+        this.counts = counts;
+    }
+
+    public String getSkill() {
+        return skill;
+    }
+
+    public void setSkill(String skill) {
+        this.skill = skill;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public List<Integer> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(List<Integer> counts) {
+        this.counts = counts;
+    }
+}
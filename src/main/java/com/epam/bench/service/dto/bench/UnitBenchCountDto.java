@@ -0,0 +1,66 @@
+package com.epam.bench.service.dto.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A unit of the tree with its number of employees on bench, and the number including all its sub-units.
+ */
+public class UnitBenchCountDto {
+
+    private Long id;
+    private String name;
+    private long benchCount;
+    private long totalBenchCount;
+    private List<UnitBenchCountDto> children = new ArrayList<>();
+
+    public UnitBenchCountDto() {
+    }
+
+    public UnitBenchCountDto(Long id, String name, long benchCount, long totalBenchCount) {
+        this.id = id;
+        this.name = name;
+        this.benchCount = benchCount;
+        this.totalBenchCount = totalBenchCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getBenchCount() {
+        return benchCount;
+    }
+
+    public void setBenchCount(long benchCount) {
+        this.benchCount = benchCount;
+    }
+
+    public long getTotalBenchCount() {
+        return totalBenchCount;
+    }
+
+    public void setTotalBenchCount(long totalBenchCount) {
+        this.totalBenchCount = totalBenchCount;
+    }
+
+    public List<UnitBenchCountDto> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<UnitBenchCountDto> children) {
+        this.children = children;
+    }
+}
@@ -0,0 +1,34 @@
+package com.epam.bench.service.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when data the bench figures are derived from changes: bench states, workloads, projects,
+ * predictions or employees. Listeners drop what they derived from it.
+ */
+public class BenchDataChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Class<?> entityClass;
+
+    /**
+     * @param source the service that changed the data
+     * @param entityClass the class of the entities that changed
+     */
+    public BenchDataChangedEvent(Object source, Class<?> entityClass) {
+        super(source);
+        this.entityClass = entityClass;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    @Override
+    public String toString() {
+        return "BenchDataChangedEvent{" +
+            "entityClass=" + entityClass.getSimpleName() +
+            '}';
+    }
+}
@@ -0,0 +1,36 @@
+package com.epam.bench.service.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes an export row by row, without keeping the rows written so far.
+ */
+public interface ExportWriter extends Closeable {
+
+    /**
+     * Write a row of cells, null cells are left empty.
+     *
+     * @param cells the cells of the row
+     * @throws IOException if the row could not be written
+     */
+    void writeRow(List<?> cells) throws IOException;
+
+    /**
+     * Create a writer for a format. Closing the writer finishes the export and flushes, but does not close, the stream.
+     *
+     * @param format the format of the export
+     * @param out the stream to write to
+     * @return the writer
+     */
+    static ExportWriter create(ExportFormat format, OutputStream out) {
+        switch (format) {
+            case XLSX:
+                return new XlsxExportWriter(out);
+            default:
+                return new CsvExportWriter(out);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.epam.bench.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Writes an export as an XLSX workbook with a single sheet.
+ * <p>
+ * Only a window of rows is kept in memory, the older ones are flushed to a temporary file that is copied
+ * to the stream once the export is complete and then deleted.
+ */
+public class XlsxExportWriter implements ExportWriter {
+
+    private static final int ROW_WINDOW = 100;
+
+    private static final String SHEET_NAME = "Bench";
+
+    private final OutputStream out;
+
+    private final SXSSFWorkbook workbook;
+
+    private final SXSSFSheet sheet;
+
+    private int rowIndex;
+
+    public XlsxExportWriter(OutputStream out) {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        // the temporary file is read once when the workbook is written, compressing it is not worth the time
+        this.workbook.setCompressTempFiles(false);
+        this.sheet = workbook.createSheet(SHEET_NAME);
+    }
+
+    @Override
+    public void writeRow(List<?> cells) {
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < cells.size(); i++) {
+            Object value = cells.get(i);
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+        }
+    }
+}
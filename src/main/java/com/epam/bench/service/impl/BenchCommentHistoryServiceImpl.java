@@ -4,6 +4,7 @@ import com.epam.bench.service.BenchCommentHistoryService;
 import com.epam.bench.domain.BenchCommentHistory;
 import com.epam.bench.repository.BenchCommentHistoryRepository;
 import com.epam.bench.repository.search.BenchCommentHistorySearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class BenchCommentHistoryServiceImpl implements BenchCommentHistoryServic
     @Inject
     private BenchCommentHistorySearchRepository benchCommentHistorySearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a benchCommentHistory.
      *
@@ -42,7 +46,7 @@ public class BenchCommentHistoryServiceImpl implements BenchCommentHistoryServic
     public BenchCommentHistory save(BenchCommentHistory benchCommentHistory) {
         log.debug("Request to save BenchCommentHistory : {}", benchCommentHistory);
         BenchCommentHistory result = benchCommentHistoryRepository.save(benchCommentHistory);
-        benchCommentHistorySearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class BenchCommentHistoryServiceImpl implements BenchCommentHistoryServic
     public void delete(Long id) {
         log.debug("Request to delete BenchCommentHistory : {}", id);
         benchCommentHistoryRepository.delete(id);
-        benchCommentHistorySearchRepository.delete(id);
+        searchIndexer.delete(BenchCommentHistory.class, id);
     }
 
     /**
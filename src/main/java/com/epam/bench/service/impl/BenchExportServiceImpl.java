@@ -0,0 +1,113 @@
+package com.epam.bench.service.impl;
+
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.domain.Location;
+import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.domain.Title;
+import com.epam.bench.service.BenchExportService;
+import com.epam.bench.service.ReferenceDataService;
+import com.epam.bench.service.export.ExportFormat;
+import com.epam.bench.service.export.ExportWriter;
+import com.epam.bench.service.util.BenchDaysCalculator;
+import com.epam.bench.service.util.ServiceUtils;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Service Implementation for exporting the bench.
+ * <p>
+ * The active employees on the bench are read as plain columns through a forward only cursor and every row is
+ * written as soon as it is read, so the memory used does not grow with the number of employees. The names of
+ * the titles, skills and locations are looked up in the reference data rather than joined.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BenchExportServiceImpl implements BenchExportService {
+
+    private final Logger log = LoggerFactory.getLogger(BenchExportServiceImpl.class);
+
+    static final List<String> HEADER = Arrays.asList("UPSA id", "Full name", "Email", "Title", "Primary skill",
+        "Location", "Unit", "English level", "Manager", "Available from", "Days on bench", "Probability", "Comment");
+
+    private static final String EXPORT_QUERY = "select employee.upsaId, employee.fullName, employee.email,"
+        + " employee.title.id, employee.primarySkill.id, employee.location.id,"
+        + " unit.name, englishLevel.speaking,"
+        + " employee.managerFullName, employee.availableFrom,"
+        + " state.closedBenchSeconds, state.openBenchSince,"
+        + " employee.probability, employee.comment"
+        + " from BenchState state"
+        + " join state.employee employee"
+        + " left join employee.unit unit"
+        + " left join employee.englishLevel englishLevel"
+        + " where state.onBench = true and employee.active = true"
+        + " order by employee.id";
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private ReferenceDataService referenceDataService;
+
+    @Override
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        log.debug("Request to export the bench as {}", format);
+        Session session = entityManager.unwrap(Session.class);
+        ZonedDateTime now = ZonedDateTime.now();
+        long exported = 0;
+        try (ExportWriter writer = ExportWriter.create(format, out)) {
+            writer.writeRow(HEADER);
+            ScrollableResults results = session.createQuery(EXPORT_QUERY)
+                .setFetchSize(applicationProperties.getExport().getFetchSize())
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    writer.writeRow(toRow(results.get(), now));
+                    exported++;
+                }
+            } finally {
+                results.close();
+            }
+        }
+        log.debug("Exported {} employees as {}", exported, format);
+        return exported;
+    }
+
+    private List<Object> toRow(Object[] columns, ZonedDateTime now) {
+        ZonedDateTime availableFrom = ServiceUtils.toZonedDateTime(columns[9]);
+        Long closedBenchSeconds = (Long) columns[10];
+        ZonedDateTime openBenchSince = ServiceUtils.toZonedDateTime(columns[11]);
+        Integer daysOnBench = Objects.isNull(closedBenchSeconds) ? null
+            : BenchDaysCalculator.daysOnBench(closedBenchSeconds, openBenchSince, now);
+        Title title = referenceDataService.findOne(Title.class, (Long) columns[3]);
+        PrimarySkill skill = referenceDataService.findOne(PrimarySkill.class, (Long) columns[4]);
+        Location location = referenceDataService.findOne(Location.class, (Long) columns[5]);
+        return Arrays.asList(columns[0], columns[1], columns[2],
+            Objects.isNull(title) ? null : title.getName(),
+            Objects.isNull(skill) ? null : skill.getName(),
+            Objects.isNull(location) ? null : location.getName(),
+            columns[6], columns[7], columns[8],
+            Objects.isNull(availableFrom) ? null : ServiceUtils.getFormattedYearDate(availableFrom),
+            daysOnBench,
+            columns[12], columns[13]);
+    }
+}
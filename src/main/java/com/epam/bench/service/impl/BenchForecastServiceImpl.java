@@ -0,0 +1,299 @@
+package com.epam.bench.service.impl;
+
+import com.epam.bench.domain.Location;
+import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.repository.BenchPredictionsRepository;
+import com.epam.bench.repository.BenchStateRepository;
+import com.epam.bench.repository.EmployeeRepository;
+import com.epam.bench.repository.WorkloadIntervalRepository;
+import com.epam.bench.service.BenchForecastService;
+import com.epam.bench.service.ReferenceDataService;
+import com.epam.bench.service.dto.bench.BenchForecastDto;
+import com.epam.bench.service.dto.bench.ForecastGranularity;
+import com.epam.bench.service.dto.bench.ForecastSeriesDto;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+import com.epam.bench.service.util.ServiceUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.inject.Inject;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Service Implementation for projecting the size of the bench.
+ * <p>
+ * Every employee contributes the periods they are expected on the bench, each one a join and a leave event
+ * for the group of their primary skill and location. The events are sorted once and swept in a single pass,
+ * keeping the number of employees on the bench per group and the largest of it within every period. The names
+ * of the skills and locations are looked up in the reference data rather than joined.
+ * <p>
+ * Forecasts are kept until the data they are derived from changes, as announced by a {@link BenchDataChangedEvent}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BenchForecastServiceImpl implements BenchForecastService, ApplicationListener<BenchDataChangedEvent> {
+
+    private final Logger log = LoggerFactory.getLogger(BenchForecastServiceImpl.class);
+
+    private static final int MAX_CACHED_FORECASTS = 100;
+
+    private static final Comparator<Event> BY_DATE = Comparator.comparing((Event event) -> event.date)
+        .thenComparingInt(event -> event.delta);
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
+    @Inject
+    private BenchStateRepository benchStateRepository;
+
+    @Inject
+    private WorkloadIntervalRepository workloadIntervalRepository;
+
+    @Inject
+    private BenchPredictionsRepository benchPredictionsRepository;
+
+    @Inject
+    private ReferenceDataService referenceDataService;
+
+    private final Map<String, BenchForecastDto> forecasts = new ConcurrentHashMap<>();
+
+    /**
+     * Counts the changes, so a forecast computed while the data changed is not kept.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Override
+    public BenchForecastDto forecast(LocalDate from, int periods, ForecastGranularity granularity) {
+        return forecast(from, periods, granularity, null);
+    }
+
+    @Override
+    public BenchForecastDto forecast(LocalDate from, int periods, ForecastGranularity granularity, Long unitId) {
+        String key = from + "|" + periods + "|" + granularity + "|" + unitId;
+        BenchForecastDto forecast = forecasts.get(key);
+        if (Objects.nonNull(forecast)) {
+            return forecast;
+        }
+        long computedGeneration = generation.get();
+        forecast = computeForecast(from, periods, granularity, unitId);
+        if (computedGeneration == generation.get()) {
+            if (forecasts.size() >= MAX_CACHED_FORECASTS) {
+                forecasts.clear();
+            }
+            forecasts.put(key, forecast);
+        }
+        return forecast;
+    }
+
+    @Override
+    public void onApplicationEvent(BenchDataChangedEvent event) {
+        log.debug("Dropping the bench forecasts after {}", event);
+        invalidate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a forecast read before the change is committed still sees the previous data
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate();
+                }
+            });
+        }
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        forecasts.clear();
+    }
+
+    private BenchForecastDto computeForecast(LocalDate from, int periods, ForecastGranularity granularity, Long unitId) {
+        log.debug("Request to forecast the bench for {} {} periods from {} in Unit : {}", periods, granularity, from,
+            unitId);
+        LocalDate end = from.plusDays((long) periods * granularity.getDays());
+        LocalDate to = end.minusDays(1);
+
+        Set<Long> onBench = new HashSet<>(benchStateRepository.findEmployeeIdsOnBench());
+        Map<Long, List<LocalDate[]>> workloads = new HashMap<>();
+        for (Object[] row : workloadIntervalRepository.findOverlappingWithProjectEnd(from, to)) {
+            workloads.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(new LocalDate[]{
+                ServiceUtils.toLocalDate(row[1]),
+                end(ServiceUtils.toLocalDate(row[2]), ServiceUtils.toLocalDate(row[3]))});
+        }
+        Map<Long, LocalDate> readyToBench = new HashMap<>();
+        Map<Long, LocalDate> readyToProduction = new HashMap<>();
+        for (Object[] row : benchPredictionsRepository.findMovementsBetween(from, to)) {
+            LocalDate date = ServiceUtils.toLocalDate(row[3]);
+            if (Boolean.TRUE.equals(row[1])) {
+                readyToBench.merge((Long) row[0], date, (first, second) -> first.isBefore(second) ? first : second);
+            }
+            if (Boolean.TRUE.equals(row[2])) {
+                readyToProduction.merge((Long) row[0], date, (first, second) -> first.isBefore(second) ? first : second);
+            }
+        }
+
+        Map<List<String>, Integer> groups = new LinkedHashMap<>();
+        List<Event> events = new ArrayList<>();
+        List<Object[]> employees = Objects.isNull(unitId) ? employeeRepository.findActiveSkillAndLocationIds()
+            : employeeRepository.findActiveSkillAndLocationIdsInUnit(unitId);
+        for (Object[] row : employees) {
+            Long id = (Long) row[0];
+            PrimarySkill skill = referenceDataService.findOne(PrimarySkill.class, (Long) row[1]);
+            Location location = referenceDataService.findOne(Location.class, (Long) row[2]);
+            List<String> key = Arrays.asList(Objects.isNull(skill) ? null : skill.getName(),
+                Objects.isNull(location) ? null : location.getName());
+            int group = groups.computeIfAbsent(key, newKey -> groups.size());
+            List<LocalDate[]> intervals = workloads.getOrDefault(id, Collections.emptyList());
+            if (onBench.contains(id)) {
+                LocalDate leave = readyToProduction.get(id);
+                for (LocalDate[] interval : intervals) {
+                    if (interval[0].isAfter(from) && (Objects.isNull(leave) || interval[0].isBefore(leave))) {
+                        leave = interval[0];
+                    }
+                }
+                addBenchPeriod(events, group, from, leave, end);
+            } else {
+                List<LocalDate[]> gaps = gaps(intervals, from, end);
+                if (gaps.isEmpty() && readyToBench.containsKey(id)) {
+                    gaps = Collections.singletonList(new LocalDate[]{readyToBench.get(id), null});
+                }
+                gaps.forEach(gap -> addBenchPeriod(events, group, gap[0], gap[1], end));
+            }
+        }
+        events.sort(BY_DATE);
+
+        int[][] peaks = new int[groups.size()][periods];
+        int[] totalPeaks = new int[periods];
+        int[] current = new int[groups.size()];
+        int currentTotal = 0;
+        int next = 0;
+        List<LocalDate> periodStarts = new ArrayList<>(periods);
+        for (int period = 0; period < periods; period++) {
+            LocalDate periodStart = from.plusDays((long) period * granularity.getDays());
+            LocalDate periodEnd = periodStart.plusDays(granularity.getDays());
+            periodStarts.add(periodStart);
+            for (; next < events.size() && !events.get(next).date.isAfter(periodStart); next++) {
+                current[events.get(next).group] += events.get(next).delta;
+                currentTotal += events.get(next).delta;
+            }
+            for (int group = 0; group < current.length; group++) {
+                peaks[group][period] = current[group];
+            }
+            totalPeaks[period] = currentTotal;
+            // leaves sort before joins of the same day, so a peak is never counted from both
+            for (; next < events.size() && events.get(next).date.isBefore(periodEnd); next++) {
+                Event event = events.get(next);
+                current[event.group] += event.delta;
+                currentTotal += event.delta;
+                peaks[event.group][period] = Math.max(peaks[event.group][period], current[event.group]);
+                totalPeaks[period] = Math.max(totalPeaks[period], currentTotal);
+            }
+        }
+
+        List<ForecastSeriesDto> series = new ArrayList<>();
+        groups.forEach((key, group) -> {
+            if (Arrays.stream(peaks[group]).anyMatch(count -> count > 0)) {
+                series.add(new ForecastSeriesDto(key.get(0), key.get(1), toList(peaks[group])));
+            }
+        });
+        series.sort(Comparator.comparing(ForecastSeriesDto::getSkill, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ForecastSeriesDto::getLocation, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        BenchForecastDto forecast = new BenchForecastDto();
+        forecast.setFrom(from);
+        forecast.setTo(to);
+        forecast.setGranularity(granularity);
+        forecast.setPeriods(periodStarts);
+        forecast.setTotal(toList(totalPeaks));
+        forecast.setSeries(series);
+        return forecast;
+    }
+
+    /**
+     * The first day off a workload, by its interval or by the end date of its project.
+     */
+    private static LocalDate end(LocalDate validTo, LocalDate projectEndDate) {
+        if (Objects.isNull(projectEndDate)) {
+            return validTo;
+        }
+        LocalDate projectEnd = projectEndDate.plusDays(1);
+        return Objects.isNull(validTo) || projectEnd.isBefore(validTo) ? projectEnd : validTo;
+    }
+
+    /**
+     * The periods without any workload of an employee who has one on the first day.
+     */
+    private static List<LocalDate[]> gaps(List<LocalDate[]> intervals, LocalDate from, LocalDate end) {
+        boolean allocated = intervals.stream()
+            .anyMatch(interval -> !interval[0].isAfter(from) && (Objects.isNull(interval[1]) || interval[1].isAfter(from)));
+        if (!allocated) {
+            return Collections.emptyList();
+        }
+        List<LocalDate[]> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparing(interval -> interval[0]));
+        List<LocalDate[]> gaps = new ArrayList<>();
+        LocalDate coveredUntil = from;
+        for (LocalDate[] interval : sorted) {
+            if (interval[0].isAfter(coveredUntil)) {
+                gaps.add(new LocalDate[]{coveredUntil, interval[0]});
+            }
+            if (Objects.isNull(interval[1])) {
+                return gaps;
+            }
+            if (interval[1].isAfter(coveredUntil)) {
+                coveredUntil = interval[1];
+            }
+        }
+        if (coveredUntil.isBefore(end)) {
+            gaps.add(new LocalDate[]{coveredUntil, null});
+        }
+        return gaps;
+    }
+
+    private static void addBenchPeriod(List<Event> events, int group, LocalDate join, LocalDate leave, LocalDate end) {
+        if (!join.isBefore(end) || (Objects.nonNull(leave) && !leave.isAfter(join))) {
+            return;
+        }
+        events.add(new Event(join, group, 1));
+        if (Objects.nonNull(leave) && leave.isBefore(end)) {
+            events.add(new Event(leave, group, -1));
+        }
+    }
+
+    private static List<Integer> toList(int[] counts) {
+        return IntStream.of(counts).boxed().collect(Collectors.toList());
+    }
+
+    private static final class Event {
+
+        private final LocalDate date;
+
+        private final int group;
+
+        private final int delta;
+
+        private Event(LocalDate date, int group, int delta) {
+            this.date = date;
+            this.group = group;
+            this.delta = delta;
+        }
+    }
+}
@@ -2,9 +2,11 @@ package com.epam.bench.service.impl;
 
 import com.epam.bench.domain.Employee;
 import com.epam.bench.service.BenchHistoryService;
+import com.epam.bench.service.BenchStateService;
 import com.epam.bench.domain.BenchHistory;
 import com.epam.bench.repository.BenchHistoryRepository;
 import com.epam.bench.repository.search.BenchHistorySearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -13,6 +15,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -34,6 +38,12 @@ public class BenchHistoryServiceImpl implements BenchHistoryService{
     @Inject
     private BenchHistorySearchRepository benchHistorySearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private BenchStateService benchStateService;
+
     /**
      * Save a benchHistory.
      *
@@ -43,7 +53,8 @@ public class BenchHistoryServiceImpl implements BenchHistoryService{
     public BenchHistory save(BenchHistory benchHistory) {
         log.debug("Request to save BenchHistory : {}", benchHistory);
         BenchHistory result = benchHistoryRepository.save(benchHistory);
-        benchHistorySearchRepository.save(result);
+        benchStateService.update(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,8 +91,12 @@ public class BenchHistoryServiceImpl implements BenchHistoryService{
      */
     public void delete(Long id) {
         log.debug("Request to delete BenchHistory : {}", id);
+        BenchHistory benchHistory = benchHistoryRepository.findOne(id);
+        if (benchHistory != null) {
+            benchStateService.remove(benchHistory);
+        }
         benchHistoryRepository.delete(id);
-        benchHistorySearchRepository.delete(id);
+        searchIndexer.delete(BenchHistory.class, id);
     }
 
     /**
@@ -103,4 +118,14 @@ public class BenchHistoryServiceImpl implements BenchHistoryService{
         log.debug("Request to find all BenchHistories for Employee : {}", employee);
         return benchHistoryRepository.findByEmployee(employee);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BenchHistory> findLast(Collection<Employee> employees) {
+        log.debug("Request to find last BenchHistories for {} Employees", employees.size());
+        if (employees.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return benchHistoryRepository.findLastByEmployees(employees);
+    }
 }
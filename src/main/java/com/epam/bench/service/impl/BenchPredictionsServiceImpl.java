@@ -2,17 +2,35 @@ package com.epam.bench.service.impl;
 
 import com.epam.bench.service.BenchPredictionsService;
 import com.epam.bench.domain.BenchPredictions;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.PredictionDetails;
+import com.epam.bench.domain.WorkloadInterval;
 import com.epam.bench.repository.BenchPredictionsRepository;
+import com.epam.bench.repository.EmployeeRepository;
+import com.epam.bench.repository.PredictionDetailsRepository;
 import com.epam.bench.repository.search.BenchPredictionsSearchRepository;
+import com.epam.bench.service.WorkloadTimelineService;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+import com.epam.bench.service.search.SearchIndexer;
+import com.epam.bench.service.util.BenchPredictor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -33,6 +51,21 @@ public class BenchPredictionsServiceImpl implements BenchPredictionsService{
     @Inject
     private BenchPredictionsSearchRepository benchPredictionsSearchRepository;
 
+    @Inject
+    private PredictionDetailsRepository predictionDetailsRepository;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
+    @Inject
+    private WorkloadTimelineService workloadTimelineService;
+
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Save a benchPredictions.
      *
@@ -42,10 +75,69 @@ public class BenchPredictionsServiceImpl implements BenchPredictionsService{
     public BenchPredictions save(BenchPredictions benchPredictions) {
         log.debug("Request to save BenchPredictions : {}", benchPredictions);
         BenchPredictions result = benchPredictionsRepository.save(benchPredictions);
-        benchPredictionsSearchRepository.save(result);
+        searchIndexer.index(result);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, BenchPredictions.class));
         return result;
     }
 
+    /**
+     * Replace the predictions of several employees with new ones, keeping whether they were ignored.
+     * The previous predictions go away, so a chunk predicted again after a restart is not duplicated.
+     *
+     * @param employeeIds the ids of the employees
+     * @param today the first day of the prediction horizon
+     * @param horizon the last day of the prediction horizon
+     * @param createdTime the created time of the new predictions
+     * @return the number of predictions written
+     */
+    public int predict(Collection<Long> employeeIds, LocalDate today, LocalDate horizon, ZonedDateTime createdTime) {
+        log.debug("Request to predict the bench of {} Employees", employeeIds.size());
+        List<Employee> employees = employeeRepository.findWithStatusesByIdIn(employeeIds);
+        if (employees.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<WorkloadInterval>> intervals = workloadTimelineService.findAllocations(employees, today, horizon);
+        List<BenchPredictions> previous = benchPredictionsRepository.findByEmployeeIn(employees);
+        Map<Long, BenchPredictions> latest = previous.stream().collect(Collectors.toMap(
+            prediction -> prediction.getEmployee().getId(), Function.identity(),
+            (first, second) -> first.getCreatedTime().isAfter(second.getCreatedTime()) ? first : second));
+
+        List<BenchPredictions> predictions = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            BenchPredictions prediction = BenchPredictor.predict(employee,
+                intervals.getOrDefault(employee.getId(), Collections.emptyList()), today, horizon)
+                .createdTime(createdTime);
+            BenchPredictions last = latest.get(employee.getId());
+            if (Objects.nonNull(last)) {
+                prediction.ignored(last.isIgnored()).ignoredDays(last.isIgnoredDays());
+            }
+            predictions.add(prediction);
+        }
+
+        if (!previous.isEmpty()) {
+            List<PredictionDetails> previousDetails = previous.stream()
+                .map(BenchPredictions::getDetails)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+            benchPredictionsRepository.deleteInBatch(previous);
+            searchIndexer.delete(BenchPredictions.class,
+                previous.stream().map(BenchPredictions::getId).collect(Collectors.toList()));
+            if (!previousDetails.isEmpty()) {
+                predictionDetailsRepository.deleteInBatch(previousDetails);
+                searchIndexer.delete(PredictionDetails.class,
+                    previousDetails.stream().map(PredictionDetails::getId).collect(Collectors.toList()));
+            }
+        }
+
+        List<PredictionDetails> details = predictionDetailsRepository.save(
+            predictions.stream().map(BenchPredictions::getDetails).collect(Collectors.toList()));
+        List<BenchPredictions> result = benchPredictionsRepository.save(predictions);
+        searchIndexer.index(details);
+        searchIndexer.index(result);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, BenchPredictions.class));
+        return result.size();
+    }
+
     /**
      *  Get all the benchPredictions.
      *  
@@ -80,7 +172,8 @@ public class BenchPredictionsServiceImpl implements BenchPredictionsService{
     public void delete(Long id) {
         log.debug("Request to delete BenchPredictions : {}", id);
         benchPredictionsRepository.delete(id);
-        benchPredictionsSearchRepository.delete(id);
+        searchIndexer.delete(BenchPredictions.class, id);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, BenchPredictions.class));
     }
 
     /**
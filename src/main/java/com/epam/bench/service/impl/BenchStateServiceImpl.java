@@ -0,0 +1,231 @@
+package com.epam.bench.service.impl;
+
+import com.epam.bench.domain.BenchHistory;
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.repository.BenchHistoryRepository;
+import com.epam.bench.repository.BenchStateRepository;
+import com.epam.bench.repository.EmployeeRepository;
+import com.epam.bench.repository.support.TotalCountCache;
+import com.epam.bench.service.BenchStateService;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+import com.epam.bench.service.search.SearchIndexer;
+import com.epam.bench.service.util.BenchDaysCalculator;
+import com.epam.bench.service.util.BenchDaysCalculator.BenchDays;
+import com.epam.bench.service.util.ServiceUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Service Implementation for maintaining the current bench state of employees.
+ */
+@Service
+@Transactional
+public class BenchStateServiceImpl implements BenchStateService {
+
+    private final Logger log = LoggerFactory.getLogger(BenchStateServiceImpl.class);
+
+    /**
+     * Count cache filter of the bench states on bench.
+     */
+    private static final String ON_BENCH = "onBench";
+
+    private static final Comparator<BenchHistory> BY_CREATION = Comparator.comparing(BenchHistory::getCreatedTime)
+        .thenComparing(BenchHistory::getId);
+
+    @Inject
+    private BenchStateRepository benchStateRepository;
+
+    @Inject
+    private BenchHistoryRepository benchHistoryRepository;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
+    @Inject
+    private TotalCountCache totalCountCache;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BenchState> find(Employee employee) {
+        log.debug("Request to get BenchState of Employee : {}", employee);
+        if (Objects.isNull(employee)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(benchStateRepository.findByEmployee(employee));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BenchState> find(Collection<Employee> employees) {
+        log.debug("Request to get BenchStates of {} Employees", employees.size());
+        if (employees.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return benchStateRepository.findByEmployeeIn(employees);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BenchState> findOnBench(Pageable pageable) {
+        log.debug("Request to get a page of BenchStates on bench");
+        return totalCountCache.toPage(BenchState.class, ON_BENCH, benchStateRepository.findByOnBenchTrue(pageable),
+            pageable, benchStateRepository::countByOnBenchTrue);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getDaysOnBench(Employee employee) {
+        return getDaysOnBench(Collections.singletonList(employee)).getOrDefault(employee.getId(), 0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getDaysOnBench(Collection<Employee> employees) {
+        log.debug("Request to get the days on bench of {} Employees", employees.size());
+        if (employees.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        ZonedDateTime now = ZonedDateTime.now();
+        Map<Long, Integer> days = new HashMap<>();
+        for (Object[] row : benchStateRepository.findBenchTimesByEmployeeIn(employees)) {
+            days.put((Long) row[0], BenchDaysCalculator.daysOnBench((Long) row[1], ServiceUtils.toZonedDateTime(row[2]), now));
+        }
+        return days;
+    }
+
+    @Override
+    public void update(BenchHistory benchHistory) {
+        Employee employee = benchHistory.getEmployee();
+        if (Objects.isNull(employee)) {
+            return;
+        }
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, BenchState.class));
+        lock(employee);
+        BenchState state = benchStateRepository.findByEmployeeForUpdate(employee);
+        boolean latest = Objects.isNull(state) || isLatest(benchHistory, state.getLastHistory());
+        if (Objects.isNull(state)) {
+            state = new BenchState().employee(employee);
+        }
+        if (latest) {
+            apply(state, benchHistory);
+        } else {
+            log.debug("BenchHistory {} is older than the current state of Employee {}", benchHistory.getId(), employee.getId());
+        }
+        // an older interval may have changed as well, it still counts for the days on bench
+        aggregate(state, benchHistoryRepository.findByEmployee(employee));
+        benchStateRepository.save(state);
+        if (latest) {
+            reindex(employee, state.isOnBench());
+        }
+    }
+
+    @Override
+    public void remove(BenchHistory benchHistory) {
+        Employee employee = benchHistory.getEmployee();
+        if (Objects.isNull(employee)) {
+            return;
+        }
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, BenchState.class));
+        lock(employee);
+        BenchState state = benchStateRepository.findByEmployeeForUpdate(employee);
+        if (Objects.isNull(state)) {
+            return;
+        }
+        List<BenchHistory> remaining = benchHistoryRepository.findByEmployee(employee).stream()
+            .filter(history -> !Objects.equals(history, benchHistory))
+            .collect(Collectors.toList());
+        if (!Objects.equals(state.getLastHistory(), benchHistory)) {
+            aggregate(state, remaining);
+            benchStateRepository.save(state);
+            return;
+        }
+        Optional<BenchHistory> previous = remaining.stream().max(BY_CREATION);
+        if (previous.isPresent()) {
+            apply(state, previous.get());
+            aggregate(state, remaining);
+            benchStateRepository.save(state);
+            reindex(employee, state.isOnBench());
+        } else {
+            benchStateRepository.delete(state);
+            reindex(employee, null);
+        }
+    }
+
+    /**
+     * Keeps the unit of the employee until the commit, for the bench counts of the units to follow the employee.
+     * A change of unit locks the employee first as well.
+     */
+    private void lock(Employee employee) {
+        if (Objects.nonNull(employee.getId())) {
+            employeeRepository.findOneForUpdate(employee.getId());
+        }
+    }
+
+    private boolean isLatest(BenchHistory candidate, BenchHistory current) {
+        return Objects.isNull(current)
+            || Objects.equals(candidate, current)
+            || BY_CREATION.compare(candidate, current) >= 0;
+    }
+
+    private void apply(BenchState state, BenchHistory history) {
+        boolean onBench = Boolean.TRUE.equals(history.isBench()) && Objects.isNull(history.getValidTo());
+        state.setOnBench(onBench);
+        state.setBenchSince(onBench ? history.getCreatedTime() : null);
+        state.setLastHistory(history);
+        state.setUpdatedTime(ZonedDateTime.now());
+    }
+
+    /**
+     * Recomputes the bench time of the employee. Only its own history is read, and only when it changes,
+     * so reading the days on bench never needs the history.
+     */
+    private void aggregate(BenchState state, Collection<BenchHistory> histories) {
+        BenchDays benchDays = BenchDaysCalculator.aggregate(histories);
+        state.setClosedBenchSeconds(benchDays.getClosedSeconds());
+        state.setOpenBenchSince(Objects.isNull(benchDays.getOpenSince()) ? null
+            : ZonedDateTime.ofInstant(benchDays.getOpenSince(), ZoneId.systemDefault()));
+        state.setUpdatedTime(ZonedDateTime.now());
+    }
+
+    /**
+     * The bench state is part of the employee search document, which has to follow it.
+     */
+    private void reindex(Employee employee, Boolean onBench) {
+        // the cached employee holds the previous state
+        entityManager.getEntityManagerFactory().getCache().evict(Employee.class, employee.getId());
+        Employee indexed = employeeRepository.findOne(employee.getId());
+        if (Objects.nonNull(indexed)) {
+            indexed.setOnBench(onBench);
+            searchIndexer.index(indexed);
+        }
+    }
+}
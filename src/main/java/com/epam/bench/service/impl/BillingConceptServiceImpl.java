@@ -4,6 +4,7 @@ import com.epam.bench.service.BillingConceptService;
 import com.epam.bench.domain.BillingConcept;
 import com.epam.bench.repository.BillingConceptRepository;
 import com.epam.bench.repository.search.BillingConceptSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class BillingConceptServiceImpl implements BillingConceptService{
     @Inject
     private BillingConceptSearchRepository billingConceptSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a billingConcept.
      *
@@ -42,7 +46,7 @@ public class BillingConceptServiceImpl implements BillingConceptService{
     public BillingConcept save(BillingConcept billingConcept) {
         log.debug("Request to save BillingConcept : {}", billingConcept);
         BillingConcept result = billingConceptRepository.save(billingConcept);
-        billingConceptSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class BillingConceptServiceImpl implements BillingConceptService{
     public void delete(Long id) {
         log.debug("Request to delete BillingConcept : {}", id);
         billingConceptRepository.delete(id);
-        billingConceptSearchRepository.delete(id);
+        searchIndexer.delete(BillingConcept.class, id);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.epam.bench.service.BillingTypeService;
 import com.epam.bench.domain.BillingType;
 import com.epam.bench.repository.BillingTypeRepository;
 import com.epam.bench.repository.search.BillingTypeSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class BillingTypeServiceImpl implements BillingTypeService{
     @Inject
     private BillingTypeSearchRepository billingTypeSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a billingType.
      *
@@ -42,7 +46,7 @@ public class BillingTypeServiceImpl implements BillingTypeService{
     public BillingType save(BillingType billingType) {
         log.debug("Request to save BillingType : {}", billingType);
         BillingType result = billingTypeRepository.save(billingType);
-        billingTypeSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class BillingTypeServiceImpl implements BillingTypeService{
     public void delete(Long id) {
         log.debug("Request to delete BillingType : {}", id);
         billingTypeRepository.delete(id);
-        billingTypeSearchRepository.delete(id);
+        searchIndexer.delete(BillingType.class, id);
     }
 
     /**
@@ -4,19 +4,48 @@ import com.epam.bench.service.EmployeeService;
 import com.epam.bench.domain.Employee;
 import com.epam.bench.repository.EmployeeRepository;
 import com.epam.bench.repository.search.EmployeeSearchRepository;
+import com.epam.bench.repository.support.TotalCountCache;
+import com.epam.bench.service.dto.bench.EmployeeFacet;
+import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.dto.bench.FacetCountDto;
+import com.epam.bench.service.dto.bench.FacetedEmployeesDto;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+import com.epam.bench.service.search.SearchIndexer;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.filter.Filter;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.sort.SortBuilders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.elasticsearch.index.query.functionscore.ScoreFunctionBuilders.weightFactorFunction;
 
 /**
  * Service Implementation for managing Employee.
@@ -27,12 +56,29 @@ public class EmployeeServiceImpl implements EmployeeService{
 
     private final Logger log = LoggerFactory.getLogger(EmployeeServiceImpl.class);
 
+    private static final int FACET_SIZE = 100;
+
+    private static final String[] SIMPLE_VIEW_FIELDS = {"upsaId", "fullName", "managerFullName", "active",
+        "primarySkill.name", "title.name"};
+
     @Inject
     private EmployeeRepository employeeRepository;
 
     @Inject
     private EmployeeSearchRepository employeeSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
+    @Inject
+    private TotalCountCache totalCountCache;
+
+    @Inject
+    private ElasticsearchTemplate elasticsearchTemplate;
+
     /**
      * Save a employee.
      *
@@ -42,7 +88,25 @@ public class EmployeeServiceImpl implements EmployeeService{
     public Employee save(Employee employee) {
         log.debug("Request to save Employee : {}", employee);
         Employee result = employeeRepository.save(employee);
-        employeeSearchRepository.save(result);
+        searchIndexer.index(result);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, Employee.class));
+        return result;
+    }
+
+    /**
+     * Save several employees at once.
+     *
+     * @param employees the entities to save
+     * @return the persisted entities
+     */
+    public List<Employee> save(List<Employee> employees) {
+        log.debug("Request to save {} Employees", employees.size());
+        if (employees.isEmpty()) {
+            return employees;
+        }
+        List<Employee> result = employeeRepository.save(employees);
+        searchIndexer.index(result);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, Employee.class));
         return result;
     }
 
@@ -59,6 +123,45 @@ public class EmployeeServiceImpl implements EmployeeService{
         return result;
     }
 
+    /**
+     *  Get all the employees together with the references needed for the bench listing.
+     *
+     *  @param pageable the pagination information
+     *  @return the list of entities
+     */
+    @Transactional(readOnly = true)
+    public Page<Employee> findAllWithReferences(Pageable pageable) {
+        log.debug("Request to get all Employees with references");
+        return totalCountCache.toPage(Employee.class, TotalCountCache.ALL,
+            employeeRepository.findAllWithReferences(pageable), pageable, employeeRepository::count);
+    }
+
+    /**
+     *  Get the employees following the given id, in id order.
+     *
+     *  @param afterId the id to start after
+     *  @param size the maximum number of employees
+     *  @return the list of entities
+     */
+    @Transactional(readOnly = true)
+    public List<Employee> findNextPage(Long afterId, int size) {
+        log.debug("Request to get {} Employees after {}", size, afterId);
+        return employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, new PageRequest(0, size));
+    }
+
+    /**
+     *  Get the ids of the employees following the given id, in id order.
+     *
+     *  @param afterId the id to start after
+     *  @param size the maximum number of ids
+     *  @return the list of ids
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findNextIds(Long afterId, int size) {
+        log.debug("Request to get {} Employee ids after {}", size, afterId);
+        return employeeRepository.findIdsAfter(afterId, new PageRequest(0, size));
+    }
+
     /**
      *  Get employee by upsa id.
      *
@@ -71,6 +174,18 @@ public class EmployeeServiceImpl implements EmployeeService{
         return employeeRepository.findByUpsaId(upsaId);
     }
 
+    /**
+     *  Get the employees with the given upsa ids.
+     *
+     *  @param upsaIds the employee ids in upsa
+     *  @return the employees known locally, in no particular order
+     */
+    @Transactional(readOnly = true)
+    public List<Employee> findByUpsaIds(Collection<String> upsaIds) {
+        log.debug("Request to get {} Employees by upsaId", upsaIds.size());
+        return upsaIds.isEmpty() ? Collections.emptyList() : employeeRepository.findByUpsaIdIn(upsaIds);
+    }
+
     /**
      *  Get one employee by id.
      *
@@ -92,7 +207,8 @@ public class EmployeeServiceImpl implements EmployeeService{
     public void delete(Long id) {
         log.debug("Request to delete Employee : {}", id);
         employeeRepository.delete(id);
-        employeeSearchRepository.delete(id);
+        searchIndexer.delete(Employee.class, id);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, Employee.class));
     }
 
     /**
@@ -107,4 +223,150 @@ public class EmployeeServiceImpl implements EmployeeService{
         Page<Employee> result = employeeSearchRepository.search(queryStringQuery(query), pageable);
         return result;
     }
+
+    /**
+     * Suggest employees whose name, email or UPSA id start with the query.
+     *
+     *  @param query the text typed so far
+     *  @param limit the maximum number of suggestions
+     *  @return the suggestions, best first
+     */
+    // only the index is read, so there is no need to hold a database connection
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<EmployeeSimpleViewDto> suggest(String query, int limit) {
+        log.debug("Request to suggest Employees for query {}", query);
+        String text = StringUtils.trimToEmpty(query);
+        if (text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        QueryBuilder ranked = functionScoreQuery(prefixMatch(text))
+            .add(termQuery("active", true), weightFactorFunction(4))
+            .add(termQuery("onBench", true), weightFactorFunction(2))
+            .scoreMode("multiply")
+            .boostMode("multiply");
+
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchTemplate.getPersistentEntityFor(Employee.class);
+        SearchResponse response = elasticsearchTemplate.getClient()
+            .prepareSearch(persistentEntity.getIndexName())
+            .setTypes(persistentEntity.getIndexType())
+            .setQuery(ranked)
+            .setSize(limit)
+            .setFetchSource(SIMPLE_VIEW_FIELDS, null)
+            .get();
+        return Arrays.stream(response.getHits().getHits())
+            .map(hit -> toSimpleView(hit.getSource()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Search the employees on bench, filtered by facets, and count the employees of every facet value.
+     *
+     *  @param query the text the name, email or UPSA id start with, or blank for all employees on bench
+     *  @param filters the accepted values of the filtered facets
+     *  @param pageable the pagination information
+     *  @return the page of employees with the facet counts
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public FacetedEmployeesDto searchBench(String query, Map<EmployeeFacet, ? extends Collection<String>> filters,
+                                           Pageable pageable) {
+        return searchBench(query, filters, null, pageable);
+    }
+
+    /**
+     * Search the employees on bench of some units, filtered by facets. The units restrict the employees
+     * the facets are counted on, like being on bench.
+     *
+     *  @param query the text the name, email or UPSA id start with, or blank for all employees on bench
+     *  @param filters the accepted values of the filtered facets
+     *  @param unitIds the ids of the units the employees belong to, or null for all the units
+     *  @param pageable the pagination information
+     *  @return the page of employees with the facet counts
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public FacetedEmployeesDto searchBench(String query, Map<EmployeeFacet, ? extends Collection<String>> filters,
+                                           Collection<Long> unitIds, Pageable pageable) {
+        log.debug("Request to search for a page of Employees on bench for query {}, filters {} and units {}", query,
+            filters, unitIds);
+        String text = StringUtils.trimToEmpty(query);
+        BoolQueryBuilder benchQuery = boolQuery()
+            .must(text.isEmpty() ? matchAllQuery() : prefixMatch(text))
+            .filter(termQuery("onBench", true));
+        if (Objects.nonNull(unitIds)) {
+            benchQuery.filter(termsQuery("unit.id", unitIds));
+        }
+
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchTemplate.getPersistentEntityFor(Employee.class);
+        SearchRequestBuilder request = elasticsearchTemplate.getClient()
+            .prepareSearch(persistentEntity.getIndexName())
+            .setTypes(persistentEntity.getIndexType())
+            .setQuery(benchQuery)
+            // applied after the aggregations, which pick the filters they are counted with
+            .setPostFilter(facetFilter(filters, null))
+            .setFrom(pageable.getOffset())
+            .setSize(pageable.getPageSize())
+            .setFetchSource(SIMPLE_VIEW_FIELDS, null)
+            .addSort(SortBuilders.scoreSort())
+            .addSort(SortBuilders.fieldSort("fullName.raw").unmappedType("string"));
+        for (EmployeeFacet facet : EmployeeFacet.values()) {
+            request.addAggregation(AggregationBuilders.filter(facet.getKey())
+                .filter(facetFilter(filters, facet))
+                .subAggregation(AggregationBuilders.terms(facet.getKey()).field(facet.getField()).size(FACET_SIZE)));
+        }
+        SearchResponse response = request.get();
+
+        FacetedEmployeesDto result = new FacetedEmployeesDto();
+        result.setTotal(response.getHits().getTotalHits());
+        result.setEmployees(Arrays.stream(response.getHits().getHits())
+            .map(hit -> toSimpleView(hit.getSource()))
+            .collect(Collectors.toList()));
+        for (EmployeeFacet facet : EmployeeFacet.values()) {
+            Filter filtered = response.getAggregations().get(facet.getKey());
+            Terms terms = filtered.getAggregations().get(facet.getKey());
+            result.getFacets().put(facet.getKey(), terms.getBuckets().stream()
+                .map(bucket -> new FacetCountDto(bucket.getKeyAsString(), bucket.getDocCount()))
+                .collect(Collectors.toList()));
+        }
+        return result;
+    }
+
+    /**
+     * The autocomplete fields are edge n-grams, so a plain match is a prefix match.
+     */
+    private QueryBuilder prefixMatch(String text) {
+        return boolQuery()
+            .should(matchQuery("fullName.autocomplete", text).operator(MatchQueryBuilder.Operator.AND).boost(3))
+            .should(matchQuery("email.autocomplete", text).boost(2))
+            .should(matchQuery("upsaId.autocomplete", text).boost(2))
+            .should(termQuery("upsaId.raw", text).boost(10))
+            .minimumNumberShouldMatch(1);
+    }
+
+    /**
+     * The filters of all facets but the excluded one.
+     */
+    private QueryBuilder facetFilter(Map<EmployeeFacet, ? extends Collection<String>> filters, EmployeeFacet excluded) {
+        BoolQueryBuilder filter = boolQuery();
+        filters.forEach((facet, values) -> {
+            if (facet != excluded && CollectionUtils.isNotEmpty(values)) {
+                filter.filter(termsQuery(facet.getField(), values));
+            }
+        });
+        return filter;
+    }
+
+    private EmployeeSimpleViewDto toSimpleView(Map<String, Object> source) {
+        EmployeeSimpleViewDto employee = new EmployeeSimpleViewDto((String) source.get("upsaId"),
+            (String) source.get("fullName"));
+        employee.setManagerName((String) source.get("managerFullName"));
+        employee.setSkill(nestedName(source, "primarySkill"));
+        employee.setTitle(nestedName(source, "title"));
+        employee.setActive(Boolean.TRUE.equals(source.get("active")));
+        return employee;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String nestedName(Map<String, Object> source, String field) {
+        Object nested = source.get(field);
+        return nested instanceof Map ? (String) ((Map<String, Object>) nested).get("name") : null;
+    }
 }
@@ -4,6 +4,7 @@ import com.epam.bench.service.JobFunctionService;
 import com.epam.bench.domain.JobFunction;
 import com.epam.bench.repository.JobFunctionRepository;
 import com.epam.bench.repository.search.JobFunctionSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class JobFunctionServiceImpl implements JobFunctionService{
     @Inject
     private JobFunctionSearchRepository jobFunctionSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a jobFunction.
      *
@@ -42,7 +46,7 @@ public class JobFunctionServiceImpl implements JobFunctionService{
     public JobFunction save(JobFunction jobFunction) {
         log.debug("Request to save JobFunction : {}", jobFunction);
         JobFunction result = jobFunctionRepository.save(jobFunction);
-        jobFunctionSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class JobFunctionServiceImpl implements JobFunctionService{
     public void delete(Long id) {
         log.debug("Request to delete JobFunction : {}", id);
         jobFunctionRepository.delete(id);
-        jobFunctionSearchRepository.delete(id);
+        searchIndexer.delete(JobFunction.class, id);
     }
 
     /**
@@ -0,0 +1,114 @@
+package com.epam.bench.service.impl;
+
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.domain.JobWatermark;
+import com.epam.bench.repository.JobWatermarkRepository;
+import com.epam.bench.service.JobWatermarkService;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Service Implementation for tracking the progress of background jobs.
+ * <p>
+ * A node runs a job under a lease, recorded on the watermark row locked for update, so a single node at a time
+ * runs it. The lease is extended with every advance, and a run whose node stopped advancing is taken over once
+ * its lease expires.
+ */
+@Service
+@Transactional
+public class JobWatermarkServiceImpl implements JobWatermarkService {
+
+    private final Logger log = LoggerFactory.getLogger(JobWatermarkServiceImpl.class);
+
+    @Inject
+    private JobWatermarkRepository jobWatermarkRepository;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    private String owner;
+
+    @PostConstruct
+    public void init() {
+        String configured = applicationProperties.getCluster().getNodeId();
+        owner = StringUtils.isBlank(configured) ? UUID.randomUUID().toString() : configured;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JobWatermark findByName(String name) {
+        return jobWatermarkRepository.findByName(name);
+    }
+
+    @Override
+    public JobWatermark start(String name) {
+        ZonedDateTime now = ZonedDateTime.now();
+        JobWatermark watermark = jobWatermarkRepository.findByNameForUpdate(name);
+        if (Objects.isNull(watermark)) {
+            // two nodes starting the first run ever: the unique name fails the second one
+            watermark = new JobWatermark().name(name);
+        }
+        if (watermark.isRunning() && isLeasedToOther(watermark, now)) {
+            log.info("Job {} is running on node {} until {}", name, watermark.getLeaseOwner(), watermark.getLeaseUntil());
+            return null;
+        }
+        if (watermark.isRunning()) {
+            log.info("Resuming job {} from position {}", name, watermark.getPosition());
+        } else {
+            log.info("Starting job {}", name);
+            watermark.position(0L).processed(0L).startedTime(now);
+        }
+        watermark.leaseOwner(owner).leaseUntil(leaseUntil(now));
+        return jobWatermarkRepository.saveAndFlush(watermark);
+    }
+
+    @Override
+    public boolean advance(String name, long position, long processed) {
+        ZonedDateTime now = ZonedDateTime.now();
+        JobWatermark watermark = jobWatermarkRepository.findByNameForUpdate(name);
+        if (!Objects.equals(watermark.getLeaseOwner(), owner)) {
+            log.warn("Job {} was taken over by node {}", name, watermark.getLeaseOwner());
+            return false;
+        }
+        watermark.setPosition(position);
+        watermark.setProcessed(watermark.getProcessed() + processed);
+        watermark.setLeaseUntil(leaseUntil(now));
+        return true;
+    }
+
+    @Override
+    public void complete(String name) {
+        JobWatermark watermark = jobWatermarkRepository.findByNameForUpdate(name);
+        if (!Objects.equals(watermark.getLeaseOwner(), owner)) {
+            log.warn("Job {} was taken over by node {}, not completing it", name, watermark.getLeaseOwner());
+            return;
+        }
+        watermark.setCompletedTime(ZonedDateTime.now());
+        watermark.setLeaseUntil(null);
+        log.info("Completed job {} after {} items", name, watermark.getProcessed());
+    }
+
+    /**
+     * Returns true if another node holds a lease on the job that has not expired yet. This node may resume its own
+     * run right away.
+     */
+    private boolean isLeasedToOther(JobWatermark watermark, ZonedDateTime now) {
+        return !Objects.equals(watermark.getLeaseOwner(), owner)
+            && Objects.nonNull(watermark.getLeaseUntil())
+            && watermark.getLeaseUntil().isAfter(now);
+    }
+
+    private ZonedDateTime leaseUntil(ZonedDateTime now) {
+        return now.plus(applicationProperties.getCluster().getJobLeaseMillis(), ChronoUnit.MILLIS);
+    }
+}
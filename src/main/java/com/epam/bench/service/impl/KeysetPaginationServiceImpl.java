@@ -0,0 +1,202 @@
+package com.epam.bench.service.impl;
+
+import com.epam.bench.service.KeysetPaginationService;
+import com.epam.bench.service.dto.KeysetPage;
+import com.epam.bench.service.util.InvalidCursorException;
+import com.epam.bench.service.util.KeysetCursor;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Service Implementation for keyset pagination.
+ * <p>
+ * A page is read with {@code where (key, id) > (:lastKey, :lastId) order by key, id}, so the database seeks
+ * to the first row through the index instead of reading and skipping all the rows of the previous pages, and
+ * a deep page costs as much as the first one. The count query is only run when asked for.
+ * <p>
+ * Null sort keys are ordered first in ascending order and last in descending order, as MySQL and H2 do.
+ */
+@Service
+@Transactional(readOnly = true)
+public class KeysetPaginationServiceImpl implements KeysetPaginationService {
+
+    private final Logger log = LoggerFactory.getLogger(KeysetPaginationServiceImpl.class);
+
+    /**
+     * Types of sort keys that can be written to a cursor and read back, see {@link #parse(Class, String)}.
+     */
+    private static final List<Class<?>> KEY_TYPES = Arrays.asList(String.class, Long.class, Integer.class,
+        Double.class, Float.class, BigDecimal.class, Boolean.class, LocalDate.class, LocalDateTime.class,
+        ZonedDateTime.class, Instant.class);
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Override
+    public <T> KeysetPage<T> findPage(Class<T> entityClass, String cursor, Pageable pageable, boolean count) {
+        log.debug("Request to get a keyset page of {} after {}", entityClass.getSimpleName(), cursor);
+        KeysetCursor position = StringUtils.isBlank(cursor) ? null : KeysetCursor.decode(cursor);
+        String property = position != null ? position.getProperty() : sortProperty(pageable.getSort());
+        boolean ascending = position != null ? position.isAscending() : sortAscending(pageable.getSort());
+        boolean byId = KeysetCursor.ID.equals(property);
+        EntityType<T> model = entityManager.getMetamodel().entity(entityClass);
+        Class<?> keyType = byId ? Long.class : keyType(model, property);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        Path<Long> id = root.get(KeysetCursor.ID);
+        Path<Comparable> key = byId ? null : root.get(property);
+        if (position != null) {
+            query.where(byId ? after(cb, id, position.getId(), ascending)
+                : after(cb, key, parse(keyType, position.getValue()), id, position.getId(), ascending));
+        }
+        if (byId) {
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            query.orderBy(ascending ? cb.asc(key) : cb.desc(key), ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        int size = pageable.getPageSize();
+        List<T> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            T last = rows.get(size - 1);
+            Object lastKey = byId ? null : new DirectFieldAccessor(last).getPropertyValue(property);
+            Long lastId = (Long) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(last);
+            nextCursor = new KeysetCursor(property, ascending, lastKey == null ? null : lastKey.toString(), lastId)
+                .encode();
+        }
+        Long total = count ? count(cb, entityClass) : null;
+        return new KeysetPage<>(rows, size, nextCursor, total);
+    }
+
+    private <T> Long count(CriteriaBuilder cb, Class<T> entityClass) {
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        query.select(cb.count(query.from(entityClass)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate after(CriteriaBuilder cb, Path<Long> id, Long lastId, boolean ascending) {
+        return ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate after(CriteriaBuilder cb, Expression<Comparable> key, Comparable lastKey,
+                                   Path<Long> id, Long lastId, boolean ascending) {
+        Predicate sameKeyAfter;
+        if (lastKey == null) {
+            sameKeyAfter = cb.and(cb.isNull(key), after(cb, id, lastId, ascending));
+            return ascending ? cb.or(sameKeyAfter, cb.isNotNull(key)) : sameKeyAfter;
+        }
+        sameKeyAfter = cb.and(cb.equal(key, lastKey), after(cb, id, lastId, ascending));
+        return ascending
+            ? cb.or(cb.greaterThan(key, lastKey), sameKeyAfter)
+            : cb.or(cb.lessThan(key, lastKey), cb.isNull(key), sameKeyAfter);
+    }
+
+    /**
+     * The sort may name the id after the sort key, as the entity lists do; the id always breaks the ties.
+     */
+    private static String sortProperty(Sort sort) {
+        String property = KeysetCursor.ID;
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                if (!KeysetCursor.ID.equals(order.getProperty())) {
+                    if (!KeysetCursor.ID.equals(property)) {
+                        throw new InvalidCursorException("Keyset pages can only be sorted by one property", null);
+                    }
+                    property = order.getProperty();
+                }
+            }
+        }
+        return property;
+    }
+
+    private static boolean sortAscending(Sort sort) {
+        if (sort == null) {
+            return true;
+        }
+        Sort.Order order = sort.getOrderFor(sortProperty(sort));
+        return order == null || order.isAscending();
+    }
+
+    private static <T> Class<?> keyType(EntityType<T> model, String property) {
+        Attribute<? super T, ?> attribute;
+        try {
+            attribute = model.getAttribute(property);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Unknown sort property " + property, e);
+        }
+        Class<?> type = attribute.getJavaType();
+        if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC
+            || !(type.isEnum() || KEY_TYPES.contains(type))) {
+            throw new InvalidCursorException("Cannot sort keyset pages by " + property, null);
+        }
+        return type;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable parse(Class<?> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == Long.class) {
+                return Long.valueOf(value);
+            } else if (type == Integer.class) {
+                return Integer.valueOf(value);
+            } else if (type == Double.class) {
+                return Double.valueOf(value);
+            } else if (type == Float.class) {
+                return Float.valueOf(value);
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            } else if (type == Boolean.class) {
+                return Boolean.valueOf(value);
+            } else if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            } else if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            } else if (type == ZonedDateTime.class) {
+                return ZonedDateTime.parse(value);
+            } else if (type == Instant.class) {
+                return Instant.parse(value);
+            } else if (type.isEnum()) {
+                return Enum.valueOf((Class<Enum>) type, value);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed cursor value " + value, e);
+        }
+        throw new InvalidCursorException("Cannot sort keyset pages by a " + type.getSimpleName(), null);
+    }
+}
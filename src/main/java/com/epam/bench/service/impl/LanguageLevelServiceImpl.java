@@ -2,8 +2,10 @@ package com.epam.bench.service.impl;
 
 import com.epam.bench.service.LanguageLevelService;
 import com.epam.bench.domain.LanguageLevel;
+import com.epam.bench.repository.EmployeeRepository;
 import com.epam.bench.repository.LanguageLevelRepository;
 import com.epam.bench.repository.search.LanguageLevelSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +35,12 @@ public class LanguageLevelServiceImpl implements LanguageLevelService{
     @Inject
     private LanguageLevelSearchRepository languageLevelSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
     /**
      * Save a languageLevel.
      *
@@ -42,7 +50,9 @@ public class LanguageLevelServiceImpl implements LanguageLevelService{
     public LanguageLevel save(LanguageLevel languageLevel) {
         log.debug("Request to save LanguageLevel : {}", languageLevel);
         LanguageLevel result = languageLevelRepository.save(languageLevel);
-        languageLevelSearchRepository.save(result);
+        searchIndexer.index(result);
+        // the employee documents embed the English level
+        searchIndexer.index(employeeRepository.findByEnglishLevel(result));
         return result;
     }
 
@@ -80,7 +90,7 @@ public class LanguageLevelServiceImpl implements LanguageLevelService{
     public void delete(Long id) {
         log.debug("Request to delete LanguageLevel : {}", id);
         languageLevelRepository.delete(id);
-        languageLevelSearchRepository.delete(id);
+        searchIndexer.delete(LanguageLevel.class, id);
     }
 
     /**
@@ -2,8 +2,10 @@ package com.epam.bench.service.impl;
 
 import com.epam.bench.service.LocationService;
 import com.epam.bench.domain.Location;
+import com.epam.bench.repository.EmployeeRepository;
 import com.epam.bench.repository.LocationRepository;
 import com.epam.bench.repository.search.LocationSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +35,12 @@ public class LocationServiceImpl implements LocationService{
     @Inject
     private LocationSearchRepository locationSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
     /**
      * Save a location.
      *
@@ -42,7 +50,9 @@ public class LocationServiceImpl implements LocationService{
     public Location save(Location location) {
         log.debug("Request to save Location : {}", location);
         Location result = locationRepository.save(location);
-        locationSearchRepository.save(result);
+        searchIndexer.index(result);
+        // the employee documents embed the location
+        searchIndexer.index(employeeRepository.findByLocation(result));
         return result;
     }
 
@@ -80,7 +90,7 @@ public class LocationServiceImpl implements LocationService{
     public void delete(Long id) {
         log.debug("Request to delete Location : {}", id);
         locationRepository.delete(id);
-        locationSearchRepository.delete(id);
+        searchIndexer.delete(Location.class, id);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.epam.bench.service.OpportunityPositionService;
 import com.epam.bench.domain.OpportunityPosition;
 import com.epam.bench.repository.OpportunityPositionRepository;
 import com.epam.bench.repository.search.OpportunityPositionSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class OpportunityPositionServiceImpl implements OpportunityPositionServic
     @Inject
     private OpportunityPositionSearchRepository opportunityPositionSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a opportunityPosition.
      *
@@ -42,7 +46,7 @@ public class OpportunityPositionServiceImpl implements OpportunityPositionServic
     public OpportunityPosition save(OpportunityPosition opportunityPosition) {
         log.debug("Request to save OpportunityPosition : {}", opportunityPosition);
         OpportunityPosition result = opportunityPositionRepository.save(opportunityPosition);
-        opportunityPositionSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class OpportunityPositionServiceImpl implements OpportunityPositionServic
     public void delete(Long id) {
         log.debug("Request to delete OpportunityPosition : {}", id);
         opportunityPositionRepository.delete(id);
-        opportunityPositionSearchRepository.delete(id);
+        searchIndexer.delete(OpportunityPosition.class, id);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.epam.bench.service.OpportunityService;
 import com.epam.bench.domain.Opportunity;
 import com.epam.bench.repository.OpportunityRepository;
 import com.epam.bench.repository.search.OpportunitySearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class OpportunityServiceImpl implements OpportunityService{
     @Inject
     private OpportunitySearchRepository opportunitySearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a opportunity.
      *
@@ -42,7 +46,7 @@ public class OpportunityServiceImpl implements OpportunityService{
     public Opportunity save(Opportunity opportunity) {
         log.debug("Request to save Opportunity : {}", opportunity);
         Opportunity result = opportunityRepository.save(opportunity);
-        opportunitySearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class OpportunityServiceImpl implements OpportunityService{
     public void delete(Long id) {
         log.debug("Request to delete Opportunity : {}", id);
         opportunityRepository.delete(id);
-        opportunitySearchRepository.delete(id);
+        searchIndexer.delete(Opportunity.class, id);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.epam.bench.service.OpportunityTypeService;
 import com.epam.bench.domain.OpportunityType;
 import com.epam.bench.repository.OpportunityTypeRepository;
 import com.epam.bench.repository.search.OpportunityTypeSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class OpportunityTypeServiceImpl implements OpportunityTypeService{
     @Inject
     private OpportunityTypeSearchRepository opportunityTypeSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a opportunityType.
      *
@@ -42,7 +46,7 @@ public class OpportunityTypeServiceImpl implements OpportunityTypeService{
     public OpportunityType save(OpportunityType opportunityType) {
         log.debug("Request to save OpportunityType : {}", opportunityType);
         OpportunityType result = opportunityTypeRepository.save(opportunityType);
-        opportunityTypeSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class OpportunityTypeServiceImpl implements OpportunityTypeService{
     public void delete(Long id) {
         log.debug("Request to delete OpportunityType : {}", id);
         opportunityTypeRepository.delete(id);
-        opportunityTypeSearchRepository.delete(id);
+        searchIndexer.delete(OpportunityType.class, id);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.epam.bench.service.PredictionDetailsService;
 import com.epam.bench.domain.PredictionDetails;
 import com.epam.bench.repository.PredictionDetailsRepository;
 import com.epam.bench.repository.search.PredictionDetailsSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class PredictionDetailsServiceImpl implements PredictionDetailsService{
     @Inject
     private PredictionDetailsSearchRepository predictionDetailsSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a predictionDetails.
      *
@@ -42,7 +46,7 @@ public class PredictionDetailsServiceImpl implements PredictionDetailsService{
     public PredictionDetails save(PredictionDetails predictionDetails) {
         log.debug("Request to save PredictionDetails : {}", predictionDetails);
         PredictionDetails result = predictionDetailsRepository.save(predictionDetails);
-        predictionDetailsSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class PredictionDetailsServiceImpl implements PredictionDetailsService{
     public void delete(Long id) {
         log.debug("Request to delete PredictionDetails : {}", id);
         predictionDetailsRepository.delete(id);
-        predictionDetailsSearchRepository.delete(id);
+        searchIndexer.delete(PredictionDetails.class, id);
     }
 
     /**
@@ -2,8 +2,10 @@ package com.epam.bench.service.impl;
 
 import com.epam.bench.service.PrimarySkillService;
 import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.repository.EmployeeRepository;
 import com.epam.bench.repository.PrimarySkillRepository;
 import com.epam.bench.repository.search.PrimarySkillSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +35,12 @@ public class PrimarySkillServiceImpl implements PrimarySkillService{
     @Inject
     private PrimarySkillSearchRepository primarySkillSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
     /**
      * Save a primarySkill.
      *
@@ -42,7 +50,9 @@ public class PrimarySkillServiceImpl implements PrimarySkillService{
     public PrimarySkill save(PrimarySkill primarySkill) {
         log.debug("Request to save PrimarySkill : {}", primarySkill);
         PrimarySkill result = primarySkillRepository.save(primarySkill);
-        primarySkillSearchRepository.save(result);
+        searchIndexer.index(result);
+        // the employee documents embed the primary skill
+        searchIndexer.index(employeeRepository.findByPrimarySkill(result));
         return result;
     }
 
@@ -80,7 +90,7 @@ public class PrimarySkillServiceImpl implements PrimarySkillService{
     public void delete(Long id) {
         log.debug("Request to delete PrimarySkill : {}", id);
         primarySkillRepository.delete(id);
-        primarySkillSearchRepository.delete(id);
+        searchIndexer.delete(PrimarySkill.class, id);
     }
 
     /**
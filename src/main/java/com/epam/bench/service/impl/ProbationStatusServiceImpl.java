@@ -4,6 +4,7 @@ import com.epam.bench.service.ProbationStatusService;
 import com.epam.bench.domain.ProbationStatus;
 import com.epam.bench.repository.ProbationStatusRepository;
 import com.epam.bench.repository.search.ProbationStatusSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class ProbationStatusServiceImpl implements ProbationStatusService{
     @Inject
     private ProbationStatusSearchRepository probationStatusSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a probationStatus.
      *
@@ -42,7 +46,7 @@ public class ProbationStatusServiceImpl implements ProbationStatusService{
     public ProbationStatus save(ProbationStatus probationStatus) {
         log.debug("Request to save ProbationStatus : {}", probationStatus);
         ProbationStatus result = probationStatusRepository.save(probationStatus);
-        probationStatusSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class ProbationStatusServiceImpl implements ProbationStatusService{
     public void delete(Long id) {
         log.debug("Request to delete ProbationStatus : {}", id);
         probationStatusRepository.delete(id);
-        probationStatusSearchRepository.delete(id);
+        searchIndexer.delete(ProbationStatus.class, id);
     }
 
     /**
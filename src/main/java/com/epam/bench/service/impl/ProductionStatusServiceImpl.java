@@ -4,6 +4,7 @@ import com.epam.bench.service.ProductionStatusService;
 import com.epam.bench.domain.ProductionStatus;
 import com.epam.bench.repository.ProductionStatusRepository;
 import com.epam.bench.repository.search.ProductionStatusSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class ProductionStatusServiceImpl implements ProductionStatusService{
     @Inject
     private ProductionStatusSearchRepository productionStatusSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a productionStatus.
      *
@@ -42,7 +46,7 @@ public class ProductionStatusServiceImpl implements ProductionStatusService{
     public ProductionStatus save(ProductionStatus productionStatus) {
         log.debug("Request to save ProductionStatus : {}", productionStatus);
         ProductionStatus result = productionStatusRepository.save(productionStatus);
-        productionStatusSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class ProductionStatusServiceImpl implements ProductionStatusService{
     public void delete(Long id) {
         log.debug("Request to delete ProductionStatus : {}", id);
         productionStatusRepository.delete(id);
-        productionStatusSearchRepository.delete(id);
+        searchIndexer.delete(ProductionStatus.class, id);
     }
 
     /**
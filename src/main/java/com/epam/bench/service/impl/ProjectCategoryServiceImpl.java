@@ -4,6 +4,7 @@ import com.epam.bench.service.ProjectCategoryService;
 import com.epam.bench.domain.ProjectCategory;
 import com.epam.bench.repository.ProjectCategoryRepository;
 import com.epam.bench.repository.search.ProjectCategorySearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class ProjectCategoryServiceImpl implements ProjectCategoryService{
     @Inject
     private ProjectCategorySearchRepository projectCategorySearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a projectCategory.
      *
@@ -42,7 +46,7 @@ public class ProjectCategoryServiceImpl implements ProjectCategoryService{
     public ProjectCategory save(ProjectCategory projectCategory) {
         log.debug("Request to save ProjectCategory : {}", projectCategory);
         ProjectCategory result = projectCategoryRepository.save(projectCategory);
-        projectCategorySearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class ProjectCategoryServiceImpl implements ProjectCategoryService{
     public void delete(Long id) {
         log.debug("Request to delete ProjectCategory : {}", id);
         projectCategoryRepository.delete(id);
-        projectCategorySearchRepository.delete(id);
+        searchIndexer.delete(ProjectCategory.class, id);
     }
 
     /**
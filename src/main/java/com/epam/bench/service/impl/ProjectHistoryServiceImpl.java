@@ -1,9 +1,12 @@
 package com.epam.bench.service.impl;
 
 import com.epam.bench.service.ProjectHistoryService;
+import com.epam.bench.service.WorkloadTimelineService;
+import com.epam.bench.domain.Employee;
 import com.epam.bench.domain.ProjectHistory;
 import com.epam.bench.repository.ProjectHistoryRepository;
 import com.epam.bench.repository.search.ProjectHistorySearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -12,7 +15,11 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -33,6 +40,12 @@ public class ProjectHistoryServiceImpl implements ProjectHistoryService{
     @Inject
     private ProjectHistorySearchRepository projectHistorySearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private WorkloadTimelineService workloadTimelineService;
+
     /**
      * Save a projectHistory.
      *
@@ -42,7 +55,25 @@ public class ProjectHistoryServiceImpl implements ProjectHistoryService{
     public ProjectHistory save(ProjectHistory projectHistory) {
         log.debug("Request to save ProjectHistory : {}", projectHistory);
         ProjectHistory result = projectHistoryRepository.save(projectHistory);
-        projectHistorySearchRepository.save(result);
+        searchIndexer.index(result);
+        rebuildTimelines(Collections.singletonList(result));
+        return result;
+    }
+
+    /**
+     * Save several projectHistories in one batch.
+     *
+     * @param projectHistories the entities to save
+     * @return the persisted entities
+     */
+    public List<ProjectHistory> save(List<ProjectHistory> projectHistories) {
+        log.debug("Request to save {} ProjectHistories", projectHistories.size());
+        if (projectHistories.isEmpty()) {
+            return projectHistories;
+        }
+        List<ProjectHistory> result = projectHistoryRepository.save(projectHistories);
+        searchIndexer.index(result);
+        rebuildTimelines(result);
         return result;
     }
 
@@ -72,6 +103,18 @@ public class ProjectHistoryServiceImpl implements ProjectHistoryService{
         return projectHistory;
     }
 
+    /**
+     *  Get the projectHistories of an employee.
+     *
+     *  @param employee the employee
+     *  @return the list of entities
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectHistory> findByEmployee(Employee employee) {
+        log.debug("Request to get ProjectHistories of Employee : {}", employee);
+        return projectHistoryRepository.findByEmployee(employee);
+    }
+
     /**
      *  Delete the  projectHistory by id.
      *
@@ -79,8 +122,28 @@ public class ProjectHistoryServiceImpl implements ProjectHistoryService{
      */
     public void delete(Long id) {
         log.debug("Request to delete ProjectHistory : {}", id);
+        ProjectHistory projectHistory = projectHistoryRepository.findOne(id);
         projectHistoryRepository.delete(id);
-        projectHistorySearchRepository.delete(id);
+        searchIndexer.delete(ProjectHistory.class, id);
+        if (Objects.nonNull(projectHistory)) {
+            rebuildTimelines(Collections.singletonList(projectHistory));
+        }
+    }
+
+    /**
+     *  Delete several projectHistories in one batch.
+     *
+     *  @param projectHistories the entities to delete
+     */
+    public void delete(Collection<ProjectHistory> projectHistories) {
+        log.debug("Request to delete {} ProjectHistories", projectHistories.size());
+        if (projectHistories.isEmpty()) {
+            return;
+        }
+        projectHistoryRepository.deleteInBatch(new ArrayList<>(projectHistories));
+        searchIndexer.delete(ProjectHistory.class,
+            projectHistories.stream().map(ProjectHistory::getId).collect(Collectors.toList()));
+        rebuildTimelines(projectHistories);
     }
 
     /**
@@ -95,4 +158,12 @@ public class ProjectHistoryServiceImpl implements ProjectHistoryService{
         Page<ProjectHistory> result = projectHistorySearchRepository.search(queryStringQuery(query), pageable);
         return result;
     }
+
+    private void rebuildTimelines(Collection<ProjectHistory> projectHistories) {
+        projectHistories.stream()
+            .map(ProjectHistory::getEmployee)
+            .filter(Objects::nonNull)
+            .distinct()
+            .forEach(workloadTimelineService::rebuild);
+    }
 }
@@ -4,6 +4,7 @@ import com.epam.bench.service.ProjectRoleService;
 import com.epam.bench.domain.ProjectRole;
 import com.epam.bench.repository.ProjectRoleRepository;
 import com.epam.bench.repository.search.ProjectRoleSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class ProjectRoleServiceImpl implements ProjectRoleService{
     @Inject
     private ProjectRoleSearchRepository projectRoleSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a projectRole.
      *
@@ -42,7 +46,7 @@ public class ProjectRoleServiceImpl implements ProjectRoleService{
     public ProjectRole save(ProjectRole projectRole) {
         log.debug("Request to save ProjectRole : {}", projectRole);
         ProjectRole result = projectRoleRepository.save(projectRole);
-        projectRoleSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class ProjectRoleServiceImpl implements ProjectRoleService{
     public void delete(Long id) {
         log.debug("Request to delete ProjectRole : {}", id);
         projectRoleRepository.delete(id);
-        projectRoleSearchRepository.delete(id);
+        searchIndexer.delete(ProjectRole.class, id);
     }
 
     /**
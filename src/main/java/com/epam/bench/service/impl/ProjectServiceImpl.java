@@ -4,11 +4,14 @@ import com.epam.bench.service.ProjectService;
 import com.epam.bench.domain.Project;
 import com.epam.bench.repository.ProjectRepository;
 import com.epam.bench.repository.search.ProjectSearchRepository;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
@@ -33,6 +36,12 @@ public class ProjectServiceImpl implements ProjectService{
     @Inject
     private ProjectSearchRepository projectSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Save a project.
      *
@@ -42,7 +51,8 @@ public class ProjectServiceImpl implements ProjectService{
     public Project save(Project project) {
         log.debug("Request to save Project : {}", project);
         Project result = projectRepository.save(project);
-        projectSearchRepository.save(result);
+        searchIndexer.index(result);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, Project.class));
         return result;
     }
 
@@ -80,7 +90,8 @@ public class ProjectServiceImpl implements ProjectService{
     public void delete(Long id) {
         log.debug("Request to delete Project : {}", id);
         projectRepository.delete(id);
-        projectSearchRepository.delete(id);
+        searchIndexer.delete(Project.class, id);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, Project.class));
     }
 
     /**
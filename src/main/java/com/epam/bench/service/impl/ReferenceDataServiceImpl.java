@@ -0,0 +1,292 @@
+package com.epam.bench.service.impl;
+
+import com.epam.bench.domain.BillingConcept;
+import com.epam.bench.domain.BillingType;
+import com.epam.bench.domain.JobFunction;
+import com.epam.bench.domain.Location;
+import com.epam.bench.domain.OpportunityType;
+import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.domain.ProductionStatus;
+import com.epam.bench.domain.ProjectCategory;
+import com.epam.bench.domain.ProjectRole;
+import com.epam.bench.domain.SkillCategory;
+import com.epam.bench.domain.Title;
+import com.epam.bench.service.ReferenceDataService;
+import com.epam.bench.service.dto.ReferenceDataSnapshot;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Service Implementation for the reference data snapshot.
+ * <p>
+ * Readers get the current snapshot without locking. A change builds a new snapshot out of the current one,
+ * reloading only the types that changed, and then replaces it, so a reader never sees half of a change.
+ * Hibernate listeners reload the types written by a transaction once it commits; the changes of the other
+ * nodes arrive as a {@link BenchDataChangedEvent}.
+ */
+@Service
+public class ReferenceDataServiceImpl implements ReferenceDataService, ApplicationListener<BenchDataChangedEvent> {
+
+    private final Logger log = LoggerFactory.getLogger(ReferenceDataServiceImpl.class);
+
+    /**
+     * The reference data types, the referenced ones first so a snapshot loaded at once shares their instances.
+     */
+    private static final Map<Class<?>, ReferenceType<?>> TYPES = new LinkedHashMap<>();
+
+    static {
+        register(new ReferenceType<>(SkillCategory.class, SkillCategory::getId, null));
+        register(new ReferenceType<>(PrimarySkill.class, PrimarySkill::getId, PrimarySkill::getUpsaId));
+        register(new ReferenceType<>(Location.class, Location::getId, Location::getUpsaId));
+        register(new ReferenceType<>(Title.class, Title::getId, Title::getUpsaId));
+        register(new ReferenceType<>(JobFunction.class, JobFunction::getId, JobFunction::getUpsaId));
+        register(new ReferenceType<>(ProductionStatus.class, ProductionStatus::getId, null));
+        register(new ReferenceType<>(BillingType.class, BillingType::getId, BillingType::getUpsaId));
+        register(new ReferenceType<>(BillingConcept.class, BillingConcept::getId, BillingConcept::getUpsaId));
+        register(new ReferenceType<>(ProjectCategory.class, ProjectCategory::getId, ProjectCategory::getUpsaId));
+        register(new ReferenceType<>(ProjectRole.class, ProjectRole::getId, ProjectRole::getUpsaId));
+        register(new ReferenceType<>(OpportunityType.class, OpportunityType::getId, null));
+    }
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private volatile ReferenceDataSnapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        ReferenceDataChangeListener listener = new ReferenceDataChangeListener(this);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    @Override
+    public ReferenceDataSnapshot getSnapshot() {
+        ReferenceDataSnapshot current = snapshot;
+        if (Objects.isNull(current)) {
+            synchronized (this) {
+                if (Objects.isNull(snapshot)) {
+                    snapshot = load(TYPES.keySet(), ReferenceDataSnapshot.empty());
+                    log.debug("Loaded the reference data {}", snapshot);
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public <T> T findOne(Class<T> type, Long id) {
+        referenceType(type);
+        if (Objects.isNull(id)) {
+            return null;
+        }
+        if (changedInTransaction(type)) {
+            return entityManager.find(type, id);
+        }
+        return getSnapshot().findOne(type, id);
+    }
+
+    @Override
+    public <T> T findOneByUpsaId(Class<T> type, String upsaId) {
+        if (Objects.isNull(referenceType(type).upsaId)) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has no UPSA id");
+        }
+        if (Objects.isNull(upsaId)) {
+            return null;
+        }
+        if (changedInTransaction(type)) {
+            List<T> entities = entityManager.createQuery("select entity from " + type.getSimpleName() + " entity"
+                + " where entity.upsaId = :upsaId", type)
+                .setParameter("upsaId", upsaId)
+                .setMaxResults(1)
+                .getResultList();
+            return entities.isEmpty() ? null : entities.get(0);
+        }
+        return getSnapshot().findOneByUpsaId(type, upsaId);
+    }
+
+    @Override
+    public boolean isReferenceData(Class<?> type) {
+        return TYPES.containsKey(type);
+    }
+
+    @Override
+    public synchronized void refresh(Collection<Class<?>> types) {
+        if (Objects.isNull(snapshot)) {
+            // loaded in full on the first read
+            return;
+        }
+        snapshot = load(types, snapshot);
+        log.debug("Reloaded {} into the reference data {}", types, snapshot);
+    }
+
+    @Override
+    public void onApplicationEvent(BenchDataChangedEvent event) {
+        if (isReferenceData(event.getEntityClass())) {
+            refresh(Collections.singleton(event.getEntityClass()));
+        }
+    }
+
+    /**
+     * Reloads the types written through Hibernate, after the current transaction commits.
+     */
+    void changed(Class<?> type) {
+        if (!isReferenceData(type)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(Collections.singleton(type));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Class<?>> pending = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+        if (Objects.isNull(pending)) {
+            Set<Class<?>> changedTypes = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, changedTypes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReferenceDataServiceImpl.this);
+                    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                        refresh(changedTypes);
+                    }
+                }
+            });
+            pending = changedTypes;
+        }
+        pending.add(type);
+    }
+
+    private boolean changedInTransaction(Class<?> type) {
+        Object pending = TransactionSynchronizationManager.getResource(this);
+        return Objects.nonNull(pending) && ((Set<?>) pending).contains(type);
+    }
+
+    private ReferenceDataSnapshot load(Collection<Class<?>> types, ReferenceDataSnapshot previous) {
+        // a transaction of its own, as a refresh runs once the transaction of the change completed
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            ReferenceDataSnapshot.Builder builder = ReferenceDataSnapshot.builder(previous);
+            TYPES.values().stream()
+                .filter(referenceType -> types.contains(referenceType.type))
+                .forEach(referenceType -> referenceType.load(entityManager, builder));
+            return builder.build();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ReferenceType<T> referenceType(Class<T> type) {
+        ReferenceType<T> referenceType = (ReferenceType<T>) TYPES.get(type);
+        if (Objects.isNull(referenceType)) {
+            throw new IllegalArgumentException(type.getSimpleName() + " is not reference data");
+        }
+        return referenceType;
+    }
+
+    private static void register(ReferenceType<?> referenceType) {
+        TYPES.put(referenceType.type, referenceType);
+    }
+
+    private static final class ReferenceType<T> {
+
+        private final Class<T> type;
+
+        private final Function<T, Long> id;
+
+        private final Function<T, String> upsaId;
+
+        private ReferenceType(Class<T> type, Function<T, Long> id, Function<T, String> upsaId) {
+            this.type = type;
+            this.id = id;
+            this.upsaId = upsaId;
+        }
+
+        private void load(EntityManager entityManager, ReferenceDataSnapshot.Builder builder) {
+            List<T> entities = entityManager.createQuery("select entity from " + type.getSimpleName() + " entity", type)
+                .setHint(QueryHints.READ_ONLY, true)
+                .getResultList();
+            builder.put(type, entities, id, upsaId);
+        }
+    }
+
+    /**
+     * Tells the service which reference data types a transaction writes.
+     */
+    private static final class ReferenceDataChangeListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient ReferenceDataServiceImpl referenceDataService;
+
+        private ReferenceDataChangeListener(ReferenceDataServiceImpl referenceDataService) {
+            this.referenceDataService = referenceDataService;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            referenceDataService.changed(event.getPersister().getMappedClass());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            referenceDataService.changed(event.getPersister().getMappedClass());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            referenceDataService.changed(event.getPersister().getMappedClass());
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.epam.bench.service.SkillCategoryService;
 import com.epam.bench.domain.SkillCategory;
 import com.epam.bench.repository.SkillCategoryRepository;
 import com.epam.bench.repository.search.SkillCategorySearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class SkillCategoryServiceImpl implements SkillCategoryService{
     @Inject
     private SkillCategorySearchRepository skillCategorySearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a skillCategory.
      *
@@ -42,7 +46,7 @@ public class SkillCategoryServiceImpl implements SkillCategoryService{
     public SkillCategory save(SkillCategory skillCategory) {
         log.debug("Request to save SkillCategory : {}", skillCategory);
         SkillCategory result = skillCategoryRepository.save(skillCategory);
-        skillCategorySearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class SkillCategoryServiceImpl implements SkillCategoryService{
     public void delete(Long id) {
         log.debug("Request to delete SkillCategory : {}", id);
         skillCategoryRepository.delete(id);
-        skillCategorySearchRepository.delete(id);
+        searchIndexer.delete(SkillCategory.class, id);
     }
 
     /**
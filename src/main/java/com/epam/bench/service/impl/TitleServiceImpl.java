@@ -4,6 +4,7 @@ import com.epam.bench.service.TitleService;
 import com.epam.bench.domain.Title;
 import com.epam.bench.repository.TitleRepository;
 import com.epam.bench.repository.search.TitleSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +34,9 @@ public class TitleServiceImpl implements TitleService{
     @Inject
     private TitleSearchRepository titleSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
     /**
      * Save a title.
      *
@@ -42,7 +46,7 @@ public class TitleServiceImpl implements TitleService{
     public Title save(Title title) {
         log.debug("Request to save Title : {}", title);
         Title result = titleRepository.save(title);
-        titleSearchRepository.save(result);
+        searchIndexer.index(result);
         return result;
     }
 
@@ -80,7 +84,7 @@ public class TitleServiceImpl implements TitleService{
     public void delete(Long id) {
         log.debug("Request to delete Title : {}", id);
         titleRepository.delete(id);
-        titleSearchRepository.delete(id);
+        searchIndexer.delete(Title.class, id);
     }
 
     /**
@@ -0,0 +1,341 @@
+package com.epam.bench.service.impl;
+
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.Unit;
+import com.epam.bench.service.UnitBenchCountService;
+import com.epam.bench.service.dto.bench.UnitBenchCountDto;
+import com.epam.bench.service.util.UnitBenchCountBuilder;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Service Implementation for the bench counts of the units.
+ * <p>
+ * Every unit has a row with the employees on bench of the unit itself and of its whole subtree. The bench states
+ * and the employee units written through Hibernate are turned into changes of the unit counts; the changes of a
+ * transaction are summed and applied when it completes, with a single update per changed unit adding to the unit
+ * and all its ancestors at once. As every update locks the whole ancestor chain of its unit, the rows of all the
+ * changed units and their ancestors are locked first, in the order of the unit ids, so concurrent transactions
+ * lock the shared ancestors in the same order, and only hold them until their commit.
+ * <p>
+ * The employee row is locked before its bench state is read, by the {@link BenchStateServiceImpl} for a bench
+ * change and here for a change of unit, so a concurrent bench change and move of the same employee are counted
+ * one after the other.
+ */
+@Service
+@Transactional
+public class UnitBenchCountServiceImpl implements UnitBenchCountService {
+
+    private final Logger log = LoggerFactory.getLogger(UnitBenchCountServiceImpl.class);
+
+    private static final String SELECT_TREE = "select unit.id, unit.name, unit.parent_id, counts.own_count,"
+        + " counts.total_count from unit unit left join unit_bench_count counts on counts.unit_id = unit.id"
+        + " order by unit.name, unit.id";
+
+    private static final String ADJUST = "update unit_bench_count set total_count = total_count + ?,"
+        + " own_count = case when unit_id = ? then own_count + ? else own_count end"
+        + " where unit_id in (select ancestor_id from unit_closure where descendant_id = ?)";
+
+    private static final String SELECT_EMPLOYEE_UNIT = "select unit_id from employee where id = ? for update";
+
+    private static final String SELECT_EMPLOYEE_ON_BENCH = "select on_bench from bench_state where employee_id = ? for update";
+
+    private static final String SELECT_STATE_ON_BENCH = "select on_bench from bench_state where id = ?";
+
+    private static final String COUNT_UNIT = "select count(*) from employee employee"
+        + " join bench_state state on state.employee_id = employee.id where state.on_bench = ? and employee.unit_id = ?";
+
+    private static final String INSERT_UNIT = "insert into unit_bench_count (unit_id, own_count, total_count)"
+        + " values (?, ?, ?)";
+
+    private static final String ADD_TO_ANCESTORS = "update unit_bench_count set total_count = total_count + ?"
+        + " where unit_id in (select ancestor_id from unit_closure where descendant_id = ? and ancestor_id <> ?)";
+
+    private static final String DELETE_UNIT = "delete from unit_bench_count where unit_id = ?";
+
+    private static final String SELECT_ANCESTOR_IDS = "select ancestor_id from unit_closure"
+        + " where descendant_id = ? and ancestor_id <> ?";
+
+    private static final String SELECT_ANCESTORS_OF = "select ancestor_id from unit_closure"
+        + " where descendant_id in (:units)";
+
+    private static final String LOCK_UNITS = "select unit_id, total_count from unit_bench_count"
+        + " where unit_id in (:units) order by unit_id for update";
+
+    private static final String ADD_TO_UNITS = "update unit_bench_count set total_count = total_count + :count"
+        + " where unit_id in (:units)";
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void init() {
+        UnitBenchCountListener listener = new UnitBenchCountListener(this);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.PRE_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UnitBenchCountDto> findTree() {
+        log.debug("Request to get the bench counts of the unit tree");
+        Map<Long, UnitBenchCountDto> units = new LinkedHashMap<>();
+        Map<Long, Long> parents = new HashMap<>();
+        jdbcTemplate.query(SELECT_TREE, (RowCallbackHandler) row -> {
+            long id = row.getLong(1);
+            units.put(id, new UnitBenchCountDto(id, row.getString(2), row.getLong(4), row.getLong(5)));
+            long parentId = row.getLong(3);
+            if (!row.wasNull()) {
+                parents.put(id, parentId);
+            }
+        });
+        List<UnitBenchCountDto> roots = new ArrayList<>();
+        units.values().forEach(unit -> {
+            UnitBenchCountDto parent = units.get(parents.get(unit.getId()));
+            if (Objects.isNull(parent)) {
+                roots.add(unit);
+            } else {
+                parent.getChildren().add(unit);
+            }
+        });
+        return roots;
+    }
+
+    @Override
+    public void addUnit(Long unitId) {
+        log.debug("Request to count the employees on bench of Unit : {}", unitId);
+        // its sub-units are placed after it and add their own counts
+        int count = jdbcTemplate.queryForObject(COUNT_UNIT, Integer.class, true, unitId);
+        jdbcTemplate.update(INSERT_UNIT, unitId, count, count);
+        if (count > 0) {
+            jdbcTemplate.update(ADD_TO_ANCESTORS, count, unitId, unitId);
+        }
+    }
+
+    @Override
+    public void removeUnit(Long unitId) {
+        log.debug("Request to stop counting the employees on bench of Unit : {}", unitId);
+        jdbcTemplate.update(DELETE_UNIT, unitId);
+    }
+
+    @Override
+    public void moveUnit(Long unitId, Long parentId) {
+        log.debug("Request to move the bench count of Unit : {} under Unit : {}", unitId, parentId);
+        List<Long> formerAncestors = jdbcTemplate.queryForList(SELECT_ANCESTOR_IDS, Long.class, unitId, unitId);
+        List<Long> newAncestors = Objects.isNull(parentId) ? new ArrayList<>()
+            : jdbcTemplate.queryForList("select ancestor_id from unit_closure where descendant_id = ?", Long.class, parentId);
+        // the rows the bench changes update, locked in the same order
+        Set<Long> locked = new TreeSet<>(formerAncestors);
+        locked.addAll(newAncestors);
+        locked.add(unitId);
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        Map<Long, Integer> totals = new HashMap<>();
+        namedJdbcTemplate.query(LOCK_UNITS, new MapSqlParameterSource("units", locked),
+            (RowCallbackHandler) row -> totals.put(row.getLong(1), row.getInt(2)));
+        int count = totals.getOrDefault(unitId, 0);
+        if (count == 0) {
+            return;
+        }
+        if (!formerAncestors.isEmpty()) {
+            namedJdbcTemplate.update(ADD_TO_UNITS, new MapSqlParameterSource("count", -count)
+                .addValue("units", formerAncestors));
+        }
+        if (!newAncestors.isEmpty()) {
+            namedJdbcTemplate.update(ADD_TO_UNITS, new MapSqlParameterSource("count", count)
+                .addValue("units", newAncestors));
+        }
+    }
+
+    @Override
+    public int rebuild() {
+        log.debug("Request to count the employees on bench of every unit");
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) UnitBenchCountBuilder::rebuild);
+    }
+
+    /**
+     * Adds to the count of a unit when the current transaction completes.
+     */
+    void adjust(EventSource session, Long unitId, int delta) {
+        if (Objects.isNull(unitId) || delta == 0) {
+            return;
+        }
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        @SuppressWarnings("unchecked")
+        SortedMap<Long, Integer> pending = transactional
+            ? (SortedMap<Long, Integer>) TransactionSynchronizationManager.getResource(this) : null;
+        if (Objects.isNull(pending)) {
+            SortedMap<Long, Integer> deltas = new TreeMap<>();
+            if (transactional) {
+                TransactionSynchronizationManager.bindResource(this, deltas);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(UnitBenchCountServiceImpl.this);
+                    }
+                });
+            }
+            // runs after the flush of the commit, still on the connection of the transaction
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> apply(deltas));
+            pending = deltas;
+        }
+        pending.merge(unitId, delta, Integer::sum);
+    }
+
+    Long findEmployeeUnitId(Long employeeId) {
+        List<Long> unitIds = jdbcTemplate.queryForList(SELECT_EMPLOYEE_UNIT, Long.class, employeeId);
+        return unitIds.isEmpty() ? null : unitIds.get(0);
+    }
+
+    boolean isEmployeeOnBench(Long employeeId) {
+        List<Boolean> onBench = jdbcTemplate.queryForList(SELECT_EMPLOYEE_ON_BENCH, Boolean.class, employeeId);
+        return !onBench.isEmpty() && Boolean.TRUE.equals(onBench.get(0));
+    }
+
+    boolean isStateOnBench(Long stateId) {
+        List<Boolean> onBench = jdbcTemplate.queryForList(SELECT_STATE_ON_BENCH, Boolean.class, stateId);
+        return !onBench.isEmpty() && Boolean.TRUE.equals(onBench.get(0));
+    }
+
+    private void apply(SortedMap<Long, Integer> deltas) {
+        List<Object[]> args = deltas.entrySet().stream()
+            .filter(delta -> delta.getValue() != 0)
+            .map(delta -> new Object[]{delta.getValue(), delta.getKey(), delta.getValue(), delta.getKey()})
+            .collect(Collectors.toList());
+        if (!args.isEmpty()) {
+            log.debug("Adjusting the bench counts of {} units", args.size());
+            NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+            Set<Long> changed = args.stream().map(arg -> (Long) arg[1]).collect(Collectors.toSet());
+            // the rows the updates write, locked in the order of the unit ids before any of them
+            Set<Long> locked = new TreeSet<>(namedJdbcTemplate.queryForList(SELECT_ANCESTORS_OF,
+                new MapSqlParameterSource("units", changed), Long.class));
+            if (!locked.isEmpty()) {
+                namedJdbcTemplate.query(LOCK_UNITS, new MapSqlParameterSource("units", locked),
+                    (RowCallbackHandler) row -> { });
+            }
+            jdbcTemplate.batchUpdate(ADJUST, args);
+        }
+    }
+
+    /**
+     * Turns the bench states and the employee units written through Hibernate into changes of the unit counts.
+     * The units are read from the database, which the flush keeps up to date in whichever order it writes the
+     * employee and its bench state.
+     */
+    private static final class UnitBenchCountListener implements PostInsertEventListener, PreUpdateEventListener,
+        PostDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient UnitBenchCountServiceImpl unitBenchCountService;
+
+        private UnitBenchCountListener(UnitBenchCountServiceImpl unitBenchCountService) {
+            this.unitBenchCountService = unitBenchCountService;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof BenchState) {
+                BenchState state = (BenchState) event.getEntity();
+                if (Boolean.TRUE.equals(state.isOnBench())) {
+                    adjustEmployee(event.getSession(), state.getEmployee(), 1);
+                }
+            }
+        }
+
+        @Override
+        public boolean onPreUpdate(PreUpdateEvent event) {
+            if (event.getEntity() instanceof BenchState) {
+                BenchState state = (BenchState) event.getEntity();
+                // like the unit below, the counted state is the one in the database, whatever was loaded
+                boolean wasOnBench = unitBenchCountService.isStateOnBench(state.getId());
+                boolean onBench = Boolean.TRUE.equals(state.isOnBench());
+                if (wasOnBench != onBench) {
+                    adjustEmployee(event.getSession(), state.getEmployee(), onBench ? 1 : -1);
+                }
+            } else if (event.getEntity() instanceof Employee) {
+                Employee employee = (Employee) event.getEntity();
+                // the loaded state may come from the second level cache, the database has the counted unit;
+                // the employee row is locked before the bench state is read, like a bench change does
+                Long formerUnitId = unitBenchCountService.findEmployeeUnitId(employee.getId());
+                Long unitId = unitId(employee.getUnit());
+                if (!Objects.equals(formerUnitId, unitId) && unitBenchCountService.isEmployeeOnBench(employee.getId())) {
+                    unitBenchCountService.adjust(event.getSession(), formerUnitId, -1);
+                    unitBenchCountService.adjust(event.getSession(), unitId, 1);
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof BenchState) {
+                BenchState state = (BenchState) event.getEntity();
+                if (Boolean.TRUE.equals(event.getDeletedState()[propertyIndex(event.getPersister(), "onBench")])) {
+                    adjustEmployee(event.getSession(), state.getEmployee(), -1);
+                }
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+
+        private void adjustEmployee(EventSource session, Employee employee, int delta) {
+            if (Objects.nonNull(employee)) {
+                unitBenchCountService.adjust(session, unitBenchCountService.findEmployeeUnitId(employee.getId()), delta);
+            }
+        }
+
+        private static int propertyIndex(EntityPersister persister, String property) {
+            return persister.getEntityMetamodel().getPropertyIndex(property);
+        }
+
+        private static Long unitId(Object unit) {
+            return Objects.isNull(unit) ? null : ((Unit) unit).getId();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.epam.bench.service.impl;
+
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Unit;
+import com.epam.bench.repository.support.TotalCountCache;
+import com.epam.bench.service.UnitBenchCountService;
+import com.epam.bench.service.UnitHierarchyService;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+import com.epam.bench.service.util.InvalidUnitParentException;
+import com.epam.bench.service.util.UnitClosureBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service Implementation for the unit tree.
+ * <p>
+ * The closure table holds a row for every unit and each of its ancestors. A new unit copies the rows of its
+ * parent; a moved unit drops the rows linking its subtree to its former ancestors and links the subtree to the
+ * ancestors of its new parent with a single insert. Either way only the rows of the changed paths are written.
+ */
+@Service
+@Transactional
+public class UnitHierarchyServiceImpl implements UnitHierarchyService {
+
+    private final Logger log = LoggerFactory.getLogger(UnitHierarchyServiceImpl.class);
+
+    private static final String SELECT_ANCESTORS = "select ancestor_id, depth from unit_closure where descendant_id = ?";
+
+    private static final String SELECT_SUBTREE = "select descendant_id from unit_closure where ancestor_id = ?"
+        + " order by depth, descendant_id";
+
+    private static final String INSERT_SELF = "insert into unit_closure (ancestor_id, descendant_id, depth)"
+        + " values (?, ?, 0)";
+
+    private static final String INSERT_UNDER_PARENT = "insert into unit_closure (ancestor_id, descendant_id, depth)"
+        + " select ancestor_id, ?, depth + 1 from unit_closure where descendant_id = ?";
+
+    private static final String INSERT_SUBTREE_UNDER_PARENT = "insert into unit_closure (ancestor_id, descendant_id, depth)"
+        + " select parent.ancestor_id, subtree.descendant_id, parent.depth + subtree.depth + 1"
+        + " from unit_closure parent, unit_closure subtree"
+        + " where parent.descendant_id = ? and subtree.ancestor_id = ?";
+
+    private static final String DELETE_PATHS = "delete from unit_closure"
+        + " where ancestor_id in (:ancestors) and descendant_id in (:descendants)";
+
+    private static final String DELETE_UNIT = "delete from unit_closure where descendant_id = ? or ancestor_id = ?";
+
+    /**
+     * The number of subtree ids per delete, below the parameter limits of the databases.
+     */
+    private static final int DELETE_CHUNK_SIZE = 500;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private TotalCountCache totalCountCache;
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
+    @Inject
+    private UnitBenchCountService unitBenchCountService;
+
+    @Override
+    public void place(Unit unit) {
+        log.debug("Request to place Unit : {}", unit);
+        // the paths reference the unit rows
+        entityManager.flush();
+        Long unitId = unit.getId();
+        Long parentId = parentId(unit);
+        Map<Long, Integer> ancestors = findAncestors(unitId);
+        if (ancestors.isEmpty()) {
+            insert(unit, new HashSet<>());
+        } else {
+            Long currentParentId = ancestors.entrySet().stream()
+                .filter(ancestor -> ancestor.getValue() == 1)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(null);
+            if (Objects.equals(currentParentId, parentId)) {
+                return;
+            }
+            move(unitId, ancestors, parentId);
+        }
+        changed();
+    }
+
+    @Override
+    public void remove(Long unitId) {
+        log.debug("Request to remove Unit : {} from the tree", unitId);
+        unitBenchCountService.removeUnit(unitId);
+        jdbcTemplate.update(DELETE_UNIT, unitId, unitId);
+        changed();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findSubtreeIds(Long unitId) {
+        return jdbcTemplate.queryForList(SELECT_SUBTREE, Long.class, unitId);
+    }
+
+    @Override
+    public int rebuild() {
+        log.debug("Request to rebuild the unit tree");
+        int written = jdbcTemplate.execute((ConnectionCallback<Integer>) UnitClosureBuilder::rebuild);
+        unitBenchCountService.rebuild();
+        changed();
+        return written;
+    }
+
+    private void insert(Unit unit, Set<Long> inserting) {
+        Long unitId = unit.getId();
+        Long parentId = parentId(unit);
+        if (!inserting.add(unitId)) {
+            throw new InvalidUnitParentException("Unit " + unitId + " is its own ancestor");
+        }
+        if (Objects.nonNull(parentId) && findAncestors(parentId).isEmpty()) {
+            // a parent written without this service
+            insert(entityManager.find(Unit.class, parentId), inserting);
+        }
+        jdbcTemplate.update(INSERT_SELF, unitId, unitId);
+        if (Objects.nonNull(parentId)) {
+            jdbcTemplate.update(INSERT_UNDER_PARENT, unitId, parentId);
+        }
+        unitBenchCountService.addUnit(unitId);
+    }
+
+    private void move(Long unitId, Map<Long, Integer> ancestors, Long parentId) {
+        List<Long> subtree = findSubtreeIds(unitId);
+        if (Objects.nonNull(parentId) && subtree.contains(parentId)) {
+            throw new InvalidUnitParentException("Unit " + unitId + " cannot be placed under its sub-unit " + parentId);
+        }
+        // reads the paths the subtree is moved from
+        unitBenchCountService.moveUnit(unitId, parentId);
+        List<Long> formerAncestors = ancestors.keySet().stream()
+            .filter(ancestor -> !ancestor.equals(unitId))
+            .collect(Collectors.toList());
+        if (!formerAncestors.isEmpty()) {
+            NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+            for (int from = 0; from < subtree.size(); from += DELETE_CHUNK_SIZE) {
+                namedJdbcTemplate.update(DELETE_PATHS, new MapSqlParameterSource()
+                    .addValue("ancestors", formerAncestors)
+                    .addValue("descendants", subtree.subList(from, Math.min(from + DELETE_CHUNK_SIZE, subtree.size()))));
+            }
+        }
+        if (Objects.nonNull(parentId)) {
+            jdbcTemplate.update(INSERT_SUBTREE_UNDER_PARENT, parentId, unitId);
+        }
+        log.debug("Moved {} units under Unit : {}", subtree.size(), parentId);
+    }
+
+    private static Long parentId(Unit unit) {
+        return Objects.isNull(unit.getParent()) ? null : unit.getParent().getId();
+    }
+
+    private Map<Long, Integer> findAncestors(Long unitId) {
+        Map<Long, Integer> ancestors = new HashMap<>();
+        jdbcTemplate.query(SELECT_ANCESTORS, (RowCallbackHandler) row -> ancestors.put(row.getLong(1), row.getInt(2)),
+            unitId);
+        return ancestors;
+    }
+
+    private void changed() {
+        // the bench counts and forecasts filtered by unit follow the tree
+        totalCountCache.invalidate(BenchState.class, false);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, Unit.class));
+    }
+}
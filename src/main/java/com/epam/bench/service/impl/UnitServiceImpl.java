@@ -1,9 +1,12 @@
 package com.epam.bench.service.impl;
 
+import com.epam.bench.service.UnitHierarchyService;
 import com.epam.bench.service.UnitService;
 import com.epam.bench.domain.Unit;
+import com.epam.bench.repository.EmployeeRepository;
 import com.epam.bench.repository.UnitRepository;
 import com.epam.bench.repository.search.UnitSearchRepository;
+import com.epam.bench.service.search.SearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -33,6 +36,15 @@ public class UnitServiceImpl implements UnitService{
     @Inject
     private UnitSearchRepository unitSearchRepository;
 
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
+    @Inject
+    private UnitHierarchyService unitHierarchyService;
+
     /**
      * Save a unit.
      *
@@ -42,7 +54,10 @@ public class UnitServiceImpl implements UnitService{
     public Unit save(Unit unit) {
         log.debug("Request to save Unit : {}", unit);
         Unit result = unitRepository.save(unit);
-        unitSearchRepository.save(result);
+        unitHierarchyService.place(result);
+        searchIndexer.index(result);
+        // the employee documents embed the unit
+        searchIndexer.index(employeeRepository.findByUnit(result));
         return result;
     }
 
@@ -79,8 +94,9 @@ public class UnitServiceImpl implements UnitService{
      */
     public void delete(Long id) {
         log.debug("Request to delete Unit : {}", id);
+        unitHierarchyService.remove(id);
         unitRepository.delete(id);
-        unitSearchRepository.delete(id);
+        searchIndexer.delete(Unit.class, id);
     }
 
     /**
@@ -0,0 +1,154 @@
+package com.epam.bench.service.impl;
+
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.Project;
+import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.domain.ProjectRole;
+import com.epam.bench.domain.WorkloadInterval;
+import com.epam.bench.repository.EmployeeRepository;
+import com.epam.bench.repository.ProjectHistoryRepository;
+import com.epam.bench.repository.WorkloadIntervalRepository;
+import com.epam.bench.service.WorkloadTimelineService;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+import com.epam.bench.service.util.ServiceUtils;
+import com.epam.bench.service.util.WorkloadTimelineCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Service Implementation for the workload timeline of employees.
+ * <p>
+ * The intervals of the {@link WorkloadTimelineCalculator} make the allocation on a date a range query instead of
+ * a replay of the whole history.
+ */
+@Service
+@Transactional
+public class WorkloadTimelineServiceImpl implements WorkloadTimelineService {
+
+    private final Logger log = LoggerFactory.getLogger(WorkloadTimelineServiceImpl.class);
+
+    @Inject
+    private WorkloadIntervalRepository workloadIntervalRepository;
+
+    @Inject
+    private ProjectHistoryRepository projectHistoryRepository;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void rebuild(Employee employee) {
+        log.debug("Request to rebuild the workload timeline of Employee : {}", employee);
+        workloadIntervalRepository.deleteByEmployee(employee);
+
+        List<WorkloadTimelineCalculator.Entry<ProjectHistory>> entries = projectHistoryRepository.findByEmployee(employee)
+            .stream()
+            .map(history -> new WorkloadTimelineCalculator.Entry<>(history, history.getId(), workloadKey(history),
+                history.getDate(), history.getWorkload()))
+            .collect(Collectors.toList());
+
+        List<WorkloadInterval> intervals = WorkloadTimelineCalculator.intervals(entries).stream()
+            .map(interval -> new WorkloadInterval()
+                .employee(employee)
+                .project(interval.getSource().getProject())
+                .role(interval.getSource().getRole())
+                .workload(interval.getWorkload())
+                .validFrom(interval.getValidFrom())
+                .validTo(interval.getValidTo()))
+            .collect(Collectors.toList());
+        workloadIntervalRepository.save(intervals);
+        eventPublisher.publishEvent(new BenchDataChangedEvent(this, WorkloadInterval.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getAllocation(Employee employee, LocalDate date) {
+        log.debug("Request to get the allocation of Employee : {} on {}", employee, date);
+        return workloadIntervalRepository.sumWorkload(employee, date).intValue();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<WorkloadInterval>> findAllocations(Collection<Employee> employees, LocalDate date) {
+        log.debug("Request to get the allocations of {} Employees on {}", employees.size(), date);
+        if (employees.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return workloadIntervalRepository.findValidOn(employees, date).stream()
+            .collect(Collectors.groupingBy(interval -> interval.getEmployee().getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<WorkloadInterval>> findAllocations(Collection<Employee> employees, LocalDate from, LocalDate to) {
+        log.debug("Request to get the allocations of {} Employees from {} to {}", employees.size(), from, to);
+        if (employees.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return workloadIntervalRepository.findOverlapping(employees, from, to).stream()
+            .collect(Collectors.groupingBy(interval -> interval.getEmployee().getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findEmployeesAllocatedBelow(int allocation, LocalDate from, LocalDate to) {
+        log.debug("Request to get Employees allocated below {}% from {} to {}", allocation, from, to);
+        Map<Long, TreeMap<LocalDate, Integer>> changesByEmployee = new HashMap<>();
+        for (Object[] row : workloadIntervalRepository.findOverlapping(from, to)) {
+            TreeMap<LocalDate, Integer> changes = changesByEmployee.computeIfAbsent((Long) row[0], id -> new TreeMap<>());
+            LocalDate validFrom = ServiceUtils.toLocalDate(row[1]);
+            LocalDate validTo = ServiceUtils.toLocalDate(row[2]);
+            int workload = (Integer) row[3];
+            changes.merge(validFrom.isBefore(from) ? from : validFrom, workload, Integer::sum);
+            if (Objects.nonNull(validTo) && !validTo.isAfter(to)) {
+                changes.merge(validTo, -workload, Integer::sum);
+            }
+        }
+
+        return employeeRepository.findActiveIds().stream()
+            .filter(id -> maxAllocation(changesByEmployee.get(id)) < allocation)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Sweeps the allocation changes in date order, an interval ending on a date is merged with the ones starting
+     * on it so the half open intervals never overlap.
+     */
+    private int maxAllocation(TreeMap<LocalDate, Integer> changes) {
+        if (Objects.isNull(changes)) {
+            return 0;
+        }
+        int current = 0;
+        int max = 0;
+        for (int change : changes.values()) {
+            current += change;
+            max = Math.max(max, current);
+        }
+        return max;
+    }
+
+    private String workloadKey(ProjectHistory history) {
+        Project project = history.getProject();
+        ProjectRole role = history.getRole();
+        return WorkloadTimelineCalculator.workloadKey(
+            Objects.isNull(project) ? null : project.getUpsaId(), Objects.isNull(project) ? null : project.getId(),
+            Objects.isNull(role) ? null : role.getUpsaId(), Objects.isNull(role) ? null : role.getId());
+    }
+}
@@ -1,5 +1,8 @@
 package com.epam.bench.service.integration;
 
+import java.util.Collection;
+import java.util.Map;
+
 import com.epam.bench.domain.integration.upsa.EmployeeSimpleView;
 
 /**
@@ -7,5 +10,21 @@ import com.epam.bench.domain.integration.upsa.EmployeeSimpleView;
  */
 public interface UpsaService {
 
+    /**
+     * Get the employee from UPSA.
+     *
+     * @param employeeId the UPSA id of the employee
+     * @return the employee, or null if UPSA does not know the employee
+     * @throws UpsaUnavailableException if UPSA cannot be reached
+     */
     EmployeeSimpleView getEmployee(String employeeId);
+
+    /**
+     * Get several employees from UPSA at once, reusing pooled connections for all of them.
+     *
+     * @param employeeIds the UPSA ids of the employees
+     * @return the employees by UPSA id; employees UPSA does not know or that could not be fetched are missing
+     * @throws UpsaUnavailableException if UPSA went down during the fetch, so that the result is not usable
+     */
+    Map<String, EmployeeSimpleView> getEmployees(Collection<String> employeeIds);
 }
@@ -0,0 +1,18 @@
+package com.epam.bench.service.integration;
+
+import com.epam.bench.domain.integration.upsa.common.SystemException;
+
+/**
+ * Thrown when UPSA cannot be reached, either because all retries failed or because the circuit
+ * breaker is open and UPSA is not called at all.
+ */
+public class UpsaUnavailableException extends SystemException {
+
+    public UpsaUnavailableException(String message) {
+        super(message);
+    }
+
+    public UpsaUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,55 @@
+package com.epam.bench.service.integration.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal circuit breaker for calls to an external system.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the breaker opens and rejects calls for
+ * {@code openMillis}. After that a single trial call is let through: its success closes the
+ * breaker, its failure opens it again.
+ */
+public class CircuitBreaker {
+
+    private final int failureThreshold;
+
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicLong openedAt = new AtomicLong(-1);
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Returns true if a call may be made now.
+     */
+    public boolean allowRequest() {
+        long opened = openedAt.get();
+        if (opened < 0) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        // let exactly one caller through once the open period is over
+        return now - opened >= openMillis && openedAt.compareAndSet(opened, now);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(-1);
+    }
+
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.currentTimeMillis());
+        }
+    }
+
+    public boolean isOpen() {
+        return openedAt.get() >= 0;
+    }
+}
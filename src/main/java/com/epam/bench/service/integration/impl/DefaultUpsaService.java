@@ -1,8 +1,19 @@
 package com.epam.bench.service.integration.impl;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 import org.slf4j.Logger;
@@ -10,14 +21,25 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.epam.bench.config.ApplicationProperties;
 import com.epam.bench.domain.integration.upsa.CustomEmployeeComposeObjectDto;
 import com.epam.bench.domain.integration.upsa.EmployeeSimpleView;
-import com.epam.bench.domain.integration.upsa.UpsaRestApiUrls;
 import com.epam.bench.service.integration.UpsaService;
+import com.epam.bench.service.integration.UpsaUnavailableException;
 
 /**
  * Created by Tetiana_Antonenko1
@@ -25,31 +47,182 @@ import com.epam.bench.service.integration.UpsaService;
 @Service
 public class DefaultUpsaService implements UpsaService {
 
+    private static final String EMPLOYEE_PATH = "employees/{employeeId}?compose=probation,unit,location";
+
     private final Logger LOG = LoggerFactory.getLogger(DefaultUpsaService.class);
-   /* @Inject
-    private RestTemplate restTemplate;*/
+
+    @Inject
+    private RestTemplate upsaRestTemplate;
+
+    @Inject
+    private ThreadPoolTaskExecutor upsaTaskExecutor;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private CircuitBreaker circuitBreaker;
+
+    private Timer requests;
+
+    private Meter failures;
+
+    @PostConstruct
+    public void init() {
+        ApplicationProperties.Upsa.CircuitBreaker properties = applicationProperties.getUpsa().getCircuitBreaker();
+        circuitBreaker = new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenMillis());
+        requests = metricRegistry.timer(MetricRegistry.name(UpsaService.class, "requests"));
+        failures = metricRegistry.meter(MetricRegistry.name(UpsaService.class, "failures"));
+    }
 
     @Override
     public EmployeeSimpleView getEmployee(String employeeId) {
+        return getEmployee(employeeId, getStringHttpEntity());
+    }
+
+    @Override
+    public Map<String, EmployeeSimpleView> getEmployees(Collection<String> employeeIds) {
+        // the token is resolved here, the security context is not available on the executor threads
         HttpEntity<String> entity = getStringHttpEntity();
+        Map<String, CompletableFuture<EmployeeSimpleView>> futures = new LinkedHashMap<>();
+        for (String employeeId : new LinkedHashSet<>(employeeIds)) {
+            futures.put(employeeId, submit(employeeId, entity));
+        }
+
+        Map<String, EmployeeSimpleView> employees = new LinkedHashMap<>();
+        int failed = 0;
+        try {
+            for (Map.Entry<String, CompletableFuture<EmployeeSimpleView>> future : futures.entrySet()) {
+                try {
+                    EmployeeSimpleView employee = future.getValue().join();
+                    if (Objects.nonNull(employee)) {
+                        employees.put(future.getKey(), employee);
+                    }
+                } catch (CompletionException | CancellationException e) {
+                    // a failed employee is left out of the page, like an unavailable one
+                    Throwable cause = Objects.isNull(e.getCause()) ? e : e.getCause();
+                    if (!(cause instanceof UpsaUnavailableException)) {
+                        LOG.warn("Could not fetch employee {} from UPSA: {}", future.getKey(), cause.toString());
+                    }
+                    failed++;
+                    if (circuitBreaker.isOpen()) {
+                        // the page is given up below, the rest of it would fail as well
+                        break;
+                    }
+                }
+            }
+        } finally {
+            // the requests still queued when the page is given up are not sent
+            futures.values().forEach(future -> future.cancel(false));
+        }
+        if (failed > 0) {
+            LOG.warn("Could not fetch {} of {} employees from UPSA", failed, futures.size());
+            if (circuitBreaker.isOpen()) {
+                throw new UpsaUnavailableException("UPSA became unavailable, fetched only " + employees.size()
+                    + " of " + futures.size() + " employees");
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * Requests the employee on the UPSA executor. An employee the full executor refuses fails like an unavailable one.
+     */
+    private CompletableFuture<EmployeeSimpleView> submit(String employeeId, HttpEntity<String> entity) {
+        try {
+            return CompletableFuture.supplyAsync(() -> getEmployee(employeeId, entity), upsaTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<EmployeeSimpleView> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new UpsaUnavailableException("Too many UPSA requests queued, not requesting employee "
+                + employeeId, e));
+            return rejected;
+        }
+    }
 
-       /* try {
-            return restTemplate.exchange(UpsaRestApiUrls.BASE_URL_PRODUCTION_LATEST + "employees/{employeeId}?compose=probation,unit,location", HttpMethod.GET, entity,
-                CustomEmployeeComposeObjectDto.class, employeeId).getBody().getEmployeeSimpleView();
-        } catch (Exception e) {
-            LOG.error(e.getMessage());
-        }*/
-        return new EmployeeSimpleView();
+    private EmployeeSimpleView getEmployee(String employeeId, HttpEntity<String> entity) {
+        String url = applicationProperties.getUpsa().getBaseUrl() + EMPLOYEE_PATH;
+        CustomEmployeeComposeObjectDto employee = execute("employee " + employeeId, () ->
+            upsaRestTemplate.exchange(url, HttpMethod.GET, entity, CustomEmployeeComposeObjectDto.class, employeeId).getBody());
+        return Objects.isNull(employee) ? null : employee.getEmployeeSimpleView();
+    }
+
+    /**
+     * Runs the call with retries and exponential backoff on connection failures, 5xx and 429
+     * responses. A 404 is not an error and yields null.
+     */
+    private <T> T execute(String description, Supplier<T> call) {
+        if (!circuitBreaker.allowRequest()) {
+            failures.mark();
+            throw new UpsaUnavailableException("UPSA circuit breaker is open, not requesting " + description);
+        }
+        int maxAttempts = Math.max(1, applicationProperties.getUpsa().getMaxAttempts());
+        RuntimeException lastFailure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            Timer.Context context = requests.time();
+            try {
+                T result = call.get();
+                circuitBreaker.recordSuccess();
+                return result;
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() != HttpStatus.TOO_MANY_REQUESTS) {
+                    // UPSA answered, so it is available
+                    circuitBreaker.recordSuccess();
+                    if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return null;
+                    }
+                    throw e;
+                }
+                lastFailure = e;
+            } catch (HttpServerErrorException | ResourceAccessException e) {
+                lastFailure = e;
+            } finally {
+                context.stop();
+            }
+            LOG.debug("Attempt {} of {} to get {} from UPSA failed: {}", attempt, maxAttempts, description, lastFailure.getMessage());
+            if (attempt < maxAttempts) {
+                backoff(attempt);
+            }
+        }
+        failures.mark();
+        circuitBreaker.recordFailure();
+        LOG.error("Could not get {} from UPSA: {}", description, lastFailure.getMessage());
+        throw new UpsaUnavailableException("Could not get " + description + " from UPSA", lastFailure);
+    }
+
+    private void backoff(int attempt) {
+        long backoffMillis = applicationProperties.getUpsa().getBackoffMillis();
+        long delay = (backoffMillis << (attempt - 1)) + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpsaUnavailableException("Interrupted while waiting to retry UPSA request", e);
+        }
     }
 
     private HttpEntity<String> getStringHttpEntity() {
-        //TODO proper implementation!! Token will stores in another place
         HttpHeaders headers = new HttpHeaders();
-        Map<String, String> details = (HashMap<String, String>) SecurityContextHolder.getContext().getAuthentication().getDetails();
-        HashMap<String, String> values = new HashMap<>();
-        values.put("Authorization", "bearer  " + details.get("token"));
-        headers.setAll(values);
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        String token = getToken();
+        if (Objects.nonNull(token)) {
+            headers.set(HttpHeaders.AUTHORIZATION, "bearer " + token);
+        }
+        return new HttpEntity<>(headers);
+    }
 
-        return new HttpEntity<>("parameters", headers);
+    /**
+     * The token of the current user if there is one, the configured service token otherwise.
+     */
+    private String getToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (Objects.nonNull(authentication) && authentication.getDetails() instanceof Map) {
+            Object token = ((Map<?, ?>) authentication.getDetails()).get("token");
+            if (Objects.nonNull(token)) {
+                return token.toString();
+            }
+        }
+        return applicationProperties.getUpsa().getToken();
     }
 }
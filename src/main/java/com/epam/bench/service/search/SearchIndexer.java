@@ -0,0 +1,460 @@
+package com.epam.bench.service.search;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.Client;
+import org.hibernate.proxy.HibernateProxy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.epam.bench.config.ApplicationProperties;
+
+/**
+ * Keeps the Elasticsearch indices in line with the database.
+ * <p>
+ * Changes made in a transaction are only taken over once it commits, so a rolled back write
+ * never reaches the index. They are queued and coalesced per document, so the last change of a
+ * document wins, and written with bulk requests on a dedicated thread. Failed documents are
+ * retried with backoff and end up in the search_index_dead_letter table when they keep failing.
+ * A retry is dropped once a newer change of its document has been queued, which may already be
+ * written by then.
+ * <p>
+ * The changes can also be copied to a shadow index that is being rebuilt: an operation is only done once both of
+ * its writes succeed, and the shadow index keeps the documents deleted and the operations given up while it is
+ * being built.
+ */
+@Service
+public class SearchIndexer {
+
+    private static final String DEAD_LETTER_INSERT = "insert into search_index_dead_letter"
+        + " (index_name, type_name, document_id, operation, source, error, attempts, created_time)"
+        + " values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    @Inject
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Inject
+    private EntityMapper entityMapper;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private final Map<String, Operation> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The sequence of the last operation queued per document, until it is written or given up.
+     */
+    private final Map<String, Long> latest = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<String, ShadowIndex> shadowIndices = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    private Timer bulkRequests;
+
+    private Meter failures;
+
+    private Meter deadLetters;
+
+    @PostConstruct
+    public void init() {
+        ApplicationProperties.Search search = applicationProperties.getSearch();
+        executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("bench-SearchIndexer-"));
+        executor.scheduleWithFixedDelay(this::flush, search.getFlushIntervalMillis(), search.getFlushIntervalMillis(),
+            TimeUnit.MILLISECONDS);
+
+        bulkRequests = metricRegistry.timer(MetricRegistry.name(SearchIndexer.class, "bulkRequests"));
+        failures = metricRegistry.meter(MetricRegistry.name(SearchIndexer.class, "failures"));
+        deadLetters = metricRegistry.meter(MetricRegistry.name(SearchIndexer.class, "deadLetters"));
+        String pendingName = MetricRegistry.name(SearchIndexer.class, "pending");
+        metricRegistry.remove(pendingName);
+        metricRegistry.register(pendingName, (Gauge<Integer>) pending::size);
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * Index the entity once the current transaction commits.
+     *
+     * @param entity the entity to index
+     */
+    public void index(Object entity) {
+        index(Collections.singletonList(entity));
+    }
+
+    /**
+     * Index the entities once the current transaction commits.
+     *
+     * @param entities the entities to index
+     */
+    public void index(Collection<?> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        List<Object> snapshot = new ArrayList<>(entities);
+        submit(() -> {
+            List<Operation> operations = new ArrayList<>(snapshot.size());
+            for (Object entity : snapshot) {
+                operations.add(indexOperation(entity));
+            }
+            return operations;
+        });
+    }
+
+    /**
+     * Remove the entity from the index once the current transaction commits.
+     *
+     * @param entityClass the class of the entity
+     * @param id the id of the entity
+     */
+    public void delete(Class<?> entityClass, Object id) {
+        delete(entityClass, Collections.singletonList(id));
+    }
+
+    /**
+     * Remove the entities from the index once the current transaction commits.
+     *
+     * @param entityClass the class of the entities
+     * @param ids the ids of the entities
+     */
+    public void delete(Class<?> entityClass, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object> snapshot = new ArrayList<>(ids);
+        submit(() -> {
+            ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchTemplate.getPersistentEntityFor(entityClass);
+            List<Operation> operations = new ArrayList<>(snapshot.size());
+            for (Object id : snapshot) {
+                operations.add(new Operation(persistentEntity.getIndexName(), persistentEntity.getIndexType(),
+                    String.valueOf(id), null));
+            }
+            return operations;
+        });
+    }
+
+    /**
+     * Writes all queued changes to Elasticsearch.
+     */
+    public synchronized void flush() {
+        try {
+            int batchSize = applicationProperties.getSearch().getBatchSize();
+            while (!pending.isEmpty()) {
+                List<Operation> batch = new ArrayList<>(batchSize);
+                Iterator<String> keys = pending.keySet().iterator();
+                while (keys.hasNext() && batch.size() < batchSize) {
+                    Operation operation = pending.remove(keys.next());
+                    if (Objects.nonNull(operation)) {
+                        batch.add(operation);
+                    }
+                }
+                execute(batch, false);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not flush the search index queue", e);
+        }
+    }
+
+    /**
+     * Number of changes waiting to be written.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Also write the changes of the documents of an index to a second index, e.g. one that is being rebuilt.
+     * A failed copy is retried with its operation, and dead lettered with it when it keeps failing.
+     *
+     * @param index the index, or alias, the documents are written to
+     * @param shadowIndex the index that receives a copy of the changes
+     * @return the shadow index, which tracks the deletes and the operations given up
+     */
+    public ShadowIndex addShadowIndex(String index, String shadowIndex) {
+        ShadowIndex shadow = new ShadowIndex(shadowIndex);
+        shadowIndices.put(index, shadow);
+        return shadow;
+    }
+
+    /**
+     * Stop copying the changes of an index.
+     *
+     * @param index the index, or alias, the documents are written to
+     */
+    public void removeShadowIndex(String index) {
+        shadowIndices.remove(index);
+    }
+
+    private void submit(OperationFactory factory) {
+        if (!applicationProperties.getSearch().isAsync()) {
+            execute(factory.create(), true);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    // the entities are serialized here, with the state they were committed with
+                    enqueue(factory.create());
+                }
+            });
+        } else {
+            enqueue(factory.create());
+        }
+    }
+
+    private void enqueue(List<Operation> operations) {
+        for (Operation operation : operations) {
+            operation.sequence = sequence.incrementAndGet();
+            // under the lock of the document, so a retry either sees this operation or is replaced by it
+            latest.compute(operation.key(), (key, previous) -> {
+                pending.put(key, operation);
+                return operation.sequence;
+            });
+        }
+        if (pending.size() >= applicationProperties.getSearch().getBatchSize()) {
+            executor.execute(this::flush);
+        }
+    }
+
+    private void execute(List<Operation> operations, boolean refresh) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        Client client = elasticsearchTemplate.getClient();
+        BulkRequestBuilder bulkRequest = client.prepareBulk().setRefresh(refresh);
+        // the operation of every bulk item, the copies written to a shadow index included
+        List<Operation> items = new ArrayList<>(operations.size());
+        for (Operation operation : operations) {
+            add(client, bulkRequest, operation, operation.index);
+            items.add(operation);
+            ShadowIndex shadow = shadowIndices.get(operation.index);
+            if (Objects.nonNull(shadow)) {
+                add(client, bulkRequest, operation, shadow.name);
+                items.add(operation);
+                if (operation.isDelete()) {
+                    shadow.deletedIds.add(operation.id);
+                }
+            }
+        }
+
+        Timer.Context context = bulkRequests.time();
+        BulkResponse response;
+        try {
+            response = bulkRequest.get();
+        } catch (RuntimeException e) {
+            log.warn("Bulk request of {} documents failed: {}", operations.size(), e.getMessage());
+            operations.forEach(operation -> retry(operation, e.getMessage()));
+            return;
+        } finally {
+            context.stop();
+        }
+        // an operation is retried as a whole when either of its writes failed
+        Map<Operation, String> errors = new HashMap<>();
+        for (BulkItemResponse item : response.getItems()) {
+            // deleting a document that is not indexed is not a failure
+            if (item.isFailed()) {
+                errors.putIfAbsent(items.get(item.getItemId()), item.getFailureMessage());
+            }
+        }
+        for (Operation operation : operations) {
+            String error = errors.get(operation);
+            if (Objects.isNull(error)) {
+                done(operation);
+            } else {
+                retry(operation, error);
+            }
+        }
+    }
+
+    private void add(Client client, BulkRequestBuilder bulkRequest, Operation operation, String index) {
+        if (operation.isDelete()) {
+            bulkRequest.add(client.prepareDelete(index, operation.type, operation.id));
+        } else {
+            bulkRequest.add(client.prepareIndex(index, operation.type, operation.id).setSource(operation.source));
+        }
+    }
+
+    private void retry(Operation operation, String error) {
+        failures.mark();
+        operation.attempts++;
+        ApplicationProperties.Search search = applicationProperties.getSearch();
+        if (!search.isAsync() || operation.attempts >= search.getMaxAttempts()) {
+            deadLetter(operation, error);
+            return;
+        }
+        long delay = search.getBackoffMillis() << (operation.attempts - 1);
+        executor.schedule(() -> requeue(operation), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues the failed operation again, unless a newer change of the same document was queued since: the retry
+     * would overwrite it, as the newer change may be written already.
+     */
+    private void requeue(Operation operation) {
+        latest.computeIfPresent(operation.key(), (key, last) -> {
+            if (last == operation.sequence) {
+                pending.putIfAbsent(key, operation);
+            } else {
+                log.debug("Dropping the retry of {}, a newer change was queued", key);
+            }
+            return last;
+        });
+    }
+
+    /**
+     * Forgets the document once its last queued operation is written or given up.
+     */
+    private void done(Operation operation) {
+        latest.remove(operation.key(), operation.sequence);
+    }
+
+    private void deadLetter(Operation operation, String error) {
+        done(operation);
+        deadLetters.mark();
+        ShadowIndex shadow = shadowIndices.get(operation.index);
+        if (Objects.nonNull(shadow)) {
+            shadow.failed.incrementAndGet();
+        }
+        log.error("Giving up indexing {} after {} attempts: {}", operation.key(), operation.attempts, error);
+        try {
+            jdbcTemplate.update(DEAD_LETTER_INSERT, operation.index, operation.type, operation.id,
+                operation.isDelete() ? "DELETE" : "INDEX", operation.source, error, operation.attempts,
+                new Timestamp(System.currentTimeMillis()));
+        } catch (RuntimeException e) {
+            log.error("Could not store the failed search index operation {}", operation.key(), e);
+        }
+    }
+
+    private Operation indexOperation(Object source) {
+        Object entity = source instanceof HibernateProxy
+            ? ((HibernateProxy) source).getHibernateLazyInitializer().getImplementation()
+            : source;
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchTemplate.getPersistentEntityFor(entity.getClass());
+        Object id = persistentEntity.getIdentifierAccessor(entity).getIdentifier();
+        try {
+            return new Operation(persistentEntity.getIndexName(), persistentEntity.getIndexType(), String.valueOf(id),
+                entityMapper.mapToString(entity));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize " + entity + " for the search index", e);
+        }
+    }
+
+    /**
+     * An index receiving a copy of the changes of another one.
+     */
+    public static final class ShadowIndex {
+
+        private final String name;
+
+        private final Set<String> deletedIds = ConcurrentHashMap.newKeySet();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private ShadowIndex(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The ids of the documents deleted since the shadow index was added, the document may not be in it yet.
+         */
+        public Set<String> getDeletedIds() {
+            return new HashSet<>(deletedIds);
+        }
+
+        /**
+         * The number of operations given up since the shadow index was added, their copies are missing.
+         */
+        public long getFailed() {
+            return failed.get();
+        }
+    }
+
+    @FunctionalInterface
+    private interface OperationFactory {
+
+        List<Operation> create();
+    }
+
+    private static final class Operation {
+
+        private final String index;
+
+        private final String type;
+
+        private final String id;
+
+        private final String source;
+
+        private int attempts;
+
+        private long sequence;
+
+        private Operation(String index, String type, String id, String source) {
+            this.index = index;
+            this.type = type;
+            this.id = id;
+            this.source = source;
+        }
+
+        private boolean isDelete() {
+            return source == null;
+        }
+
+        private String key() {
+            return index + '/' + type + '/' + id;
+        }
+    }
+}
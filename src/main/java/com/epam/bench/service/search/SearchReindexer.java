@@ -0,0 +1,484 @@
+package com.epam.bench.service.search;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequestBuilder;
+import org.elasticsearch.action.admin.indices.create.CreateIndexRequestBuilder;
+import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.IndicesAdminClient;
+import org.elasticsearch.cluster.metadata.MappingMetaData;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.rest.RestStatus;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codahale.metrics.MetricRegistry;
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.service.dto.ReindexStatusDTO;
+import com.epam.bench.service.dto.ReindexStatusDTO.IndexStatusDTO;
+import com.epam.bench.service.dto.ReindexStatusDTO.Status;
+
+/**
+ * Rebuilds the search indices from the database without taking search offline.
+ * <p>
+ * Every entity mapped with {@link Document} is streamed from its table with a forward-only cursor and bulk
+ * indexed into a new, versioned index; the indices are built in parallel. The alias named after the
+ * {@code @Document} index is then moved to the new index in a single request and the previous index is dropped.
+ * Changes committed while an index is being built are copied to it by the {@link SearchIndexer}; the documents
+ * deleted meanwhile are removed again before the swap, as the cursor may have read them before they were deleted.
+ * An index that fails to build, or misses changes the indexer gave up, is dropped and its alias is left untouched.
+ * <p>
+ * An index created on startup has the name its alias needs, and an alias cannot be created while it exists.
+ * Such an index is only replaced by a reindex that migrates it, once: search on it is unavailable between
+ * dropping it and creating the alias. Any other reindex leaves it untouched.
+ */
+@Service
+public class SearchReindexer {
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    private static final String REFRESH_INTERVAL = "index.refresh_interval";
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexer.class);
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Inject
+    private EntityMapper entityMapper;
+
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private final AtomicReference<Run> current = new AtomicReference<>();
+
+    /**
+     * Start rebuilding all search indices in the background. The indices not behind an alias yet are not rebuilt.
+     *
+     * @return the status of the started reindex, or empty if a reindex is already running
+     */
+    public Optional<ReindexStatusDTO> reindex() {
+        return reindex(false);
+    }
+
+    /**
+     * Start rebuilding all search indices in the background.
+     *
+     * @param migrate whether to replace the indices not behind an alias yet, they are briefly unavailable then
+     * @return the status of the started reindex, or empty if a reindex is already running
+     */
+    public Optional<ReindexStatusDTO> reindex(boolean migrate) {
+        Run previous = current.get();
+        if (Objects.nonNull(previous) && previous.isRunning()) {
+            return Optional.empty();
+        }
+        String version = VERSION_FORMAT.format(ZonedDateTime.now());
+        List<IndexTask> tasks = entityManager.getMetamodel().getEntities().stream()
+            .filter(type -> type.getJavaType().isAnnotationPresent(Document.class))
+            .map(type -> new IndexTask(type.getJavaType(), type.getName(),
+                elasticsearchTemplate.getPersistentEntityFor(type.getJavaType()), version))
+            .collect(Collectors.toList());
+        Run run = new Run(tasks, migrate);
+        if (!current.compareAndSet(previous, run)) {
+            return Optional.empty();
+        }
+
+        log.info("Rebuilding {} search indices", tasks.size());
+        int parallelism = Math.max(1, applicationProperties.getSearch().getReindexParallelism());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("bench-Reindex-"));
+        tasks.forEach(task -> executor.execute(() -> rebuild(run, task)));
+        executor.shutdown();
+        return Optional.of(run.toStatus());
+    }
+
+    /**
+     * The status of the last reindex.
+     */
+    public ReindexStatusDTO getStatus() {
+        Run run = current.get();
+        return Objects.isNull(run) ? new ReindexStatusDTO() : run.toStatus();
+    }
+
+    private void rebuild(Run run, IndexTask task) {
+        task.status = Status.RUNNING;
+        boolean created = false;
+        try {
+            if (!run.migrate && isIndex(task.alias)) {
+                throw new IllegalStateException(task.alias + " is an index, not an alias: reindex with migrate to move it"
+                    + " behind an alias once");
+            }
+            Settings settings = createIndex(task);
+            created = true;
+            SearchIndexer.ShadowIndex shadow = searchIndexer.addShadowIndex(task.alias, task.index);
+            copy(task);
+            // writes the changes queued while the rows were read, so all their deletes are known
+            searchIndexer.flush();
+            removeDeleted(task, shadow.getDeletedIds());
+            if (task.failed.get() > 0) {
+                throw new IllegalStateException(task.failed.get() + " documents could not be indexed");
+            }
+            if (shadow.getFailed() > 0) {
+                throw new IllegalStateException(shadow.getFailed() + " changes could not be copied to " + task.index);
+            }
+            IndicesAdminClient indices = elasticsearchTemplate.getClient().admin().indices();
+            indices.prepareUpdateSettings(task.index)
+                .setSettings(Settings.settingsBuilder().put(REFRESH_INTERVAL, settings.get(REFRESH_INTERVAL, "1s")))
+                .get();
+            indices.prepareRefresh(task.index).get();
+            swapAlias(task, run.migrate);
+            task.status = Status.COMPLETED;
+            log.info("Rebuilt {} with {} documents into {}", task.alias, task.indexed.get(), task.index);
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild {}", task.alias, e);
+            task.error = e.getMessage();
+            task.status = Status.FAILED;
+            if (created) {
+                searchIndexer.removeShadowIndex(task.alias);
+                // waits for a bulk request that may still write to the shadow index
+                searchIndexer.flush();
+                deleteQuietly(task.index);
+            }
+        } finally {
+            searchIndexer.removeShadowIndex(task.alias);
+            run.finished();
+        }
+    }
+
+    private Settings createIndex(IndexTask task) {
+        Settings.Builder settings = Settings.settingsBuilder();
+        Setting setting = task.entityClass.getAnnotation(Setting.class);
+        if (Objects.nonNull(setting)) {
+            settings.loadFromSource(ElasticsearchTemplate.readFileFromClasspath(setting.settingPath()));
+        }
+        Settings configured = settings.build();
+
+        IndicesAdminClient indices = elasticsearchTemplate.getClient().admin().indices();
+        CreateIndexRequestBuilder request = indices.prepareCreate(task.index)
+            // refreshed once, when all documents are in
+            .setSettings(Settings.settingsBuilder().put(configured).put(REFRESH_INTERVAL, "-1"));
+        Mapping mapping = task.entityClass.getAnnotation(Mapping.class);
+        if (Objects.nonNull(mapping)) {
+            request.addMapping(task.type, ElasticsearchTemplate.readFileFromClasspath(mapping.mappingPath()));
+        } else {
+            currentMapping(task).ifPresent(source -> request.addMapping(task.type, source));
+        }
+        request.get();
+        return configured;
+    }
+
+    private Optional<String> currentMapping(IndexTask task) {
+        Client client = elasticsearchTemplate.getClient();
+        if (!client.admin().indices().prepareExists(task.alias).get().isExists()) {
+            return Optional.empty();
+        }
+        GetMappingsResponse response = client.admin().indices().prepareGetMappings(task.alias).setTypes(task.type).get();
+        Iterator<ImmutableOpenMap<String, MappingMetaData>> mappings = response.getMappings().valuesIt();
+        while (mappings.hasNext()) {
+            MappingMetaData mapping = mappings.next().get(task.type);
+            if (Objects.nonNull(mapping)) {
+                return Optional.of(mapping.source().string());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void copy(IndexTask task) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            task.total.set((Long) session.createQuery("select count(*) from " + task.entityName).uniqueResult());
+
+            int batchSize = applicationProperties.getSearch().getBatchSize();
+            ScrollableResults results = session.createQuery("from " + task.entityName)
+                .setFetchSize(applicationProperties.getSearch().getReindexFetchSize())
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                List<Object> batch = new ArrayList<>(batchSize);
+                while (results.next()) {
+                    batch.add(results.get(0));
+                    if (batch.size() >= batchSize) {
+                        write(task, batch);
+                        batch.clear();
+                        // the documents are written, nothing needs to stay in the session
+                        session.clear();
+                    }
+                }
+                write(task, batch);
+            } finally {
+                results.close();
+            }
+            return null;
+        });
+    }
+
+    private void write(IndexTask task, List<Object> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        Client client = elasticsearchTemplate.getClient();
+        BulkRequestBuilder bulkRequest = client.prepareBulk();
+        for (Object entity : entities) {
+            Object id = task.persistentEntity.getIdentifierAccessor(entity).getIdentifier();
+            try {
+                bulkRequest.add(client.prepareIndex(task.index, task.type, String.valueOf(id))
+                    // a change copied by the SearchIndexer is newer than the row that was read
+                    .setOpType(IndexRequest.OpType.CREATE)
+                    .setSource(entityMapper.mapToString(entity)));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not serialize " + entity + " for the search index", e);
+            }
+        }
+        BulkResponse response = bulkRequest.get();
+        long failed = 0;
+        if (response.hasFailures()) {
+            for (BulkItemResponse item : response.getItems()) {
+                if (item.isFailed() && item.getFailure().getStatus() != RestStatus.CONFLICT) {
+                    log.warn("Could not index {} {} into {}: {}", task.type, item.getId(), task.index, item.getFailureMessage());
+                    failed++;
+                }
+            }
+        }
+        task.failed.addAndGet(failed);
+        task.indexed.addAndGet(entities.size() - failed);
+        metricRegistry.meter(MetricRegistry.name(SearchReindexer.class, "documents")).mark(entities.size());
+    }
+
+    /**
+     * Removes the documents deleted while the index was built, which the cursor may have read before.
+     */
+    private void removeDeleted(IndexTask task, Set<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Client client = elasticsearchTemplate.getClient();
+        BulkRequestBuilder bulkRequest = client.prepareBulk();
+        ids.forEach(id -> bulkRequest.add(client.prepareDelete(task.index, task.type, id)));
+        BulkResponse response = bulkRequest.get();
+        long failed = 0;
+        long removed = 0;
+        for (BulkItemResponse item : response.getItems()) {
+            if (item.isFailed()) {
+                log.warn("Could not remove the deleted {} {} from {}: {}", task.type, item.getId(), task.index,
+                    item.getFailureMessage());
+                failed++;
+            } else if (item.getResponse() instanceof DeleteResponse && ((DeleteResponse) item.getResponse()).isFound()) {
+                removed++;
+            }
+        }
+        task.failed.addAndGet(failed);
+        task.indexed.addAndGet(-removed);
+        log.debug("Removed {} documents deleted while {} was built", removed, task.index);
+    }
+
+    /**
+     * Returns true if the name is a concrete index rather than an alias.
+     */
+    private boolean isIndex(String name) {
+        IndicesAdminClient indices = elasticsearchTemplate.getClient().admin().indices();
+        return indices.prepareGetAliases(name).get().getAliases().isEmpty() && indices.prepareExists(name).get().isExists();
+    }
+
+    /**
+     * Points the alias to the new index, in a single request that also removes it from the previous indices, which
+     * are dropped only then.
+     */
+    private void swapAlias(IndexTask task, boolean migrate) {
+        IndicesAdminClient indices = elasticsearchTemplate.getClient().admin().indices();
+        List<String> previous = new ArrayList<>();
+        indices.prepareGetAliases(task.alias).get().getAliases().keysIt().forEachRemaining(previous::add);
+        if (previous.isEmpty() && indices.prepareExists(task.alias).get().isExists()) {
+            if (!migrate) {
+                throw new IllegalStateException(task.alias + " became an index while it was rebuilt");
+            }
+            // the migration of the index created on startup, which has the name the alias needs
+            log.warn("Replacing the index {} with an alias to {}, search on it is unavailable meanwhile", task.alias,
+                task.index);
+            indices.prepareDelete(task.alias).get();
+            indices.prepareAliases().addAlias(task.index, task.alias).get();
+            return;
+        }
+        IndicesAliasesRequestBuilder request = indices.prepareAliases()
+            .addAlias(task.index, task.alias);
+        previous.forEach(index -> request.removeAlias(index, task.alias));
+        request.get();
+        if (!previous.isEmpty()) {
+            indices.prepareDelete(previous.toArray(new String[previous.size()])).get();
+        }
+    }
+
+    private void deleteQuietly(String index) {
+        try {
+            elasticsearchTemplate.deleteIndex(index);
+        } catch (RuntimeException e) {
+            log.warn("Could not drop the index {}: {}", index, e.getMessage());
+        }
+    }
+
+    private static final class Run {
+
+        private final ZonedDateTime startedTime = ZonedDateTime.now();
+
+        private final long startedNanos = System.nanoTime();
+
+        private final List<IndexTask> tasks;
+
+        private final boolean migrate;
+
+        private final AtomicInteger remaining;
+
+        private volatile ZonedDateTime completedTime;
+
+        private Run(List<IndexTask> tasks, boolean migrate) {
+            this.tasks = tasks;
+            this.migrate = migrate;
+            this.remaining = new AtomicInteger(tasks.size());
+            if (tasks.isEmpty()) {
+                completedTime = startedTime;
+            }
+        }
+
+        private boolean isRunning() {
+            return Objects.isNull(completedTime);
+        }
+
+        private void finished() {
+            if (remaining.decrementAndGet() == 0) {
+                completedTime = ZonedDateTime.now();
+            }
+        }
+
+        private ReindexStatusDTO toStatus() {
+            ReindexStatusDTO status = new ReindexStatusDTO();
+            status.setStartedTime(startedTime);
+            status.setCompletedTime(completedTime);
+            long total = 0;
+            long indexed = 0;
+            boolean failed = false;
+            for (IndexTask task : tasks) {
+                IndexStatusDTO indexStatus = task.toStatus();
+                status.getIndices().add(indexStatus);
+                total += indexStatus.getTotal();
+                indexed += indexStatus.getIndexed();
+                failed |= indexStatus.getStatus() == Status.FAILED;
+            }
+            status.setTotal(total);
+            status.setIndexed(indexed);
+
+            double seconds = (System.nanoTime() - startedNanos) / 1e9;
+            double rate = seconds > 0 ? indexed / seconds : 0;
+            status.setDocumentsPerSecond(rate);
+            if (isRunning()) {
+                status.setStatus(Status.RUNNING);
+                // the totals of the indices that are not started yet are unknown, so is the eta
+                boolean counted = tasks.stream().allMatch(task -> task.status != Status.IDLE);
+                if (counted && rate > 0) {
+                    status.setEtaSeconds((long) Math.ceil(Math.max(0, total - indexed) / rate));
+                }
+            } else {
+                status.setStatus(failed ? Status.FAILED : Status.COMPLETED);
+                status.setEtaSeconds(0L);
+            }
+            return status;
+        }
+    }
+
+    private static final class IndexTask {
+
+        private final Class<?> entityClass;
+
+        private final String entityName;
+
+        private final ElasticsearchPersistentEntity<?> persistentEntity;
+
+        private final String alias;
+
+        private final String type;
+
+        private final String index;
+
+        private final AtomicLong total = new AtomicLong();
+
+        private final AtomicLong indexed = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private volatile Status status = Status.IDLE;
+
+        private volatile String error;
+
+        private IndexTask(Class<?> entityClass, String entityName, ElasticsearchPersistentEntity<?> persistentEntity,
+                          String version) {
+            this.entityClass = entityClass;
+            this.entityName = entityName;
+            this.persistentEntity = persistentEntity;
+            this.alias = persistentEntity.getIndexName();
+            this.type = persistentEntity.getIndexType();
+            this.index = alias + "_" + version;
+        }
+
+        private IndexStatusDTO toStatus() {
+            IndexStatusDTO indexStatus = new IndexStatusDTO();
+            indexStatus.setAlias(alias);
+            indexStatus.setIndex(index);
+            indexStatus.setStatus(status);
+            indexStatus.setTotal(total.get());
+            indexStatus.setIndexed(indexed.get());
+            indexStatus.setFailed(failed.get());
+            indexStatus.setError(error);
+            return indexStatus;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.epam.bench.service.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.epam.bench.domain.BenchHistory;
+
+/**
+ * Computes the time an employee spent on bench from the bench intervals of the history.
+ * <p>
+ * Every bench history entry is a stint on bench from its created time to its valid to time. Only the latest
+ * entry can still be open: an earlier entry without a valid to time was superseded, and ends where the next entry
+ * starts. Releasing an employee closes the entry and flags it off bench, so the flag only tells an entry that was
+ * never on bench when it is not closed either. Intervals may overlap; overlapping time is counted once.
+ * The result is split in the seconds of the intervals that are over, which do not change any more, and
+ * the start of the interval that is still open, so the days can be read at any time without the history.
+ */
+public final class BenchDaysCalculator {
+
+    private static final long SECONDS_PER_DAY = Duration.ofDays(1).getSeconds();
+
+    private static final Comparator<Entry> BY_CREATED_TIME = Comparator.comparing(Entry::getCreatedTime)
+        .thenComparing(Entry::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private BenchDaysCalculator() {
+    }
+
+    /**
+     * Aggregates the bench intervals of the bench history of an employee.
+     *
+     * @param histories the whole bench history of the employee
+     * @return the aggregated bench time
+     */
+    public static BenchDays aggregate(Collection<BenchHistory> histories) {
+        return aggregateEntries(histories.stream()
+            .filter(history -> Objects.nonNull(history.getCreatedTime()))
+            .map(history -> new Entry(history.getId(), history.getCreatedTime().toInstant(),
+                Objects.isNull(history.getValidTo()) ? null : history.getValidTo().toInstant(),
+                Boolean.TRUE.equals(history.isBench())))
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Aggregates the bench history entries of an employee.
+     *
+     * @param entries the whole bench history of the employee, in any order
+     * @return the aggregated bench time
+     */
+    public static BenchDays aggregateEntries(Collection<Entry> entries) {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(BY_CREATED_TIME);
+        List<Interval> intervals = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            Entry entry = sorted.get(i);
+            if (!entry.isBench() && Objects.isNull(entry.getValidTo())) {
+                continue;
+            }
+            Instant end = entry.getValidTo();
+            if (Objects.isNull(end) && i + 1 < sorted.size()) {
+                end = sorted.get(i + 1).getCreatedTime();
+            }
+            intervals.add(new Interval(entry.getCreatedTime(), end));
+        }
+        return aggregateIntervals(intervals);
+    }
+
+    /**
+     * Aggregates bench intervals, every open interval running until now.
+     *
+     * @param intervals the bench intervals, in any order
+     * @return the aggregated bench time
+     */
+    public static BenchDays aggregateIntervals(Collection<Interval> intervals) {
+        // all open intervals run until now, so together they are open since the earliest of them
+        Instant openSince = intervals.stream()
+            .filter(Interval::isOpen)
+            .map(Interval::getStart)
+            .min(Comparator.naturalOrder())
+            .orElse(null);
+
+        // the closed time after openSince is covered by the open interval already
+        List<Interval> closed = new ArrayList<>();
+        for (Interval interval : intervals) {
+            if (interval.isOpen()) {
+                continue;
+            }
+            Instant end = Objects.isNull(openSince) || interval.getEnd().isBefore(openSince) ? interval.getEnd() : openSince;
+            if (interval.getStart().isBefore(end)) {
+                closed.add(new Interval(interval.getStart(), end));
+            }
+        }
+        closed.sort(Comparator.comparing(Interval::getStart));
+
+        long closedSeconds = 0;
+        Instant unionStart = null;
+        Instant unionEnd = null;
+        for (Interval interval : closed) {
+            if (Objects.nonNull(unionEnd) && !interval.getStart().isAfter(unionEnd)) {
+                if (interval.getEnd().isAfter(unionEnd)) {
+                    unionEnd = interval.getEnd();
+                }
+                continue;
+            }
+            if (Objects.nonNull(unionEnd)) {
+                closedSeconds += Duration.between(unionStart, unionEnd).getSeconds();
+            }
+            unionStart = interval.getStart();
+            unionEnd = interval.getEnd();
+        }
+        if (Objects.nonNull(unionEnd)) {
+            closedSeconds += Duration.between(unionStart, unionEnd).getSeconds();
+        }
+        return new BenchDays(closedSeconds, openSince);
+    }
+
+    /**
+     * The whole days on bench at a time.
+     *
+     * @param closedSeconds the seconds of the bench intervals that are over
+     * @param openSince the start of the open bench interval, or null
+     * @param now the time to count to
+     * @return the days on bench
+     */
+    public static int daysOnBench(long closedSeconds, ZonedDateTime openSince, ZonedDateTime now) {
+        long seconds = closedSeconds;
+        if (Objects.nonNull(openSince) && openSince.isBefore(now)) {
+            seconds += Duration.between(openSince, now).getSeconds();
+        }
+        return (int) (seconds / SECONDS_PER_DAY);
+    }
+
+    /**
+     * A bench history entry.
+     */
+    public static final class Entry {
+
+        private final Long id;
+
+        private final Instant createdTime;
+
+        private final Instant validTo;
+
+        private final boolean bench;
+
+        public Entry(Long id, Instant createdTime, Instant validTo, boolean bench) {
+            this.id = id;
+            this.createdTime = Objects.requireNonNull(createdTime);
+            this.validTo = validTo;
+            this.bench = bench;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Instant getCreatedTime() {
+            return createdTime;
+        }
+
+        public Instant getValidTo() {
+            return validTo;
+        }
+
+        public boolean isBench() {
+            return bench;
+        }
+    }
+
+    /**
+     * A bench interval, open when it has no end.
+     */
+    public static final class Interval {
+
+        private final Instant start;
+
+        private final Instant end;
+
+        public Interval(Instant start, Instant end) {
+            this.start = Objects.requireNonNull(start);
+            this.end = end;
+        }
+
+        public Instant getStart() {
+            return start;
+        }
+
+        public Instant getEnd() {
+            return end;
+        }
+
+        public boolean isOpen() {
+            return Objects.isNull(end);
+        }
+    }
+
+    /**
+     * Aggregated bench time.
+     */
+    public static final class BenchDays {
+
+        private final long closedSeconds;
+
+        private final Instant openSince;
+
+        private BenchDays(long closedSeconds, Instant openSince) {
+            this.closedSeconds = closedSeconds;
+            this.openSince = openSince;
+        }
+
+        /**
+         * The seconds on bench of the intervals that are over, without the time the open interval covers.
+         */
+        public long getClosedSeconds() {
+            return closedSeconds;
+        }
+
+        /**
+         * The start of the open bench interval, or null when the employee is not on bench.
+         */
+        public Instant getOpenSince() {
+            return openSince;
+        }
+    }
+}
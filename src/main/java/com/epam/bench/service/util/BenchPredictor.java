@@ -0,0 +1,125 @@
+package com.epam.bench.service.util;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.epam.bench.domain.BenchPredictions;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.PredictionDetails;
+import com.epam.bench.domain.ProbationStatus;
+import com.epam.bench.domain.Project;
+import com.epam.bench.domain.WorkloadInterval;
+
+/**
+ * Predicts the bench movements of an employee within a horizon from the workload timeline and the statuses.
+ * <ul>
+ * <li>removed from project: a current workload ends, by its interval or by the end date of the project</li>
+ * <li>assigned to project: a workload starts</li>
+ * <li>maternity leave: the production status of the employee is a maternity leave</li>
+ * <li>ready to bench: the employee is off the bench and every current workload ends, with none starting</li>
+ * <li>ready to production: the employee is on the bench and gets a workload or finishes the probation</li>
+ * </ul>
+ * The details carry the date of the first of these changes and the project it concerns.
+ */
+public final class BenchPredictor {
+
+    private static final String MATERNITY_LEAVE = "maternity";
+
+    private BenchPredictor() {
+    }
+
+    /**
+     * Predicts the bench movements of an employee.
+     *
+     * @param employee the employee, with its probation and production status
+     * @param intervals the workload intervals of the employee overlapping the horizon
+     * @param today the first day of the horizon
+     * @param horizon the last day of the horizon
+     * @return the prediction with its details, not persisted
+     */
+    public static BenchPredictions predict(Employee employee, Collection<WorkloadInterval> intervals,
+                                           LocalDate today, LocalDate horizon) {
+        List<WorkloadInterval> current = intervals.stream()
+            .filter(interval -> !interval.getValidFrom().isAfter(today) && isValidAfter(end(interval), today))
+            .collect(Collectors.toList());
+        List<WorkloadInterval> ending = current.stream()
+            .filter(interval -> Objects.nonNull(end(interval)) && !end(interval).isAfter(horizon))
+            .sorted(Comparator.comparing(BenchPredictor::end))
+            .collect(Collectors.toList());
+        List<WorkloadInterval> starting = intervals.stream()
+            .filter(interval -> interval.getValidFrom().isAfter(today) && !interval.getValidFrom().isAfter(horizon))
+            .sorted(Comparator.comparing(WorkloadInterval::getValidFrom))
+            .collect(Collectors.toList());
+        Optional<LocalDate> probationEnd = probationEnd(employee.getProbation())
+            .filter(date -> !date.isBefore(today) && !date.isAfter(horizon));
+
+        boolean active = Boolean.TRUE.equals(employee.isActive());
+        boolean onBench = Boolean.TRUE.equals(employee.isOnBench());
+        boolean maternityLeave = isMaternityLeave(employee);
+        boolean removedFromProject = !ending.isEmpty();
+        boolean assignedToProject = !starting.isEmpty();
+        boolean readyToBench = active && !onBench && !maternityLeave
+            && !current.isEmpty() && ending.size() == current.size() && !assignedToProject;
+        boolean readyToProduction = active && onBench && !maternityLeave
+            && (assignedToProject || probationEnd.isPresent());
+
+        PredictionDetails details = new PredictionDetails()
+            .active(active)
+            .maternityLeave(maternityLeave)
+            .removedFromProject(removedFromProject)
+            .assignedToProject(assignedToProject);
+        if (readyToProduction && assignedToProject) {
+            details.date(starting.get(0).getValidFrom()).project(starting.get(0).getProject());
+        } else if (removedFromProject) {
+            details.date(end(ending.get(0))).project(ending.get(0).getProject());
+        } else if (assignedToProject) {
+            details.date(starting.get(0).getValidFrom()).project(starting.get(0).getProject());
+        } else {
+            details.date(probationEnd.orElse(null));
+        }
+
+        return new BenchPredictions()
+            .employee(employee)
+            .readyToBench(readyToBench)
+            .readyToProduction(readyToProduction)
+            .ignored(false)
+            .details(details);
+    }
+
+    /**
+     * The first day the employee is off the workload, null when the workload has no end.
+     */
+    private static LocalDate end(WorkloadInterval interval) {
+        LocalDate end = interval.getValidTo();
+        Project project = interval.getProject();
+        if (Objects.nonNull(project) && Objects.nonNull(project.getEndDate())) {
+            LocalDate projectEnd = project.getEndDate().plusDays(1);
+            if (Objects.isNull(end) || projectEnd.isBefore(end)) {
+                end = projectEnd;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isValidAfter(LocalDate end, LocalDate date) {
+        return Objects.isNull(end) || end.isAfter(date);
+    }
+
+    private static Optional<LocalDate> probationEnd(ProbationStatus probation) {
+        return Optional.ofNullable(probation)
+            .map(ProbationStatus::getEndDate)
+            .map(ZonedDateTime::toLocalDate);
+    }
+
+    private static boolean isMaternityLeave(Employee employee) {
+        return Objects.nonNull(employee.getProductionStatus())
+            && Objects.nonNull(employee.getProductionStatus().getName())
+            && employee.getProductionStatus().getName().toLowerCase().contains(MATERNITY_LEAVE);
+    }
+}
@@ -0,0 +1,17 @@
+package com.epam.bench.service.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a keyset page is requested with a cursor or a sort order that cannot be used.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid pagination cursor")
+public class InvalidCursorException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,17 @@
+package com.epam.bench.service.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a unit is placed under itself or under one of its own sub-units.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "A unit cannot be placed under its own subtree")
+public class InvalidUnitParentException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidUnitParentException(String message) {
+        super(message);
+    }
+}
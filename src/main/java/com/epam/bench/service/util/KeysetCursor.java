@@ -0,0 +1,91 @@
+package com.epam.bench.service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a keyset page: the sort property and direction, and the sort key and id of the last row
+ * of the previous page.
+ *
+ * <p>
+ * Clients see it only as an opaque, URL-safe token.
+ */
+public final class KeysetCursor {
+
+    public static final String ID = "id";
+
+    private static final String SEPARATOR = "\n";
+
+    private final String property;
+
+    private final boolean ascending;
+
+    private final String value;
+
+    private final Long id;
+
+    public KeysetCursor(String property, boolean ascending, String value, Long id) {
+        this.property = property;
+        this.ascending = ascending;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @throws InvalidCursorException if the token was not produced by this class
+     */
+    public static KeysetCursor decode(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor " + token, e);
+        }
+        if (parts.length != 3 || parts[0].length() < 2 || (parts[0].charAt(0) != 'A' && parts[0].charAt(0) != 'D')) {
+            throw new InvalidCursorException("Malformed cursor " + token, null);
+        }
+        try {
+            String value = parts[2].isEmpty() ? null : parts[2].substring(1);
+            return new KeysetCursor(parts[0].substring(1), parts[0].charAt(0) == 'A', value, Long.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Malformed cursor " + token, e);
+        }
+    }
+
+    public String encode() {
+        // the value is prefixed so that an empty string can be told apart from null
+        String raw = (ascending ? "A" : "D") + property + SEPARATOR + id + SEPARATOR + (value == null ? "" : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * @return the sort key of the last row in its string form, or null if it was null or the sort is by id
+     */
+    public String getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "property='" + property + "'" +
+            ", ascending='" + ascending + "'" +
+            ", value='" + value + "'" +
+            ", id='" + id + "'" +
+            '}';
+    }
+}
@@ -1,7 +1,10 @@
 package com.epam.bench.service.util;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Date;
 import java.util.Locale;
 
 import javax.inject.Inject;
@@ -29,6 +32,29 @@ public final class ServiceUtils {
         return date.format(formatter_yyyyMMdd);
     }
 
+    /**
+     * Reads a date selected by a scalar query, which may come back as a JDBC date.
+     */
+    public static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if (value instanceof Date) {
+            return ((Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    /**
+     * Reads a date and time selected by a scalar query, which may come back as a JDBC timestamp.
+     */
+    public static ZonedDateTime toZonedDateTime(Object value) {
+        if (value instanceof Date) {
+            return ZonedDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault());
+        }
+        return (ZonedDateTime) value;
+    }
+
     public static void validateParameterNotBlank(String string) {
         if (StringUtils.isBlank(string)) {
             throw new IllegalArgumentException(messageSource.getMessage(STANDART_MESSAGE, null, Locale.ENGLISH));
@@ -0,0 +1,157 @@
+package com.epam.bench.service.util;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Read-through cache with a time to live, a bounded size and single-flight loading.
+ * <p>
+ * Concurrent misses for one key wait for a single call of the loader instead of calling it
+ * themselves. A null value is cached as well, with its own (usually shorter) time to live, so
+ * lookups of unknown keys do not hit the source every time. A failed load is not cached.
+ * <p>
+ * Hits, misses, coalesced lookups and evictions are reported as meters under the given name.
+ */
+public class SingleFlightCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final long timeToLiveMillis;
+
+    private final long nullTimeToLiveMillis;
+
+    private final int maxSize;
+
+    private final Meter hits;
+
+    private final Meter misses;
+
+    private final Meter coalesced;
+
+    private final Meter evictions;
+
+    public SingleFlightCache(String name, long timeToLiveMillis, long nullTimeToLiveMillis, int maxSize,
+                             MetricRegistry metricRegistry) {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.nullTimeToLiveMillis = nullTimeToLiveMillis;
+        this.maxSize = maxSize;
+        this.hits = metricRegistry.meter(MetricRegistry.name(name, "hits"));
+        this.misses = metricRegistry.meter(MetricRegistry.name(name, "misses"));
+        this.coalesced = metricRegistry.meter(MetricRegistry.name(name, "coalesced"));
+        this.evictions = metricRegistry.meter(MetricRegistry.name(name, "evictions"));
+        String sizeName = MetricRegistry.name(name, "size");
+        metricRegistry.remove(sizeName);
+        metricRegistry.register(sizeName, (Gauge<Integer>) entries::size);
+    }
+
+    /**
+     * Returns the cached value of the key, loading it if it is missing or expired.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long now = System.currentTimeMillis();
+        Entry<V>[] created = new Entry[1];
+        Entry<V> entry = entries.compute(key, (k, current) -> {
+            if (current != null && !current.isExpired(now)) {
+                return current;
+            }
+            created[0] = new Entry<>();
+            return created[0];
+        });
+
+        if (entry != created[0]) {
+            if (entry.value.isDone()) {
+                hits.mark();
+            } else {
+                coalesced.mark();
+            }
+            return await(entry);
+        }
+
+        misses.mark();
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+        entry.expiresAt = System.currentTimeMillis() + (value == null ? nullTimeToLiveMillis : timeToLiveMillis);
+        entry.value.complete(value);
+        evictIfNeeded();
+        return value;
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private V await(Entry<V> entry) {
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops expired entries once the cache is over its size, then the entries closest to expiry
+     * until a tenth of the room is free again, so the sweep does not run on every insert.
+     */
+    private void evictIfNeeded() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().isExpired(now);
+            if (expired) {
+                evictions.mark();
+            }
+            return expired;
+        });
+        int excess = entries.size() - maxSize * 9 / 10;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                .filter(entry -> entry.getValue().value.isDone())
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .forEach(key -> {
+                    entries.remove(key);
+                    evictions.mark();
+                });
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> value = new CompletableFuture<>();
+
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
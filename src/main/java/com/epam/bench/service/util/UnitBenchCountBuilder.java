@@ -0,0 +1,43 @@
+package com.epam.bench.service.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts the employees on bench of every unit from the bench states, the employee units and the unit_closure
+ * table, which has to be complete. Replaces the counts kept up to date as the employees change.
+ */
+public final class UnitBenchCountBuilder {
+
+    private static final String DELETE_ALL = "delete from unit_bench_count";
+
+    private static final String INSERT_COUNTS = "insert into unit_bench_count (unit_id, own_count, total_count)"
+        + " select unit.id,"
+        + " (select count(*) from employee employee join bench_state state on state.employee_id = employee.id"
+        + " where state.on_bench = ? and employee.unit_id = unit.id),"
+        + " (select count(*) from unit_closure closure join employee employee on employee.unit_id = closure.descendant_id"
+        + " join bench_state state on state.employee_id = employee.id"
+        + " where state.on_bench = ? and closure.ancestor_id = unit.id)"
+        + " from unit unit";
+
+    private UnitBenchCountBuilder() {
+    }
+
+    /**
+     * Replaces the content of the count table.
+     *
+     * @return the number of units counted
+     */
+    public static int rebuild(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(DELETE_ALL);
+        }
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_COUNTS)) {
+            insert.setBoolean(1, true);
+            insert.setBoolean(2, true);
+            return insert.executeUpdate();
+        }
+    }
+}
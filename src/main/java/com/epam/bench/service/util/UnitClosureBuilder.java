@@ -0,0 +1,64 @@
+package com.epam.bench.service.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Builds the unit_closure table from the parents of the units, one level at a time: the paths of depth
+ * n + 1 are the paths of depth n extended by a child. Every level is a single set based statement, so a
+ * tree takes as many statements as it is deep, whatever its number of units.
+ */
+public final class UnitClosureBuilder {
+
+    private static final String DELETE_ALL = "delete from unit_closure";
+
+    private static final String COUNT_UNITS = "select count(*) from unit";
+
+    private static final String INSERT_SELVES = "insert into unit_closure (ancestor_id, descendant_id, depth)"
+        + " select id, id, 0 from unit";
+
+    private static final String INSERT_LEVEL = "insert into unit_closure (ancestor_id, descendant_id, depth)"
+        + " select closure.ancestor_id, child.id, closure.depth + 1"
+        + " from unit_closure closure join unit child on child.parent_id = closure.descendant_id"
+        + " where closure.depth = ?";
+
+    private UnitClosureBuilder() {
+    }
+
+    /**
+     * Replaces the content of the closure table.
+     *
+     * @return the number of rows written
+     * @throws SQLException if the parents of the units form a cycle
+     */
+    public static int rebuild(Connection connection) throws SQLException {
+        long units;
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(DELETE_ALL);
+            try (ResultSet count = statement.executeQuery(COUNT_UNITS)) {
+                count.next();
+                units = count.getLong(1);
+            }
+        }
+        int written;
+        try (Statement statement = connection.createStatement()) {
+            written = statement.executeUpdate(INSERT_SELVES);
+        }
+        try (PreparedStatement insertLevel = connection.prepareStatement(INSERT_LEVEL)) {
+            int depth = 0;
+            int inserted;
+            do {
+                if (depth > units) {
+                    throw new SQLException("The parents of the units form a cycle");
+                }
+                insertLevel.setInt(1, depth++);
+                inserted = insertLevel.executeUpdate();
+                written += inserted;
+            } while (inserted > 0);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,161 @@
+package com.epam.bench.service.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the workload intervals of an employee from the project history.
+ * <p>
+ * A project history row allocates the employee from its date until the next row of the same project and role.
+ * Rows without a date, without a workload, or replaced on their own date allocate nothing.
+ */
+public final class WorkloadTimelineCalculator {
+
+    private static final Comparator<Entry<?>> BY_DATE = Comparator.<Entry<?>, LocalDate>comparing(Entry::getDate)
+        .thenComparing(Entry::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private WorkloadTimelineCalculator() {
+    }
+
+    /**
+     * The key of the project and role of a project history row, the UPSA id of each or else its own id.
+     *
+     * @param projectUpsaId the UPSA id of the project, or null
+     * @param projectId the id of the project, or null when the row has no project
+     * @param roleUpsaId the UPSA id of the role, or null
+     * @param roleId the id of the role, or null when the row has no role
+     * @return the key
+     */
+    public static String workloadKey(String projectUpsaId, Long projectId, String roleUpsaId, Long roleId) {
+        return key(projectUpsaId, projectId) + '|' + key(roleUpsaId, roleId);
+    }
+
+    /**
+     * Computes the workload intervals of the project history of an employee.
+     *
+     * @param entries the whole project history of the employee, in any order
+     * @param <T> the project history rows
+     * @return the workload intervals
+     */
+    public static <T> List<Interval<T>> intervals(Collection<Entry<T>> entries) {
+        Map<String, List<Entry<T>>> entriesByKey = entries.stream()
+            .filter(entry -> Objects.nonNull(entry.getDate()))
+            .sorted(BY_DATE)
+            .collect(Collectors.groupingBy(Entry::getKey, LinkedHashMap::new, Collectors.toList()));
+
+        List<Interval<T>> intervals = new ArrayList<>();
+        for (List<Entry<T>> sameKey : entriesByKey.values()) {
+            for (int i = 0; i < sameKey.size(); i++) {
+                Entry<T> entry = sameKey.get(i);
+                LocalDate validTo = i + 1 < sameKey.size() ? sameKey.get(i + 1).getDate() : null;
+                if (Objects.isNull(entry.getWorkload()) || entry.getWorkload() <= 0 || entry.getDate().equals(validTo)) {
+                    continue;
+                }
+                intervals.add(new Interval<>(entry.getSource(), entry.getWorkload(), entry.getDate(), validTo));
+            }
+        }
+        return intervals;
+    }
+
+    private static String key(String upsaId, Long id) {
+        if (Objects.isNull(upsaId) && Objects.isNull(id)) {
+            return "";
+        }
+        return Objects.nonNull(upsaId) ? upsaId : "#" + id;
+    }
+
+    /**
+     * A project history row.
+     *
+     * @param <T> the row it stands for
+     */
+    public static final class Entry<T> {
+
+        private final T source;
+
+        private final Long id;
+
+        private final String key;
+
+        private final LocalDate date;
+
+        private final Integer workload;
+
+        public Entry(T source, Long id, String key, LocalDate date, Integer workload) {
+            this.source = source;
+            this.id = id;
+            this.key = Objects.requireNonNull(key);
+            this.date = date;
+            this.workload = workload;
+        }
+
+        public T getSource() {
+            return source;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public Integer getWorkload() {
+            return workload;
+        }
+    }
+
+    /**
+     * A workload interval, open when it has no valid to date.
+     *
+     * @param <T> the project history row it comes from
+     */
+    public static final class Interval<T> {
+
+        private final T source;
+
+        private final int workload;
+
+        private final LocalDate validFrom;
+
+        private final LocalDate validTo;
+
+        private Interval(T source, int workload, LocalDate validFrom, LocalDate validTo) {
+            this.source = source;
+            this.workload = workload;
+            this.validFrom = validFrom;
+            this.validTo = validTo;
+        }
+
+        public T getSource() {
+            return source;
+        }
+
+        public int getWorkload() {
+            return workload;
+        }
+
+        public LocalDate getValidFrom() {
+            return validFrom;
+        }
+
+        /**
+         * The first day the allocation is over, null while it lasts.
+         */
+        public LocalDate getValidTo() {
+            return validTo;
+        }
+    }
+}
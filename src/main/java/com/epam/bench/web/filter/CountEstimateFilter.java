@@ -0,0 +1,41 @@
+package com.epam.bench.web.filter;
+
+import com.epam.bench.repository.support.TotalCountCache;
+
+import javax.servlet.*;
+import java.io.IOException;
+
+/**
+ * Lets the paged requests with {@code estimateCount=true} fill {@code X-Total-Count} of very large tables
+ * from the table statistics instead of an exact count.
+ */
+public class CountEstimateFilter implements Filter {
+
+    public static final String ESTIMATE_COUNT_PARAMETER = "estimateCount";
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        // Nothing to initialize
+    }
+
+    @Override
+    public void destroy() {
+        // Nothing to destroy
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+
+        if (!Boolean.parseBoolean(request.getParameter(ESTIMATE_COUNT_PARAMETER))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        TotalCountCache.estimating(true);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TotalCountCache.estimating(false);
+        }
+    }
+}
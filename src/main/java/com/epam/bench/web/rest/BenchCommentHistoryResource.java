@@ -3,6 +3,8 @@ package com.epam.bench.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import com.epam.bench.domain.BenchCommentHistory;
 import com.epam.bench.service.BenchCommentHistoryService;
+import com.epam.bench.service.KeysetPaginationService;
+import com.epam.bench.service.dto.KeysetPage;
 import com.epam.bench.web.rest.util.HeaderUtil;
 import com.epam.bench.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
@@ -38,6 +40,9 @@ public class BenchCommentHistoryResource {
     @Inject
     private BenchCommentHistoryService benchCommentHistoryService;
 
+    @Inject
+    private KeysetPaginationService keysetPaginationService;
+
     /**
      * POST  /bench-comment-histories : Create a new benchCommentHistory.
      *
@@ -103,6 +108,29 @@ public class BenchCommentHistoryResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * GET  /bench-comment-histories?cursor= : get a page of the benchCommentHistories after the cursor of the previous page.
+     *
+     * @param cursor the cursor from the "next" link of the previous page, empty for the first page
+     * @param count whether to count all the benchCommentHistories for the X-Total-Count header
+     * @param pageable the page size and, for the first page, the sort order
+     * @return the ResponseEntity with status 200 (OK) and the list of benchCommentHistories in body
+     * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
+     */
+    @RequestMapping(value = "/bench-comment-histories",
+        method = RequestMethod.GET,
+        params = "cursor",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<BenchCommentHistory>> getBenchCommentHistoriesAfterCursor(@RequestParam String cursor,
+        @RequestParam(defaultValue = "false") boolean count, Pageable pageable)
+        throws URISyntaxException {
+        log.debug("REST request to get a keyset page of BenchCommentHistories after {}", cursor);
+        KeysetPage<BenchCommentHistory> page = keysetPaginationService.findPage(BenchCommentHistory.class, cursor, pageable, count);
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(page, "/api/bench-comment-histories");
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     /**
      * GET  /bench-comment-histories/:id : get the "id" benchCommentHistory.
      *
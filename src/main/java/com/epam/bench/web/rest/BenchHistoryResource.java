@@ -3,6 +3,8 @@ package com.epam.bench.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import com.epam.bench.domain.BenchHistory;
 import com.epam.bench.service.BenchHistoryService;
+import com.epam.bench.service.KeysetPaginationService;
+import com.epam.bench.service.dto.KeysetPage;
 import com.epam.bench.web.rest.util.HeaderUtil;
 import com.epam.bench.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
@@ -38,6 +40,9 @@ public class BenchHistoryResource {
     @Inject
     private BenchHistoryService benchHistoryService;
 
+    @Inject
+    private KeysetPaginationService keysetPaginationService;
+
     /**
      * POST  /bench-histories : Create a new benchHistory.
      *
@@ -103,6 +108,29 @@ public class BenchHistoryResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * GET  /bench-histories?cursor= : get a page of the benchHistories after the cursor of the previous page.
+     *
+     * @param cursor the cursor from the "next" link of the previous page, empty for the first page
+     * @param count whether to count all the benchHistories for the X-Total-Count header
+     * @param pageable the page size and, for the first page, the sort order
+     * @return the ResponseEntity with status 200 (OK) and the list of benchHistories in body
+     * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
+     */
+    @RequestMapping(value = "/bench-histories",
+        method = RequestMethod.GET,
+        params = "cursor",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<BenchHistory>> getBenchHistoriesAfterCursor(@RequestParam String cursor,
+        @RequestParam(defaultValue = "false") boolean count, Pageable pageable)
+        throws URISyntaxException {
+        log.debug("REST request to get a keyset page of BenchHistories after {}", cursor);
+        KeysetPage<BenchHistory> page = keysetPaginationService.findPage(BenchHistory.class, cursor, pageable, count);
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(page, "/api/bench-histories");
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     /**
      * GET  /bench-histories/:id : get the "id" benchHistory.
      *
@@ -3,6 +3,8 @@ package com.epam.bench.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import com.epam.bench.domain.BenchPredictions;
 import com.epam.bench.service.BenchPredictionsService;
+import com.epam.bench.service.KeysetPaginationService;
+import com.epam.bench.service.dto.KeysetPage;
 import com.epam.bench.web.rest.util.HeaderUtil;
 import com.epam.bench.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
@@ -38,6 +40,9 @@ public class BenchPredictionsResource {
     @Inject
     private BenchPredictionsService benchPredictionsService;
 
+    @Inject
+    private KeysetPaginationService keysetPaginationService;
+
     /**
      * POST  /bench-predictions : Create a new benchPredictions.
      *
@@ -103,6 +108,29 @@ public class BenchPredictionsResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * GET  /bench-predictions?cursor= : get a page of the benchPredictions after the cursor of the previous page.
+     *
+     * @param cursor the cursor from the "next" link of the previous page, empty for the first page
+     * @param count whether to count all the benchPredictions for the X-Total-Count header
+     * @param pageable the page size and, for the first page, the sort order
+     * @return the ResponseEntity with status 200 (OK) and the list of benchPredictions in body
+     * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
+     */
+    @RequestMapping(value = "/bench-predictions",
+        method = RequestMethod.GET,
+        params = "cursor",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<BenchPredictions>> getBenchPredictionsAfterCursor(@RequestParam String cursor,
+        @RequestParam(defaultValue = "false") boolean count, Pageable pageable)
+        throws URISyntaxException {
+        log.debug("REST request to get a keyset page of BenchPredictions after {}", cursor);
+        KeysetPage<BenchPredictions> page = keysetPaginationService.findPage(BenchPredictions.class, cursor, pageable, count);
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(page, "/api/bench-predictions");
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     /**
      * GET  /bench-predictions/:id : get the "id" benchPredictions.
      *
@@ -3,6 +3,8 @@ package com.epam.bench.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import com.epam.bench.domain.BillingConcept;
 import com.epam.bench.service.BillingConceptService;
+import com.epam.bench.service.KeysetPaginationService;
+import com.epam.bench.service.dto.KeysetPage;
 import com.epam.bench.web.rest.util.HeaderUtil;
 import com.epam.bench.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
@@ -38,6 +40,9 @@ public class BillingConceptResource {
     @Inject
     private BillingConceptService billingConceptService;
 
+    @Inject
+    private KeysetPaginationService keysetPaginationService;
+
     /**
      * POST  /billing-concepts : Create a new billingConcept.
      *
@@ -103,6 +108,29 @@ public class BillingConceptResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * GET  /billing-concepts?cursor= : get a page of the billingConcepts after the cursor of the previous page.
+     *
+     * @param cursor the cursor from the "next" link of the previous page, empty for the first page
+     * @param count whether to count all the billingConcepts for the X-Total-Count header
+     * @param pageable the page size and, for the first page, the sort order
+     * @return the ResponseEntity with status 200 (OK) and the list of billingConcepts in body
+     * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
+     */
+    @RequestMapping(value = "/billing-concepts",
+        method = RequestMethod.GET,
+        params = "cursor",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<BillingConcept>> getBillingConceptsAfterCursor(@RequestParam String cursor,
+        @RequestParam(defaultValue = "false") boolean count, Pageable pageable)
+        throws URISyntaxException {
+        log.debug("REST request to get a keyset page of BillingConcepts after {}", cursor);
+        KeysetPage<BillingConcept> page = keysetPaginationService.findPage(BillingConcept.class, cursor, pageable, count);
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(page, "/api/billing-concepts");
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     /**
      * GET  /billing-concepts/:id : get the "id" billingConcept.
      *
@@ -3,6 +3,8 @@ package com.epam.bench.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import com.epam.bench.domain.BillingType;
 import com.epam.bench.service.BillingTypeService;
+import com.epam.bench.service.KeysetPaginationService;
+import com.epam.bench.service.dto.KeysetPage;
 import com.epam.bench.web.rest.util.HeaderUtil;
 import com.epam.bench.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
@@ -38,6 +40,9 @@ public class BillingTypeResource {
     @Inject
     private BillingTypeService billingTypeService;
 
+    @Inject
+    private KeysetPaginationService keysetPaginationService;
+
     /**
      * POST  /billing-types : Create a new billingType.
      *
@@ -103,6 +108,29 @@ public class BillingTypeResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * GET  /billing-types?cursor= : get a page of the billingTypes after the cursor of the previous page.
+     *
+     * @param cursor the cursor from the "next" link of the previous page, empty for the first page
+     * @param count whether to count all the billingTypes for the X-Total-Count header
+     * @param pageable the page size and, for the first page, the sort order
+     * @return the ResponseEntity with status 200 (OK) and the list of billingTypes in body
+     * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
+     */
+    @RequestMapping(value = "/billing-types",
+        method = RequestMethod.GET,
+        params = "cursor",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<BillingType>> getBillingTypesAfterCursor(@RequestParam String cursor,
+        @RequestParam(defaultValue = "false") boolean count, Pageable pageable)
+        throws URISyntaxException {
+        log.debug("REST request to get a keyset page of BillingTypes after {}", cursor);
+        KeysetPage<BillingType> page = keysetPaginationService.findPage(BillingType.class, cursor, pageable, count);
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(page, "/api/billing-types");
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     /**
      * GET  /billing-types/:id : get the "id" billingType.
      *
@@ -0,0 +1,64 @@
+package com.epam.bench.web.rest;
+
+import com.epam.bench.service.dto.ReindexStatusDTO;
+import com.epam.bench.service.search.SearchReindexer;
+import com.epam.bench.web.rest.util.HeaderUtil;
+
+import com.codahale.metrics.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.inject.Inject;
+
+/**
+ * Controller for rebuilding the search indices.
+ */
+@RestController
+@RequestMapping(value = "/management", produces = MediaType.APPLICATION_JSON_VALUE)
+public class SearchReindexResource {
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexResource.class);
+
+    @Inject
+    private SearchReindexer searchReindexer;
+
+    /**
+     * POST  /reindex : rebuild all search indices in the background.
+     *
+     * @param migrate whether to move the indices created on startup behind an alias, once: search on them is
+     * briefly unavailable then. Without it, these indices are not rebuilt.
+     * @return the ResponseEntity with status 202 (Accepted) and the status of the reindex in body,
+     * or with status 409 (Conflict) if a reindex is already running
+     */
+    @RequestMapping(value = "/reindex",
+        method = RequestMethod.POST)
+    @Timed
+    public ResponseEntity<ReindexStatusDTO> reindex(@RequestParam(value = "migrate", defaultValue = "false") boolean migrate) {
+        log.debug("REST request to rebuild the search indices, migrate: {}", migrate);
+        return searchReindexer.reindex(migrate)
+            .map(status -> new ResponseEntity<>(status, HttpStatus.ACCEPTED))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT)
+                .headers(HeaderUtil.createFailureAlert("reindex", "reindexrunning", "A reindex is already running"))
+                .body(searchReindexer.getStatus()));
+    }
+
+    /**
+     * GET  /reindex : get the progress of the last reindex.
+     *
+     * @return the ResponseEntity with status 200 (OK) and the status of the reindex in body
+     */
+    @RequestMapping(value = "/reindex",
+        method = RequestMethod.GET)
+    @Timed
+    public ReindexStatusDTO getStatus() {
+        log.debug("REST request to get the status of the search reindex");
+        return searchReindexer.getStatus();
+    }
+}
@@ -4,6 +4,7 @@ import io.swagger.annotations.Api;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,13 +25,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.codahale.metrics.annotation.Timed;
 import com.epam.bench.facades.EmployeeFacade;
+import com.epam.bench.service.BenchForecastService;
+import com.epam.bench.service.dto.bench.BenchForecastDto;
 import com.epam.bench.service.dto.bench.CommentHistoryDto;
 import com.epam.bench.service.dto.bench.EmployeeDto;
 import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.dto.bench.ForecastGranularity;
 import com.epam.bench.service.dto.bench.form.UpdateEmployeeFormDto;
 import com.epam.bench.web.rest.util.HeaderUtil;
 import com.epam.bench.web.rest.util.PaginationUtil;
@@ -45,9 +50,36 @@ public class ChangesDtoResource {
 
     private final Logger log = LoggerFactory.getLogger(ChangesDtoResource.class);
 
+    private static final int MAX_FORECAST_DAYS = 366;
+
     @Inject
     private EmployeeFacade employeeFacade;
 
+    @Inject
+    private BenchForecastService benchForecastService;
 
-
+    /**
+     * GET  /forecast : get the projected size of the bench, by primary skill and location.
+     *
+     * @param periods the number of periods to forecast, a quarter of weeks by default
+     * @param granularity the length of the periods, DAY or WEEK
+     * @param unit the id of a unit, to forecast its bench and the bench of its sub-units only
+     * @return the ResponseEntity with status 200 (OK) and with body the forecast,
+     * or with status 400 (Bad Request) if the forecast is longer than a year
+     */
+    @RequestMapping(value = "/forecast",
+        method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<BenchForecastDto> getBenchForecast(@RequestParam(defaultValue = "13") int periods,
+                                                             @RequestParam(defaultValue = "WEEK") ForecastGranularity granularity,
+                                                             @RequestParam(required = false) Long unit) {
+        log.debug("REST request to forecast the bench for {} {} periods in Unit : {}", periods, granularity, unit);
+        if (periods < 1 || periods * granularity.getDays() > MAX_FORECAST_DAYS) {
+            return ResponseEntity.badRequest()
+                .headers(HeaderUtil.createFailureAlert("forecast", "invalidperiods", "The forecast must cover one day up to a year"))
+                .body(null);
+        }
+        return new ResponseEntity<>(benchForecastService.forecast(LocalDate.now(), periods, granularity, unit), HttpStatus.OK);
+    }
 }
@@ -3,12 +3,20 @@ package com.epam.bench.web.rest.dto;
 import io.swagger.annotations.Api;
 
 import com.codahale.metrics.annotation.Timed;
+import com.epam.bench.config.ApplicationProperties;
 import com.epam.bench.facades.EmployeeFacade;
+import com.epam.bench.service.BenchExportService;
+import com.epam.bench.service.UnitBenchCountService;
+import com.epam.bench.service.dto.bench.BulkBenchResultDto;
 import com.epam.bench.service.dto.bench.CommentHistoryDto;
+import com.epam.bench.service.dto.bench.EmployeeFacet;
 import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.dto.bench.FacetedEmployeesDto;
+import com.epam.bench.service.dto.bench.UnitBenchCountDto;
 import com.epam.bench.service.dto.bench.form.UpdateEmployeeFormDto;
 import com.epam.bench.service.EmployeeService;
 import com.epam.bench.service.dto.bench.EmployeeDto;
+import com.epam.bench.service.export.ExportFormat;
 import com.epam.bench.web.rest.util.HeaderUtil;
 import com.epam.bench.web.rest.util.PaginationUtil;
 
@@ -22,14 +30,29 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for managing Employee.
@@ -44,26 +67,90 @@ public class EmployeeDtoResource {
     @Inject
     private EmployeeFacade employeeFacade;
 
+    @Inject
+    private BenchExportService benchExportService;
+
+    @Inject
+    private UnitBenchCountService unitBenchCountService;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private ThreadPoolTaskExecutor upsaRequestExecutor;
+
+    private Executor upsaRequests;
+
+    @PostConstruct
+    public void init() {
+        upsaRequests = new DelegatingSecurityContextExecutor(upsaRequestExecutor);
+    }
+
     /**
      * POST  /employees : Create a new employee.
      *
      * @param upsaId the employee to create
-     * @return the ResponseEntity with status 201 (Created) and with body the new employee, or with status 400 (Bad Request) if the employee has already an ID
-     * @throws URISyntaxException if the Location URI syntax is incorrect
+     * @return the ResponseEntity with status 201 (Created) and with body the new employee, or with status 400 (Bad Request) if the employee has already an ID,
+     * completed off the request thread
      */
     @RequestMapping(value = "/employees/{upsaId}",
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<EmployeeDto> addEmployeeToBench(@NotBlank @RequestBody String upsaId) throws URISyntaxException {
+    public DeferredResult<ResponseEntity<EmployeeDto>> addEmployeeToBench(@NotBlank @RequestBody String upsaId) {
         log.debug("REST request to save Employee to bench : {}", upsaId);
-        if (employeeFacade.getBenchEmployee(upsaId) != null) {
-            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("employee", "idexists", "Employee already on bench")).body(null);
+        return completeWithUpsa(() -> {
+            if (employeeFacade.getBenchEmployee(upsaId).isPresent()) {
+                return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("employee", "idexists", "Employee already on bench")).body(null);
+            }
+            EmployeeDto result = employeeFacade.saveEmployeeToBench(upsaId);
+            return ResponseEntity.created(URI.create("/v1/employees/" + result.getUpsaId()))
+                .headers(HeaderUtil.createEntityCreationAlert("employee", result.getUpsaId()))
+                .body(result);
+        });
+    }
+
+    /**
+     * POST  /employees/bulk : put several employees on the bench at once.
+     *
+     * @param upsaIds the upsa ids of the employees
+     * @return the ResponseEntity with status 200 (OK) and with body the outcome of every employee, in the order of the
+     * request, completed off the request thread, or with status 400 (Bad Request) if there are no employees or too
+     * many of them
+     */
+    @RequestMapping(value = "/employees/bulk",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public DeferredResult<ResponseEntity<List<BulkBenchResultDto>>> addEmployeesToBench(@RequestBody List<String> upsaIds) {
+        log.debug("REST request to save {} Employees to bench", upsaIds.size());
+        if (!isValidBulk(upsaIds)) {
+            DeferredResult<ResponseEntity<List<BulkBenchResultDto>>> result = new DeferredResult<>();
+            result.setResult(ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("employee", "bulksize",
+                "From 1 to " + applicationProperties.getUpsa().getBulkMaxItems() + " employees expected")).body(null));
+            return result;
         }
-        EmployeeDto result = employeeFacade.saveEmployeeToBench(upsaId);
-        return ResponseEntity.created(new URI("/v1/employees/" + result.getUpsaId()))
-            .headers(HeaderUtil.createEntityCreationAlert("employee", result.getUpsaId()))
-            .body(result);
+        return completeWithUpsa(() -> new ResponseEntity<>(employeeFacade.saveEmployeesToBench(upsaIds), HttpStatus.OK));
+    }
+
+    /**
+     * POST  /employees/bulk-remove : remove several employees from the bench at once.
+     *
+     * @param upsaIds the upsa ids of the employees
+     * @return the ResponseEntity with status 200 (OK) and with body the outcome of every employee, in the order of the
+     * request, or with status 400 (Bad Request) if there are no employees or too many of them
+     */
+    @RequestMapping(value = "/employees/bulk-remove",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<BulkBenchResultDto>> deleteBenchEmployees(@RequestBody List<String> upsaIds) {
+        log.debug("REST request to delete {} Employees from bench", upsaIds.size());
+        if (!isValidBulk(upsaIds)) {
+            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("employee", "bulksize",
+                "From 1 to " + applicationProperties.getUpsa().getBulkMaxItems() + " employees expected")).body(null);
+        }
+        return new ResponseEntity<>(employeeFacade.removeEmployeesFromBench(upsaIds), HttpStatus.OK);
     }
 
     /**
@@ -112,21 +199,99 @@ public class EmployeeDtoResource {
      * GET  /employees/search : get all employees that feat the search query.
      *
      * @param query the search query information
-     * @return the ResponseEntity with status 200 (OK) and the list of employees in body
-     * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
+     * @return the ResponseEntity with status 200 (OK) and the list of employees in body, completed off the request thread
      */
     @RequestMapping(value = "/employees/search",
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<EmployeeSimpleViewDto>> searchEmployeesFromUpsa(String query)
-        throws URISyntaxException {
+    public DeferredResult<ResponseEntity<List<EmployeeSimpleViewDto>>> searchEmployeesFromUpsa(String query) {
         log.debug("REST request to get a page of EmployeeDtos");
-        List<EmployeeSimpleViewDto> simpleViewDtoList = employeeFacade.suggestEmployees(query);
-        if (CollectionUtils.isNotEmpty(simpleViewDtoList)) {
-            return new ResponseEntity<>(simpleViewDtoList, HttpStatus.OK);
+        return completeWithUpsa(() -> {
+            List<EmployeeSimpleViewDto> simpleViewDtoList = employeeFacade.suggestEmployees(query);
+            if (CollectionUtils.isNotEmpty(simpleViewDtoList)) {
+                return new ResponseEntity<>(simpleViewDtoList, HttpStatus.OK);
+            }
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        });
+    }
+
+    /**
+     * GET  /employees/facets : search the bench employees by facets.
+     *
+     * @param query the text the name, email or UPSA id of the employees start with
+     * @param skill the primary skills to filter by
+     * @param location the locations to filter by
+     * @param unit the units to filter by
+     * @param englishLevel the English levels to filter by
+     * @param probability the probabilities to filter by
+     * @param unitSubtree the id of a unit, to search its employees and the employees of its sub-units only
+     * @param pageable the pagination information
+     * @return the ResponseEntity with status 200 (OK) and the page of employees with the counts of every facet in body
+     */
+    @RequestMapping(value = "/employees/facets",
+        method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<FacetedEmployeesDto> searchBenchEmployees(@RequestParam(required = false) String query,
+                                                                    @RequestParam(required = false) List<String> skill,
+                                                                    @RequestParam(required = false) List<String> location,
+                                                                    @RequestParam(required = false) List<String> unit,
+                                                                    @RequestParam(required = false) List<String> englishLevel,
+                                                                    @RequestParam(required = false) List<String> probability,
+                                                                    @RequestParam(required = false) Long unitSubtree,
+                                                                    Pageable pageable) {
+        log.debug("REST request to search bench employees by facets for query {}", query);
+        Map<EmployeeFacet, List<String>> filters = new EnumMap<>(EmployeeFacet.class);
+        filters.put(EmployeeFacet.SKILL, skill);
+        filters.put(EmployeeFacet.LOCATION, location);
+        filters.put(EmployeeFacet.UNIT, unit);
+        filters.put(EmployeeFacet.ENGLISH_LEVEL, englishLevel);
+        filters.put(EmployeeFacet.PROBABILITY, probability);
+        return new ResponseEntity<>(employeeFacade.searchBenchEmployees(query, filters, unitSubtree, pageable), HttpStatus.OK);
+    }
+
+    /**
+     * GET  /units/bench-counts : get the unit tree with the number of employees on bench of every unit.
+     *
+     * @return the ResponseEntity with status 200 (OK) and the root units, with their sub-units, in body
+     */
+    @RequestMapping(value = "/units/bench-counts",
+        method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<UnitBenchCountDto>> getUnitBenchCounts() {
+        log.debug("REST request to get the bench counts of the unit tree");
+        return new ResponseEntity<>(unitBenchCountService.findTree(), HttpStatus.OK);
+    }
+
+    /**
+     * GET  /employees/export : export all the employees as a file, streamed while it is written.
+     *
+     * @param format the format of the file, CSV or XLSX
+     * @param gzip whether to compress the response
+     * @param response the response the file is written to
+     * @throws IOException if the response could not be written
+     */
+    @RequestMapping(value = "/employees/export",
+        method = RequestMethod.GET)
+    @Timed
+    public void exportBenchEmployees(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                     @RequestParam(defaultValue = "false") boolean gzip,
+                                     HttpServletResponse response) throws IOException {
+        log.debug("REST request to export the bench as {}", format);
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"bench-" + LocalDate.now() + "." + format.getExtension() + "\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream());
+            benchExportService.export(format, out);
+            out.finish();
+        } else {
+            benchExportService.export(format, response.getOutputStream());
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        response.flushBuffer();
     }
 
     /**
@@ -185,5 +350,26 @@ public class EmployeeDtoResource {
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert("employee", upsaId)).build();
     }
 
+    /**
+     * Runs a call that waits on UPSA on the UPSA request executor, with the security context of the request, so the
+     * server worker thread is released right away. A full executor fails the request, see
+     * {@link com.epam.bench.web.rest.errors.ExceptionTranslator}.
+     */
+    private <T> DeferredResult<T> completeWithUpsa(Supplier<T> call) {
+        DeferredResult<T> result = new DeferredResult<>(applicationProperties.getUpsa().getRequests().getTimeoutMillis());
+        CompletableFuture.supplyAsync(call, upsaRequests).whenComplete((value, failure) -> {
+            if (Objects.isNull(failure)) {
+                result.setResult(value);
+            } else {
+                result.setErrorResult(failure instanceof CompletionException ? failure.getCause() : failure);
+            }
+        });
+        return result;
+    }
+
+    private boolean isValidBulk(List<String> upsaIds) {
+        return !upsaIds.isEmpty() && upsaIds.size() <= applicationProperties.getUpsa().getBulkMaxItems();
+    }
+
 
 }
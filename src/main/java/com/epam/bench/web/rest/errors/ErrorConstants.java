@@ -6,6 +6,7 @@ public final class ErrorConstants {
     public static final String ERR_ACCESS_DENIED = "error.accessDenied";
     public static final String ERR_VALIDATION = "error.validation";
     public static final String ERR_METHOD_NOT_SUPPORTED = "error.methodNotSupported";
+    public static final String ERR_SERVICE_UNAVAILABLE = "error.serviceUnavailable";
     public static final String ERR_INTERNAL_SERVER_ERROR = "error.internalServerError";
 
     private ErrorConstants() {
@@ -1,6 +1,7 @@
 package com.epam.bench.web.rest.errors;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.dao.ConcurrencyFailureException;
@@ -14,6 +15,8 @@ import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
+import com.epam.bench.service.integration.UpsaUnavailableException;
+
 /**
  * Controller advice to translate the server side exceptions to client-friendly json structures.
  */
@@ -68,6 +71,13 @@ public class ExceptionTranslator {
         return new ErrorVM(ErrorConstants.ERR_METHOD_NOT_SUPPORTED, exception.getMessage());
     }
 
+    @ExceptionHandler({RejectedExecutionException.class, UpsaUnavailableException.class})
+    @ResponseBody
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorVM processServiceUnavailableException(RuntimeException exception) {
+        return new ErrorVM(ErrorConstants.ERR_SERVICE_UNAVAILABLE, exception.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorVM> processRuntimeException(Exception ex) {
         BodyBuilder builder;
@@ -1,5 +1,6 @@
 package com.epam.bench.web.rest.util;
 
+import com.epam.bench.service.dto.KeysetPage;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -12,6 +13,10 @@ import java.net.URISyntaxException;
  * <p>
  * Pagination uses the same principles as the <a href="https://developer.github.com/v3/#pagination">Github API</a>,
  * and follow <a href="http://tools.ietf.org/html/rfc5988">RFC 5988 (Link header)</a>.
+ *
+ * <p>
+ * Keyset pages link to the next page by cursor instead of page number; the total count is only sent when
+ * it was asked for.
  */
 public final class PaginationUtil {
 
@@ -69,4 +74,24 @@ public final class PaginationUtil {
         headers.add(HttpHeaders.LINK, link);
         return headers;
     }
+
+    public static HttpHeaders generateKeysetPaginationHttpHeaders(KeysetPage<?> page, String baseUrl)
+        throws URISyntaxException {
+
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getTotalElements() != null) {
+            headers.add("X-Total-Count", "" + page.getTotalElements());
+        }
+        String link = "";
+        if (page.hasNext()) {
+            link = "<" + generateKeysetUri(baseUrl, page.getNextCursor(), page.getSize()) + ">; rel=\"next\",";
+        }
+        link += "<" + generateKeysetUri(baseUrl, "", page.getSize()) + ">; rel=\"first\"";
+        headers.add(HttpHeaders.LINK, link);
+        return headers;
+    }
+
+    private static String generateKeysetUri(String baseUrl, String cursor, int size) throws URISyntaxException {
+        return UriComponentsBuilder.fromUriString(baseUrl).queryParam("cursor", cursor).queryParam("size", size).toUriString();
+    }
 }
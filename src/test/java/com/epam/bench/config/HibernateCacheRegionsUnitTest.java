@@ -0,0 +1,72 @@
+package com.epam.bench.config;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the second level cache regions of the ApplicationProperties.
+ *
+ * @see ApplicationProperties.HibernateCache
+ */
+public class HibernateCacheRegionsUnitTest {
+
+    private ApplicationProperties.HibernateCache regions;
+
+    private CacheManager cacheManager;
+
+    @Before
+    public void setup() {
+        regions = new ApplicationProperties().getHibernateCache();
+        regions.setReferenceEntities(Arrays.asList("Location", "PrimarySkill"));
+        regions.setHistoryEntities(Arrays.asList("BenchHistory"));
+        regions.getReference().setMaxEntriesLocalHeap(100);
+        regions.getHistory().setMaxEntriesLocalHeap(10);
+        cacheManager = new CacheManager(new Configuration().name("hibernate-cache-regions-test"));
+    }
+
+    @After
+    public void tearDown() {
+        cacheManager.shutdown();
+    }
+
+    @Test
+    public void picksTheRegionOfAnEntity() {
+        assertThat(regions.regionOf("Location")).isSameAs(regions.getReference());
+        assertThat(regions.regionOf("BenchHistory")).isSameAs(regions.getHistory());
+        assertThat(regions.regionOf("Employee")).isSameAs(regions.getDefaults());
+    }
+
+    @Test
+    public void historyBurstDoesNotEvictReferenceData() {
+        Cache locations = cache("com.epam.bench.domain.Location", regions.regionOf("Location"));
+        Cache histories = cache("com.epam.bench.domain.BenchHistory", regions.regionOf("BenchHistory"));
+        for (long id = 0; id < 50; id++) {
+            locations.put(new Element(id, "location-" + id));
+        }
+
+        for (long id = 0; id < 1000; id++) {
+            histories.put(new Element(id, "history-" + id));
+        }
+
+        assertThat(locations.getSize()).isEqualTo(50);
+        assertThat(histories.getSize()).isLessThanOrEqualTo(10);
+        assertThat(histories.getStatistics().cacheEvictedCount()).isGreaterThan(0);
+    }
+
+    private Cache cache(String name, ApplicationProperties.HibernateCache.Region region) {
+        Cache cache = new Cache(new CacheConfiguration(name, (int) region.getMaxEntriesLocalHeap())
+            .timeToLiveSeconds(region.getTimeToLiveSeconds()));
+        cacheManager.addCache(cache);
+        return cache;
+    }
+}
@@ -0,0 +1,49 @@
+package com.epam.bench.config.liquibase;
+
+import liquibase.change.Change;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.util.Objects;
+
+/**
+ * Utility class for testing the data migrations of the Liquibase changelogs.
+ */
+public final class LiquibaseTestUtil {
+
+    private LiquibaseTestUtil() {
+    }
+
+    /**
+     * Runs the changes of a change set again on the connection, without committing, so a data migration can be
+     * tested on the rows written by the test.
+     *
+     * @param connection the connection of the test transaction
+     * @param changeLogFile the classpath location of the changelog
+     * @param changeSetId the id of the change set
+     * @throws LiquibaseException if the changelog cannot be read or a change fails
+     */
+    public static void runChangeSet(Connection connection, String changeLogFile, String changeSetId)
+        throws LiquibaseException {
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        ResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor();
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor)
+            .parse(changeLogFile, new ChangeLogParameters(database), resourceAccessor);
+        ChangeSet changeSet = changeLog.getChangeSet(changeLogFile, "jhipster", changeSetId);
+        if (Objects.isNull(changeSet)) {
+            throw new IllegalArgumentException("No change set " + changeSetId + " in " + changeLogFile);
+        }
+        for (Change change : changeSet.getChanges()) {
+            database.execute(change.generateStatements(database), null);
+        }
+    }
+}
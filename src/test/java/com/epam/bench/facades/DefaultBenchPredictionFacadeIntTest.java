@@ -0,0 +1,161 @@
+package com.epam.bench.facades;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.BenchPredictions;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.JobWatermark;
+import com.epam.bench.domain.Project;
+import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.domain.ProjectRole;
+import com.epam.bench.repository.BenchPredictionsRepository;
+import com.epam.bench.service.JobWatermarkService;
+import com.epam.bench.service.ProjectHistoryService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the BenchPredictionFacade.
+ *
+ * @see BenchPredictionFacade
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class DefaultBenchPredictionFacadeIntTest {
+
+    private static final String JOB_NAME = "bench-prediction";
+
+    @Inject
+    private BenchPredictionFacade benchPredictionFacade;
+
+    @Inject
+    private JobWatermarkService jobWatermarkService;
+
+    @Inject
+    private ProjectHistoryService projectHistoryService;
+
+    @Inject
+    private BenchPredictionsRepository benchPredictionsRepository;
+
+    @Inject
+    private EntityManager em;
+
+    private Employee leaving;
+
+    private Employee staying;
+
+    private Employee idle;
+
+    @Before
+    public void setup() {
+        leaving = employee("prediction-leaving");
+        staying = employee("prediction-staying");
+        idle = employee("prediction-idle");
+
+        LocalDate today = LocalDate.now();
+        projectHistoryService.save(Arrays.asList(
+            workload(leaving, "ending", today.minusMonths(3), today.plusDays(10)),
+            workload(staying, "lasting", today.minusMonths(3), today.plusYears(1))));
+        em.flush();
+    }
+
+    @Test
+    public void assertThatEmployeesLeavingTheirProjectsAreReadyToBench() {
+        long predicted = benchPredictionFacade.predictBench();
+
+        assertThat(predicted).isGreaterThanOrEqualTo(3);
+        BenchPredictions leavingPrediction = prediction(leaving);
+        assertThat(leavingPrediction.isReadyToBench()).isTrue();
+        assertThat(leavingPrediction.getDetails().isRemovedFromProject()).isTrue();
+        assertThat(leavingPrediction.getDetails().getDate()).isEqualTo(LocalDate.now().plusDays(11));
+        assertThat(leavingPrediction.getDetails().getProject().getName()).isEqualTo("ending");
+
+        assertThat(prediction(staying).isReadyToBench()).isFalse();
+        assertThat(prediction(staying).getDetails().isRemovedFromProject()).isFalse();
+        assertThat(prediction(idle).isReadyToBench()).isFalse();
+
+        JobWatermark watermark = jobWatermarkService.findByName(JOB_NAME);
+        assertThat(watermark.isRunning()).isFalse();
+        assertThat(watermark.getPosition()).isGreaterThanOrEqualTo(idle.getId());
+    }
+
+    @Test
+    public void assertThatPredictionsAreReplacedKeepingTheIgnoredFlag() {
+        benchPredictionFacade.predictBench();
+        prediction(leaving).setIgnored(true);
+        em.flush();
+
+        benchPredictionFacade.predictBench();
+
+        BenchPredictions leavingPrediction = prediction(leaving);
+        assertThat(leavingPrediction.isIgnored()).isTrue();
+        assertThat(leavingPrediction.isReadyToBench()).isTrue();
+    }
+
+    @Test
+    public void assertThatInterruptedRunIsResumed() {
+        jobWatermarkService.start(JOB_NAME);
+        jobWatermarkService.advance(JOB_NAME, staying.getId(), 2);
+
+        benchPredictionFacade.predictBench();
+
+        assertThat(benchPredictionsRepository.findByEmployeeIn(Arrays.asList(leaving, staying))).isEmpty();
+        assertThat(benchPredictionsRepository.findByEmployeeIn(Arrays.asList(idle))).hasSize(1);
+    }
+
+    @Test
+    public void assertThatRunLeasedToAnotherNodeIsResumedOnlyOnceTheLeaseExpires() {
+        jobWatermarkService.start(JOB_NAME);
+        jobWatermarkService.advance(JOB_NAME, staying.getId(), 2);
+        JobWatermark watermark = jobWatermarkService.findByName(JOB_NAME);
+        watermark.setLeaseOwner("other-node");
+        watermark.setLeaseUntil(ZonedDateTime.now().plusHours(1));
+        em.flush();
+
+        assertThat(benchPredictionFacade.predictBench()).isZero();
+        assertThat(benchPredictionsRepository.findByEmployeeIn(Arrays.asList(idle))).isEmpty();
+
+        watermark.setLeaseUntil(ZonedDateTime.now().minusMinutes(1));
+        em.flush();
+
+        benchPredictionFacade.predictBench();
+
+        assertThat(benchPredictionsRepository.findByEmployeeIn(Arrays.asList(leaving, staying))).isEmpty();
+        assertThat(benchPredictionsRepository.findByEmployeeIn(Arrays.asList(idle))).hasSize(1);
+        assertThat(jobWatermarkService.findByName(JOB_NAME).isRunning()).isFalse();
+    }
+
+    private BenchPredictions prediction(Employee employee) {
+        List<BenchPredictions> predictions = benchPredictionsRepository.findByEmployeeIn(Arrays.asList(employee));
+        assertThat(predictions).hasSize(1);
+        return predictions.get(0);
+    }
+
+    private Employee employee(String upsaId) {
+        Employee employee = new Employee().upsaId(upsaId).email(upsaId + "@epam.com").active(true);
+        em.persist(employee);
+        return employee;
+    }
+
+    private ProjectHistory workload(Employee employee, String name, LocalDate from, LocalDate projectEnd) {
+        Project project = new Project().upsaId(name).name(name).endDate(projectEnd);
+        ProjectRole role = new ProjectRole().upsaId("developer").name("Developer");
+        em.persist(project);
+        em.persist(role);
+        return new ProjectHistory().employee(employee).project(project).role(role).date(from).workload(100);
+    }
+}
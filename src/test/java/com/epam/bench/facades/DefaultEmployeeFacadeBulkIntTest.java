@@ -0,0 +1,258 @@
+package com.epam.bench.facades;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.LanguageLevel;
+import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.facades.integration.UpsaFacade;
+import com.epam.bench.service.EmployeeService;
+import com.epam.bench.service.dto.bench.BulkBenchResultDto;
+import com.epam.bench.service.dto.bench.BulkBenchStatus;
+import com.epam.bench.service.dto.bench.EmployeeDto;
+import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.integration.UpsaUnavailableException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for putting employees on the bench, and taking them off, with the EmployeeFacade.
+ *
+ * @see EmployeeFacade
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class DefaultEmployeeFacadeBulkIntTest {
+
+    private static final long UPSA_LATENCY_MILLIS = 50;
+
+    @Inject
+    private EmployeeFacade employeeFacade;
+
+    @Inject
+    private BenchHistoryFacade benchHistoryFacade;
+
+    @Inject
+    private EmployeeService employeeService;
+
+    @Inject
+    private UpsaFacade upsaFacade;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private EntityManager em;
+
+    private final StubUpsaFacade stubUpsaFacade = new StubUpsaFacade();
+
+    private long requestDeadlineMillis;
+
+    @Before
+    public void setup() {
+        requestDeadlineMillis = applicationProperties.getUpsa().getRequestDeadlineMillis();
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(employeeFacade), "upsaFacade", stubUpsaFacade);
+        // the bench history entries are written for the current user
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    @After
+    public void restore() {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(employeeFacade), "upsaFacade", upsaFacade);
+        SecurityContextHolder.clearContext();
+        applicationProperties.getUpsa().setRequestDeadlineMillis(requestDeadlineMillis);
+    }
+
+    @Test
+    public void assertThatUpsaCallsOfOneEmployeeRunAtTheSameTime() {
+        stubUpsaFacade.employees.put("bulk0", upsaEmployee("bulk0"));
+        stubUpsaFacade.latencyMillis = UPSA_LATENCY_MILLIS;
+
+        EmployeeDto employee = employeeFacade.saveEmployeeToBench("bulk0");
+
+        assertThat(employee.getUpsaId()).isEqualTo("bulk0");
+        // the employee and its workloads
+        assertThat(stubUpsaFacade.maxInFlight.get()).isEqualTo(2);
+        em.flush();
+        em.clear();
+        assertThat(employeeFacade.isEmployeeOnBench(employeeService.findByUpsaId("bulk0"))).isTrue();
+    }
+
+    @Test
+    public void assertThatSlowUpsaFailsTheRequestAtTheDeadline() {
+        stubUpsaFacade.employees.put("bulk0", upsaEmployee("bulk0"));
+        stubUpsaFacade.latencyMillis = 2000;
+        applicationProperties.getUpsa().setRequestDeadlineMillis(100);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> employeeFacade.saveEmployeeToBench("bulk0")).isInstanceOf(UpsaUnavailableException.class);
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(stubUpsaFacade.latencyMillis);
+        assertThat(employeeService.findByUpsaId("bulk0")).isNull();
+    }
+
+    @Test
+    public void assertThatEveryEmployeeHasItsOwnOutcome() {
+        persistEmployee("bulk0");
+        benchHistoryFacade.createNewEntry(persistEmployee("bulk1"));
+        stubUpsaFacade.employees.put("bulk2", upsaEmployee("bulk2"));
+        stubUpsaFacade.failing.add("bulk4");
+
+        List<BulkBenchResultDto> results = employeeFacade.saveEmployeesToBench(
+            Arrays.asList("bulk0", "bulk1", "bulk2", "bulk3", "bulk4", "bulk0", " "));
+
+        assertThat(results).extracting(BulkBenchResultDto::getUpsaId)
+            .containsExactly("bulk0", "bulk1", "bulk2", "bulk3", "bulk4", " ");
+        assertThat(results).extracting(BulkBenchResultDto::getStatus).containsExactly(BulkBenchStatus.ADDED,
+            BulkBenchStatus.ALREADY_ON_BENCH, BulkBenchStatus.ADDED, BulkBenchStatus.NOT_FOUND, BulkBenchStatus.FAILED,
+            BulkBenchStatus.FAILED);
+        assertThat(results.get(2).getEmployee().getUpsaId()).isEqualTo("bulk2");
+        // known employees are not fetched from UPSA
+        assertThat(stubUpsaFacade.requested).doesNotContain("bulk0", "bulk1");
+
+        em.flush();
+        em.clear();
+        assertThat(employeeFacade.isEmployeeOnBench(employeeService.findByUpsaId("bulk0"))).isTrue();
+        assertThat(employeeFacade.isEmployeeOnBench(employeeService.findByUpsaId("bulk2"))).isTrue();
+        assertThat(employeeService.findByUpsaId("bulk3")).isNull();
+    }
+
+    @Test
+    public void assertThatUpsaIsCalledConcurrentlyWithinTheParallelism() {
+        int parallelism = applicationProperties.getUpsa().getBulkParallelism();
+        List<String> upsaIds = new ArrayList<>();
+        for (int i = 0; i < parallelism * 2; i++) {
+            upsaIds.add("bulk" + i);
+            stubUpsaFacade.employees.put("bulk" + i, upsaEmployee("bulk" + i));
+        }
+        stubUpsaFacade.latencyMillis = UPSA_LATENCY_MILLIS;
+
+        long start = System.nanoTime();
+        List<BulkBenchResultDto> results = employeeFacade.saveEmployeesToBench(upsaIds);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(results).extracting(BulkBenchResultDto::getStatus).containsOnly(BulkBenchStatus.ADDED);
+        assertThat(stubUpsaFacade.maxInFlight.get()).isGreaterThan(1).isLessThanOrEqualTo(parallelism);
+        // two calls per employee, one after the other they would take this long
+        assertThat(elapsedMillis).isLessThan(upsaIds.size() * 2 * UPSA_LATENCY_MILLIS);
+    }
+
+    @Test
+    public void assertThatRemovalReportsEveryEmployee() {
+        benchHistoryFacade.createNewEntry(persistEmployee("bulk0"));
+        persistEmployee("bulk1");
+
+        List<BulkBenchResultDto> results = employeeFacade.removeEmployeesFromBench(
+            Arrays.asList("bulk0", "bulk1", "bulk2"));
+
+        assertThat(results).extracting(BulkBenchResultDto::getStatus).containsExactly(BulkBenchStatus.REMOVED,
+            BulkBenchStatus.NOT_ON_BENCH, BulkBenchStatus.NOT_FOUND);
+        em.flush();
+        em.clear();
+        assertThat(employeeFacade.isEmployeeOnBench(employeeService.findByUpsaId("bulk0"))).isFalse();
+    }
+
+    private Employee persistEmployee(String upsaId) {
+        Employee employee = upsaEmployee(upsaId);
+        em.persist(employee);
+        em.flush();
+        return employee;
+    }
+
+    private Employee upsaEmployee(String upsaId) {
+        return new Employee()
+            .upsaId(upsaId)
+            .email(upsaId + "@epam.com")
+            .fullName("Employee " + upsaId)
+            .active(true);
+    }
+
+    private static class StubUpsaFacade implements UpsaFacade {
+
+        private final Map<String, Employee> employees = new ConcurrentHashMap<>();
+
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+
+        private final List<String> requested = Collections.synchronizedList(new ArrayList<>());
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private volatile long latencyMillis;
+
+        @Override
+        public Optional<Employee> getEmployee(String upsaId) {
+            requested.add(upsaId);
+            call(upsaId);
+            return Optional.ofNullable(employees.get(upsaId));
+        }
+
+        @Override
+        public Map<String, Employee> getEmployees(Collection<String> upsaIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public LanguageLevel getEnglishLevelAssessment(String upsaId) {
+            return null;
+        }
+
+        @Override
+        public Set<ProjectHistory> getEmployeeWorkloads(String upsaId) {
+            call(upsaId);
+            return Collections.emptySet();
+        }
+
+        @Override
+        public List<EmployeeSimpleViewDto> getSuggestedEmployees(String query) {
+            return Collections.emptyList();
+        }
+
+        private void call(String upsaId) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (latencyMillis > 0) {
+                    Thread.sleep(latencyMillis);
+                }
+                if (failing.contains(upsaId)) {
+                    throw new UpsaUnavailableException("UPSA is not available");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.epam.bench.facades;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.BenchHistory;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.JobFunction;
+import com.epam.bench.domain.LanguageLevel;
+import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.service.dto.bench.EmployeeDto;
+
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the bench listing of the EmployeeFacade.
+ *
+ * @see EmployeeFacade
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class DefaultEmployeeFacadeIntTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Inject
+    private EmployeeFacade employeeFacade;
+
+    @Inject
+    private EntityManager em;
+
+    @Test
+    public void assertThatBenchListingQueryCountDoesNotDependOnPageSize() {
+        createEmployees(0, 5);
+        long smallPageStatements = countStatementsOfListing();
+
+        createEmployees(5, 40);
+        long largePageStatements = countStatementsOfListing();
+
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+    }
+
+    @Test
+    public void assertThatBenchListingPopulatesReferencesAndDaysOnBench() {
+        createEmployees(0, 3);
+        em.clear();
+
+        Page<EmployeeDto> page = employeeFacade.findAll(new PageRequest(0, PAGE_SIZE));
+
+        assertThat(page.getContent()).hasSize(3);
+        for (EmployeeDto employeeDto : page.getContent()) {
+            assertThat(employeeDto.getSkill()).startsWith("skill");
+            assertThat(employeeDto.getTitle().getFullTitle()).startsWith("function");
+            assertThat(employeeDto.getLanguageLevel().getSpeaking()).isEqualTo("B2");
+            assertThat(employeeDto.getDaysOnBench()).isEqualTo(3);
+        }
+    }
+
+    private long countStatementsOfListing() {
+        em.flush();
+        em.clear();
+        Statistics statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.clear();
+        Page<EmployeeDto> page = employeeFacade.findAll(new PageRequest(0, PAGE_SIZE));
+        assertThat(page.getContent()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createEmployees(int from, int to) {
+        for (int i = from; i < to; i++) {
+            LanguageLevel englishLevel = new LanguageLevel().language("English").speaking("B2").writing("B1");
+            PrimarySkill primarySkill = new PrimarySkill().upsaId("skill-" + i).name("skill " + i);
+            JobFunction jobFunction = new JobFunction().upsaId("function-" + i).name("function " + i).prefix("F" + i);
+            em.persist(englishLevel);
+            em.persist(primarySkill);
+            em.persist(jobFunction);
+
+            Employee employee = new Employee()
+                .upsaId("upsa-" + i)
+                .email("employee" + i + "@localhost")
+                .fullName("Employee " + i)
+                .active(true)
+                .englishLevel(englishLevel)
+                .primarySkill(primarySkill)
+                .jobFunction(jobFunction);
+            em.persist(employee);
+
+            BenchHistory history = new BenchHistory()
+                .bench(true)
+                .createdTime(ZonedDateTime.now().minusDays(3).minusHours(1))
+                .employee(employee);
+            em.persist(history);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.epam.bench.facades;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.JobWatermark;
+import com.epam.bench.domain.LanguageLevel;
+import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.facades.integration.UpsaFacade;
+import com.epam.bench.service.JobWatermarkService;
+import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the EmployeeSyncFacade.
+ *
+ * @see EmployeeSyncFacade
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class DefaultEmployeeSyncFacadeIntTest {
+
+    private static final String JOB_NAME = "employee-sync";
+
+    @Inject
+    private EmployeeSyncFacade employeeSyncFacade;
+
+    @Inject
+    private JobWatermarkService jobWatermarkService;
+
+    @Inject
+    private UpsaFacade upsaFacade;
+
+    @Inject
+    private EntityManager em;
+
+    private final StubUpsaFacade stubUpsaFacade = new StubUpsaFacade();
+
+    private List<Employee> employees;
+
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(employeeSyncFacade, "upsaFacade", stubUpsaFacade);
+        employees = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Employee employee = new Employee()
+                .upsaId("sync" + i)
+                .email("sync" + i + "@epam.com")
+                .fullName("Employee " + i)
+                .active(true);
+            em.persist(employee);
+            employees.add(employee);
+        }
+        em.flush();
+    }
+
+    @After
+    public void restore() {
+        ReflectionTestUtils.setField(employeeSyncFacade, "upsaFacade", upsaFacade);
+    }
+
+    @Test
+    public void assertThatOnlyChangedEmployeesAreUpdated() {
+        stubUpsaFacade.employees.put("sync0", upsaEmployee("sync0", "Renamed Employee"));
+        stubUpsaFacade.employees.put("sync1", upsaEmployee("sync1", "Employee 1"));
+
+        long changed = employeeSyncFacade.synchronizeEmployees();
+
+        assertThat(changed).isEqualTo(1);
+        em.flush();
+        em.clear();
+        assertThat(em.find(Employee.class, employees.get(0).getId()).getFullName()).isEqualTo("Renamed Employee");
+        assertThat(em.find(Employee.class, employees.get(2).getId()).getFullName()).isEqualTo("Employee 2");
+
+        JobWatermark watermark = jobWatermarkService.findByName(JOB_NAME);
+        assertThat(watermark.isRunning()).isFalse();
+        assertThat(watermark.getPosition()).isGreaterThanOrEqualTo(employees.get(2).getId());
+        assertThat(watermark.getProcessed()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    public void assertThatInterruptedRunIsResumed() {
+        jobWatermarkService.start(JOB_NAME);
+        jobWatermarkService.advance(JOB_NAME, employees.get(1).getId(), 2);
+
+        employeeSyncFacade.synchronizeEmployees();
+
+        assertThat(stubUpsaFacade.requested).contains("sync2").doesNotContain("sync0", "sync1");
+    }
+
+    @Test
+    public void assertThatRunLeasedToAnotherNodeIsSkipped() {
+        leaseToAnotherNode(ZonedDateTime.now().plusHours(1));
+
+        long changed = employeeSyncFacade.synchronizeEmployees();
+
+        assertThat(changed).isZero();
+        assertThat(stubUpsaFacade.requested).isEmpty();
+        assertThat(jobWatermarkService.findByName(JOB_NAME).getLeaseOwner()).isEqualTo("other-node");
+    }
+
+    @Test
+    public void assertThatRunWithAnExpiredLeaseIsTakenOver() {
+        leaseToAnotherNode(ZonedDateTime.now().minusMinutes(1));
+
+        employeeSyncFacade.synchronizeEmployees();
+
+        assertThat(stubUpsaFacade.requested).contains("sync2").doesNotContain("sync0", "sync1");
+        JobWatermark watermark = jobWatermarkService.findByName(JOB_NAME);
+        assertThat(watermark.getLeaseOwner()).isNotEqualTo("other-node");
+        assertThat(watermark.isRunning()).isFalse();
+    }
+
+    /**
+     * Leaves a run of another node, half way through the employees.
+     */
+    private void leaseToAnotherNode(ZonedDateTime leaseUntil) {
+        jobWatermarkService.start(JOB_NAME);
+        jobWatermarkService.advance(JOB_NAME, employees.get(1).getId(), 2);
+        JobWatermark watermark = jobWatermarkService.findByName(JOB_NAME);
+        watermark.setLeaseOwner("other-node");
+        watermark.setLeaseUntil(leaseUntil);
+        em.flush();
+    }
+
+    private Employee upsaEmployee(String upsaId, String fullName) {
+        return new Employee()
+            .upsaId(upsaId)
+            .email(upsaId + "@epam.com")
+            .fullName(fullName)
+            .active(true);
+    }
+
+    private static class StubUpsaFacade implements UpsaFacade {
+
+        private final Map<String, Employee> employees = new HashMap<>();
+
+        private final List<String> requested = new ArrayList<>();
+
+        @Override
+        public Optional<Employee> getEmployee(String upsaId) {
+            requested.add(upsaId);
+            return Optional.ofNullable(employees.get(upsaId));
+        }
+
+        @Override
+        public Map<String, Employee> getEmployees(Collection<String> upsaIds) {
+            Map<String, Employee> result = new HashMap<>();
+            for (String upsaId : upsaIds) {
+                requested.add(upsaId);
+                if (employees.containsKey(upsaId)) {
+                    result.put(upsaId, employees.get(upsaId));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public LanguageLevel getEnglishLevelAssessment(String upsaId) {
+            return null;
+        }
+
+        @Override
+        public Set<ProjectHistory> getEmployeeWorkloads(String upsaId) {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public List<EmployeeSimpleViewDto> getSuggestedEmployees(String query) {
+            return Collections.emptyList();
+        }
+    }
+}
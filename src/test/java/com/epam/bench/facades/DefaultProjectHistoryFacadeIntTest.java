@@ -0,0 +1,163 @@
+package com.epam.bench.facades;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.LanguageLevel;
+import com.epam.bench.domain.Project;
+import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.domain.ProjectRole;
+import com.epam.bench.facades.integration.UpsaFacade;
+import com.epam.bench.service.ProjectHistoryService;
+import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the workload synchronization of the ProjectHistoryFacade.
+ *
+ * @see ProjectHistoryFacade
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class DefaultProjectHistoryFacadeIntTest {
+
+    private static final LocalDate DATE = LocalDate.of(2016, 11, 1);
+
+    @Inject
+    private ProjectHistoryFacade projectHistoryFacade;
+
+    @Inject
+    private ProjectHistoryService projectHistoryService;
+
+    @Inject
+    private UpsaFacade upsaFacade;
+
+    @Inject
+    private EntityManager em;
+
+    private final Set<ProjectHistory> upsaWorkloads = new HashSet<>();
+
+    private Employee employee;
+
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(projectHistoryFacade), "upsaFacade", new StubUpsaFacade());
+        employee = new Employee().upsaId("workload").email("workload@epam.com").active(true);
+        em.persist(employee);
+        em.persist(workload(1, 50).employee(employee));
+        em.persist(workload(2, 100).employee(employee));
+        em.persist(workload(3, 20).employee(employee));
+        em.flush();
+    }
+
+    @After
+    public void restore() {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(projectHistoryFacade), "upsaFacade", upsaFacade);
+    }
+
+    @Test
+    public void assertThatOnlyChangedWorkloadsAreWritten() {
+        upsaWorkloads.add(upsaWorkload(1, 50));
+        upsaWorkloads.add(upsaWorkload(2, 80));
+        upsaWorkloads.add(upsaWorkload(4, 10));
+
+        Set<ProjectHistory> result = projectHistoryFacade.getAndUpdateEmployeeWorkload(employee);
+        em.flush();
+        em.clear();
+
+        assertThat(result).hasSize(3);
+        List<ProjectHistory> stored = projectHistoryService.findByEmployee(employee);
+        assertThat(stored).extracting(workload -> workload.getProject().getUpsaId())
+            .containsOnly("project1", "project2", "project4");
+        assertThat(stored).filteredOn(workload -> "project2".equals(workload.getProject().getUpsaId()))
+            .extracting(ProjectHistory::getWorkload).containsExactly(80);
+    }
+
+    @Test
+    public void assertThatUnchangedWorkloadsAreNotWritten() {
+        upsaWorkloads.add(upsaWorkload(1, 50));
+        upsaWorkloads.add(upsaWorkload(2, 100));
+        upsaWorkloads.add(upsaWorkload(3, 20));
+        Statistics statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.clear();
+
+        Set<ProjectHistory> result = projectHistoryFacade.getAndUpdateEmployeeWorkload(employee);
+        em.flush();
+
+        assertThat(result).hasSize(3);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(projectHistoryService.findByEmployee(employee)).hasSize(3);
+    }
+
+    private ProjectHistory workload(int index, int workload) {
+        Project project = new Project().upsaId("project" + index).name("Project " + index);
+        em.persist(project);
+        ProjectRole role = new ProjectRole().upsaId("role" + index).name("Role " + index);
+        em.persist(role);
+        return new ProjectHistory().date(DATE).workload(workload).project(project).role(role);
+    }
+
+    private ProjectHistory upsaWorkload(int index, int workload) {
+        Project project = em.createQuery("select p from Project p where p.upsaId = :upsaId", Project.class)
+            .setParameter("upsaId", "project" + index).getResultList().stream().findFirst().orElse(null);
+        if (project == null) {
+            return workload(index, workload);
+        }
+        ProjectRole role = em.createQuery("select r from ProjectRole r where r.upsaId = :upsaId", ProjectRole.class)
+            .setParameter("upsaId", "role" + index).getSingleResult();
+        return new ProjectHistory().date(DATE).workload(workload).project(project).role(role);
+    }
+
+    private class StubUpsaFacade implements UpsaFacade {
+
+        @Override
+        public Optional<Employee> getEmployee(String upsaId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Map<String, Employee> getEmployees(Collection<String> upsaIds) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public LanguageLevel getEnglishLevelAssessment(String upsaId) {
+            return null;
+        }
+
+        @Override
+        public Set<ProjectHistory> getEmployeeWorkloads(String upsaId) {
+            return upsaWorkloads;
+        }
+
+        @Override
+        public List<EmployeeSimpleViewDto> getSuggestedEmployees(String query) {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.epam.bench.repository.support;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.Location;
+import com.epam.bench.repository.LocationRepository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the TotalCountCache.
+ *
+ * @see TotalCountCache
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class TotalCountCacheIntTest {
+
+    @Inject
+    private TotalCountCache totalCountCache;
+
+    @Inject
+    private LocationRepository locationRepository;
+
+    @Inject
+    private EntityManager em;
+
+    private final AtomicInteger counted = new AtomicInteger();
+
+    @Before
+    public void setup() {
+        // counts cached by the other tests
+        totalCountCache.invalidate(Location.class, true);
+    }
+
+    @After
+    public void tearDown() {
+        TotalCountCache.estimating(false);
+    }
+
+    @Test
+    public void countsOnceUntilAnInsert() {
+        long before = totalCountCache.count(Location.class, TotalCountCache.ALL, exactCount());
+        assertThat(totalCountCache.count(Location.class, TotalCountCache.ALL, exactCount())).isEqualTo(before);
+        assertThat(counted.get()).isEqualTo(1);
+
+        em.persist(new Location().upsaId("count-cache").name("Lviv"));
+        em.flush();
+
+        assertThat(totalCountCache.count(Location.class, TotalCountCache.ALL, exactCount())).isEqualTo(before + 1);
+        assertThat(counted.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void updatesDropOnlyTheFilteredCounts() {
+        Location location = new Location().upsaId("count-cache").name("Lviv");
+        em.persist(location);
+        em.flush();
+        totalCountCache.count(Location.class, TotalCountCache.ALL, exactCount());
+        totalCountCache.count(Location.class, "named", exactCount());
+
+        location.setName("Kyiv");
+        em.flush();
+        totalCountCache.count(Location.class, TotalCountCache.ALL, exactCount());
+        totalCountCache.count(Location.class, "named", exactCount());
+
+        assertThat(counted.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void pagesTakeTheirTotalFromTheCache() {
+        em.persist(new Location().upsaId("count-cache").name("Lviv"));
+        em.persist(new Location().upsaId("count-cache").name("Kyiv"));
+        em.flush();
+        long total = locationRepository.count();
+
+        Page<Location> first = locationRepository.findAll(new PageRequest(0, 1));
+        Page<Location> last = locationRepository.findAll(new PageRequest((int) total - 1, 1));
+
+        assertThat(first.getTotalElements()).isEqualTo(total);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getTotalElements()).isEqualTo(total);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(totalCountCache.count(Location.class, TotalCountCache.ALL, exactCount())).isEqualTo(total);
+        assertThat(counted.get()).isZero();
+    }
+
+    @Test
+    public void estimatesOnlyLargeTables() {
+        em.persist(new Location().upsaId("count-cache").name("Lviv"));
+        em.flush();
+        TotalCountCache.estimating(true);
+
+        // the test table is far below the estimate threshold, so it is counted exactly
+        assertThat(totalCountCache.count(Location.class, TotalCountCache.ALL, exactCount()))
+            .isEqualTo(locationRepository.count());
+        assertThat(counted.get()).isEqualTo(1);
+    }
+
+    private Supplier<Long> exactCount() {
+        return () -> {
+            counted.incrementAndGet();
+            return locationRepository.count();
+        };
+    }
+}
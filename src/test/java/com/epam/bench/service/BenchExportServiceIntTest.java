@@ -0,0 +1,113 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.domain.Title;
+import com.epam.bench.service.export.ExportFormat;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the BenchExportService.
+ *
+ * @see BenchExportService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class BenchExportServiceIntTest {
+
+    @Inject
+    private BenchExportService benchExportService;
+
+    @Inject
+    private EntityManager em;
+
+    private long employees;
+
+    @Before
+    public void setup() {
+        PrimarySkill skill = new PrimarySkill().upsaId("export-java").name("Java");
+        em.persist(skill);
+        Title title = new Title().upsaId("export-engineer").name("Software Engineer");
+        em.persist(title);
+        Employee benched = new Employee().upsaId("export-benched").email("export_benched@epam.com")
+            .fullName("Doe, John").comment("Said \"ready\"").active(true).primarySkill(skill).title(title);
+        em.persist(benched);
+        em.persist(new BenchState().employee(benched).onBench(true).updatedTime(ZonedDateTime.now())
+            .closedBenchSeconds(3 * 24 * 60 * 60L).openBenchSince(ZonedDateTime.now().minusDays(2)));
+        Employee released = new Employee().upsaId("export-released").email("export_released@epam.com")
+            .fullName("Jane Smith").active(true);
+        em.persist(released);
+        em.persist(new BenchState().employee(released).onBench(false).updatedTime(ZonedDateTime.now())
+            .closedBenchSeconds(3 * 24 * 60 * 60L));
+        Employee inactive = new Employee().upsaId("export-inactive").email("export_inactive@epam.com")
+            .fullName("Max Mustermann").active(false);
+        em.persist(inactive);
+        em.persist(new BenchState().employee(inactive).onBench(true).updatedTime(ZonedDateTime.now())
+            .closedBenchSeconds(0L).openBenchSince(ZonedDateTime.now()));
+        em.persist(new Employee().upsaId("export-plain").email("export_plain@epam.com")
+            .fullName("John Roe").active(true));
+        em.flush();
+        employees = (Long) em.createQuery("select count(state) from BenchState state"
+            + " where state.onBench = true and state.employee.active = true").getSingleResult();
+    }
+
+    @Test
+    public void assertThatCsvHasAHeaderAndARowPerEmployeeOnTheBench() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = benchExportService.export(ExportFormat.CSV, out);
+
+        assertThat(exported).isEqualTo(employees);
+        List<String> lines = Arrays.asList(new String(out.toByteArray(), StandardCharsets.UTF_8).split("\r\n"));
+        assertThat(lines).hasSize((int) employees + 1);
+        assertThat(lines.get(0)).startsWith("\uFEFFUPSA id,Full name,Email");
+        assertThat(lines).contains(
+            "export-benched,\"Doe, John\",export_benched@epam.com,Software Engineer,Java,,,,,,5,,\"Said \"\"ready\"\"\"");
+        assertThat(lines.stream().map(line -> line.substring(0, line.indexOf(','))).collect(Collectors.toList()))
+            .doesNotContain("export-released", "export-inactive", "export-plain");
+    }
+
+    @Test
+    public void assertThatXlsxHasAHeaderAndARowPerEmployeeOnTheBench() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        benchExportService.export(ExportFormat.XLSX, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertThat(sheet.getLastRowNum()).isEqualTo((int) employees);
+            assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("UPSA id");
+            List<Row> benched = StreamSupport.stream(sheet.spliterator(), false)
+                .filter(row -> "export-benched".equals(row.getCell(0).getStringCellValue()))
+                .collect(Collectors.toList());
+            assertThat(benched).hasSize(1);
+            assertThat(benched.get(0).getCell(1).getStringCellValue()).isEqualTo("Doe, John");
+            assertThat(benched.get(0).getCell(10).getNumericCellValue()).isEqualTo(5d);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.Location;
+import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.domain.Project;
+import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.domain.ProjectRole;
+import com.epam.bench.service.dto.bench.BenchForecastDto;
+import com.epam.bench.service.dto.bench.ForecastGranularity;
+import com.epam.bench.service.dto.bench.ForecastSeriesDto;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the BenchForecastService.
+ *
+ * @see BenchForecastService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class BenchForecastServiceIntTest {
+
+    private static final LocalDate FROM = LocalDate.of(2016, 12, 5);
+
+    private static final String SKILL = "Forecast Java";
+
+    @Inject
+    private BenchForecastService benchForecastService;
+
+    @Inject
+    private ProjectHistoryService projectHistoryService;
+
+    @Inject
+    private ProjectService projectService;
+
+    @Inject
+    private EntityManager em;
+
+    @Before
+    public void setup() {
+        PrimarySkill skill = new PrimarySkill().upsaId("forecast-java").name(SKILL);
+        Location kyiv = new Location().upsaId("forecast-kyiv").name("Kyiv");
+        Location lviv = new Location().upsaId("forecast-lviv").name("Lviv");
+        em.persist(skill);
+        em.persist(kyiv);
+        em.persist(lviv);
+
+        // on the bench until a workload starts in a week
+        Employee benched = employee("forecast-benched", skill, kyiv);
+        em.persist(new BenchState().employee(benched).onBench(true).updatedTime(ZonedDateTime.now()));
+        // rolls off a project that ends in two days
+        Employee leaving = employee("forecast-leaving", skill, kyiv);
+        // stays on an open ended workload
+        Employee staying = employee("forecast-staying", skill, lviv);
+
+        projectHistoryService.save(Arrays.asList(
+            workload(benched, "next", FROM.plusDays(7), null),
+            workload(leaving, "ending", FROM.minusDays(30), FROM.plusDays(2)),
+            workload(staying, "lasting", FROM.minusDays(30), null)));
+        em.flush();
+    }
+
+    @Test
+    public void assertThatDailyForecastFollowsJoinsAndLeaves() {
+        BenchForecastDto forecast = benchForecastService.forecast(FROM, 14, ForecastGranularity.DAY);
+
+        assertThat(forecast.getPeriods()).hasSize(14).startsWith(FROM);
+        assertThat(forecast.getTo()).isEqualTo(FROM.plusDays(13));
+        assertThat(series(forecast, "Kyiv").getCounts())
+            .containsExactly(1, 1, 1, 2, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1);
+        assertThat(forecast.getSeries()).extracting(ForecastSeriesDto::getLocation).doesNotContain("Lviv");
+    }
+
+    @Test
+    public void assertThatWeeklyForecastKeepsThePeakOfEveryWeek() {
+        BenchForecastDto forecast = benchForecastService.forecast(FROM, 2, ForecastGranularity.WEEK);
+
+        assertThat(forecast.getPeriods()).containsExactly(FROM, FROM.plusDays(7));
+        assertThat(series(forecast, "Kyiv").getCounts()).containsExactly(2, 1);
+    }
+
+    @Test
+    public void assertThatForecastIsKeptUntilTheDataChanges() {
+        BenchForecastDto forecast = benchForecastService.forecast(FROM, 2, ForecastGranularity.WEEK);
+
+        assertThat(benchForecastService.forecast(FROM, 2, ForecastGranularity.WEEK)).isSameAs(forecast);
+
+        projectService.save(new Project().upsaId("forecast-new").name("New project"));
+
+        assertThat(benchForecastService.forecast(FROM, 2, ForecastGranularity.WEEK)).isNotSameAs(forecast);
+    }
+
+    private ForecastSeriesDto series(BenchForecastDto forecast, String location) {
+        return forecast.getSeries().stream()
+            .filter(series -> SKILL.equals(series.getSkill()) && location.equals(series.getLocation()))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No series for " + location));
+    }
+
+    private Employee employee(String upsaId, PrimarySkill skill, Location location) {
+        Employee employee = new Employee().upsaId(upsaId).email(upsaId + "@epam.com").active(true)
+            .primarySkill(skill).location(location);
+        em.persist(employee);
+        return employee;
+    }
+
+    private ProjectHistory workload(Employee employee, String name, LocalDate from, LocalDate projectEnd) {
+        Project project = new Project().upsaId(name).name(name).endDate(projectEnd);
+        ProjectRole role = new ProjectRole().upsaId("developer").name("Developer");
+        em.persist(project);
+        em.persist(role);
+        return new ProjectHistory().employee(employee).project(project).role(role).date(from).workload(100);
+    }
+}
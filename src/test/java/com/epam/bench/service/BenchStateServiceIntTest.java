@@ -0,0 +1,254 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.config.liquibase.LiquibaseTestUtil;
+import com.epam.bench.domain.BenchHistory;
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.facades.BenchHistoryFacade;
+import com.epam.bench.repository.BenchHistoryRepository;
+import com.epam.bench.repository.BenchStateRepository;
+import com.epam.bench.repository.EmployeeRepository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the BenchStateService, through the BenchHistoryService which maintains the bench states.
+ * <p>
+ * Not transactional, as the rolled back histories must not be seen by the next transaction.
+ *
+ * @see BenchStateService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class BenchStateServiceIntTest {
+
+    private static final String BENCH_STATE_CHANGELOG = "config/liquibase/changelog/20161201120000_added_entity_BenchState.xml";
+
+    private static final String BENCH_STATE_BACKFILL = "20161201120000-3";
+
+    private static final String BENCH_TIME_CHANGELOG = "config/liquibase/changelog/20161214100000_refilled_bench_time_of_BenchState.xml";
+
+    private static final String BENCH_TIME_BACKFILL = "20161214100000-1";
+
+    private static final long DAY = 24 * 60 * 60;
+
+    private static final ZonedDateTime START = ZonedDateTime.now().minusDays(30).truncatedTo(ChronoUnit.SECONDS);
+
+    @Inject
+    private BenchStateService benchStateService;
+
+    @Inject
+    private BenchHistoryService benchHistoryService;
+
+    @Inject
+    private BenchHistoryFacade benchHistoryFacade;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
+    @Inject
+    private BenchHistoryRepository benchHistoryRepository;
+
+    @Inject
+    private BenchStateRepository benchStateRepository;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private DataSource dataSource;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Employee employee;
+
+    @Before
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        employee = transactionTemplate.execute(status -> employeeRepository.save(new Employee().upsaId("state-0")
+            .email("state-0@epam.com").active(true)));
+    }
+
+    @After
+    public void tearDown() {
+        transactionTemplate.execute(status -> {
+            BenchState state = benchStateRepository.findByEmployee(employee);
+            if (Objects.nonNull(state)) {
+                benchStateRepository.delete(state);
+            }
+            benchHistoryRepository.delete(benchHistoryRepository.findByEmployee(employee));
+            employeeRepository.delete(employee.getId());
+            return null;
+        });
+    }
+
+    @Test
+    public void olderHistoryDoesNotMoveTheStateBack() {
+        BenchHistory newer = save(history(true, 10));
+        save(history(false, 5));
+
+        BenchState state = findState();
+        assertThat(state.getLastHistory().getId()).isEqualTo(newer.getId());
+        assertThat(state.isOnBench()).isTrue();
+        assertThat(state.getBenchSince().toInstant()).isEqualTo(START.plusDays(10).toInstant());
+    }
+
+    @Test
+    public void removingTheLatestHistoryFallsBackToThePrevious() {
+        BenchHistory previous = save(history(true, 5));
+        BenchHistory latest = save(history(false, 10));
+        assertThat(findState().getLastHistory().getId()).isEqualTo(latest.getId());
+
+        delete(latest);
+
+        BenchState state = findState();
+        assertThat(state.getLastHistory().getId()).isEqualTo(previous.getId());
+        assertThat(state.isOnBench()).isTrue();
+        assertThat(state.getBenchSince().toInstant()).isEqualTo(START.plusDays(5).toInstant());
+
+        delete(previous);
+
+        assertThat(findState()).isNull();
+    }
+
+    @Test
+    public void removingAnOlderHistoryKeepsTheLatest() {
+        BenchHistory older = save(history(false, 5));
+        BenchHistory latest = save(history(true, 10));
+
+        delete(older);
+
+        BenchState state = findState();
+        assertThat(state.getLastHistory().getId()).isEqualTo(latest.getId());
+        assertThat(state.isOnBench()).isTrue();
+    }
+
+    @Test
+    public void rolledBackHistoryLeavesTheState() {
+        BenchHistory committed = save(history(true, 5));
+
+        transactionTemplate.execute(status -> {
+            BenchHistory rolledBack = benchHistoryService.save(history(false, 10));
+            assertThat(benchStateRepository.findByEmployee(employee).getLastHistory().getId())
+                .isEqualTo(rolledBack.getId());
+            status.setRollbackOnly();
+            return null;
+        });
+
+        BenchState state = findState();
+        assertThat(state.getLastHistory().getId()).isEqualTo(committed.getId());
+        assertThat(state.isOnBench()).isTrue();
+    }
+
+    @Test
+    public void backfillBuildsTheStateFromTheLatestHistory() {
+        save(history(false, 5));
+        BenchHistory latest = save(history(true, 10));
+
+        // the other employees are backfilled as well, so their states are dropped and restored by the rollback
+        transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.update("delete from bench_state");
+            runChangeSet(BENCH_STATE_CHANGELOG, BENCH_STATE_BACKFILL);
+
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select last_history_id, on_bench, bench_since from bench_state where employee_id = ?", employee.getId());
+            assertThat(((Number) row.get("last_history_id")).longValue()).isEqualTo(latest.getId());
+            assertThat(row.get("on_bench")).isEqualTo(Boolean.TRUE);
+            assertThat(((Timestamp) row.get("bench_since")).toInstant()).isEqualTo(START.plusDays(10).toInstant());
+            return null;
+        });
+
+        assertThat(findState().getLastHistory().getId()).isEqualTo(latest.getId());
+    }
+
+    @Test
+    public void releasedStintCountsForTheDaysOnBench() {
+        release(save(history(true, 0)));
+
+        BenchState state = findState();
+        assertThat(state.isOnBench()).isFalse();
+        assertThat(state.getOpenBenchSince()).isNull();
+        assertThat(state.getClosedBenchSeconds()).isGreaterThanOrEqualTo(30 * DAY);
+        assertThat(transactionTemplate.execute(status -> benchStateService.getDaysOnBench(employee))).isEqualTo(30);
+    }
+
+    @Test
+    public void backfillCountsTheReleasedStints() {
+        release(save(history(true, 0)));
+        save(history(true, 20));
+
+        transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.update("update bench_state set closed_bench_seconds = 0, open_bench_since = null");
+            runChangeSet(BENCH_TIME_CHANGELOG, BENCH_TIME_BACKFILL);
+
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select closed_bench_seconds, open_bench_since from bench_state where employee_id = ?", employee.getId());
+            // the released stint runs until now, the open one covers its last 10 days
+            assertThat(((Number) row.get("closed_bench_seconds")).longValue()).isEqualTo(20 * DAY);
+            assertThat(((Timestamp) row.get("open_bench_since")).toInstant()).isEqualTo(START.plusDays(20).toInstant());
+            return null;
+        });
+    }
+
+    private void runChangeSet(String changeLogFile, String changeSetId) {
+        try {
+            LiquibaseTestUtil.runChangeSet(DataSourceUtils.getConnection(dataSource), changeLogFile, changeSetId);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BenchHistory history(boolean bench, int day) {
+        return new BenchHistory()
+            .employee(employee)
+            .bench(bench)
+            .createdTime(START.plusDays(day));
+    }
+
+    private BenchHistory save(BenchHistory history) {
+        return transactionTemplate.execute(status -> benchHistoryService.save(history));
+    }
+
+    private void release(BenchHistory history) {
+        transactionTemplate.execute(status -> {
+            benchHistoryFacade.releaseEmployeeFromBench(benchHistoryService.findOne(history.getId()));
+            return null;
+        });
+    }
+
+    private void delete(BenchHistory history) {
+        transactionTemplate.execute(status -> {
+            benchHistoryService.delete(history.getId());
+            return null;
+        });
+    }
+
+    private BenchState findState() {
+        return transactionTemplate.execute(status -> benchStateService.find(employee).orElse(null));
+    }
+}
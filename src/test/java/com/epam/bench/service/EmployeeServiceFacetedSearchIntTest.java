@@ -0,0 +1,138 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.LanguageLevel;
+import com.epam.bench.domain.Location;
+import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.domain.Unit;
+import com.epam.bench.domain.enumeration.Probability;
+import com.epam.bench.service.dto.bench.EmployeeFacet;
+import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.dto.bench.FacetCountDto;
+import com.epam.bench.service.dto.bench.FacetedEmployeesDto;
+import com.epam.bench.service.search.SearchIndexer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Test class for the faceted bench search of the EmployeeService.
+ *
+ * @see EmployeeService#searchBench
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class EmployeeServiceFacetedSearchIntTest {
+
+    @Inject
+    private EmployeeService employeeService;
+
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Before
+    public void setup() {
+        // the index may have been created by a first write, without the facet mapping
+        elasticsearchTemplate.deleteIndex(Employee.class);
+        elasticsearchTemplate.createIndex(Employee.class);
+        elasticsearchTemplate.putMapping(Employee.class);
+
+        searchIndexer.index(Arrays.asList(
+            createEmployee(1L, "John Smith", "Java", "Minsk", "B2", Probability.HIGH, true),
+            createEmployee(2L, "Joanna Doe", "Java", "Kyiv", "B1", Probability.LOW, true),
+            createEmployee(3L, "Peter Johnson", ".NET", "Minsk", "B2", Probability.HIGH, true),
+            createEmployee(4L, "Jonas Muller", "Java", "Minsk", "C1", Probability.MEDIUM, false)));
+    }
+
+    @Test
+    public void countsTheEmployeesOnBenchByFacet() {
+        FacetedEmployeesDto result = employeeService.searchBench(null, Collections.emptyMap(), new PageRequest(0, 20));
+
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getEmployees()).extracting(EmployeeSimpleViewDto::getUpsaId)
+            .containsExactly("UPSA2", "UPSA1", "UPSA3");
+        assertThat(result.getFacets().get("skill")).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+            .containsExactly(tuple("Java", 2L), tuple(".NET", 1L));
+        assertThat(result.getFacets().get("location")).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+            .containsExactly(tuple("Minsk", 2L), tuple("Kyiv", 1L));
+        assertThat(result.getFacets().get("englishLevel")).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+            .containsExactly(tuple("B2", 2L), tuple("B1", 1L));
+        assertThat(result.getFacets().get("probability")).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+            .containsExactly(tuple("HIGH", 2L), tuple("LOW", 1L));
+    }
+
+    @Test
+    public void countsAFacetWithoutItsOwnFilter() {
+        Map<EmployeeFacet, List<String>> filters = new EnumMap<>(EmployeeFacet.class);
+        filters.put(EmployeeFacet.SKILL, Collections.singletonList("Java"));
+
+        FacetedEmployeesDto result = employeeService.searchBench(null, filters, new PageRequest(0, 20));
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getEmployees()).extracting(EmployeeSimpleViewDto::getUpsaId)
+            .containsOnly("UPSA1", "UPSA2");
+        // the other skills can still be picked
+        assertThat(result.getFacets().get("skill")).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+            .containsExactly(tuple("Java", 2L), tuple(".NET", 1L));
+        assertThat(result.getFacets().get("location")).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+            .containsOnly(tuple("Minsk", 1L), tuple("Kyiv", 1L));
+    }
+
+    @Test
+    public void combinesFiltersWithTheQueryAndPages() {
+        Map<EmployeeFacet, List<String>> filters = new EnumMap<>(EmployeeFacet.class);
+        filters.put(EmployeeFacet.LOCATION, Collections.singletonList("Minsk"));
+        filters.put(EmployeeFacet.PROBABILITY, Arrays.asList("HIGH", "MEDIUM"));
+
+        FacetedEmployeesDto result = employeeService.searchBench("jo", filters, new PageRequest(0, 1));
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getEmployees()).hasSize(1);
+        assertThat(result.getFacets().get("unit")).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+            .containsExactly(tuple("Unit of Minsk", 2L));
+    }
+
+    private static Employee createEmployee(Long id, String fullName, String skill, String location,
+                                           String englishLevel, Probability probability, boolean onBench) {
+        PrimarySkill primarySkill = new PrimarySkill().name(skill);
+        primarySkill.setId(id);
+        Location employeeLocation = new Location().name(location);
+        employeeLocation.setId(id);
+        Unit unit = new Unit().name("Unit of " + location);
+        unit.setId(id);
+        LanguageLevel languageLevel = new LanguageLevel().speaking(englishLevel);
+        languageLevel.setId(id);
+        Employee employee = new Employee()
+            .upsaId("UPSA" + id)
+            .fullName(fullName)
+            .email("employee" + id + "@epam.com")
+            .active(true)
+            .primarySkill(primarySkill)
+            .location(employeeLocation)
+            .unit(unit)
+            .englishLevel(languageLevel)
+            .probability(probability);
+        employee.setId(id);
+        employee.setOnBench(onBench);
+        return employee;
+    }
+}
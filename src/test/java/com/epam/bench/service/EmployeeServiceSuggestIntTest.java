@@ -0,0 +1,119 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.PrimarySkill;
+import com.epam.bench.domain.Title;
+import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.service.search.SearchIndexer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the employee suggestions of the EmployeeService.
+ *
+ * @see EmployeeService#suggest(String, int)
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class EmployeeServiceSuggestIntTest {
+
+    @Inject
+    private EmployeeService employeeService;
+
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Before
+    public void setup() {
+        // the index may have been created by a first write, without the suggestion mapping
+        elasticsearchTemplate.deleteIndex(Employee.class);
+        elasticsearchTemplate.createIndex(Employee.class);
+        elasticsearchTemplate.putMapping(Employee.class);
+
+        searchIndexer.index(Arrays.asList(
+            createEmployee(1L, "1000000001", "Joanna Doe", "joanna_doe@epam.com", true, false),
+            createEmployee(2L, "1000000002", "John Smith", "john_smith@epam.com", true, true),
+            createEmployee(3L, "1000000003", "Jonas Müller", "jonas_muller@epam.com", false, true),
+            createEmployee(4L, "1000000004", "Peter Johnson", "peter_johnson@epam.com", true, false),
+            createEmployee(5L, "1000000005", "Joanna Kowalska", "joanna_kowalska@epam.com", false, false)));
+    }
+
+    @Test
+    public void suggestsByNamePrefixRankingActiveEmployeesOnBenchFirst() {
+        List<EmployeeSimpleViewDto> suggestions = employeeService.suggest("jo", 10);
+
+        assertThat(suggestions).extracting(EmployeeSimpleViewDto::getUpsaId)
+            .startsWith("1000000002")
+            .contains("1000000001", "1000000003", "1000000004", "1000000005");
+
+        EmployeeSimpleViewDto first = suggestions.get(0);
+        assertThat(first.getFullName()).isEqualTo("John Smith");
+        assertThat(first.getManagerName()).isEqualTo("Manager of John Smith");
+        assertThat(first.getSkill()).isEqualTo("Java");
+        assertThat(first.getTitle()).isEqualTo("Software Engineer");
+        assertThat(first.isActive()).isTrue();
+    }
+
+    @Test
+    public void suggestsActiveEmployeesFirst() {
+        assertThat(employeeService.suggest("joanna", 10)).extracting(EmployeeSimpleViewDto::getUpsaId)
+            .containsExactly("1000000001", "1000000005");
+    }
+
+    @Test
+    public void suggestsByEveryWordOfTheName() {
+        assertThat(employeeService.suggest("john sm", 10)).extracting(EmployeeSimpleViewDto::getUpsaId)
+            .containsExactly("1000000002");
+        assertThat(employeeService.suggest("mull", 10)).extracting(EmployeeSimpleViewDto::getUpsaId)
+            .containsExactly("1000000003");
+    }
+
+    @Test
+    public void suggestsByEmailAndUpsaIdPrefix() {
+        assertThat(employeeService.suggest("Peter_J", 10)).extracting(EmployeeSimpleViewDto::getUpsaId)
+            .containsExactly("1000000004");
+        assertThat(employeeService.suggest("1000000001", 10)).extracting(EmployeeSimpleViewDto::getUpsaId)
+            .containsExactly("1000000001");
+        assertThat(employeeService.suggest("10000", 2)).hasSize(2);
+    }
+
+    @Test
+    public void suggestsNothingForABlankQuery() {
+        assertThat(employeeService.suggest(" ", 10)).isEmpty();
+        assertThat(employeeService.suggest("zz", 10)).isEmpty();
+    }
+
+    private static Employee createEmployee(Long id, String upsaId, String fullName, String email, boolean active,
+                                           boolean onBench) {
+        PrimarySkill primarySkill = new PrimarySkill().name("Java");
+        primarySkill.setId(id);
+        Title title = new Title().name("Software Engineer");
+        title.setId(id);
+        Employee employee = new Employee()
+            .upsaId(upsaId)
+            .fullName(fullName)
+            .email(email)
+            .managerFullName("Manager of " + fullName)
+            .active(active)
+            .primarySkill(primarySkill)
+            .title(title);
+        employee.setId(id);
+        employee.setOnBench(onBench);
+        return employee;
+    }
+}
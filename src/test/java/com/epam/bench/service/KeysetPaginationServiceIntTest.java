@@ -0,0 +1,130 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.Location;
+import com.epam.bench.service.dto.KeysetPage;
+import com.epam.bench.service.util.InvalidCursorException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the KeysetPaginationService.
+ *
+ * @see KeysetPaginationService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class KeysetPaginationServiceIntTest {
+
+    @Inject
+    private KeysetPaginationService keysetPaginationService;
+
+    @Inject
+    private EntityManager em;
+
+    private Location unnamed;
+
+    private Location first;
+
+    private Location secondA;
+
+    private Location secondB;
+
+    private Location third;
+
+    @Before
+    public void setup() {
+        unnamed = persist(null);
+        third = persist("keyset-c");
+        secondA = persist("keyset-b");
+        first = persist("keyset-a");
+        secondB = persist("keyset-b");
+        em.flush();
+    }
+
+    @Test
+    public void pagesByIdByDefault() {
+        List<Location> locations = readAll(null);
+
+        assertThat(ours(locations)).containsExactly(unnamed, third, secondA, first, secondB);
+    }
+
+    @Test
+    public void pagesBySortKeyThenIdWithNullsFirst() {
+        List<Location> locations = readAll(new Sort(Sort.Direction.ASC, "name").and(new Sort("id")));
+
+        assertThat(ours(locations)).containsExactly(unnamed, first, secondA, secondB, third);
+        assertThat(locations).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void pagesDescendingWithNullsLast() {
+        List<Location> locations = readAll(new Sort(Sort.Direction.DESC, "name"));
+
+        assertThat(ours(locations)).containsExactly(third, secondB, secondA, first, unnamed);
+        assertThat(locations).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void countsOnlyWhenAsked() {
+        KeysetPage<Location> counted = keysetPaginationService.findPage(Location.class, "", new PageRequest(0, 2), true);
+        KeysetPage<Location> uncounted = keysetPaginationService.findPage(Location.class, "", new PageRequest(0, 2), false);
+
+        assertThat(counted.getTotalElements()).isEqualTo(
+            em.createQuery("select count(l) from Location l", Long.class).getSingleResult());
+        assertThat(uncounted.getTotalElements()).isNull();
+        assertThat(uncounted.getContent()).hasSize(2);
+        assertThat(uncounted.hasNext()).isTrue();
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void rejectsMalformedCursor() {
+        keysetPaginationService.findPage(Location.class, "not a cursor", new PageRequest(0, 2), false);
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void rejectsSortByAssociation() {
+        keysetPaginationService.findPage(Location.class, "", new PageRequest(0, 2, Sort.Direction.ASC, "opportunity"),
+            false);
+    }
+
+    private Location persist(String name) {
+        Location location = new Location().upsaId("keyset").name(name);
+        em.persist(location);
+        return location;
+    }
+
+    private List<Location> readAll(Sort sort) {
+        List<Location> locations = new ArrayList<>();
+        String cursor = "";
+        do {
+            KeysetPage<Location> page = keysetPaginationService.findPage(Location.class, cursor,
+                new PageRequest(0, 2, sort), false);
+            locations.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return locations;
+    }
+
+    private List<Location> ours(List<Location> locations) {
+        List<Location> ours = Arrays.asList(unnamed, first, secondA, secondB, third);
+        return locations.stream().filter(ours::contains).collect(Collectors.toList());
+    }
+}
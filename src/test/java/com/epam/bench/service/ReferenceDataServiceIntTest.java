@@ -0,0 +1,102 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.Location;
+import com.epam.bench.domain.OpportunityType;
+import com.epam.bench.repository.LocationRepository;
+import com.epam.bench.service.dto.ReferenceDataSnapshot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the ReferenceDataService.
+ * <p>
+ * Not transactional, as the snapshot only follows the committed changes.
+ *
+ * @see ReferenceDataService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class ReferenceDataServiceIntTest {
+
+    private static final String UPSA_ID = "reference-lviv";
+
+    @Inject
+    private ReferenceDataService referenceDataService;
+
+    @Inject
+    private LocationRepository locationRepository;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long locationId;
+
+    @Before
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @After
+    public void tearDown() {
+        if (locationId != null) {
+            locationRepository.delete(locationId);
+        }
+    }
+
+    @Test
+    public void committedChangesReplaceTheSnapshot() {
+        ReferenceDataSnapshot before = referenceDataService.getSnapshot();
+
+        locationId = transactionTemplate.execute(status ->
+            locationRepository.save(new Location().upsaId(UPSA_ID).name("Lviv"))).getId();
+
+        ReferenceDataSnapshot created = referenceDataService.getSnapshot();
+        assertThat(created.getVersion()).isGreaterThan(before.getVersion());
+        assertThat(created.findOne(Location.class, locationId).getName()).isEqualTo("Lviv");
+        assertThat(created.findOneByUpsaId(Location.class, UPSA_ID).getId()).isEqualTo(locationId);
+        assertThat(before.findOne(Location.class, locationId)).isNull();
+
+        transactionTemplate.execute(status -> {
+            locationRepository.findOne(locationId).setName("Lemberg");
+            return null;
+        });
+
+        assertThat(referenceDataService.findOneByUpsaId(Location.class, UPSA_ID).getName()).isEqualTo("Lemberg");
+        assertThat(created.findOne(Location.class, locationId).getName()).isEqualTo("Lviv");
+    }
+
+    @Test
+    public void transactionReadsItsOwnChanges() {
+        ReferenceDataSnapshot before = referenceDataService.getSnapshot();
+
+        transactionTemplate.execute(status -> {
+            Location location = locationRepository.saveAndFlush(new Location().upsaId(UPSA_ID).name("Lviv"));
+            assertThat(referenceDataService.findOne(Location.class, location.getId())).isSameAs(location);
+            assertThat(referenceDataService.findOneByUpsaId(Location.class, UPSA_ID)).isSameAs(location);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(referenceDataService.getSnapshot()).isSameAs(before);
+        assertThat(referenceDataService.findOneByUpsaId(Location.class, UPSA_ID)).isNull();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void typesWithoutUpsaIdCannotBeFoundByIt() {
+        referenceDataService.findOneByUpsaId(OpportunityType.class, "1");
+    }
+}
@@ -0,0 +1,335 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.BenchHistory;
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.Unit;
+import com.epam.bench.repository.BenchHistoryRepository;
+import com.epam.bench.repository.BenchStateRepository;
+import com.epam.bench.repository.EmployeeRepository;
+import com.epam.bench.service.dto.bench.UnitBenchCountDto;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the UnitBenchCountService.
+ * <p>
+ * Not transactional, as the counts are written when the transactions changing the employees commit.
+ *
+ * @see UnitBenchCountService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class UnitBenchCountServiceIntTest {
+
+    private static final int DEPARTMENTS = 3;
+
+    private static final int LEAVES_PER_DEPARTMENT = 4;
+
+    private static final int ITERATIONS = 10;
+
+    @Inject
+    private UnitBenchCountService unitBenchCountService;
+
+    @Inject
+    private UnitService unitService;
+
+    @Inject
+    private BenchHistoryService benchHistoryService;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
+    @Inject
+    private BenchHistoryRepository benchHistoryRepository;
+
+    @Inject
+    private BenchStateRepository benchStateRepository;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Unit root;
+
+    private List<Unit> departments;
+
+    private List<Unit> leaves;
+
+    private List<Employee> employees;
+
+    @Before
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> {
+            root = unitService.save(new Unit().upsaId("rollup-root").name("Rollup"));
+            departments = new ArrayList<>();
+            leaves = new ArrayList<>();
+            for (int d = 0; d < DEPARTMENTS; d++) {
+                Unit department = unitService.save(new Unit().upsaId("rollup-" + d).name("Department " + d).parent(root));
+                departments.add(department);
+                for (int l = 0; l < LEAVES_PER_DEPARTMENT; l++) {
+                    leaves.add(unitService.save(new Unit().upsaId("rollup-" + d + "-" + l).name("Team " + d + "." + l)
+                        .parent(department)));
+                }
+            }
+            // an employee per unit at most: each one moves between a home and a spare team of another department
+            employees = new ArrayList<>();
+            for (int e = 0; e < leaves.size() / 2; e++) {
+                employees.add(employeeRepository.save(new Employee().upsaId("rollup-" + e).email("rollup-" + e + "@epam.com")
+                    .active(true).unit(home(e))));
+            }
+            return null;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        transactionTemplate.execute(status -> {
+            for (Employee employee : employees) {
+                BenchState state = benchStateRepository.findByEmployee(employee);
+                if (Objects.nonNull(state)) {
+                    benchStateRepository.delete(state);
+                }
+            }
+            for (Employee employee : employees) {
+                benchHistoryRepository.delete(benchHistoryRepository.findByEmployee(employee));
+                employeeRepository.delete(employee.getId());
+            }
+            return null;
+        });
+        transactionTemplate.execute(status -> {
+            leaves.forEach(unit -> unitService.delete(unit.getId()));
+            departments.forEach(unit -> unitService.delete(unit.getId()));
+            unitService.delete(root.getId());
+            return null;
+        });
+    }
+
+    @Test
+    public void countsRollUpTheTree() {
+        bench(0, true);
+        bench(1, true);
+        bench(4, true);
+
+        UnitBenchCountDto tree = findRoot();
+        assertThat(tree.getBenchCount()).isEqualTo(0);
+        assertThat(tree.getTotalBenchCount()).isEqualTo(3);
+        assertThat(find(tree, departments.get(0).getId()).getTotalBenchCount()).isEqualTo(2);
+        assertThat(find(tree, departments.get(1).getId()).getTotalBenchCount()).isEqualTo(1);
+        assertThat(find(tree, home(0).getId()).getBenchCount()).isEqualTo(1);
+
+        bench(1, false);
+        move(4, spare(4));
+
+        tree = findRoot();
+        assertThat(tree.getTotalBenchCount()).isEqualTo(2);
+        assertThat(find(tree, departments.get(0).getId()).getTotalBenchCount()).isEqualTo(1);
+        assertThat(find(tree, departments.get(1).getId()).getTotalBenchCount()).isEqualTo(0);
+        assertThat(find(tree, departments.get(2).getId()).getTotalBenchCount()).isEqualTo(1);
+        assertThat(find(tree, spare(4).getId()).getBenchCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void movedUnitTakesItsCountToItsNewAncestors() {
+        bench(0, true);
+        bench(1, true);
+
+        transactionTemplate.execute(status -> unitService.save(unitService.findOne(departments.get(0).getId())
+            .parent(departments.get(1))));
+
+        UnitBenchCountDto tree = findRoot();
+        assertThat(tree.getTotalBenchCount()).isEqualTo(2);
+        assertThat(tree.getChildren()).extracting(UnitBenchCountDto::getId).doesNotContain(departments.get(0).getId());
+        assertThat(find(tree, departments.get(1).getId()).getTotalBenchCount()).isEqualTo(2);
+        assertThat(find(tree, departments.get(0).getId()).getTotalBenchCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void countsFollowConcurrentBenchChangesAndMoves() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(employees.size() * 2);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int e = 0; e < employees.size(); e++) {
+                int employee = e;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        bench(employee, ThreadLocalRandom.current().nextBoolean());
+                    }
+                    return null;
+                }));
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        move(employee, i % 2 == 0 ? spare(employee) : home(employee));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThatCountsMatchTheBenchStates();
+    }
+
+    @Test
+    public void countsFollowConcurrentBulkBenchChanges() throws Exception {
+        // every transaction changes two employees, most of them in different departments, in either order
+        int pairs = employees.size() / 2;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(pairs);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int p = 0; p < pairs; p++) {
+                int first = p;
+                int second = p + pairs;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        if (i % 2 == 0) {
+                            bench(first, random.nextBoolean(), second, random.nextBoolean());
+                        } else {
+                            bench(second, random.nextBoolean(), first, random.nextBoolean());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThatCountsMatchTheBenchStates();
+    }
+
+    private void assertThatCountsMatchTheBenchStates() {
+        Map<Long, Long> expected = countFromTheBenchStates();
+        UnitBenchCountDto tree = findRoot();
+        assertThat(tree.getTotalBenchCount()).isEqualTo(expected.getOrDefault(root.getId(), 0L));
+        for (Unit unit : departments) {
+            assertThat(find(tree, unit.getId()).getTotalBenchCount()).as(unit.getName())
+                .isEqualTo(expected.getOrDefault(unit.getId(), 0L));
+        }
+        for (Unit unit : leaves) {
+            assertThat(find(tree, unit.getId()).getTotalBenchCount()).as(unit.getName())
+                .isEqualTo(expected.getOrDefault(unit.getId(), 0L));
+        }
+
+        transactionTemplate.execute(status -> unitBenchCountService.rebuild());
+        assertThat(findRoot().getTotalBenchCount()).isEqualTo(tree.getTotalBenchCount());
+    }
+
+    private Unit home(int employee) {
+        return leaves.get(employee);
+    }
+
+    private Unit spare(int employee) {
+        return leaves.get(employee + leaves.size() / 2);
+    }
+
+    private void bench(int employee, boolean bench) {
+        transactionTemplate.execute(status -> benchHistoryService.save(new BenchHistory()
+            .employee(employeeRepository.findOne(employees.get(employee).getId()))
+            .bench(bench)
+            .createdTime(ZonedDateTime.now())));
+    }
+
+    private void bench(int employee, boolean bench, int other, boolean otherBench) {
+        transactionTemplate.execute(status -> {
+            benchHistoryService.save(new BenchHistory()
+                .employee(employeeRepository.findOne(employees.get(employee).getId()))
+                .bench(bench)
+                .createdTime(ZonedDateTime.now()));
+            return benchHistoryService.save(new BenchHistory()
+                .employee(employeeRepository.findOne(employees.get(other).getId()))
+                .bench(otherBench)
+                .createdTime(ZonedDateTime.now()));
+        });
+    }
+
+    private void move(int employee, Unit unit) {
+        transactionTemplate.execute(status -> {
+            employeeRepository.findOne(employees.get(employee).getId()).setUnit(unit);
+            return null;
+        });
+    }
+
+    /**
+     * The counts of the units, from the bench states and the units of the employees as they are now.
+     */
+    private Map<Long, Long> countFromTheBenchStates() {
+        Map<Long, Long> parents = new HashMap<>();
+        departments.forEach(unit -> parents.put(unit.getId(), root.getId()));
+        leaves.forEach(unit -> parents.put(unit.getId(), unit.getParent().getId()));
+        Map<Long, Long> counts = new HashMap<>();
+        for (Employee employee : employees) {
+            Map<String, Object> row = jdbcTemplate.queryForMap("select employee.unit_id, state.on_bench from employee employee"
+                + " left join bench_state state on state.employee_id = employee.id where employee.id = ?", employee.getId());
+            if (Boolean.TRUE.equals(row.get("on_bench"))) {
+                for (Long unitId = ((Number) row.get("unit_id")).longValue(); unitId != null; unitId = parents.get(unitId)) {
+                    counts.merge(unitId, 1L, Long::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private UnitBenchCountDto findRoot() {
+        return unitBenchCountService.findTree().stream()
+            .filter(unit -> unit.getId().equals(root.getId()))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No root unit"));
+    }
+
+    private static UnitBenchCountDto find(UnitBenchCountDto tree, Long unitId) {
+        if (tree.getId().equals(unitId)) {
+            return tree;
+        }
+        return tree.getChildren().stream()
+            .map(child -> find(child, unitId))
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(null);
+    }
+}
@@ -0,0 +1,217 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.Unit;
+import com.epam.bench.service.util.InvalidUnitParentException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the UnitHierarchyService, on a tree of 5,000 units nine levels deep.
+ *
+ * @see UnitHierarchyService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class UnitHierarchyServiceIntTest {
+
+    private final Logger log = LoggerFactory.getLogger(UnitHierarchyServiceIntTest.class);
+
+    private static final int UNITS = 5000;
+
+    private static final int CHILDREN = 3;
+
+    @Inject
+    private UnitHierarchyService unitHierarchyService;
+
+    @Inject
+    private UnitService unitService;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private EntityManager em;
+
+    private List<Unit> units;
+
+    @Before
+    public void setup() {
+        // a complete ternary tree: 1, 3, 9, ... 2187 units, then 1720 units on the ninth level
+        units = new ArrayList<>(UNITS);
+        for (int i = 0; i < UNITS; i++) {
+            Unit unit = new Unit().upsaId("hierarchy-" + i).name("Unit " + i);
+            if (i > 0) {
+                unit.parent(units.get((i - 1) / CHILDREN));
+            }
+            em.persist(unit);
+            units.add(unit);
+        }
+        em.flush();
+
+        long start = System.nanoTime();
+        int written = unitHierarchyService.rebuild();
+        log.info("Rebuilt the closure of {} units with {} paths in {} ms", UNITS, written,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    public void rebuildWritesEveryPath() {
+        assertThat(countPaths()).isEqualTo(totalPaths());
+
+        assertThat(unitHierarchyService.findSubtreeIds(root().getId())).hasSize(UNITS);
+        for (int i = 0; i < UNITS; i += 97) {
+            assertSubtree(units.get(i));
+        }
+    }
+
+    @Test
+    public void findSubtreeIdsMatchesWalkingTheParents() {
+        Unit unit = units.get(1);
+
+        long start = System.nanoTime();
+        List<Long> fromClosure = unitHierarchyService.findSubtreeIds(unit.getId());
+        long closureNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<Long> fromWalk = walkWithQueries(unit.getId());
+        long walkNanos = System.nanoTime() - start;
+
+        log.info("Subtree of {} units: {} ms from the closure, {} ms walking the parents", fromClosure.size(),
+            closureNanos / 1_000_000, walkNanos / 1_000_000);
+        assertThat(fromClosure).containsOnlyElementsOf(fromWalk).hasSameSizeAs(fromWalk);
+    }
+
+    @Test
+    public void newUnitGoesUnderItsParent() {
+        Unit parent = units.get(UNITS - 1);
+        Unit unit = unitService.save(new Unit().upsaId("hierarchy-new").name("New unit").parent(parent));
+
+        assertThat(unitHierarchyService.findSubtreeIds(parent.getId())).containsExactly(parent.getId(), unit.getId());
+        assertThat(unitHierarchyService.findSubtreeIds(root().getId())).contains(unit.getId());
+        assertThat(countPaths()).isEqualTo(totalPaths() + depth(UNITS - 1) + 2);
+    }
+
+    @Test
+    public void movedUnitTakesItsSubtree() {
+        Unit moved = units.get(2);
+        Unit formerParent = units.get(0);
+        Unit newParent = units.get(1);
+        List<Long> subtree = unitHierarchyService.findSubtreeIds(moved.getId());
+
+        long start = System.nanoTime();
+        unitService.save(moved.parent(newParent));
+        log.info("Moved a subtree of {} units in {} ms", subtree.size(), (System.nanoTime() - start) / 1_000_000);
+
+        assertThat(unitHierarchyService.findSubtreeIds(moved.getId())).containsExactly(subtree.toArray(new Long[0]));
+        assertThat(unitHierarchyService.findSubtreeIds(newParent.getId())).containsAll(subtree);
+        assertThat(unitHierarchyService.findSubtreeIds(formerParent.getId())).hasSize(UNITS);
+        assertSubtree(newParent);
+        assertSubtree(units.get(CHILDREN + 1));
+        // every unit of the subtree is one level deeper
+        assertThat(countPaths()).isEqualTo(totalPaths() + subtree.size());
+    }
+
+    @Test(expected = InvalidUnitParentException.class)
+    public void unitCannotMoveUnderItsSubtree() {
+        Unit moved = units.get(1);
+        unitService.save(moved.parent(units.get(UNITS - 1)));
+    }
+
+    @Test
+    public void removedUnitLeavesTheTree() {
+        Unit leaf = units.get(UNITS - 1);
+        Unit parent = leaf.getParent();
+        parent.removeChildren(leaf);
+
+        unitService.delete(leaf.getId());
+
+        assertThat(unitHierarchyService.findSubtreeIds(leaf.getId())).isEmpty();
+        assertThat(unitHierarchyService.findSubtreeIds(parent.getId())).doesNotContain(leaf.getId());
+        assertThat(countPaths()).isEqualTo(totalPaths() - depth(UNITS - 1) - 1);
+    }
+
+    private Unit root() {
+        return units.get(0);
+    }
+
+    private static int depth(int index) {
+        int depth = 0;
+        for (int i = index; i > 0; i = (i - 1) / CHILDREN) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private long totalPaths() {
+        long paths = 0;
+        for (int i = 0; i < UNITS; i++) {
+            paths += depth(i) + 1;
+        }
+        return paths;
+    }
+
+    private long countPaths() {
+        return jdbcTemplate.queryForObject("select count(*) from unit_closure where descendant_id in"
+            + " (select id from unit where upsa_id like 'hierarchy-%')", Long.class);
+    }
+
+    /**
+     * Compares the subtree of the closure with the one found by following the parents in memory.
+     */
+    private void assertSubtree(Unit unit) {
+        Map<Long, List<Long>> children = new HashMap<>();
+        jdbcTemplate.query("select id, parent_id from unit where parent_id is not null", (RowCallbackHandler) row ->
+            children.computeIfAbsent(row.getLong(2), parent -> new ArrayList<>()).add(row.getLong(1)));
+        List<Long> walked = new ArrayList<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.add(unit.getId());
+        while (!pending.isEmpty()) {
+            Long id = pending.poll();
+            walked.add(id);
+            pending.addAll(children.getOrDefault(id, new ArrayList<>()));
+        }
+        assertThat(unitHierarchyService.findSubtreeIds(unit.getId()))
+            .containsOnlyElementsOf(walked)
+            .hasSameSizeAs(walked);
+    }
+
+    /**
+     * The subtree the way it was read before the closure: one query per level.
+     */
+    private List<Long> walkWithQueries(Long unitId) {
+        List<Long> subtree = new ArrayList<>();
+        List<Long> level = new ArrayList<>();
+        level.add(unitId);
+        while (!level.isEmpty()) {
+            subtree.addAll(level);
+            List<Long> next = new ArrayList<>();
+            for (Long parentId : level) {
+                next.addAll(jdbcTemplate.queryForList("select id from unit where parent_id = ?", Long.class, parentId));
+            }
+            level = next;
+        }
+        return subtree;
+    }
+}
@@ -0,0 +1,149 @@
+package com.epam.bench.service;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.config.liquibase.LiquibaseTestUtil;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.Project;
+import com.epam.bench.domain.ProjectHistory;
+import com.epam.bench.domain.ProjectRole;
+import com.epam.bench.domain.WorkloadInterval;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the WorkloadTimelineService.
+ *
+ * @see WorkloadTimelineService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+@Transactional
+public class WorkloadTimelineServiceIntTest {
+
+    private static final String WORKLOAD_INTERVAL_CHANGELOG = "config/liquibase/changelog/20161215100000_filled_WorkloadInterval.xml";
+
+    private static final String WORKLOAD_INTERVAL_BACKFILL = "20161215100000-1";
+
+    private static final LocalDate JANUARY = LocalDate.of(2016, 1, 1);
+    private static final LocalDate MARCH = LocalDate.of(2016, 3, 1);
+    private static final LocalDate JUNE = LocalDate.of(2016, 6, 1);
+
+    @Inject
+    private WorkloadTimelineService workloadTimelineService;
+
+    @Inject
+    private ProjectHistoryService projectHistoryService;
+
+    @Inject
+    private EntityManager em;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private DataSource dataSource;
+
+    private Employee busy;
+
+    private Employee idle;
+
+    @Before
+    public void setup() {
+        busy = new Employee().upsaId("timeline-busy").email("timeline_busy@epam.com").active(true);
+        idle = new Employee().upsaId("timeline-idle").email("timeline_idle@epam.com").active(true);
+        em.persist(busy);
+        em.persist(idle);
+
+        // 50% on alpha from January, raised to 100% in June, and 30% on beta from March till June
+        projectHistoryService.save(Arrays.asList(
+            workload(busy, "alpha", JANUARY, 50),
+            workload(busy, "alpha", JUNE, 100),
+            workload(busy, "beta", MARCH, 30),
+            workload(busy, "beta", JUNE, 0)));
+        em.flush();
+    }
+
+    @Test
+    public void sumsTheWorkloadsValidOnADate() {
+        assertThat(workloadTimelineService.getAllocation(busy, JANUARY.minusDays(1))).isEqualTo(0);
+        assertThat(workloadTimelineService.getAllocation(busy, JANUARY)).isEqualTo(50);
+        assertThat(workloadTimelineService.getAllocation(busy, MARCH)).isEqualTo(80);
+        assertThat(workloadTimelineService.getAllocation(busy, JUNE.minusDays(1))).isEqualTo(80);
+        assertThat(workloadTimelineService.getAllocation(busy, JUNE)).isEqualTo(100);
+        assertThat(workloadTimelineService.getAllocation(idle, JUNE)).isEqualTo(0);
+    }
+
+    @Test
+    public void findsTheWorkloadsOfEmployeesOnADate() {
+        Map<Long, List<WorkloadInterval>> allocations = workloadTimelineService.findAllocations(Arrays.asList(busy, idle), MARCH);
+
+        assertThat(allocations).containsOnlyKeys(busy.getId());
+        assertThat(allocations.get(busy.getId())).extracting(interval -> interval.getProject().getName())
+            .containsOnly("alpha", "beta");
+    }
+
+    @Test
+    public void findsEmployeesAllocatedBelowForTheWholePeriod() {
+        assertThat(workloadTimelineService.findEmployeesAllocatedBelow(60, JANUARY, MARCH.minusDays(1)))
+            .contains(busy.getId(), idle.getId());
+        assertThat(workloadTimelineService.findEmployeesAllocatedBelow(60, JANUARY, MARCH))
+            .contains(idle.getId())
+            .doesNotContain(busy.getId());
+        assertThat(workloadTimelineService.findEmployeesAllocatedBelow(90, MARCH, JUNE.minusDays(1)))
+            .contains(busy.getId());
+    }
+
+    @Test
+    public void rebuildsTheTimelineWhenTheHistoryChanges() {
+        ProjectHistory raise = projectHistoryService.findByEmployee(busy).stream()
+            .filter(history -> JUNE.equals(history.getDate()) && history.getWorkload() == 100)
+            .findFirst().get();
+        projectHistoryService.delete(raise.getId());
+        em.flush();
+
+        assertThat(workloadTimelineService.getAllocation(busy, JUNE)).isEqualTo(50);
+    }
+
+    @Test
+    public void backfillBuildsTheTimelineFromTheHistory() throws Exception {
+        jdbcTemplate.update("delete from workload_interval");
+        assertThat(workloadTimelineService.getAllocation(busy, MARCH)).isEqualTo(0);
+
+        // the other employees are backfilled as well, the test transaction rolls their intervals back
+        LiquibaseTestUtil.runChangeSet(DataSourceUtils.getConnection(dataSource), WORKLOAD_INTERVAL_CHANGELOG,
+            WORKLOAD_INTERVAL_BACKFILL);
+
+        assertThat(workloadTimelineService.getAllocation(busy, JANUARY.minusDays(1))).isEqualTo(0);
+        assertThat(workloadTimelineService.getAllocation(busy, JANUARY)).isEqualTo(50);
+        assertThat(workloadTimelineService.getAllocation(busy, MARCH)).isEqualTo(80);
+        assertThat(workloadTimelineService.getAllocation(busy, JUNE)).isEqualTo(100);
+        assertThat(workloadTimelineService.findAllocations(Arrays.asList(busy, idle), MARCH).get(busy.getId()))
+            .extracting(interval -> interval.getProject().getName())
+            .containsOnly("alpha", "beta");
+    }
+
+    private ProjectHistory workload(Employee employee, String project, LocalDate date, int workload) {
+        Project workloadProject = new Project().upsaId(project).name(project);
+        ProjectRole role = new ProjectRole().upsaId("developer").name("Developer");
+        em.persist(workloadProject);
+        em.persist(role);
+        return new ProjectHistory().employee(employee).project(workloadProject).role(role).date(date).workload(workload);
+    }
+}
@@ -0,0 +1,278 @@
+package com.epam.bench.service.cluster;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.Location;
+import com.epam.bench.domain.WorkloadInterval;
+import com.epam.bench.repository.EmployeeRepository;
+import com.epam.bench.repository.LocationRepository;
+import com.epam.bench.repository.WorkloadIntervalRepository;
+import com.epam.bench.repository.support.TotalCountCache;
+import com.epam.bench.service.event.BenchDataChangedEvent;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the cache invalidations between the nodes of a cluster.
+ * <p>
+ * The test application is the first node; the second one is a small application context sharing its database,
+ * with the caches of its poller mocked.
+ *
+ * @see CacheInvalidationBroadcaster
+ * @see CacheInvalidationPoller
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class ClusterCacheInvalidationIntTest {
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private CacheInvalidationBroadcaster broadcaster;
+
+    @Inject
+    private LocationRepository locationRepository;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
+    @Inject
+    private WorkloadIntervalRepository workloadIntervalRepository;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private DataSource dataSource;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private AnnotationConfigApplicationContext otherNode;
+
+    private Long locationId;
+
+    private Long employeeId;
+
+    @Before
+    public void setup() {
+        applicationProperties.getCluster().setEnabled(true);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        otherNode = startNode("node-b");
+        poller(otherNode).poll();
+    }
+
+    @After
+    public void tearDown() {
+        applicationProperties.getCluster().setEnabled(false);
+        otherNode.close();
+        if (locationId != null) {
+            locationRepository.delete(locationId);
+        }
+        if (employeeId != null) {
+            employeeRepository.delete(employeeId);
+        }
+        jdbcTemplate.update("delete from cache_invalidation");
+    }
+
+    @Test
+    public void otherNodeDropsTheCommittedChanges() {
+        Location location = transactionTemplate.execute(status ->
+            locationRepository.save(new Location().upsaId("cluster-cache").name("Lviv")));
+        locationId = location.getId();
+        poller(otherNode).poll();
+
+        TotalCountCache totalCountCache = otherNode.getBean(TotalCountCache.class);
+        Cache hibernateCache = otherNode.getBean(Cache.class);
+        verify(totalCountCache).invalidate(Location.class, true);
+        verify(hibernateCache, never()).evictEntityRegion(Location.class);
+        assertThat(otherNode.getBean(ChangedEntities.class).classes).containsExactly(Location.class);
+
+        transactionTemplate.execute(status -> {
+            locationRepository.findOne(locationId).setName("Kyiv");
+            return null;
+        });
+        poller(otherNode).poll();
+
+        // the test application does not cache the entities, so the whole region is dropped
+        verify(hibernateCache).evictEntityRegion(Location.class);
+        verify(totalCountCache).invalidate(Location.class, false);
+        assertThat(otherNode.getBean(ChangedEntities.class).classes).containsExactly(Location.class, Location.class);
+    }
+
+    @Test
+    public void bulkDeletesDropTheWholeRegion() {
+        Location location = transactionTemplate.execute(status ->
+            locationRepository.save(new Location().upsaId("cluster-cache").name("Lviv")));
+        poller(otherNode).poll();
+        transactionTemplate.execute(status -> {
+            locationRepository.deleteInBatch(Collections.singletonList(location));
+            return null;
+        });
+        poller(otherNode).poll();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "select invalidation_type, entity_id from cache_invalidation where region = ? order by id desc limit 1",
+            Location.class.getName());
+        assertThat(row.get("invalidation_type")).isEqualTo("DELETE");
+        assertThat(row.get("entity_id")).isNull();
+        verify(otherNode.getBean(Cache.class)).evictEntityRegion(Location.class);
+        verify(otherNode.getBean(TotalCountCache.class), times(2)).invalidate(Location.class, true);
+    }
+
+    @Test
+    public void modifyingQueriesDropTheWholeRegion() {
+        employeeId = transactionTemplate.execute(status -> employeeRepository.save(new Employee().upsaId("cluster-cache")
+            .email("cluster-cache@epam.com").active(true))).getId();
+        poller(otherNode).poll();
+        transactionTemplate.execute(status ->
+            workloadIntervalRepository.deleteByEmployee(employeeRepository.findOne(employeeId)));
+        poller(otherNode).poll();
+
+        verify(otherNode.getBean(Cache.class)).evictEntityRegion(WorkloadInterval.class);
+        verify(otherNode.getBean(TotalCountCache.class)).invalidate(WorkloadInterval.class, true);
+        assertThat(otherNode.getBean(ChangedEntities.class).classes).contains(WorkloadInterval.class);
+    }
+
+    @Test
+    public void changesAreAppliedOnce() {
+        locationId = transactionTemplate.execute(status ->
+            locationRepository.save(new Location().upsaId("cluster-cache").name("Lviv"))).getId();
+        poller(otherNode).poll();
+        poller(otherNode).poll();
+
+        verify(otherNode.getBean(TotalCountCache.class), times(1)).invalidate(Location.class, true);
+    }
+
+    @Test
+    public void rolledBackChangesAreNotBroadcast() {
+        transactionTemplate.execute(status -> {
+            locationRepository.save(new Location().upsaId("cluster-cache").name("Lviv"));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cache_invalidation", Long.class)).isZero();
+    }
+
+    @Test
+    public void nodeSkipsItsOwnChanges() {
+        AnnotationConfigApplicationContext sameNode = startNode(broadcaster.getNodeId());
+        try {
+            poller(sameNode).poll();
+            locationId = transactionTemplate.execute(status ->
+                locationRepository.save(new Location().upsaId("cluster-cache").name("Lviv"))).getId();
+            poller(sameNode).poll();
+
+            verifyZeroInteractions(sameNode.getBean(TotalCountCache.class), sameNode.getBean(Cache.class));
+            assertThat(sameNode.getBean(ChangedEntities.class).classes).isEmpty();
+        } finally {
+            sameNode.close();
+        }
+    }
+
+    private AnnotationConfigApplicationContext startNode(String nodeId) {
+        AnnotationConfigApplicationContext node = new AnnotationConfigApplicationContext();
+        node.getBeanFactory().registerSingleton("dataSource", dataSource);
+        node.getBeanFactory().registerSingleton("nodeId", nodeId);
+        node.register(NodeConfiguration.class);
+        node.refresh();
+        return node;
+    }
+
+    private static CacheInvalidationPoller poller(AnnotationConfigApplicationContext node) {
+        return node.getBean(CacheInvalidationPoller.class);
+    }
+
+    /**
+     * Beans of a second node; not a {@code @Configuration}, so the component scan of the application skips it.
+     */
+    static class NodeConfiguration {
+
+        @Bean
+        public ApplicationProperties applicationProperties() {
+            ApplicationProperties properties = new ApplicationProperties();
+            properties.getCluster().setEnabled(true);
+            return properties;
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        public CacheInvalidationBroadcaster broadcaster(String nodeId) {
+            CacheInvalidationBroadcaster broadcaster = mock(CacheInvalidationBroadcaster.class);
+            when(broadcaster.getNodeId()).thenReturn(nodeId);
+            return broadcaster;
+        }
+
+        @Bean
+        public Cache hibernateCache() {
+            return mock(Cache.class);
+        }
+
+        @Bean
+        public EntityManagerFactory entityManagerFactory(Cache hibernateCache) {
+            SessionFactory sessionFactory = mock(SessionFactory.class);
+            when(sessionFactory.getCache()).thenReturn(hibernateCache);
+            EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+            when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+            return entityManagerFactory;
+        }
+
+        @Bean
+        public TotalCountCache totalCountCache() {
+            return mock(TotalCountCache.class);
+        }
+
+        @Bean
+        public ChangedEntities changedEntities() {
+            return new ChangedEntities();
+        }
+
+        @Bean
+        public CacheInvalidationPoller cacheInvalidationPoller() {
+            return new CacheInvalidationPoller();
+        }
+    }
+
+    static class ChangedEntities implements ApplicationListener<BenchDataChangedEvent> {
+
+        private final List<Class<?>> classes = new ArrayList<>();
+
+        @Override
+        public void onApplicationEvent(BenchDataChangedEvent event) {
+            classes.add(event.getEntityClass());
+        }
+    }
+}
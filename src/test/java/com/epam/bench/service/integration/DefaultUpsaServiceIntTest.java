@@ -0,0 +1,218 @@
+package com.epam.bench.service.integration;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.epam.bench.BenchApp;
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.domain.integration.upsa.CustomEmployeeSimpleViewDto;
+import com.epam.bench.domain.integration.upsa.EmployeeSimpleView;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test class for the UpsaService, run against a local stand-in of UPSA.
+ *
+ * @see UpsaService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class DefaultUpsaServiceIntTest {
+
+    private static final int SYNC_SIZE = 1000;
+
+    private static final long SIMULATED_LATENCY_MILLIS = 5;
+
+    private final Logger log = LoggerFactory.getLogger(DefaultUpsaServiceIntTest.class);
+
+    @Inject
+    private UpsaService upsaService;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private String originalBaseUrl;
+
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> authorizations = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void startUpsaStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/employees/", this::handle);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        originalBaseUrl = applicationProperties.getUpsa().getBaseUrl();
+        applicationProperties.getUpsa().setBaseUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        // start every test with a closed circuit breaker
+        ReflectionTestUtils.invokeMethod(upsaService, "init");
+    }
+
+    @After
+    public void stopUpsaStandIn() throws InterruptedException {
+        applicationProperties.getUpsa().setBaseUrl(originalBaseUrl);
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        serverExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void assertThatEmployeeIsMappedAndTokenIsSent() {
+        EmployeeSimpleView employee = upsaService.getEmployee("4000");
+
+        assertThat(employee).isInstanceOf(CustomEmployeeSimpleViewDto.class);
+        assertThat(employee.getEmployeeId()).isEqualTo(new BigDecimal(4000));
+        assertThat(employee.getFullname()).isEqualTo("Employee 4000");
+        assertThat(employee.getEmail()).isEqualTo("employee_4000@epam.com");
+        assertThat(((CustomEmployeeSimpleViewDto) employee).getManagerId()).isEqualTo(new BigDecimal(1));
+        assertThat(authorizations).containsExactly("bearer test-token");
+    }
+
+    @Test
+    public void assertThatUnknownEmployeeIsNotRetried() {
+        assertThat(upsaService.getEmployee("missing")).isNull();
+        assertThat(requestCounts.get("missing").get()).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatServerErrorsAreRetried() {
+        EmployeeSimpleView employee = upsaService.getEmployee("flaky");
+
+        assertThat(employee.getFullname()).isEqualTo("Employee flaky");
+        assertThat(requestCounts.get("flaky").get()).isEqualTo(3);
+    }
+
+    @Test
+    public void assertThatCircuitBreakerStopsCallsToFailingUpsa() {
+        int failureThreshold = applicationProperties.getUpsa().getCircuitBreaker().getFailureThreshold();
+        for (int i = 0; i < failureThreshold; i++) {
+            try {
+                upsaService.getEmployee("down");
+                fail("UPSA is down");
+            } catch (UpsaUnavailableException expected) {
+            }
+        }
+        int requestsBeforeOpen = requestCounts.get("down").get();
+        assertThat(requestsBeforeOpen).isEqualTo(failureThreshold * applicationProperties.getUpsa().getMaxAttempts());
+
+        try {
+            upsaService.getEmployee("down");
+            fail("The circuit breaker is open");
+        } catch (UpsaUnavailableException expected) {
+        }
+        assertThat(requestCounts.get("down").get()).isEqualTo(requestsBeforeOpen);
+    }
+
+    @Test
+    public void assertThatBulkFetchLeavesOutTheFailedEmployee() {
+        Map<String, EmployeeSimpleView> employees = upsaService.getEmployees(Arrays.asList("4001", "forbidden", "4002"));
+
+        assertThat(employees.keySet()).containsExactly("4001", "4002");
+        assertThat(requestCounts.get("forbidden").get()).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatBulkFetchReusesPooledConnections() {
+        List<String> employeeIds = new ArrayList<>(SYNC_SIZE);
+        for (int i = 0; i < SYNC_SIZE; i++) {
+            employeeIds.add(String.valueOf(10000 + i));
+        }
+        employeeIds.add("missing");
+
+        long start = System.nanoTime();
+        Map<String, EmployeeSimpleView> employees = upsaService.getEmployees(employeeIds);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(employees).hasSize(SYNC_SIZE);
+        assertThat(employees.get("10042").getFullname()).isEqualTo("Employee 10042");
+        assertThat(clientPorts.size()).isLessThanOrEqualTo(applicationProperties.getUpsa().getMaxConnectionsPerRoute());
+
+        Snapshot latency = metricRegistry.timer(MetricRegistry.name(UpsaService.class, "requests")).getSnapshot();
+        log.info("Fetched {} employees in {} ms ({} employees/s) over {} connections, latency p50 {} ms, p99 {} ms",
+            SYNC_SIZE, elapsedMillis, SYNC_SIZE * 1000L / Math.max(1, elapsedMillis), clientPorts.size(),
+            TimeUnit.NANOSECONDS.toMillis((long) latency.getMedian()),
+            TimeUnit.NANOSECONDS.toMillis((long) latency.get99thPercentile()));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String employeeId = exchange.getRequestURI().getPath().substring("/employees/".length());
+        int count = requestCounts.computeIfAbsent(employeeId, id -> new AtomicInteger()).incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null) {
+            authorizations.add(authorization);
+        }
+        try {
+            Thread.sleep(SIMULATED_LATENCY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if ("missing".equals(employeeId)) {
+            respond(exchange, 404, "{}");
+        } else if ("forbidden".equals(employeeId)) {
+            respond(exchange, 403, "{}");
+        } else if ("down".equals(employeeId) || ("flaky".equals(employeeId) && count < 3)) {
+            respond(exchange, 503, "{}");
+        } else {
+            String numericId = "flaky".equals(employeeId) ? "1" : employeeId;
+            respond(exchange, 200, "{\"employeeSimpleView\":{"
+                + "\"employeeId\":" + numericId + ","
+                + "\"fullname\":\"Employee " + employeeId + "\","
+                + "\"email\":\"employee_" + employeeId + "@epam.com\","
+                + "\"gender\":\"Male\","
+                + "\"managerId\":1,"
+                + "\"active\":true}}");
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
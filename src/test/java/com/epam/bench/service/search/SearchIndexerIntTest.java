@@ -0,0 +1,146 @@
+package com.epam.bench.service.search;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.config.ApplicationProperties;
+import com.epam.bench.domain.Title;
+import com.epam.bench.repository.search.TitleSearchRepository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the SearchIndexer in its asynchronous mode.
+ *
+ * @see SearchIndexer
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class SearchIndexerIntTest {
+
+    private static final Long ID = 424242L;
+
+    @Inject
+    private SearchIndexer searchIndexer;
+
+    @Inject
+    private ApplicationProperties applicationProperties;
+
+    @Inject
+    private TitleSearchRepository titleSearchRepository;
+
+    @Inject
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setup() {
+        applicationProperties.getSearch().setAsync(true);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        titleSearchRepository.delete(ID);
+    }
+
+    @After
+    public void tearDown() {
+        applicationProperties.getSearch().setAsync(false);
+        searchIndexer.flush();
+        titleSearchRepository.delete(ID);
+    }
+
+    @Test
+    public void indexesAfterCommit() {
+        transactionTemplate.execute(status -> {
+            searchIndexer.index(createTitle("AAAAAAAAAA"));
+            assertThat(searchIndexer.getPendingCount()).isZero();
+            return null;
+        });
+
+        flush();
+        assertThat(titleSearchRepository.findOne(ID).getName()).isEqualTo("AAAAAAAAAA");
+    }
+
+    @Test
+    public void skipsRolledBackChanges() {
+        transactionTemplate.execute(status -> {
+            searchIndexer.index(createTitle("AAAAAAAAAA"));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(searchIndexer.getPendingCount()).isZero();
+        flush();
+        assertThat(titleSearchRepository.findOne(ID)).isNull();
+    }
+
+    @Test
+    public void keepsTheLastChangeOfADocument() {
+        transactionTemplate.execute(status -> {
+            searchIndexer.index(createTitle("AAAAAAAAAA"));
+            searchIndexer.index(createTitle("BBBBBBBBBB"));
+            return null;
+        });
+        flush();
+        assertThat(titleSearchRepository.findOne(ID).getName()).isEqualTo("BBBBBBBBBB");
+
+        transactionTemplate.execute(status -> {
+            searchIndexer.index(createTitle("CCCCCCCCCC"));
+            searchIndexer.delete(Title.class, ID);
+            return null;
+        });
+
+        flush();
+        assertThat(titleSearchRepository.findOne(ID)).isNull();
+    }
+
+    @Test
+    public void shadowIndexKeepsTheDeletesAndTheOperationsGivenUp() {
+        String index = elasticsearchTemplate.getPersistentEntityFor(Title.class).getIndexName();
+        int maxAttempts = applicationProperties.getSearch().getMaxAttempts();
+        applicationProperties.getSearch().setMaxAttempts(1);
+        // not a valid index name, so every copy fails
+        SearchIndexer.ShadowIndex shadow = searchIndexer.addShadowIndex(index, "INVALID-shadow");
+        try {
+            transactionTemplate.execute(status -> {
+                searchIndexer.delete(Title.class, ID);
+                return null;
+            });
+            flush();
+
+            assertThat(shadow.getDeletedIds()).containsExactly(String.valueOf(ID));
+            assertThat(shadow.getFailed()).isEqualTo(1);
+        } finally {
+            searchIndexer.removeShadowIndex(index);
+            applicationProperties.getSearch().setMaxAttempts(maxAttempts);
+            jdbcTemplate.update("delete from search_index_dead_letter where document_id = ?", String.valueOf(ID));
+        }
+    }
+
+    private void flush() {
+        searchIndexer.flush();
+        elasticsearchTemplate.refresh(Title.class);
+    }
+
+    private static Title createTitle(String name) {
+        Title title = new Title().upsaId("AAAAAAAAAA").name(name);
+        title.setId(ID);
+        return title;
+    }
+}
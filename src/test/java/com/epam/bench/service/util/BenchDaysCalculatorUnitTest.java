@@ -0,0 +1,154 @@
+package com.epam.bench.service.util;
+
+import com.epam.bench.domain.BenchHistory;
+import com.epam.bench.service.util.BenchDaysCalculator.BenchDays;
+
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the BenchDaysCalculator.
+ *
+ * @see BenchDaysCalculator
+ */
+public class BenchDaysCalculatorUnitTest {
+
+    private static final long DAY = 24 * 60 * 60;
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2016, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    public void assertThatNoHistoryIsNoBenchTime() {
+        BenchDays benchDays = BenchDaysCalculator.aggregate(Collections.emptyList());
+
+        assertThat(benchDays.getClosedSeconds()).isZero();
+        assertThat(benchDays.getOpenSince()).isNull();
+    }
+
+    @Test
+    public void assertThatClosedIntervalsAreSummed() {
+        BenchDays benchDays = BenchDaysCalculator.aggregate(Arrays.asList(
+            bench(0, 10),
+            bench(20, 25)));
+
+        assertThat(benchDays.getClosedSeconds()).isEqualTo(15 * DAY);
+        assertThat(benchDays.getOpenSince()).isNull();
+        assertThat(daysAt(benchDays, 100)).isEqualTo(15);
+    }
+
+    @Test
+    public void assertThatOverlappingIntervalsAreCountedOnce() {
+        BenchDays benchDays = BenchDaysCalculator.aggregate(Arrays.asList(
+            bench(5, 15),
+            bench(0, 10),
+            bench(2, 3),
+            bench(15, 20)));
+
+        assertThat(benchDays.getClosedSeconds()).isEqualTo(20 * DAY);
+    }
+
+    @Test
+    public void assertThatReleasedEntriesAreCounted() {
+        BenchDays benchDays = BenchDaysCalculator.aggregate(Arrays.asList(
+            released(0, 10),
+            released(20, 25)));
+
+        assertThat(benchDays.getClosedSeconds()).isEqualTo(15 * DAY);
+        assertThat(benchDays.getOpenSince()).isNull();
+    }
+
+    @Test
+    public void assertThatEntriesNeverOnBenchAreIgnored() {
+        BenchDays benchDays = BenchDaysCalculator.aggregate(Arrays.asList(
+            released(0, 10),
+            new BenchHistory().bench(false).createdTime(START.plusDays(20))));
+
+        assertThat(benchDays.getClosedSeconds()).isEqualTo(10 * DAY);
+        assertThat(benchDays.getOpenSince()).isNull();
+    }
+
+    @Test
+    public void assertThatTheOpenIntervalGrowsWithTime() {
+        BenchDays benchDays = BenchDaysCalculator.aggregate(Arrays.asList(
+            bench(0, 10),
+            open(20)));
+
+        assertThat(benchDays.getClosedSeconds()).isEqualTo(10 * DAY);
+        assertThat(benchDays.getOpenSince()).isEqualTo(START.plusDays(20).toInstant());
+        assertThat(daysAt(benchDays, 20)).isEqualTo(10);
+        assertThat(daysAt(benchDays, 25)).isEqualTo(15);
+        assertThat(daysAt(benchDays, 40)).isEqualTo(30);
+    }
+
+    @Test
+    public void assertThatClosedTimeCoveredByTheOpenIntervalIsCountedOnce() {
+        BenchDays benchDays = BenchDaysCalculator.aggregate(Arrays.asList(
+            bench(0, 10),
+            bench(15, 30),
+            open(25)));
+
+        assertThat(benchDays.getClosedSeconds()).isEqualTo(20 * DAY);
+        assertThat(benchDays.getOpenSince()).isEqualTo(START.plusDays(25).toInstant());
+        assertThat(daysAt(benchDays, 40)).isEqualTo(35);
+    }
+
+    @Test
+    public void assertThatOnlyTheLatestEntryIsOpen() {
+        BenchDays benchDays = BenchDaysCalculator.aggregate(Arrays.asList(
+            bench(0, 10),
+            open(20),
+            // added again without closing the previous entry, which ends here
+            open(25)));
+
+        assertThat(benchDays.getClosedSeconds()).isEqualTo(15 * DAY);
+        assertThat(benchDays.getOpenSince()).isEqualTo(START.plusDays(25).toInstant());
+        assertThat(daysAt(benchDays, 40)).isEqualTo(30);
+    }
+
+    @Test
+    public void assertThatReleasingTheLatestOfEntriesAddedBackToBackStopsTheCount() {
+        // added on days 0 and 10, the release closes the latest entry only
+        BenchDays benchDays = BenchDaysCalculator.aggregate(Arrays.asList(
+            open(0),
+            released(10, 30)));
+
+        assertThat(benchDays.getClosedSeconds()).isEqualTo(30 * DAY);
+        assertThat(benchDays.getOpenSince()).isNull();
+        assertThat(daysAt(benchDays, 100)).isEqualTo(30);
+    }
+
+    @Test
+    public void assertThatPartialDaysAreNotCounted() {
+        assertThat(BenchDaysCalculator.daysOnBench(DAY - 1, null, START)).isZero();
+        assertThat(BenchDaysCalculator.daysOnBench(DAY / 2, START.minusHours(12), START)).isEqualTo(1);
+        // an open interval that starts later adds nothing yet
+        assertThat(BenchDaysCalculator.daysOnBench(DAY, START.plusDays(1), START)).isEqualTo(1);
+    }
+
+    private static int daysAt(BenchDays benchDays, int day) {
+        ZonedDateTime openSince = benchDays.getOpenSince() == null ? null
+            : ZonedDateTime.ofInstant(benchDays.getOpenSince(), ZoneOffset.UTC);
+        return BenchDaysCalculator.daysOnBench(benchDays.getClosedSeconds(), openSince, START.plusDays(day));
+    }
+
+    private static BenchHistory bench(int from, int to) {
+        return new BenchHistory().bench(true).createdTime(START.plusDays(from)).validTo(START.plusDays(to));
+    }
+
+    /**
+     * An entry released from the bench, which is flagged off bench when it is closed.
+     */
+    private static BenchHistory released(int from, int to) {
+        return new BenchHistory().bench(false).createdTime(START.plusDays(from)).validTo(START.plusDays(to));
+    }
+
+    private static BenchHistory open(int from) {
+        return new BenchHistory().bench(true).createdTime(START.plusDays(from));
+    }
+}
@@ -0,0 +1,112 @@
+package com.epam.bench.service.util;
+
+import com.epam.bench.domain.BenchPredictions;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.domain.ProbationStatus;
+import com.epam.bench.domain.ProductionStatus;
+import com.epam.bench.domain.Project;
+import com.epam.bench.domain.WorkloadInterval;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the BenchPredictor.
+ *
+ * @see BenchPredictor
+ */
+public class BenchPredictorUnitTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2016, 12, 1);
+
+    private static final LocalDate HORIZON = TODAY.plusDays(30);
+
+    @Test
+    public void assertThatEmployeeWhoseWorkloadsAllEndIsReadyToBench() {
+        BenchPredictions prediction = BenchPredictor.predict(employee(false), Arrays.asList(
+            interval("alpha", TODAY.minusMonths(1), TODAY.plusDays(20)),
+            interval("beta", TODAY.minusMonths(1), TODAY.plusDays(10))), TODAY, HORIZON);
+
+        assertThat(prediction.isReadyToBench()).isTrue();
+        assertThat(prediction.isReadyToProduction()).isFalse();
+        assertThat(prediction.getDetails().isRemovedFromProject()).isTrue();
+        assertThat(prediction.getDetails().getDate()).isEqualTo(TODAY.plusDays(10));
+        assertThat(prediction.getDetails().getProject().getName()).isEqualTo("beta");
+    }
+
+    @Test
+    public void assertThatEmployeeKeepingAWorkloadIsNotReadyToBench() {
+        BenchPredictions prediction = BenchPredictor.predict(employee(false), Arrays.asList(
+            interval("alpha", TODAY.minusMonths(1), TODAY.plusDays(10)),
+            interval("beta", TODAY.minusMonths(1), null)), TODAY, HORIZON);
+
+        assertThat(prediction.isReadyToBench()).isFalse();
+        assertThat(prediction.getDetails().isRemovedFromProject()).isTrue();
+    }
+
+    @Test
+    public void assertThatProjectEndDateEndsTheWorkload() {
+        WorkloadInterval interval = interval("alpha", TODAY.minusMonths(1), null);
+        interval.getProject().setEndDate(TODAY.plusDays(4));
+
+        BenchPredictions prediction = BenchPredictor.predict(employee(false),
+            Collections.singletonList(interval), TODAY, HORIZON);
+
+        assertThat(prediction.isReadyToBench()).isTrue();
+        assertThat(prediction.getDetails().getDate()).isEqualTo(TODAY.plusDays(5));
+    }
+
+    @Test
+    public void assertThatBenchEmployeeWithUpcomingWorkloadIsReadyToProduction() {
+        BenchPredictions prediction = BenchPredictor.predict(employee(true), Collections.singletonList(
+            interval("alpha", TODAY.plusDays(7), null)), TODAY, HORIZON);
+
+        assertThat(prediction.isReadyToProduction()).isTrue();
+        assertThat(prediction.getDetails().isAssignedToProject()).isTrue();
+        assertThat(prediction.getDetails().getDate()).isEqualTo(TODAY.plusDays(7));
+    }
+
+    @Test
+    public void assertThatBenchEmployeeFinishingProbationIsReadyToProduction() {
+        Employee employee = employee(true).probation(new ProbationStatus()
+            .endDate(ZonedDateTime.of(TODAY.plusDays(3).atStartOfDay(), ZoneOffset.UTC)));
+
+        BenchPredictions prediction = BenchPredictor.predict(employee, Collections.emptyList(), TODAY, HORIZON);
+
+        assertThat(prediction.isReadyToProduction()).isTrue();
+        assertThat(prediction.getDetails().getDate()).isEqualTo(TODAY.plusDays(3));
+    }
+
+    @Test
+    public void assertThatMaternityLeaveIsNeitherReady() {
+        Employee employee = employee(false).productionStatus(new ProductionStatus().name("Maternity Leave"));
+
+        BenchPredictions prediction = BenchPredictor.predict(employee, Collections.singletonList(
+            interval("alpha", TODAY.minusMonths(1), TODAY.plusDays(10))), TODAY, HORIZON);
+
+        assertThat(prediction.getDetails().isMaternityLeave()).isTrue();
+        assertThat(prediction.isReadyToBench()).isFalse();
+        assertThat(prediction.isReadyToProduction()).isFalse();
+    }
+
+    private Employee employee(boolean onBench) {
+        Employee employee = new Employee().active(true);
+        employee.setOnBench(onBench);
+        return employee;
+    }
+
+    private WorkloadInterval interval(String project, LocalDate from, LocalDate to) {
+        return new WorkloadInterval()
+            .project(new Project().upsaId(project).name(project))
+            .workload(100)
+            .validFrom(from)
+            .validTo(to);
+    }
+}
@@ -0,0 +1,141 @@
+package com.epam.bench.service.util;
+
+import com.codahale.metrics.MetricRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test class for the SingleFlightCache.
+ *
+ * @see SingleFlightCache
+ */
+public class SingleFlightCacheUnitTest {
+
+    private static final String NAME = "test.cache";
+
+    private MetricRegistry metricRegistry;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        loads.set(0);
+    }
+
+    @Test
+    public void assertThatValuesAreLoadedOnce() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(NAME, 60000, 60000, 100, metricRegistry);
+
+        assertThat(cache.get("a", this::load)).isEqualTo("A");
+        assertThat(cache.get("a", this::load)).isEqualTo("A");
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(metricRegistry.meter(NAME + ".misses").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.meter(NAME + ".hits").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatConcurrentMissesAreCoalesced() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(NAME, 60000, 60000, 100, metricRegistry);
+        int threads = 16;
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("a", key -> {
+                loading.countDown();
+                await(release);
+                return load(key);
+            })));
+            loading.await(5, TimeUnit.SECONDS);
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> cache.get("a", this::load)));
+            }
+            // let the other lookups reach the pending entry before the load completes
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(metricRegistry.meter(NAME + ".misses").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.meter(NAME + ".coalesced").getCount()).isEqualTo(threads - 1);
+    }
+
+    @Test
+    public void assertThatMissingValuesAreCachedWithTheirOwnTimeToLive() throws InterruptedException {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(NAME, 60000, 50, 100, metricRegistry);
+
+        assertThat(cache.get("a", key -> countedNull())).isNull();
+        assertThat(cache.get("a", key -> countedNull())).isNull();
+        assertThat(loads.get()).isEqualTo(1);
+
+        Thread.sleep(100);
+        assertThat(cache.get("a", key -> countedNull())).isNull();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void assertThatFailuresAreNotCached() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(NAME, 60000, 60000, 100, metricRegistry);
+        try {
+            cache.get("a", key -> {
+                throw new IllegalStateException("upstream down");
+            });
+            fail("The load failed");
+        } catch (IllegalStateException expected) {
+        }
+
+        assertThat(cache.get("a", this::load)).isEqualTo("A");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatSizeIsBounded() {
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(NAME, 60000, 60000, 100, metricRegistry);
+        for (int i = 0; i < 1000; i++) {
+            cache.get(i, key -> key);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(metricRegistry.meter(NAME + ".evictions").getCount()).isGreaterThan(0);
+    }
+
+    private String load(String key) {
+        loads.incrementAndGet();
+        return key.toUpperCase();
+    }
+
+    private String countedNull() {
+        loads.incrementAndGet();
+        return null;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.epam.bench.web.rest;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.BenchState;
+import com.epam.bench.domain.Employee;
+import com.epam.bench.facades.EmployeeFacade;
+import com.epam.bench.facades.integration.UpsaFacade;
+import com.epam.bench.repository.BenchHistoryRepository;
+import com.epam.bench.repository.BenchStateRepository;
+import com.epam.bench.repository.EmployeeRepository;
+import com.epam.bench.service.UnitService;
+import com.epam.bench.service.dto.bench.EmployeeSimpleViewDto;
+import com.epam.bench.web.rest.dto.EmployeeDtoResource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Load test for the EmployeeDtoResource endpoints waiting on UPSA, with a slow UPSA: they must not hold the server
+ * worker threads, so the other endpoints keep answering as fast as without them.
+ * <p>
+ * Not transactional, as the requests complete on other threads; the employee added is removed after each test.
+ *
+ * @see EmployeeDtoResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class EmployeeDtoResourceAsyncIntTest {
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeDtoResourceAsyncIntTest.class);
+
+    private static final long UPSA_LATENCY_MILLIS = 500;
+
+    /**
+     * The server worker threads, few enough for blocking UPSA requests to take all of them.
+     */
+    private static final int WORKERS = 4;
+
+    private static final int REQUESTS = 40;
+
+    private static final String QUERY = "nobody-known-locally";
+
+    private static final String NEW_UPSA_ID = "async-new";
+
+    @Inject
+    private EmployeeDtoResource employeeDtoResource;
+
+    @Inject
+    private EmployeeFacade employeeFacade;
+
+    @Inject
+    private UpsaFacade upsaFacade;
+
+    @Inject
+    private UnitService unitService;
+
+    @Inject
+    private EmployeeRepository employeeRepository;
+
+    @Inject
+    private BenchHistoryRepository benchHistoryRepository;
+
+    @Inject
+    private BenchStateRepository benchStateRepository;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Inject
+    private PageableHandlerMethodArgumentResolver pageableArgumentResolver;
+
+    private MockMvc restMockMvc;
+
+    private ExecutorService workers;
+
+    @Before
+    public void setup() {
+        UpsaFacade slowUpsaFacade = mock(UpsaFacade.class);
+        when(slowUpsaFacade.getSuggestedEmployees(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(UPSA_LATENCY_MILLIS);
+            return Collections.singletonList(new EmployeeSimpleViewDto("upsa-slow", "Slow Employee"));
+        });
+        when(slowUpsaFacade.getEmployee(anyString())).thenAnswer(invocation -> {
+            String upsaId = (String) invocation.getArguments()[0];
+            return Optional.of(new Employee().upsaId(upsaId).email(upsaId + "@epam.com").fullName("New Employee")
+                .active(true));
+        });
+        when(slowUpsaFacade.getEmployeeWorkloads(anyString())).thenReturn(Collections.emptySet());
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(employeeFacade), "upsaFacade", slowUpsaFacade);
+
+        UnitResource unitResource = new UnitResource();
+        ReflectionTestUtils.setField(unitResource, "unitService", unitService);
+        restMockMvc = MockMvcBuilders.standaloneSetup(employeeDtoResource, unitResource)
+            .setCustomArgumentResolvers(pageableArgumentResolver)
+            .setMessageConverters(jacksonMessageConverter).build();
+        workers = Executors.newFixedThreadPool(WORKERS);
+    }
+
+    @After
+    public void restore() {
+        workers.shutdownNow();
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(employeeFacade), "upsaFacade", upsaFacade);
+        SecurityContextHolder.clearContext();
+        new TransactionTemplate(transactionManager).execute(status -> {
+            Employee added = employeeRepository.findByUpsaId(NEW_UPSA_ID);
+            if (Objects.nonNull(added)) {
+                BenchState state = benchStateRepository.findByEmployee(added);
+                if (Objects.nonNull(state)) {
+                    benchStateRepository.delete(state);
+                }
+                benchHistoryRepository.delete(benchHistoryRepository.findByEmployee(added));
+                employeeRepository.delete(added);
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void addsAnEmployeeNotOnTheBench() throws Exception {
+        // the bench history entry is written for the current user
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        SecurityContextHolder.setContext(securityContext);
+
+        MvcResult result = restMockMvc.perform(post("/api/bench/employees/" + NEW_UPSA_ID)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("\"" + NEW_UPSA_ID + "\""))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.upsaId").value(NEW_UPSA_ID));
+        assertThat(employeeRepository.findByUpsaId(NEW_UPSA_ID)).isNotNull();
+    }
+
+    @Test
+    public void searchReleasesTheRequestThread() throws Exception {
+        long start = System.nanoTime();
+        MvcResult result = restMockMvc.perform(get("/api/bench/employees/search").param("query", QUERY))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertThat(millisSince(start)).isLessThan(UPSA_LATENCY_MILLIS);
+
+        restMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].upsaId").value("upsa-slow"));
+    }
+
+    @Test
+    public void crudLatencyStaysFlatWhileUpsaIsSlow() throws Exception {
+        // warms up both endpoints
+        restMockMvc.perform(asyncDispatch(search())).andExpect(status().isOk());
+        restMockMvc.perform(get("/api/units")).andExpect(status().isOk());
+
+        long baseline = percentile95(crudLatencies(null));
+        List<Future<MvcResult>> searches = new ArrayList<>();
+        long underLoad = percentile95(crudLatencies(searches));
+        for (Future<MvcResult> search : searches) {
+            restMockMvc.perform(asyncDispatch(search.get())).andExpect(status().isOk());
+        }
+
+        log.info("95th percentile of the CRUD latency: {} ms alone, {} ms among {} UPSA searches of {} ms", baseline,
+            underLoad, REQUESTS, UPSA_LATENCY_MILLIS);
+        // blocking, the searches would hold the workers and the CRUD requests would wait for UPSA behind them
+        assertThat(underLoad).isLessThan(baseline + UPSA_LATENCY_MILLIS / 2);
+    }
+
+    private MvcResult search() throws Exception {
+        return restMockMvc.perform(get("/api/bench/employees/search").param("query", QUERY))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+
+    /**
+     * Sends CRUD requests to the workers, each after an UPSA search if searches are collected, and measures them from
+     * their submission, so the time spent waiting for a worker counts.
+     */
+    private List<Long> crudLatencies(List<Future<MvcResult>> searches) throws Exception {
+        List<Future<Long>> crud = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            if (searches != null) {
+                searches.add(workers.submit(this::search));
+            }
+            long submitted = System.nanoTime();
+            crud.add(workers.submit(() -> {
+                restMockMvc.perform(get("/api/units")).andExpect(status().isOk());
+                return millisSince(submitted);
+            }));
+        }
+        List<Long> latencies = new ArrayList<>();
+        for (Future<Long> latency : crud) {
+            latencies.add(latency.get(30, TimeUnit.SECONDS));
+        }
+        return latencies;
+    }
+
+    private static long percentile95(List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1);
+    }
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -4,12 +4,14 @@ import com.epam.bench.BenchApp;
 
 import com.epam.bench.domain.Location;
 import com.epam.bench.repository.LocationRepository;
+import com.epam.bench.service.KeysetPaginationService;
 import com.epam.bench.service.LocationService;
 import com.epam.bench.repository.search.LocationSearchRepository;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -26,6 +28,8 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -52,6 +56,9 @@ public class LocationResourceIntTest {
     @Inject
     private LocationService locationService;
 
+    @Inject
+    private KeysetPaginationService keysetPaginationService;
+
     @Inject
     private LocationSearchRepository locationSearchRepository;
 
@@ -73,6 +80,7 @@ public class LocationResourceIntTest {
         MockitoAnnotations.initMocks(this);
         LocationResource locationResource = new LocationResource();
         ReflectionTestUtils.setField(locationResource, "locationService", locationService);
+        ReflectionTestUtils.setField(locationResource, "keysetPaginationService", keysetPaginationService);
         this.restLocationMockMvc = MockMvcBuilders.standaloneSetup(locationResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -136,6 +144,31 @@ public class LocationResourceIntTest {
                 .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME.toString())));
     }
 
+    @Test
+    @Transactional
+    public void getLocationsAfterCursor() throws Exception {
+        // Initialize the database
+        locationRepository.saveAndFlush(location);
+        Location newer = locationRepository.saveAndFlush(createEntity(em).name(UPDATED_NAME));
+
+        // Get the first keyset page, with the count
+        String link = restLocationMockMvc.perform(get("/api/locations?cursor=&size=1&count=true&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", String.valueOf(locationRepository.count())))
+            .andExpect(header().string("Link", containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$.[0].id").value(newer.getId().intValue()))
+            .andReturn().getResponse().getHeader("Link");
+        Matcher next = Pattern.compile("<([^>]+)>; rel=\"next\"").matcher(link);
+        assertThat(next.find()).isTrue();
+
+        // Follow the next link, without the count
+        restLocationMockMvc.perform(get(next.group(1)))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[0].id").value(location.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME));
+    }
+
     @Test
     @Transactional
     public void getLocation() throws Exception {
@@ -0,0 +1,131 @@
+package com.epam.bench.web.rest;
+
+import com.epam.bench.BenchApp;
+import com.epam.bench.domain.Title;
+import com.epam.bench.repository.TitleRepository;
+import com.epam.bench.repository.search.TitleSearchRepository;
+import com.epam.bench.service.dto.ReindexStatusDTO;
+import com.epam.bench.service.search.SearchReindexer;
+
+import org.elasticsearch.client.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.jayway.awaitility.Awaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for the SearchReindexResource REST controller.
+ *
+ * @see SearchReindexResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BenchApp.class)
+public class SearchReindexResourceIntTest {
+
+    @Inject
+    private SearchReindexer searchReindexer;
+
+    @Inject
+    private TitleRepository titleRepository;
+
+    @Inject
+    private TitleSearchRepository titleSearchRepository;
+
+    @Inject
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Inject
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    private MockMvc restSearchReindexMockMvc;
+
+    private final List<Title> titles = new ArrayList<>();
+
+    @PostConstruct
+    public void setup() {
+        SearchReindexResource searchReindexResource = new SearchReindexResource();
+        ReflectionTestUtils.setField(searchReindexResource, "searchReindexer", searchReindexer);
+        this.restSearchReindexMockMvc = MockMvcBuilders.standaloneSetup(searchReindexResource)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Before
+    public void initTest() {
+        // stored without going through the service, so the titles are not indexed
+        for (int i = 0; i < 3; i++) {
+            titles.add(titleRepository.saveAndFlush(new Title().upsaId("REINDEX" + i).name("Reindexed " + i)));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        titleSearchRepository.delete(titles);
+        titleRepository.delete(titles);
+    }
+
+    @Test
+    public void reindexRebuildsTheIndicesBehindAliases() throws Exception {
+        // moves the index created on startup behind an alias, if no other test did it yet
+        restSearchReindexMockMvc.perform(post("/management/reindex").param("migrate", "true"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.startedTime").exists());
+        awaitReindex();
+
+        ReindexStatusDTO status = searchReindexer.getStatus();
+        assertThat(status.getStatus()).isEqualTo(ReindexStatusDTO.Status.COMPLETED);
+        assertThat(status.getEtaSeconds()).isZero();
+        ReindexStatusDTO.IndexStatusDTO titleStatus = status.getIndices().stream()
+            .filter(index -> "title".equals(index.getAlias()))
+            .findFirst().get();
+        assertThat(titleStatus.getIndexed()).isEqualTo(titleStatus.getTotal()).isGreaterThanOrEqualTo(titles.size());
+
+        Client client = elasticsearchTemplate.getClient();
+        assertThat(client.admin().indices().prepareGetAliases("title").get().getAliases().keys().toArray(String.class))
+            .containsExactly(titleStatus.getIndex());
+        for (Title title : titles) {
+            assertThat(titleSearchRepository.findOne(title.getId()).getName()).isEqualTo(title.getName());
+        }
+
+        // a second reindex, which does not need to migrate, moves the alias again and drops the previous index
+        searchReindexer.reindex();
+        awaitReindex();
+        String index = searchReindexer.getStatus().getIndices().stream()
+            .filter(it -> "title".equals(it.getAlias()))
+            .findFirst().get().getIndex();
+        assertThat(client.admin().indices().prepareExists(titleStatus.getIndex()).get().isExists()).isFalse();
+        assertThat(client.admin().indices().prepareGetAliases("title").get().getAliases().keys().toArray(String.class))
+            .containsExactly(index);
+        assertThat(titleSearchRepository.findOne(titles.get(0).getId())).isNotNull();
+    }
+
+    @Test
+    public void getStatus() throws Exception {
+        restSearchReindexMockMvc.perform(get("/management/reindex"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").exists())
+            .andExpect(jsonPath("$.indices").isArray());
+    }
+
+    private void awaitReindex() {
+        await().atMost(1, TimeUnit.MINUTES)
+            .until(() -> searchReindexer.getStatus().getStatus() != ReindexStatusDTO.Status.RUNNING);
+    }
+}